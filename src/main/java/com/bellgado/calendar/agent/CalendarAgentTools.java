@@ -90,6 +90,22 @@ public class CalendarAgentTools {
         }
     }
 
+    @Tool(description = "Get a compact free/busy overview for a date range (Europe/Sofia days, both inclusive, max 366 days). " +
+            "Each day has an 'hours' string with one character per hour starting at 00:00: " +
+            "'-' no slot, 'F' FREE, 'B' BOOKED, 'C' CANCELLED, 'X' BLOCKED. " +
+            "Prefer this over listSlots when you only need to know which hours are open; it has no slot IDs.")
+    public String getAvailability(
+            @ToolParam(description = "First day in yyyy-MM-dd format") String from,
+            @ToolParam(description = "Last day in yyyy-MM-dd format (inclusive)") String to) {
+        try {
+            SlotAvailabilityResponse response = slotService.availability(LocalDate.parse(from), LocalDate.parse(to));
+            return objectMapper.writeValueAsString(response);
+        } catch (Exception e) {
+            log.warn("Tool call failed [{}]: {}", e.getClass().getSimpleName(), e.getMessage(), e);
+            return "Error: " + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
     @Tool(description = "List lesson slots for a specific student within a date range. " +
             "Useful to see a student's upcoming or past lessons.")
     public String listSlotsByStudent(
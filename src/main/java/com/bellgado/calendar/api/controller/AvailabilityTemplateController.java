@@ -0,0 +1,46 @@
+package com.bellgado.calendar.api.controller;
+
+import com.bellgado.calendar.api.dto.AvailabilityTemplateCreateRequest;
+import com.bellgado.calendar.api.dto.AvailabilityTemplateListResponse;
+import com.bellgado.calendar.api.dto.AvailabilityTemplateResponse;
+import com.bellgado.calendar.application.service.AvailabilityTemplateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/availability-templates")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+public class AvailabilityTemplateController {
+
+    private final AvailabilityTemplateService templateService;
+
+    @PostMapping
+    public ResponseEntity<AvailabilityTemplateResponse> createTemplate(
+            @Valid @RequestBody AvailabilityTemplateCreateRequest request) {
+        AvailabilityTemplateResponse response = templateService.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    public ResponseEntity<AvailabilityTemplateListResponse> listTemplates() {
+        return ResponseEntity.ok(new AvailabilityTemplateListResponse(templateService.list()));
+    }
+
+    @GetMapping("/{templateId}")
+    public ResponseEntity<AvailabilityTemplateResponse> getTemplate(@PathVariable UUID templateId) {
+        return ResponseEntity.ok(templateService.getById(templateId));
+    }
+
+    @DeleteMapping("/{templateId}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable UUID templateId) {
+        templateService.delete(templateId);
+        return ResponseEntity.noContent().build();
+    }
+}
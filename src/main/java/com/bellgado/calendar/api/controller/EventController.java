@@ -4,8 +4,10 @@ import com.bellgado.calendar.api.dto.SlotEventListResponse;
 import com.bellgado.calendar.api.dto.SlotEventPageResponse;
 import com.bellgado.calendar.api.dto.SlotEventResponse;
 import com.bellgado.calendar.api.util.PaginationUtils;
+import com.bellgado.calendar.application.service.SlotEventMetaFilter;
 import com.bellgado.calendar.application.service.SlotEventService;
 import com.bellgado.calendar.application.service.SlotService;
+import com.bellgado.calendar.domain.enums.CancelledBy;
 import com.bellgado.calendar.domain.enums.EventType;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -41,12 +43,17 @@ public class EventController {
             @RequestParam OffsetDateTime from,
             @RequestParam OffsetDateTime to,
             @RequestParam(required = false) List<EventType> type,
+            @RequestParam(required = false) UUID blockId,
+            @RequestParam(required = false) CancelledBy cancelledBy,
+            @RequestParam(required = false) String reason,
+            @RequestParam(required = false) UUID originSlotId,
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "20") @Min(1) @Max(200) int size,
             @RequestParam(defaultValue = "at,asc") String sort
     ) {
         Pageable pageable = PaginationUtils.createPageable(page, size, sort);
-        Page<SlotEventResponse> events = slotEventService.list(from, to, type, pageable);
+        SlotEventMetaFilter metaFilter = new SlotEventMetaFilter(blockId, cancelledBy, reason, originSlotId);
+        Page<SlotEventResponse> events = slotEventService.list(from, to, type, metaFilter, pageable);
         return ResponseEntity.ok(SlotEventPageResponse.from(events));
     }
 
@@ -1,15 +1,24 @@
 package com.bellgado.calendar.api.controller;
 
 import com.bellgado.calendar.api.dto.*;
+import com.bellgado.calendar.api.export.SlotExportFormat;
+import com.bellgado.calendar.api.export.SlotExportWriter;
+import com.bellgado.calendar.application.service.SlotGenerationJobService;
 import com.bellgado.calendar.application.service.SlotService;
 import com.bellgado.calendar.domain.enums.SlotStatus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -19,7 +28,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SlotController {
 
+    /**
+     * Slot reads carry strong ETags; clients may keep a private copy but must revalidate it every time
+     * with {@code If-None-Match}, which is answered with 304 before any slot is loaded.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final SlotService slotService;
+    private final SlotExportWriter slotExportWriter;
+    private final SlotGenerationJobService slotGenerationJobService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
@@ -33,17 +50,63 @@ public class SlotController {
     public ResponseEntity<SlotListResponse> listSlots(
             @RequestParam OffsetDateTime from,
             @RequestParam OffsetDateTime to,
-            @RequestParam(required = false) List<SlotStatus> status
+            @RequestParam(required = false) List<SlotStatus> status,
+            WebRequest webRequest
     ) {
+        String etag = slotService.listTag(from, to);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<SlotResponse> slots = slotService.list(from, to, status);
-        return ResponseEntity.ok(new SlotListResponse(slots));
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(new SlotListResponse(slots));
+    }
+
+    /**
+     * Streams every slot in {@code [from, to)} as NDJSON or CSV while it is read from the database,
+     * so that arbitrarily long ranges are exported with constant memory.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSlots(
+            @RequestParam OffsetDateTime from,
+            @RequestParam OffsetDateTime to,
+            @RequestParam(required = false) UUID studentId,
+            @RequestParam(required = false) List<SlotStatus> status,
+            @RequestParam(defaultValue = "NDJSON") SlotExportFormat format
+    ) {
+        slotService.checkExport(from, to, studentId);
+        StreamingResponseBody body = out -> slotExportWriter.write(format, out,
+                sink -> slotService.export(from, to, studentId, status, sink));
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("slots." + format.extension()).build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/availability")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotAvailabilityResponse> getAvailability(
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            WebRequest webRequest
+    ) {
+        String etag = slotService.availabilityTag(from, to);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(slotService.availability(from, to));
     }
 
     @GetMapping("/{slotId}")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN') or " +
                   "(hasRole('STUDENT') and @studentSecurityService.ownsSlot(authentication, #slotId))")
-    public ResponseEntity<SlotResponse> getSlot(@PathVariable UUID slotId) {
-        return ResponseEntity.ok(slotService.getById(slotId));
+    public ResponseEntity<SlotResponse> getSlot(@PathVariable UUID slotId, WebRequest webRequest) {
+        String etag = slotService.slotTag(slotId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).body(slotService.getById(slotId));
     }
 
     @DeleteMapping("/{slotId}")
@@ -60,6 +123,19 @@ public class SlotController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/generate/jobs")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotGenerationJobResponse> submitGenerationJob(@Valid @RequestBody SlotGenerateRequest request) {
+        SlotGenerationJobResponse response = slotGenerationJobService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/generate/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotGenerationJobResponse> getGenerationJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(slotGenerationJobService.getById(jobId));
+    }
+
     @PostMapping("/{slotId}/book")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     public ResponseEntity<SlotResponse> bookSlot(
@@ -69,6 +145,42 @@ public class SlotController {
         return ResponseEntity.ok(slotService.book(slotId, request));
     }
 
+    @PostMapping("/book-series")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotBookSeriesResponse> bookSeries(@Valid @RequestBody SlotBookSeriesRequest request) {
+        return ResponseEntity.ok(slotService.bookSeries(request));
+    }
+
+    @PostMapping("/bulk/cancel")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotBulkResponse> bulkCancel(@Valid @RequestBody SlotBulkRequest request) {
+        return ResponseEntity.ok(slotService.bulkCancel(request));
+    }
+
+    @PostMapping("/bulk/free")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotBulkResponse> bulkFree(@Valid @RequestBody SlotBulkRequest request) {
+        return ResponseEntity.ok(slotService.bulkFree(request));
+    }
+
+    @PostMapping("/bulk/block")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotBulkResponse> bulkBlock(@Valid @RequestBody SlotBulkRequest request) {
+        return ResponseEntity.ok(slotService.bulkBlock(request));
+    }
+
+    @PostMapping("/bulk/unblock")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotBulkResponse> bulkUnblock(@Valid @RequestBody SlotBulkRequest request) {
+        return ResponseEntity.ok(slotService.bulkUnblock(request));
+    }
+
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    public ResponseEntity<SlotBulkResponse> bulkDelete(@Valid @RequestBody SlotBulkRequest request) {
+        return ResponseEntity.ok(slotService.bulkDelete(request));
+    }
+
     @PostMapping("/{slotId}/cancel")
     @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
     public ResponseEntity<SlotResponse> cancelSlot(
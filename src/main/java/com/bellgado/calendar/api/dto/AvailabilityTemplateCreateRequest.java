@@ -0,0 +1,23 @@
+package com.bellgado.calendar.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+
+public record AvailabilityTemplateCreateRequest(
+        @NotNull
+        LocalDate from,
+
+        LocalDate to,
+
+        @NotBlank
+        String timezone,
+
+        @NotNull
+        @Size(min = 1)
+        @Valid
+        List<WeeklyRule> weeklyRules
+) {}
@@ -0,0 +1,7 @@
+package com.bellgado.calendar.api.dto;
+
+import java.util.List;
+
+public record AvailabilityTemplateListResponse(
+        List<AvailabilityTemplateResponse> content
+) {}
@@ -0,0 +1,29 @@
+package com.bellgado.calendar.api.dto;
+
+import com.bellgado.calendar.domain.entity.AvailabilityTemplate;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record AvailabilityTemplateResponse(
+        UUID id,
+        LocalDate from,
+        LocalDate to,
+        String timezone,
+        List<WeeklyRule> weeklyRules,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt
+) {
+    public static AvailabilityTemplateResponse from(AvailabilityTemplate template, List<WeeklyRule> weeklyRules) {
+        return new AvailabilityTemplateResponse(
+                template.getId(),
+                template.getFromDate(),
+                template.getToDate(),
+                template.getTimezone(),
+                weeklyRules,
+                template.getCreatedAt(),
+                template.getUpdatedAt()
+        );
+    }
+}
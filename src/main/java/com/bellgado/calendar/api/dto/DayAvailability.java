@@ -0,0 +1,26 @@
+package com.bellgado.calendar.api.dto;
+
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Free/busy summary of one Europe/Sofia day.
+ * {@code hours} has one character per local hour (index 0 = 00:00):
+ * {@code -} no slot, {@code F} FREE, {@code B} BOOKED, {@code C} CANCELLED, {@code X} BLOCKED.
+ */
+public record DayAvailability(
+        LocalDate date,
+        String hours
+) {
+    public static final char NO_SLOT = '-';
+
+    public static char code(SlotStatus status) {
+        return switch (status) {
+            case FREE -> 'F';
+            case BOOKED -> 'B';
+            case CANCELLED -> 'C';
+            case BLOCKED -> 'X';
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.bellgado.calendar.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SlotAvailabilityResponse(
+        LocalDate from,
+        LocalDate to,
+        String timezone,
+        List<DayAvailability> days
+) {}
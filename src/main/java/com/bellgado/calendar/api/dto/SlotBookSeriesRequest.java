@@ -0,0 +1,37 @@
+package com.bellgado.calendar.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Books one student into every FREE slot matching the weekly rules between {@code from} and
+ * {@code to} (both inclusive). Rules are expanded into hourly start times exactly like
+ * {@link SlotGenerateRequest}, so "MONDAY 10:00–11:00" selects the 10:00 slot of every Monday.
+ */
+public record SlotBookSeriesRequest(
+        @NotNull
+        UUID studentId,
+
+        @NotNull
+        LocalDate from,
+
+        @NotNull
+        LocalDate to,
+
+        @NotBlank
+        String timezone,
+
+        @NotNull
+        @Size(min = 1)
+        @Valid
+        List<WeeklyRule> weeklyRules,
+
+        @Size(max = 2000)
+        String notes
+) {}
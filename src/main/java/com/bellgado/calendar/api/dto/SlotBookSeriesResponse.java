@@ -0,0 +1,13 @@
+package com.bellgado.calendar.api.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a booking series: the booked slots and, per start time that was skipped, the reason.
+ */
+public record SlotBookSeriesResponse(
+        int bookedCount,
+        int conflictCount,
+        List<SlotResponse> booked,
+        List<SlotSeriesConflict> conflicts
+) {}
@@ -0,0 +1,30 @@
+package com.bellgado.calendar.api.dto;
+
+import com.bellgado.calendar.domain.enums.CancelledBy;
+import jakarta.validation.constraints.Size;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects the slots of a bulk operation, either by {@code slotIds} or by the range
+ * {@code [from, to)} — exactly one of the two. {@code cancelledBy} and {@code reason} apply to
+ * bulk cancel ({@code cancelledBy} is required there), {@code notes} to bulk free.
+ */
+public record SlotBulkRequest(
+        @Size(min = 1, max = 1000)
+        List<UUID> slotIds,
+
+        OffsetDateTime from,
+
+        OffsetDateTime to,
+
+        CancelledBy cancelledBy,
+
+        @Size(max = 500)
+        String reason,
+
+        @Size(max = 2000)
+        String notes
+) {}
@@ -0,0 +1,14 @@
+package com.bellgado.calendar.api.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk operation: the slots it changed (for delete, their state before deletion)
+ * and the selected slots it skipped, both ordered by start time.
+ */
+public record SlotBulkResponse(
+        int affectedCount,
+        int skippedCount,
+        List<SlotResponse> affected,
+        List<SlotBulkSkip> skipped
+) {}
@@ -0,0 +1,17 @@
+package com.bellgado.calendar.api.dto;
+
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A selected slot that a bulk operation left unchanged, and why.
+ * {@code startAt} and {@code currentStatus} are {@code null} for ids that matched no slot.
+ */
+public record SlotBulkSkip(
+        UUID slotId,
+        OffsetDateTime startAt,
+        SlotStatus currentStatus,
+        String reason
+) {}
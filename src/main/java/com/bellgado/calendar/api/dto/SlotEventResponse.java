@@ -11,6 +11,7 @@ import java.util.UUID;
 
 public record SlotEventResponse(
         UUID id,
+        Long seq,
         UUID slotId,
         EventType type,
         OffsetDateTime at,
@@ -31,6 +32,7 @@ public record SlotEventResponse(
         }
         return new SlotEventResponse(
                 event.getId(),
+                event.getSeq(),
                 event.getSlotId(),
                 event.getType(),
                 event.getAt(),
@@ -0,0 +1,35 @@
+package com.bellgado.calendar.api.dto;
+
+import com.bellgado.calendar.domain.entity.SlotGenerationJob;
+import com.bellgado.calendar.domain.enums.GenerationJobStatus;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record SlotGenerationJobResponse(
+        UUID id,
+        GenerationJobStatus status,
+        LocalDate from,
+        LocalDate to,
+        LocalDate nextDate,
+        int createdCount,
+        int skippedCount,
+        String error,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt
+) {
+    public static SlotGenerationJobResponse from(SlotGenerationJob job) {
+        return new SlotGenerationJobResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getFromDate(),
+                job.getToDate(),
+                job.getNextDate(),
+                job.getCreatedCount(),
+                job.getSkippedCount(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.bellgado.calendar.api.dto;
+
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A start time of a booking series that could not be booked.
+ * {@code slotId} and {@code currentStatus} are {@code null} when no slot exists at that time.
+ */
+public record SlotSeriesConflict(
+        OffsetDateTime startAt,
+        UUID slotId,
+        SlotStatus currentStatus,
+        Reason reason
+) {
+    public enum Reason {
+        /** No slot has been created at this time. */
+        NO_SLOT,
+        /** The slot has already started. */
+        IN_PAST,
+        /** The slot is BOOKED, CANCELLED or BLOCKED. */
+        NOT_FREE,
+        /** The slot was FREE but a concurrent request booked it first. */
+        TAKEN_CONCURRENTLY
+    }
+}
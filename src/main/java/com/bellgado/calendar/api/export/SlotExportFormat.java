@@ -0,0 +1,29 @@
+package com.bellgado.calendar.api.export;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+public enum SlotExportFormat {
+
+    /** One JSON {@code SlotResponse} per line. */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    /** RFC 4180 CSV with a header row; the student is flattened into id and name columns. */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    SlotExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,137 @@
+package com.bellgado.calendar.api.export;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Writes slots to an output stream one row at a time, so an export never holds more than one
+ * {@link SlotResponse} plus a write buffer. Output is flushed every {@value #FLUSH_EVERY_ROWS} rows
+ * so that clients start receiving data while the rest is still being read.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotExportWriter {
+
+    static final int FLUSH_EVERY_ROWS = 500;
+
+    private static final String CSV_HEADER =
+            "id,startAt,endAt,status,studentId,studentName,notes,version,createdAt,updatedAt\r\n";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every slot that {@code source} hands to its sink, in that order.
+     *
+     * @param source called once with the sink; typically streams rows from the database into it
+     */
+    public void write(SlotExportFormat format, OutputStream out, Consumer<Consumer<SlotResponse>> source)
+            throws IOException {
+        try {
+            switch (format) {
+                case NDJSON -> writeNdjson(out, source);
+                case CSV -> writeCsv(out, source);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeNdjson(OutputStream out, Consumer<Consumer<SlotResponse>> source) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(SlotResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are terminated explicitly below instead of separating root values with a space
+            generator.setRootValueSeparator(null);
+            int[] rows = {0};
+            source.accept(slot -> {
+                try {
+                    writer.writeValue(generator, slot);
+                    generator.writeRaw('\n');
+                    if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(OutputStream out, Consumer<Consumer<SlotResponse>> source) throws IOException {
+        // Same zone as the JSON API, so both formats show identical timestamps
+        ZoneId zone = objectMapper.getSerializationConfig().getTimeZone().toZoneId();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        int[] rows = {0};
+        source.accept(slot -> {
+            try {
+                writer.write(slot.id().toString());
+                writer.write(',');
+                writer.write(timestamp(slot.startAt(), zone));
+                writer.write(',');
+                writer.write(timestamp(slot.endAt(), zone));
+                writer.write(',');
+                writer.write(slot.status().name());
+                writer.write(',');
+                if (slot.student() != null) {
+                    writer.write(slot.student().id().toString());
+                    writer.write(',');
+                    writeCsvText(writer, slot.student().fullName());
+                } else {
+                    writer.write(',');
+                }
+                writer.write(',');
+                writeCsvText(writer, slot.notes());
+                writer.write(',');
+                writer.write(Integer.toString(slot.version()));
+                writer.write(',');
+                writer.write(timestamp(slot.createdAt(), zone));
+                writer.write(',');
+                writer.write(timestamp(slot.updatedAt(), zone));
+                writer.write("\r\n");
+                if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static String timestamp(OffsetDateTime time, ZoneId zone) {
+        return time == null ? "" : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time.atZoneSameInstant(zone));
+    }
+
+    /** Quotes the value when it contains a separator, quote or line break, doubling embedded quotes. */
+    private static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
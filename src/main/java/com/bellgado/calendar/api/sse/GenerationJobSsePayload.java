@@ -0,0 +1,11 @@
+package com.bellgado.calendar.api.sse;
+
+import com.bellgado.calendar.api.dto.SlotGenerationJobResponse;
+
+import java.time.OffsetDateTime;
+
+public record GenerationJobSsePayload(
+        SseEventType eventType,
+        OffsetDateTime timestamp,
+        SlotGenerationJobResponse job
+) {}
@@ -0,0 +1,14 @@
+package com.bellgado.calendar.api.sse;
+
+import java.time.OffsetDateTime;
+
+/**
+ * @param snapshotSeq the slot event sequence number the client resumes from, also sent as the frame's id.
+ *                    A snapshot read after receiving the frame reflects every event up to it; newer events
+ *                    still arrive on the stream. {@code null} when the client fell behind on a live stream.
+ */
+public record ResyncSsePayload(
+        SseEventType eventType,
+        OffsetDateTime timestamp,
+        Long snapshotSeq
+) {}
@@ -0,0 +1,16 @@
+package com.bellgado.calendar.api.sse;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Wire payload of a {@link SseEventType#SLOT_BATCH} event. Carries only the affected
+ * time range so that clients can reload the overlapping part of their calendar.
+ */
+public record SlotBatchSsePayload(
+        SseEventType eventType,
+        SseEventType changeType,
+        OffsetDateTime timestamp,
+        int count,
+        OffsetDateTime from,
+        OffsetDateTime to
+) {}
@@ -0,0 +1,21 @@
+package com.bellgado.calendar.api.sse;
+
+import com.bellgado.calendar.domain.enums.UserRole;
+
+import java.util.UUID;
+
+/**
+ * Outbound state of one connected SSE client.
+ *
+ * @param queued    frames waiting in the client's queue
+ * @param lagMillis how long the oldest queued frame has been waiting; 0 when the queue is empty
+ * @param dropped   frames the client never received because its queue overflowed
+ */
+public record SseClientStats(
+        UUID clientId,
+        UUID userId,
+        UserRole role,
+        int queued,
+        long lagMillis,
+        long dropped
+) {}
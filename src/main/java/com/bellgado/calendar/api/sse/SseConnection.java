@@ -0,0 +1,194 @@
+package com.bellgado.calendar.api.sse;
+
+import com.bellgado.calendar.api.sse.SseEmitterRegistry.EmitterMeta;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * One connected SSE client: its emitter and a bounded queue of outbound frames.
+ * <p>
+ * Offering a frame never blocks. Whenever the queue becomes non-empty a writer task is started on the
+ * writer executor and drains it, so a client on a slow network only holds up its own writer. A full
+ * queue is handled according to the {@link SseOverflowPolicy}.
+ * <p>
+ * The emitter is never completed on the offering thread either: {@code complete()} waits for the emitter's
+ * lock, which a writer blocked in {@code send()} holds. A disconnected client is only marked closed there;
+ * its emitter is completed by the writer once the pending send returns, or on the writer executor.
+ */
+@Slf4j
+final class SseConnection {
+
+    private record Outbound(Set<DataWithMediaType> frame, long enqueuedAtNanos) {}
+
+    @Getter
+    private final UUID clientId;
+    @Getter
+    private final SseEmitter emitter;
+    @Getter
+    private final EmitterMeta meta;
+    private final int capacity;
+    private final SseOverflowPolicy overflowPolicy;
+    private final Supplier<Set<DataWithMediaType>> resyncFrame;
+    private final Executor writerExecutor;
+    private final Runnable onClose;
+
+    private final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+    private boolean writing;
+    private boolean closed;
+    private boolean completeAfterWrite;
+    private long dropped;
+
+    SseConnection(UUID clientId, SseEmitter emitter, EmitterMeta meta, int capacity,
+                  SseOverflowPolicy overflowPolicy, Supplier<Set<DataWithMediaType>> resyncFrame,
+                  Executor writerExecutor, Runnable onClose) {
+        this.clientId = clientId;
+        this.emitter = emitter;
+        this.meta = meta;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.resyncFrame = resyncFrame;
+        this.writerExecutor = writerExecutor;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Queues a frame for this client.
+     *
+     * @return {@code false} when the queue was full and the overflow policy was applied
+     */
+    boolean offer(Set<DataWithMediaType> frame) {
+        boolean disconnect = false;
+        boolean completeNow = false;
+        boolean overflowed;
+        boolean startWriter;
+        synchronized (this) {
+            if (closed) {
+                return true;
+            }
+            overflowed = queue.size() >= capacity;
+            if (overflowed) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST -> {
+                        queue.pollFirst();
+                        dropped++;
+                        queue.addLast(new Outbound(frame, System.nanoTime()));
+                    }
+                    case RESYNC -> {
+                        // The resync covers the new frame as well
+                        dropped += queue.size() + 1;
+                        queue.clear();
+                        queue.addLast(new Outbound(resyncFrame.get(), System.nanoTime()));
+                    }
+                    case DISCONNECT -> {
+                        disconnect = true;
+                        closed = true;
+                        queue.clear();
+                        // A running writer completes the emitter once its current send returns
+                        completeAfterWrite = writing;
+                        completeNow = !writing;
+                    }
+                }
+            } else {
+                queue.addLast(new Outbound(frame, System.nanoTime()));
+            }
+            startWriter = !disconnect && !writing;
+            writing |= startWriter;
+        }
+
+        if (disconnect) {
+            onClose.run();
+            if (completeNow) {
+                writerExecutor.execute(emitter::complete);
+            }
+        } else if (startWriter) {
+            writerExecutor.execute(this::drain);
+        }
+        return !overflowed;
+    }
+
+    /**
+     * Queues a heartbeat unless frames are already waiting; writing those keeps the connection alive too.
+     */
+    void offerHeartbeat() {
+        synchronized (this) {
+            if (!queue.isEmpty()) {
+                return;
+            }
+        }
+        offer(SseFrame.HEARTBEAT);
+    }
+
+    private void drain() {
+        while (true) {
+            Outbound next = null;
+            boolean complete = false;
+            synchronized (this) {
+                if (closed) {
+                    complete = completeAfterWrite;
+                    completeAfterWrite = false;
+                } else {
+                    next = queue.pollFirst();
+                }
+                if (next == null) {
+                    writing = false;
+                }
+            }
+            if (next == null) {
+                if (complete) {
+                    emitter.complete();
+                }
+                return;
+            }
+            try {
+                emitter.send(next.frame());
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Removing disconnected SSE client [{}]: {}", clientId, e.getMessage());
+                close();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Discards queued frames and unregisters the connection. Does not complete the emitter.
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+        }
+        onClose.run();
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    /** Frames this client never received because its queue overflowed. */
+    synchronized long dropped() {
+        return dropped;
+    }
+
+    /** How long the oldest queued frame has been waiting, in milliseconds; 0 when the queue is empty. */
+    synchronized long lagMillis() {
+        Outbound oldest = queue.peekFirst();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAtNanos()) / 1_000_000;
+    }
+
+    /** Queue length, lag and dropped frames, read together. */
+    synchronized SseClientStats stats() {
+        return new SseClientStats(clientId, meta.userId(), meta.role(), queue.size(), lagMillis(), dropped);
+    }
+}
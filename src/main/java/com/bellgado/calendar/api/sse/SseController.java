@@ -9,12 +9,14 @@ import com.bellgado.calendar.domain.entity.SlotEvent;
 import com.bellgado.calendar.domain.enums.EventType;
 import com.bellgado.calendar.domain.enums.UserRole;
 import com.bellgado.calendar.infrastructure.security.JwtTokenProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -25,9 +27,14 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/stream")
@@ -35,7 +42,7 @@ import java.util.UUID;
 @Slf4j
 public class SseController {
 
-    /** Maximum number of missed events replayed on reconnect. */
+    /** Maximum number of missed events replayed on reconnect; longer gaps are answered with a RESYNC. */
     private static final int REPLAY_LIMIT = 200;
 
     /** Event types that have no SSE wire representation — skipped during replay. */
@@ -45,6 +52,7 @@ public class SseController {
     private long emitterTimeoutMillis;
 
     private final SseEmitterRegistry registry;
+    private final SseReplayBuffer replayBuffer;
     private final SlotEventService slotEventService;
     private final SlotService slotService;
     private final ObjectMapper objectMapper;
@@ -67,13 +75,22 @@ public class SseController {
 
         // Replay missed events if client reconnects with Last-Event-ID
         if (lastEventId != null && !lastEventId.isBlank()) {
-            replayMissedEvents(emitter, lastEventId, meta);
+            replayMissedEvents(clientId, lastEventId, meta);
         }
 
         log.debug("SSE stream opened for client {} role={}", clientId, meta.role());
         return emitter;
     }
 
+    /**
+     * Queue, lag and dropped frames of every connected client, the most lagging first.
+     */
+    @GetMapping("/clients")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<SseClientStats> clients() {
+        return registry.clientStats();
+    }
+
     private EmitterMeta resolveIdentity(String token) {
         if (token == null || token.isBlank()) {
             return null;
@@ -92,56 +109,134 @@ public class SseController {
         }
     }
 
-    private void replayMissedEvents(SseEmitter emitter, String lastEventId, EmitterMeta meta) {
-        OffsetDateTime since;
-        try {
-            since = OffsetDateTime.parse(lastEventId);
-        } catch (DateTimeParseException e) {
-            log.warn("Invalid Last-Event-ID '{}', skipping replay: {}", lastEventId, e.getMessage());
+    /**
+     * Queues the missed events as one frame, written with a single flush. Recent gaps are served from the
+     * {@link SseReplayBuffer} exactly as they were broadcast. Older ones are read from the database: every
+     * replayed frame carries the slot's current state, so only the newest relevant event per slot is sent;
+     * the slots are loaded in a single query. Gaps of more than {@value #REPLAY_LIMIT} events are not
+     * replayed at all; see {@link #requestResync}.
+     * <p>
+     * Sequence numbers follow insert order, not commit order, so both sources also return events numbered
+     * below the client's last id that may have committed after it. Some of those the client already has;
+     * it may receive them twice, but never misses one.
+     */
+    private void replayMissedEvents(UUID clientId, String lastEventId, EmitterMeta meta) {
+        Optional<List<byte[]>> buffered = bufferedFramesAfter(lastEventId, meta);
+        if (buffered.isPresent() && buffered.get().size() > REPLAY_LIMIT) {
+            requestResync(clientId, lastEventId);
+            return;
+        }
+        if (buffered.isPresent()) {
+            log.debug("Replaying {} buffered frames after {}", buffered.get().size(), lastEventId);
+            if (!buffered.get().isEmpty()) {
+                registry.sendTo(clientId, SseFrame.concat(buffered.get()));
+            }
             return;
         }
 
-        List<SlotEvent> missed = slotEventService.findAfter(since, REPLAY_LIMIT);
-        log.debug("Replaying {} missed slot events since {}", missed.size(), since);
+        List<SlotEvent> missed = findMissedEvents(lastEventId);
+        if (missed == null) {
+            return;
+        }
+        if (missed.size() > REPLAY_LIMIT) {
+            requestResync(clientId, lastEventId);
+            return;
+        }
 
+        List<SlotEvent> relevant = new ArrayList<>();
         for (SlotEvent event : missed) {
-            if (SKIP_REPLAY.contains(event.getType())) {
-                continue;
-            }
-
-            SseEventType sseType = mapToSseType(event.getType());
-            if (sseType == null) {
+            if (SKIP_REPLAY.contains(event.getType()) || mapToSseType(event.getType()) == null) {
                 continue;
             }
-
             // For STUDENT role, skip events that don't involve them
             if (meta.isStudent() && !isRelevantForStudent(event, meta.studentId())) {
                 continue;
             }
+            relevant.add(event);
+        }
+        List<SlotEvent> latest = latestPerSlot(relevant);
+        log.debug("Replaying {} missed slot events after {} as {} frames", missed.size(), lastEventId, latest.size());
+        if (latest.isEmpty()) {
+            return;
+        }
 
-            try {
-                SlotResponse slotResponse = null;
-                try {
-                    slotResponse = slotService.getById(event.getSlotId());
-                } catch (Exception ex) {
-                    log.debug("Slot {} not found during replay, sending null slot", event.getSlotId());
-                }
+        Map<UUID, SlotResponse> slots = slotService.getByIds(
+                latest.stream().map(SlotEvent::getSlotId).collect(Collectors.toSet()));
 
+        List<byte[]> frames = new ArrayList<>(latest.size());
+        try {
+            for (SlotEvent event : latest) {
+                SseEventType sseType = mapToSseType(event.getType());
+                // A slot deleted since the event is sent with a null slot
                 SlotSsePayload payload = new SlotSsePayload(
                         sseType,
                         event.getAt(),
                         SlotEventResponse.from(event),
-                        slotResponse
+                        slots.get(event.getSlotId())
                 );
-
-                emitter.send(SseEmitter.event()
-                        .id(event.getAt().toString())
-                        .name(sseType.name())
-                        .data(objectMapper.writeValueAsString(payload)));
-            } catch (Exception ex) {
-                log.warn("Failed to replay event {} to client: {}", event.getId(), ex.getMessage());
-                return;
+                frames.add(SseFrame.encode(sseType.name(), String.valueOf(event.getSeq()),
+                        objectMapper.writeValueAsString(payload)));
             }
+            registry.sendTo(clientId, SseFrame.concat(frames));
+        } catch (JsonProcessingException ex) {
+            log.warn("Failed to replay missed events to client: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Sends a RESYNC frame instead of a gap too long to replay. The client re-reads only the range it shows,
+     * through the same range endpoints it uses when navigating, and resumes from the newest sequence number,
+     * which is read here before that read. The snapshot is not sent inline because the server does not know
+     * the client's range. Events committed since are already delivered live, because the client is
+     * registered before replaying.
+     */
+    private void requestResync(UUID clientId, String lastEventId) {
+        long snapshotSeq = slotEventService.latestSeq();
+        log.debug("More than {} events missed after {}, resyncing client {} at {}",
+                REPLAY_LIMIT, lastEventId, clientId, snapshotSeq);
+        registry.sendTo(clientId, registry.resyncFrame(snapshotSeq));
+    }
+
+    /**
+     * The newest event of every slot, in sequence order. {@code events} must be in sequence order.
+     */
+    static List<SlotEvent> latestPerSlot(List<SlotEvent> events) {
+        Map<UUID, SlotEvent> latest = new LinkedHashMap<>();
+        for (SlotEvent event : events) {
+            // Re-inserting moves the slot behind every event it has been superseded by
+            latest.remove(event.getSlotId());
+            latest.put(event.getSlotId(), event);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private Optional<List<byte[]>> bufferedFramesAfter(String lastEventId, EmitterMeta meta) {
+        try {
+            return replayBuffer.framesAfter(Long.parseLong(lastEventId), meta);
+        } catch (NumberFormatException ignored) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Events the client may have missed after the given Last-Event-ID, which is a slot event sequence number
+     * (see {@link SlotEventService#findAfterSeq}). Clients that connected
+     * before sequence numbers were introduced still send a timestamp, which is replayed by time once;
+     * every event they receive from then on carries a sequence number. One event more than
+     * {@value #REPLAY_LIMIT} is read to tell whether the gap fits the limit. Returns {@code null} for an
+     * unparseable id.
+     */
+    private List<SlotEvent> findMissedEvents(String lastEventId) {
+        try {
+            return slotEventService.findAfterSeq(Long.parseLong(lastEventId), REPLAY_LIMIT + 1);
+        } catch (NumberFormatException ignored) {
+            // Fall through to the legacy timestamp id
+        }
+        try {
+            return slotEventService.findAfter(OffsetDateTime.parse(lastEventId), REPLAY_LIMIT + 1);
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid Last-Event-ID '{}', skipping replay: {}", lastEventId, e.getMessage());
+            return null;
         }
     }
 
@@ -162,6 +257,7 @@ public class SseController {
             case RESCHEDULED -> SseEventType.SLOT_RESCHEDULED;
             case BLOCKED -> SseEventType.SLOT_BLOCKED;
             case UNBLOCKED -> SseEventType.SLOT_UNBLOCKED;
+            case DELETED -> SseEventType.SLOT_DELETED;
             default -> null;
         };
     }
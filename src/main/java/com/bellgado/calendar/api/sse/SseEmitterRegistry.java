@@ -1,26 +1,74 @@
 package com.bellgado.calendar.api.sse;
 
 import com.bellgado.calendar.domain.enums.UserRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Connected SSE clients and fan-out of events to them.
+ * <p>
+ * Broadcasting only queues the encoded frame on every matching {@link SseConnection}; each connection
+ * writes its own queue, so the caller never waits for a client's network. Queues hold at most
+ * {@code sse.outbound.queue-capacity} frames, beyond which {@code sse.outbound.overflow-policy} applies.
+ * <p>
+ * Besides the map of all connections, staff (TEACHER/ADMIN) connections and STUDENT connections keyed by
+ * student id are indexed, so an event for some students only visits staff and those students' connections.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class SseEmitterRegistry {
 
+    private static final ZoneId APP_ZONE = ZoneId.of("Europe/Sofia");
+
     private final ObjectMapper objectMapper;
+    private final SseReplayBuffer replayBuffer;
+    private final int queueCapacity;
+    private final SseOverflowPolicy overflowPolicy;
+    private final Executor writerExecutor;
+    private final Counter overflows;
+
+    public SseEmitterRegistry(ObjectMapper objectMapper,
+                              SseReplayBuffer replayBuffer,
+                              MeterRegistry meterRegistry,
+                              @Value("${sse.outbound.queue-capacity:256}") int queueCapacity,
+                              @Value("${sse.outbound.overflow-policy:DISCONNECT}") SseOverflowPolicy overflowPolicy,
+                              @Qualifier("sseWriterExecutor") Executor writerExecutor) {
+        this.objectMapper = objectMapper;
+        this.replayBuffer = replayBuffer;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.writerExecutor = writerExecutor;
+        this.overflows = Counter.builder("sse.outbound.overflow").tag("policy", overflowPolicy.name())
+                .description("Frames offered to a full SSE client queue").register(meterRegistry);
+        Gauge.builder("sse.connections", this, SseEmitterRegistry::activeConnections)
+                .description("Connected SSE clients").register(meterRegistry);
+        Gauge.builder("sse.outbound.queued", this, SseEmitterRegistry::queuedFrames)
+                .description("Frames waiting in SSE client queues").register(meterRegistry);
+        TimeGauge.builder("sse.outbound.lag.max", this, TimeUnit.MILLISECONDS, SseEmitterRegistry::maxLagMillis)
+                .description("Age of the oldest frame waiting in any SSE client queue").register(meterRegistry);
+    }
 
     /**
      * Carries the identity of the connected client so we can filter events per role.
@@ -41,32 +89,59 @@ public class SseEmitterRegistry {
         }
     }
 
-    private record EmitterEntry(SseEmitter emitter, EmitterMeta meta) {}
-
-    private final ConcurrentHashMap<UUID, EmitterEntry> emitters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, SseConnection> connections = new ConcurrentHashMap<>();
+    private final Set<SseConnection> staffConnections = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<UUID, Set<SseConnection>> connectionsByStudent = new ConcurrentHashMap<>();
 
     public SseEmitter register(UUID clientId, long timeoutMillis, EmitterMeta meta) {
         SseEmitter emitter = new SseEmitter(timeoutMillis);
-        emitters.put(clientId, new EmitterEntry(emitter, meta));
+        SseConnection connection = new SseConnection(clientId, emitter, meta, queueCapacity, overflowPolicy,
+                this::resyncFrame, writerExecutor, () -> unregister(clientId));
+        connections.put(clientId, connection);
+        if (!meta.isStudent()) {
+            staffConnections.add(connection);
+        } else if (meta.studentId() != null) {
+            // Added inside compute() so that it cannot race with unregister() dropping the emptied set
+            connectionsByStudent.compute(meta.studentId(), (id, set) -> {
+                Set<SseConnection> connectionsOfStudent = set != null ? set : ConcurrentHashMap.newKeySet();
+                connectionsOfStudent.add(connection);
+                return connectionsOfStudent;
+            });
+        }
 
         emitter.onCompletion(() -> {
-            emitters.remove(clientId);
+            connection.close();
             log.debug("SSE client disconnected: {}", clientId);
         });
         emitter.onTimeout(() -> {
-            emitters.remove(clientId);
+            connection.close();
             log.debug("SSE client timed out: {}", clientId);
         });
         emitter.onError(ex -> {
-            emitters.remove(clientId);
+            connection.close();
             log.debug("SSE client error [{}]: {}", clientId, ex.getMessage());
         });
 
         log.debug("SSE client registered: {} role={} (total: {})",
-                clientId, meta.role(), emitters.size());
+                clientId, meta.role(), connections.size());
         return emitter;
     }
 
+    private void unregister(UUID clientId) {
+        SseConnection connection = connections.remove(clientId);
+        if (connection == null) {
+            return;
+        }
+        staffConnections.remove(connection);
+        UUID studentId = connection.getMeta().studentId();
+        if (studentId != null) {
+            connectionsByStudent.computeIfPresent(studentId, (id, set) -> {
+                set.remove(connection);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
     /**
      * Broadcasts an SSE event.
      *
@@ -75,78 +150,137 @@ public class SseEmitterRegistry {
      *                            STUDENT emitters only receive it if their studentId
      *                            is contained in this set.
      *                            Pass {@code null} to broadcast to everyone.
+     * @param eventId             The slot event sequence number the event resumes from, or {@code null}
+     *                            for events that cannot be replayed. Events whose id is a sequence number
+     *                            are kept in the {@link SseReplayBuffer}, even when no client is connected.
      */
     public void broadcast(SseEventType eventType, String eventId, Object payload,
                           Set<UUID> relevantStudentIds) {
-        if (emitters.isEmpty()) {
+        Long seq = replaySeq(eventId);
+        if (connections.isEmpty() && seq == null) {
             return;
         }
 
-        String data;
+        // Encoded once; every matching connection queues the same frame
+        byte[] encoded;
         try {
-            data = objectMapper.writeValueAsString(payload);
+            encoded = SseFrame.encode(eventType.name(), eventId, objectMapper.writeValueAsString(payload));
         } catch (IOException e) {
             log.error("Failed to serialize SSE payload for event {}: {}", eventType, e.getMessage());
             return;
         }
+        Set<DataWithMediaType> frame = SseFrame.of(encoded);
+        if (seq == null) {
+            offerAll(frame, relevantStudentIds);
+            return;
+        }
+        // Concurrent broadcasts may reach a client's queue in either order; the replay buffer learns which
+        // frames were still being offered and replays those too
+        long position = replayBuffer.append(seq, encoded, relevantStudentIds);
+        try {
+            offerAll(frame, relevantStudentIds);
+        } finally {
+            replayBuffer.offered(position);
+        }
+    }
 
-        List<Map.Entry<UUID, EmitterEntry>> snapshot = List.copyOf(emitters.entrySet());
-
-        for (Map.Entry<UUID, EmitterEntry> entry : snapshot) {
-            EmitterEntry ee = entry.getValue();
-            if (shouldSend(ee.meta(), relevantStudentIds)) {
-                sendToEmitter(entry.getKey(), ee.emitter(), eventType, eventId, data);
+    private void offerAll(Set<DataWithMediaType> frame, Set<UUID> relevantStudentIds) {
+        if (relevantStudentIds == null) {
+            for (SseConnection connection : connections.values()) {
+                offer(connection, frame);
+            }
+            return;
+        }
+        for (SseConnection connection : staffConnections) {
+            offer(connection, frame);
+        }
+        for (UUID studentId : relevantStudentIds) {
+            Set<SseConnection> studentConnections = connectionsByStudent.get(studentId);
+            if (studentConnections != null) {
+                for (SseConnection connection : studentConnections) {
+                    offer(connection, frame);
+                }
             }
         }
     }
 
-    private boolean shouldSend(EmitterMeta meta, Set<UUID> relevantStudentIds) {
-        if (!meta.isStudent()) {
-            return true; // TEACHER/ADMIN always receive
+    private static Long replaySeq(String eventId) {
+        if (eventId == null) {
+            return null;
         }
-        if (relevantStudentIds == null) {
-            return true; // null = broadcast to all
+        try {
+            return Long.parseLong(eventId);
+        } catch (NumberFormatException e) {
+            return null;
         }
-        return meta.studentId() != null && relevantStudentIds.contains(meta.studentId());
     }
 
-    private void sendToEmitter(UUID clientId, SseEmitter emitter,
-                               SseEventType eventType, String eventId, String data) {
+    /**
+     * Queues a frame for one client, behind anything already queued for it.
+     */
+    void sendTo(UUID clientId, Set<DataWithMediaType> frame) {
+        SseConnection connection = connections.get(clientId);
+        if (connection != null) {
+            offer(connection, frame);
+        }
+    }
+
+    private void offer(SseConnection connection, Set<DataWithMediaType> frame) {
+        if (!connection.offer(frame)) {
+            overflows.increment();
+            log.debug("SSE client [{}] fell behind (lag {} ms, {} frames dropped so far), applied {}",
+                    connection.getClientId(), connection.lagMillis(), connection.dropped(), overflowPolicy);
+        }
+    }
+
+    private Set<DataWithMediaType> resyncFrame() {
+        return resyncFrame(null);
+    }
+
+    /**
+     * A RESYNC frame resuming from {@code snapshotSeq}, or without an id when {@code null}.
+     */
+    Set<DataWithMediaType> resyncFrame(Long snapshotSeq) {
         try {
-            SseEmitter.SseEventBuilder event = SseEmitter.event()
-                    .name(eventType.name())
-                    .data(data);
-            if (eventId != null) {
-                event.id(eventId);
-            }
-            synchronized (emitter) {
-                emitter.send(event);
-            }
-        } catch (IOException | IllegalStateException e) {
-            log.debug("Removing disconnected SSE client [{}]: {}", clientId, e.getMessage());
-            emitters.remove(clientId);
+            return SseFrame.event(SseEventType.RESYNC.name(), snapshotSeq != null ? snapshotSeq.toString() : null,
+                    objectMapper.writeValueAsString(
+                            new ResyncSsePayload(SseEventType.RESYNC, OffsetDateTime.now(APP_ZONE), snapshotSeq)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize RESYNC payload", e);
         }
     }
 
     @Scheduled(fixedDelayString = "${sse.heartbeat.interval-millis:25000}")
     public void sendHeartbeat() {
-        if (emitters.isEmpty()) {
+        if (connections.isEmpty()) {
             return;
         }
-        List<Map.Entry<UUID, EmitterEntry>> snapshot = List.copyOf(emitters.entrySet());
-        for (Map.Entry<UUID, EmitterEntry> entry : snapshot) {
-            try {
-                synchronized (entry.getValue().emitter()) {
-                    entry.getValue().emitter().send(SseEmitter.event().comment("heartbeat"));
-                }
-            } catch (IOException | IllegalStateException e) {
-                emitters.remove(entry.getKey());
-            }
+        for (SseConnection connection : connections.values()) {
+            connection.offerHeartbeat();
         }
-        log.trace("SSE heartbeat sent to {} client(s)", snapshot.size());
+        log.trace("SSE heartbeat queued for {} client(s)", connections.size());
     }
 
     public int activeConnections() {
-        return emitters.size();
+        return connections.size();
+    }
+
+    /**
+     * Per-client counterpart of the {@code sse.outbound.*} meters, which only report totals: the queue,
+     * lag and dropped frames of every connected client, the most lagging first.
+     */
+    public List<SseClientStats> clientStats() {
+        return connections.values().stream()
+                .map(SseConnection::stats)
+                .sorted(Comparator.comparingLong(SseClientStats::lagMillis).reversed())
+                .toList();
+    }
+
+    private long queuedFrames() {
+        return connections.values().stream().mapToLong(SseConnection::queued).sum();
+    }
+
+    private long maxLagMillis() {
+        return connections.values().stream().mapToLong(SseConnection::lagMillis).max().orElse(0);
     }
 }
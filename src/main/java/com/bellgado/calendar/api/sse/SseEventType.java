@@ -3,6 +3,9 @@ package com.bellgado.calendar.api.sse;
 /**
  * SSE wire-format event names.
  * NOTES_UPDATED is intentionally absent — it is an internal-only event type.
+ * SLOT_BATCH replaces the per-slot events of a set-based operation with a single frame.
+ * RESYNC replaces frames a client fell too far behind on, or a replay gap too long to send; it should
+ * reload everything it shows.
  */
 public enum SseEventType {
     SLOT_CREATED,
@@ -14,8 +17,12 @@ public enum SseEventType {
     SLOT_RESCHEDULED,
     SLOT_BLOCKED,
     SLOT_UNBLOCKED,
+    SLOT_DELETED,
+    SLOT_BATCH,
     STUDENT_CREATED,
     STUDENT_UPDATED,
     STUDENT_DEACTIVATED,
+    GENERATION_JOB_PROGRESS,
+    RESYNC,
     HEARTBEAT
 }
@@ -0,0 +1,63 @@
+package com.bellgado.calendar.api.sse;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Complete SSE frames, encoded once and written as-is to any number of emitters.
+ * <p>
+ * A frame is a single {@code byte[]} item that {@link ResponseBodyEmitter#send(Set)} passes straight to
+ * the byte array message converter. Unlike {@link SseEmitter.SseEventBuilder}, nothing is encoded or
+ * allocated per emitter. Encoded bytes are never modified, so a frame can be shared safely.
+ */
+final class SseFrame {
+
+    /** Keeps idle connections open through proxies; clients ignore comment lines. */
+    static final Set<DataWithMediaType> HEARTBEAT = of(":heartbeat\n\n".getBytes(StandardCharsets.UTF_8));
+
+    private SseFrame() {}
+
+    /**
+     * The frame of one event. Line breaks in {@code data} are sent as separate {@code data:} lines,
+     * which clients join back together.
+     *
+     * @param id the event id, omitted when {@code null}
+     */
+    static Set<DataWithMediaType> event(String name, String id, String data) {
+        return of(encode(name, id, data));
+    }
+
+    /**
+     * Several events as one frame, written with a single flush.
+     */
+    static Set<DataWithMediaType> concat(Iterable<byte[]> encodedEvents) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        for (byte[] event : encodedEvents) {
+            frame.writeBytes(event);
+        }
+        return of(frame.toByteArray());
+    }
+
+    static byte[] encode(String name, String id, String data) {
+        StringBuilder sb = new StringBuilder(data.length() + 64);
+        if (id != null) {
+            sb.append("id:").append(id).append('\n');
+        }
+        sb.append("event:").append(name).append('\n');
+        sb.append("data:").append(data.replace("\r\n", "\n").replace("\n", "\ndata:")).append("\n\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Wraps a frame produced by {@link #encode}; {@code frame} must not be modified afterwards.
+     */
+    static Set<DataWithMediaType> of(byte[] frame) {
+        return Set.of(new DataWithMediaType(frame, MediaType.TEXT_EVENT_STREAM));
+    }
+}
@@ -0,0 +1,13 @@
+package com.bellgado.calendar.api.sse;
+
+/**
+ * What happens when a client's outbound queue is full ({@code sse.outbound.overflow-policy}).
+ */
+public enum SseOverflowPolicy {
+    /** Discard the oldest queued frame to make room; the client silently misses it. */
+    DROP_OLDEST,
+    /** Discard every queued frame and queue a single {@link SseEventType#RESYNC} instead. */
+    RESYNC,
+    /** Close the connection; the browser reconnects and catches up through Last-Event-ID replay. */
+    DISCONNECT
+}
@@ -0,0 +1,159 @@
+package com.bellgado.calendar.api.sse;
+
+import com.bellgado.calendar.api.sse.SseEmitterRegistry.EmitterMeta;
+import com.bellgado.calendar.application.service.SlotEventService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recently broadcast slot event frames, already encoded, so that reconnects can be replayed
+ * without touching the database.
+ * <p>
+ * A fixed-size ring of {@code sse.replay-buffer.capacity} entries, written and read without locks: a
+ * broadcast claims the next position from a counter, and the entry at a position of the ring says which
+ * position it was written for. Entries older than {@code sse.replay-buffer.max-age} count as gone. The
+ * buffer can answer a reconnect only if it still holds the frame with the client's last sequence number
+ * and every frame that may have reached the client's queue after it.
+ * <p>
+ * Sequence numbers are drawn when an event is inserted, not when it commits, so an event can be broadcast
+ * after one with a higher number, and broadcasts on different threads reach the client queues in either
+ * order. What a client missed is therefore found by position: every frame at a later position, and every
+ * frame at an earlier one that was still being offered when the client's last frame was claimed. Frames
+ * offered completely before that were queued ahead of it and need not be replayed. Frames the client
+ * already has may be sent again; every frame carries current slot state, so applying one twice is harmless.
+ */
+@Component
+public class SseReplayBuffer {
+
+    /**
+     * @param offeredFrom the lowest position not yet offered to every client when this one was claimed
+     */
+    private record Entry(long position, long offeredFrom, long seq, byte[] frame, Set<UUID> relevantStudentIds,
+                         long broadcastAtNanos) {}
+
+    private final SlotEventService slotEventService;
+    private final AtomicReferenceArray<Entry> ring;
+    private final AtomicLong cursor = new AtomicLong();
+    /** The position last offered at each index of the ring, to tell when a position has been offered. */
+    private final AtomicLongArray offered;
+    /** Every position up to and including this one has been offered to every client. */
+    private final AtomicLong offeredUpTo = new AtomicLong(-1);
+    /** Newest sequence number at startup; {@code -1} until it is known, which disables the buffer. */
+    private final AtomicLong startedAfter = new AtomicLong(-1);
+    private final long maxAgeNanos;
+
+    public SseReplayBuffer(SlotEventService slotEventService,
+                           @Value("${sse.replay-buffer.capacity:1024}") int capacity,
+                           @Value("${sse.replay-buffer.max-age:PT10M}") Duration maxAge) {
+        this.slotEventService = slotEventService;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.offered = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            offered.set(i, -1);
+        }
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        startedAfter.set(slotEventService.latestSeq());
+    }
+
+    /**
+     * Remembers a frame about to be broadcast. The caller offers it to the client queues and then reports
+     * that with {@link #offered(long)}.
+     *
+     * @param seq the frame's event id, i.e. the highest slot event sequence number it covers
+     * @return the position of the frame
+     */
+    long append(long seq, byte[] frame, Set<UUID> relevantStudentIds) {
+        long position = cursor.getAndIncrement();
+        // Read after claiming the position: whatever was offered by now is queued ahead of this frame
+        long offeredFrom = offeredUpTo.get() + 1;
+        ring.set(index(position), new Entry(position, offeredFrom, seq, frame, relevantStudentIds, System.nanoTime()));
+        return position;
+    }
+
+    /**
+     * Records that the frame at {@code position} has been offered to every client.
+     */
+    void offered(long position) {
+        offered.set(index(position), position);
+        // Positions finish out of order; move past every one that has finished, whichever thread finished it
+        long next = offeredUpTo.get() + 1;
+        while (next < cursor.get() && offered.get(index(next)) == next) {
+            offeredUpTo.compareAndSet(next - 1, next);
+            next = offeredUpTo.get() + 1;
+        }
+    }
+
+    /**
+     * The frames {@code meta}'s client may have missed after the frame with id {@code lastSeq}, in sequence
+     * order. Empty when the buffer no longer holds all of them, or no longer holds that frame, and the
+     * database has to be asked instead.
+     * <p>
+     * The ring is searched backwards from the newest frame, so a short gap costs a few entries, not the
+     * whole ring.
+     */
+    Optional<List<byte[]>> framesAfter(long lastSeq, EmitterMeta meta) {
+        if (startedAfter.get() < 0) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        long end = cursor.get();
+        long oldest = Math.max(0, end - ring.length());
+        Entry last = null;
+        for (long position = end - 1; position >= oldest && last == null; position--) {
+            Entry entry = ring.get(index(position));
+            if (entry != null && entry.position() == position && entry.seq() == lastSeq) {
+                last = entry;
+            }
+        }
+        if (last == null || now - last.broadcastAtNanos() > maxAgeNanos) {
+            return Optional.empty();
+        }
+        List<Entry> missed = new ArrayList<>();
+        for (long position = last.offeredFrom(); position < end; position++) {
+            if (position == last.position()) {
+                continue;
+            }
+            Entry entry = ring.get(index(position));
+            if (entry == null || entry.position() < position) {
+                // Claimed but not written yet; it is offered to the reconnected client like any new frame
+                continue;
+            }
+            if (entry.position() > position || now - entry.broadcastAtNanos() > maxAgeNanos) {
+                return Optional.empty();
+            }
+            if (isFor(entry, meta)) {
+                missed.add(entry);
+            }
+        }
+        missed.sort(Comparator.comparingLong(Entry::seq));
+        return Optional.of(missed.stream().map(Entry::frame).toList());
+    }
+
+    private int index(long position) {
+        return (int) Math.floorMod(position, (long) ring.length());
+    }
+
+    private static boolean isFor(Entry entry, EmitterMeta meta) {
+        if (!meta.isStudent() || entry.relevantStudentIds() == null) {
+            return true;
+        }
+        return meta.studentId() != null && entry.relevantStudentIds().contains(meta.studentId());
+    }
+}
@@ -0,0 +1,11 @@
+package com.bellgado.calendar.application.event;
+
+import java.util.UUID;
+
+/**
+ * Internal-only: an availability template was created or deleted, so virtual slots may have appeared
+ * or disappeared anywhere in its date range. Not broadcast over SSE.
+ */
+public record AvailabilityTemplatesChangedEvent(
+        UUID templateId
+) {}
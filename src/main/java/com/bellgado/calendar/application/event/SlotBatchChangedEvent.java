@@ -0,0 +1,17 @@
+package com.bellgado.calendar.application.event;
+
+import com.bellgado.calendar.api.dto.SlotEventResponse;
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.api.sse.SseEventType;
+
+import java.util.List;
+
+/**
+ * One notification for a set-based operation that changed many slots at once
+ * (e.g. bulk generation). {@code eventType} is the per-slot change type.
+ */
+public record SlotBatchChangedEvent(
+        SseEventType eventType,
+        List<SlotResponse> slots,
+        List<SlotEventResponse> slotEvents
+) {}
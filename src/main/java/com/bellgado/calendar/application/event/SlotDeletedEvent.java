@@ -0,0 +1,12 @@
+package com.bellgado.calendar.application.event;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Internal-only: a slot row was removed. Not broadcast over SSE.
+ */
+public record SlotDeletedEvent(
+        UUID slotId,
+        OffsetDateTime startAt
+) {}
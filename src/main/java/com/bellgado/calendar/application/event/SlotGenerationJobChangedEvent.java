@@ -0,0 +1,7 @@
+package com.bellgado.calendar.application.event;
+
+import com.bellgado.calendar.api.dto.SlotGenerationJobResponse;
+
+public record SlotGenerationJobChangedEvent(
+        SlotGenerationJobResponse job
+) {}
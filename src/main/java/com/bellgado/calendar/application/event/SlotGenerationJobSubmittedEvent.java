@@ -0,0 +1,7 @@
+package com.bellgado.calendar.application.event;
+
+import java.util.UUID;
+
+public record SlotGenerationJobSubmittedEvent(
+        UUID jobId
+) {}
@@ -0,0 +1,72 @@
+package com.bellgado.calendar.application.event;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.api.sse.SseEventType;
+import com.bellgado.calendar.application.service.SlotChangeWatermark;
+import com.bellgado.calendar.application.service.SlotListCache;
+import com.bellgado.calendar.application.service.SlotOccupancyIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the in-memory slot read models ({@link SlotOccupancyIndex}, {@link SlotListCache},
+ * {@link SlotChangeWatermark}) in step with committed changes. Runs synchronously after commit, so all
+ * are current by the time the request returns. The watermark is always bumped after the cache is
+ * invalidated.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotReadModelListener {
+
+    private final SlotOccupancyIndex occupancyIndex;
+    private final SlotListCache listCache;
+    private final SlotChangeWatermark watermark;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlotChanged(SlotChangedEvent event) {
+        occupancyIndex.apply(event.slot().startAt(), event.slot().status());
+        listCache.invalidate(event.slot().startAt());
+        watermark.slotChanged(event.slot().startAt());
+    }
+
+    /**
+     * The slots of a {@link SseEventType#SLOT_DELETED} batch are gone; they carry their state before deletion.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlotBatchChanged(SlotBatchChangedEvent event) {
+        boolean deleted = event.eventType() == SseEventType.SLOT_DELETED;
+        for (SlotResponse slot : event.slots()) {
+            occupancyIndex.apply(slot.startAt(), deleted ? null : slot.status());
+            listCache.invalidate(slot.startAt());
+            watermark.slotChanged(slot.startAt());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlotDeleted(SlotDeletedEvent event) {
+        occupancyIndex.apply(event.startAt(), null);
+        listCache.invalidate(event.startAt());
+        watermark.slotChanged(event.startAt());
+    }
+
+    /**
+     * Slot responses embed the student's name, so any student change drops every cached week.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStudentChanged(StudentChangedEvent event) {
+        listCache.invalidateAll();
+        watermark.allChanged();
+    }
+
+    /**
+     * Virtual slots are merged into cached weeks, so a template change drops every cached week as well.
+     * The occupancy index only tracks slot rows and is unaffected.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAvailabilityTemplatesChanged(AvailabilityTemplatesChangedEvent event) {
+        listCache.invalidateAll();
+        watermark.allChanged();
+    }
+}
@@ -1,6 +1,11 @@
 package com.bellgado.calendar.application.event;
 
+import com.bellgado.calendar.api.dto.SlotEventResponse;
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.api.sse.GenerationJobSsePayload;
+import com.bellgado.calendar.api.sse.SlotBatchSsePayload;
 import com.bellgado.calendar.api.sse.SseEmitterRegistry;
+import com.bellgado.calendar.api.sse.SseEventType;
 import com.bellgado.calendar.api.sse.SlotSsePayload;
 import com.bellgado.calendar.api.sse.StudentSsePayload;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +17,9 @@ import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
@@ -28,8 +35,8 @@ public class SseEventListener {
     @Async("sseEventExecutor")
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onSlotChanged(SlotChangedEvent event) {
-        String eventId = event.slotEvent() != null && event.slotEvent().at() != null
-                ? event.slotEvent().at().toString()
+        String eventId = event.slotEvent() != null && event.slotEvent().seq() != null
+                ? event.slotEvent().seq().toString()
                 : null;
 
         SlotSsePayload payload = new SlotSsePayload(
@@ -46,6 +53,36 @@ public class SseEventListener {
         registry.broadcast(event.eventType(), eventId, payload, relevantStudentIds);
     }
 
+    @Async("sseEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSlotBatchChanged(SlotBatchChangedEvent event) {
+        if (event.slots().isEmpty()) {
+            return;
+        }
+
+        // The id of the newest event lets a reconnecting client resume after the whole batch
+        String eventId = event.slotEvents().stream()
+                .map(SlotEventResponse::seq)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .map(String::valueOf)
+                .orElse(null);
+
+        SlotBatchSsePayload payload = new SlotBatchSsePayload(
+                SseEventType.SLOT_BATCH,
+                event.eventType(),
+                OffsetDateTime.now(APP_ZONE),
+                event.slots().size(),
+                event.slots().stream().map(SlotResponse::startAt).min(Comparator.naturalOrder()).orElse(null),
+                event.slots().stream().map(SlotResponse::endAt).max(Comparator.naturalOrder()).orElse(null)
+        );
+
+        Set<UUID> relevantStudentIds = collectBatchStudentIds(event);
+
+        log.debug("Broadcasting SSE slot batch: {} x{} (id={})", event.eventType(), event.slots().size(), eventId);
+        registry.broadcast(SseEventType.SLOT_BATCH, eventId, payload, relevantStudentIds);
+    }
+
     @Async("sseEventExecutor")
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onStudentChanged(StudentChangedEvent event) {
@@ -64,6 +101,20 @@ public class SseEventListener {
         registry.broadcast(event.eventType(), null, payload, relevantStudentIds);
     }
 
+    @Async("sseEventExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGenerationJobChanged(SlotGenerationJobChangedEvent event) {
+        GenerationJobSsePayload payload = new GenerationJobSsePayload(
+                SseEventType.GENERATION_JOB_PROGRESS,
+                OffsetDateTime.now(APP_ZONE),
+                event.job()
+        );
+
+        // Job progress is staff-only: an empty set excludes every STUDENT emitter
+        log.debug("Broadcasting SSE generation job progress: {} {}", event.job().id(), event.job().status());
+        registry.broadcast(SseEventType.GENERATION_JOB_PROGRESS, null, payload, Set.of());
+    }
+
     private Set<UUID> collectSlotStudentIds(SlotChangedEvent event) {
         Set<UUID> ids = new HashSet<>();
         if (event.slot() != null && event.slot().student() != null) {
@@ -79,4 +130,22 @@ public class SseEventListener {
         }
         return ids.isEmpty() ? null : ids;
     }
+
+    private Set<UUID> collectBatchStudentIds(SlotBatchChangedEvent event) {
+        Set<UUID> ids = new HashSet<>();
+        for (SlotResponse slot : event.slots()) {
+            if (slot.student() != null) {
+                ids.add(slot.student().id());
+            }
+        }
+        for (SlotEventResponse slotEvent : event.slotEvents()) {
+            if (slotEvent.oldStudentId() != null) {
+                ids.add(slotEvent.oldStudentId());
+            }
+            if (slotEvent.newStudentId() != null) {
+                ids.add(slotEvent.newStudentId());
+            }
+        }
+        return ids.isEmpty() ? null : ids;
+    }
 }
@@ -0,0 +1,93 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.AvailabilityTemplateCreateRequest;
+import com.bellgado.calendar.api.dto.AvailabilityTemplateResponse;
+import com.bellgado.calendar.api.dto.WeeklyRule;
+import com.bellgado.calendar.application.event.AvailabilityTemplatesChangedEvent;
+import com.bellgado.calendar.application.exception.NotFoundException;
+import com.bellgado.calendar.domain.entity.AvailabilityTemplate;
+import com.bellgado.calendar.infrastructure.repository.AvailabilityTemplateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recurring availability templates. Creating or deleting a template never touches slot rows: the slots it
+ * offers stay virtual (see {@link VirtualSlots}) until they are booked or blocked, and rows materialized
+ * that way outlive the template.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityTemplateService {
+
+    private final AvailabilityTemplateRepository templateRepository;
+    private final VirtualSlots virtualSlots;
+    private final SlotService slotService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public AvailabilityTemplateResponse create(AvailabilityTemplateCreateRequest request) {
+        slotService.validateWeeklyRules(request.weeklyRules());
+        if (request.to() != null && request.to().isBefore(request.from())) {
+            throw new IllegalArgumentException("Template 'to' must not be before 'from'");
+        }
+        try {
+            ZoneId.of(request.timezone());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown timezone: " + request.timezone());
+        }
+
+        AvailabilityTemplate template = new AvailabilityTemplate(
+                request.from(), request.to(), request.timezone(), writeRules(request.weeklyRules()));
+        template = templateRepository.save(template);
+        eventPublisher.publishEvent(new AvailabilityTemplatesChangedEvent(template.getId()));
+
+        log.info("Created availability template {} for {} .. {}", template.getId(), request.from(),
+                request.to() != null ? request.to() : "open end");
+        return AvailabilityTemplateResponse.from(template, request.weeklyRules());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AvailabilityTemplateResponse> list() {
+        return templateRepository.findAllByOrderByFromDateAsc().stream()
+                .map(template -> AvailabilityTemplateResponse.from(template, virtualSlots.rules(template)))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public AvailabilityTemplateResponse getById(UUID id) {
+        AvailabilityTemplate template = templateRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Availability template not found: " + id));
+        return AvailabilityTemplateResponse.from(template, virtualSlots.rules(template));
+    }
+
+    /**
+     * Removes the template's virtual slots. Slots it materialized are kept, whatever their status.
+     */
+    @Transactional
+    public void delete(UUID id) {
+        AvailabilityTemplate template = templateRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Availability template not found: " + id));
+        templateRepository.delete(template);
+        eventPublisher.publishEvent(new AvailabilityTemplatesChangedEvent(id));
+    }
+
+    private String writeRules(List<WeeklyRule> weeklyRules) {
+        try {
+            return objectMapper.writeValueAsString(weeklyRules);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize weekly rules", e);
+        }
+    }
+}
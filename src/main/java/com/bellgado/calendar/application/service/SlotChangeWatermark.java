@@ -0,0 +1,59 @@
+package com.bellgado.calendar.application.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory change counters behind the strong ETags of slot reads.
+ * <p>
+ * Every committed slot change bumps the revision of its Europe/Sofia week; student changes bump a global
+ * epoch because slot responses embed the student's name. A range tag is built from the sum of the
+ * revisions of the weeks it covers, which strictly grows whenever any of those weeks changes, so an
+ * unchanged tag for the same URL means unchanged data. Tags carry a per-process id, so tags issued
+ * before a restart never match.
+ * <p>
+ * Must be bumped only after the {@link SlotListCache} has been invalidated; a reader that sees the new
+ * revision is then guaranteed to also see the new data.
+ */
+@Component
+public class SlotChangeWatermark {
+
+    private final String instanceId = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+    private final Map<LocalDate, Long> weekRevisions = new HashMap<>();
+    private long epoch;
+
+    public synchronized void slotChanged(OffsetDateTime startAt) {
+        weekRevisions.merge(SlotListCache.weekOf(startAt), 1L, Long::sum);
+    }
+
+    public synchronized void allChanged() {
+        epoch++;
+    }
+
+    /**
+     * Strong ETag for a listing of the slots in {@code [from, to)}.
+     */
+    public synchronized String rangeTag(OffsetDateTime from, OffsetDateTime to) {
+        long revisions = 0;
+        if (from.isBefore(to)) {
+            LocalDate lastWeek = SlotListCache.weekOf(to.minusNanos(1));
+            for (LocalDate week = SlotListCache.weekOf(from); !week.isAfter(lastWeek); week = week.plus(Period.ofWeeks(1))) {
+                revisions += weekRevisions.getOrDefault(week, 0L);
+            }
+        }
+        return "\"" + instanceId + "-" + epoch + "-" + revisions + "\"";
+    }
+
+    /**
+     * Strong ETag for a single slot at the given {@code Slot.version}.
+     */
+    public synchronized String slotTag(int version) {
+        return "\"" + instanceId + "-" + epoch + "-v" + version + "\"";
+    }
+}
@@ -0,0 +1,31 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.domain.enums.EventType;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An audit event to be written by {@link SlotEventService#record} or {@link SlotEventService#recordAll}.
+ *
+ * @param meta serialized to JSON on write; {@code null} or empty for none
+ */
+public record SlotEventDraft(
+        UUID slotId,
+        EventType type,
+        UUID oldStudentId,
+        UUID newStudentId,
+        Map<String, Object> meta
+) {
+    public static SlotEventDraft of(UUID slotId, EventType type) {
+        return new SlotEventDraft(slotId, type, null, null, null);
+    }
+
+    public SlotEventDraft withStudents(UUID oldStudentId, UUID newStudentId) {
+        return new SlotEventDraft(slotId, type, oldStudentId, newStudentId, meta);
+    }
+
+    public SlotEventDraft withMeta(Map<String, Object> meta) {
+        return new SlotEventDraft(slotId, type, oldStudentId, newStudentId, meta);
+    }
+}
@@ -0,0 +1,37 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.domain.enums.CancelledBy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Exact-match filters on slot event metadata; {@code null} fields do not filter.
+ */
+public record SlotEventMetaFilter(
+        UUID blockId,
+        CancelledBy cancelledBy,
+        String reason,
+        UUID originSlotId
+) {
+    /**
+     * The metadata an event must contain, keyed and formatted the way the events store it.
+     */
+    public Map<String, Object> toMeta() {
+        Map<String, Object> meta = new LinkedHashMap<>();
+        if (blockId != null) {
+            meta.put("blockId", blockId.toString());
+        }
+        if (cancelledBy != null) {
+            meta.put("cancelledBy", cancelledBy.name());
+        }
+        if (reason != null) {
+            meta.put("reason", reason);
+        }
+        if (originSlotId != null) {
+            meta.put("originSlotId", originSlotId.toString());
+        }
+        return meta;
+    }
+}
@@ -3,7 +3,9 @@ package com.bellgado.calendar.application.service;
 import com.bellgado.calendar.api.dto.SlotEventResponse;
 import com.bellgado.calendar.domain.entity.SlotEvent;
 import com.bellgado.calendar.domain.enums.EventType;
+import com.bellgado.calendar.infrastructure.repository.PartitionRepository;
 import com.bellgado.calendar.infrastructure.repository.SlotEventRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotEventRepositoryCustom;
 import com.bellgado.calendar.infrastructure.specification.SlotEventSpecifications;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,7 +19,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -28,73 +33,62 @@ import java.util.UUID;
 public class SlotEventService {
 
     private final SlotEventRepository slotEventRepository;
+    private final PartitionRepository partitionRepository;
     private final ObjectMapper objectMapper;
 
+    /**
+     * Records a single event; see {@link #recordAll}.
+     */
     @Transactional
-    public void recordEvent(UUID slotId, EventType type) {
-        slotEventRepository.save(new SlotEvent(slotId, type));
+    public SlotEvent record(SlotEventDraft draft) {
+        return recordAll(List.of(draft)).get(0);
     }
 
+    /**
+     * Records all events with a single multi-row insert in the caller's transaction, bypassing the
+     * persistence context. The events share one timestamp, and meta maps that are equal are serialized
+     * only once.
+     *
+     * @return the written events in draft order, with their ids and timestamp set
+     */
     @Transactional
-    public SlotEvent recordEventAndReturn(UUID slotId, EventType type) {
-        return slotEventRepository.save(new SlotEvent(slotId, type));
-    }
-
-    @Transactional
-    public void recordEvent(UUID slotId, EventType type, UUID oldStudentId, UUID newStudentId) {
-        SlotEvent event = new SlotEvent(slotId, type);
-        event.setOldStudentId(oldStudentId);
-        event.setNewStudentId(newStudentId);
-        slotEventRepository.save(event);
-    }
-
-    @Transactional
-    public SlotEvent recordEventAndReturn(UUID slotId, EventType type, UUID oldStudentId, UUID newStudentId) {
-        SlotEvent event = new SlotEvent(slotId, type);
-        event.setOldStudentId(oldStudentId);
-        event.setNewStudentId(newStudentId);
-        return slotEventRepository.save(event);
-    }
-
-    @Transactional
-    public void recordEvent(UUID slotId, EventType type, Map<String, Object> meta) {
-        SlotEvent event = buildEventWithMeta(slotId, type, meta);
-        slotEventRepository.save(event);
-    }
-
-    @Transactional
-    public SlotEvent recordEventAndReturn(UUID slotId, EventType type, Map<String, Object> meta) {
-        return slotEventRepository.save(buildEventWithMeta(slotId, type, meta));
-    }
-
-    @Transactional
-    public void recordEventWithStudents(UUID slotId, EventType type, UUID oldStudentId, UUID newStudentId, Map<String, Object> meta) {
-        slotEventRepository.save(buildEventWithStudents(slotId, type, oldStudentId, newStudentId, meta));
-    }
-
-    @Transactional
-    public SlotEvent recordEventWithStudentsAndReturn(UUID slotId, EventType type, UUID oldStudentId, UUID newStudentId, Map<String, Object> meta) {
-        return slotEventRepository.save(buildEventWithStudents(slotId, type, oldStudentId, newStudentId, meta));
-    }
-
-    private SlotEvent buildEventWithMeta(UUID slotId, EventType type, Map<String, Object> meta) {
-        SlotEvent event = new SlotEvent(slotId, type);
-        if (meta != null && !meta.isEmpty()) {
-            try {
-                event.setMeta(objectMapper.writeValueAsString(meta));
-            } catch (JsonProcessingException e) {
-                log.warn("Failed to serialize event metadata for slot {}, falling back to toString(): {}", slotId, e.getMessage());
-                event.setMeta(meta.toString());
+    public List<SlotEvent> recordAll(List<SlotEventDraft> drafts) {
+        if (drafts.isEmpty()) {
+            return List.of();
+        }
+        // Truncated to what the column stores, so the returned events equal what a later read returns
+        OffsetDateTime at = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Map<Map<String, Object>, String> serializedMeta = new HashMap<>();
+        List<SlotEvent> events = new ArrayList<>(drafts.size());
+        for (SlotEventDraft draft : drafts) {
+            SlotEvent event = new SlotEvent(draft.slotId(), draft.type());
+            event.setAt(at);
+            event.setOldStudentId(draft.oldStudentId());
+            event.setNewStudentId(draft.newStudentId());
+            if (draft.meta() != null && !draft.meta().isEmpty()) {
+                event.setMeta(serializedMeta.computeIfAbsent(draft.meta(), this::serializeMeta));
             }
+            events.add(event);
         }
-        return event;
+        slotEventRepository.insertAll(events);
+        return events;
     }
 
-    private SlotEvent buildEventWithStudents(UUID slotId, EventType type, UUID oldStudentId, UUID newStudentId, Map<String, Object> meta) {
-        SlotEvent event = buildEventWithMeta(slotId, type, meta);
-        event.setOldStudentId(oldStudentId);
-        event.setNewStudentId(newStudentId);
-        return event;
+    /**
+     * Serializes event metadata the same way {@link #recordAll} does; {@code null} for empty metadata.
+     * Used by set-based operations that insert their events in SQL.
+     */
+    public String serializeMeta(Map<String, Object> meta) {
+        if (meta == null || meta.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(meta);
+        } catch (JsonProcessingException e) {
+            // The column only accepts JSON, so keep the unserializable map as a string under "raw"
+            log.warn("Failed to serialize event metadata, falling back to toString(): {}", e.getMessage());
+            return objectMapper.createObjectNode().put("raw", meta.toString()).toString();
+        }
     }
 
     @Transactional(readOnly = true)
@@ -109,11 +103,45 @@ public class SlotEventService {
         return slotEventRepository.findByAtAfterOrderByAtAsc(since, PageRequest.of(0, limit));
     }
 
+    /**
+     * Events numbered after {@code seq} plus those that may have committed after it with a lower number;
+     * the latter can include events the client has already received.
+     */
     @Transactional(readOnly = true)
-    public Page<SlotEventResponse> list(OffsetDateTime from, OffsetDateTime to, Collection<EventType> types, Pageable pageable) {
-        return slotEventRepository.findAll(
-                SlotEventSpecifications.inDateRangeWithTypes(from, to, types),
-                pageable
-        ).map(SlotEventResponse::from);
+    public List<SlotEvent> findAfterSeq(long seq, int limit) {
+        return slotEventRepository.findMissedAfterSeq(seq, limit);
+    }
+
+    /**
+     * The sequence number of the newest live event, or 0 when there is none.
+     */
+    @Transactional(readOnly = true)
+    public long latestSeq() {
+        Long seq = slotEventRepository.findMaxSeq();
+        return seq != null ? seq : 0;
+    }
+
+    /**
+     * Ranges that start before the end of the archive are read from live and archived events together;
+     * all others only from the live table. The sort is checked first, so that a range is sortable the same
+     * way whichever of the two reads it.
+     */
+    @Transactional(readOnly = true)
+    public Page<SlotEventResponse> list(OffsetDateTime from, OffsetDateTime to, Collection<EventType> types,
+                                        SlotEventMetaFilter metaFilter, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SlotEventRepositoryCustom.SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort slot events by " + order.getProperty());
+            }
+        }
+        String metaJson = serializeMeta(metaFilter.toMeta());
+        boolean reachesArchive = partitionRepository.archivedUntil(PartitionRepository.SLOT_EVENTS)
+                .map(from::isBefore)
+                .orElse(false);
+        Page<SlotEvent> events = reachesArchive
+                ? slotEventRepository.findInRangeIncludingArchive(from, to, types, metaJson, pageable)
+                : slotEventRepository.findAll(
+                        SlotEventSpecifications.inDateRangeWithTypesAndMeta(from, to, types, metaJson), pageable);
+        return events.map(SlotEventResponse::from);
     }
 }
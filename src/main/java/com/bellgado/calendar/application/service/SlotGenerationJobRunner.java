@@ -0,0 +1,68 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.application.event.SlotGenerationJobSubmittedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Drives generation jobs chunk by chunk on the dedicated {@code generationJobExecutor}.
+ * Jobs left PENDING or RUNNING by a shutdown are picked up again on startup. A job that does not fit
+ * into the executor's queue is marked FAILED right away instead of staying PENDING until the next restart.
+ */
+@Component
+@Slf4j
+public class SlotGenerationJobRunner {
+
+    static final String QUEUE_FULL_ERROR = "Too many generation jobs are queued; submit it again later";
+
+    private final SlotGenerationJobService jobService;
+    private final Executor generationJobExecutor;
+
+    public SlotGenerationJobRunner(SlotGenerationJobService jobService,
+                                  @Qualifier("generationJobExecutor") Executor generationJobExecutor) {
+        this.jobService = jobService;
+        this.generationJobExecutor = generationJobExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJobSubmitted(SlotGenerationJobSubmittedEvent event) {
+        UUID jobId = event.jobId();
+        try {
+            generationJobExecutor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Slot generation job {} rejected: generation queue is full", jobId);
+            jobService.markFailed(jobId, QUEUE_FULL_ERROR);
+        }
+    }
+
+    @Async("generationJobExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (UUID jobId : jobService.findUnfinishedJobIds()) {
+            log.info("Resuming slot generation job {}", jobId);
+            run(jobId);
+        }
+    }
+
+    void run(UUID jobId) {
+        try {
+            while (jobService.processNextChunk(jobId)) {
+                // each iteration commits one chunk
+            }
+            log.info("Slot generation job {} finished", jobId);
+        } catch (Exception e) {
+            log.error("Slot generation job {} failed: {}", jobId, e.getMessage(), e);
+            jobService.markFailed(jobId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.SlotGenerateRequest;
+import com.bellgado.calendar.api.dto.SlotGenerateResponse;
+import com.bellgado.calendar.api.dto.SlotGenerationJobResponse;
+import com.bellgado.calendar.api.dto.WeeklyRule;
+import com.bellgado.calendar.application.event.SlotGenerationJobChangedEvent;
+import com.bellgado.calendar.application.event.SlotGenerationJobSubmittedEvent;
+import com.bellgado.calendar.application.exception.NotFoundException;
+import com.bellgado.calendar.domain.entity.SlotGenerationJob;
+import com.bellgado.calendar.domain.enums.GenerationJobStatus;
+import com.bellgado.calendar.infrastructure.repository.SlotGenerationJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Background slot generation for large date ranges.
+ * Each chunk of {@value #CHUNK_DAYS} days is generated and committed in its own transaction,
+ * so neither the transaction nor the candidate set grows with the size of the range.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotGenerationJobService {
+
+    static final int CHUNK_DAYS = 7;
+
+    private final SlotGenerationJobRepository jobRepository;
+    private final SlotService slotService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public SlotGenerationJobResponse submit(SlotGenerateRequest request) {
+        slotService.validateWeeklyRules(request.weeklyRules());
+        if (request.to().isBefore(request.from())) {
+            throw new IllegalArgumentException("Generation 'to' must not be before 'from'");
+        }
+        try {
+            ZoneId.of(request.timezone());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown timezone: " + request.timezone());
+        }
+
+        SlotGenerationJob job = new SlotGenerationJob(
+                request.from(), request.to(), request.timezone(), writeRules(request.weeklyRules()));
+        job = jobRepository.save(job);
+
+        SlotGenerationJobResponse response = SlotGenerationJobResponse.from(job);
+        eventPublisher.publishEvent(new SlotGenerationJobSubmittedEvent(job.getId()));
+        eventPublisher.publishEvent(new SlotGenerationJobChangedEvent(response));
+
+        log.info("Submitted slot generation job {} for {} .. {}", job.getId(), request.from(), request.to());
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public SlotGenerationJobResponse getById(UUID id) {
+        return jobRepository.findById(id)
+                .map(SlotGenerationJobResponse::from)
+                .orElseThrow(() -> new NotFoundException("Generation job not found: " + id));
+    }
+
+    /**
+     * Generates the next chunk of the job and advances its progress in the same transaction.
+     *
+     * @return {@code true} while there are days left to process
+     */
+    @Transactional
+    public boolean processNextChunk(UUID jobId) {
+        SlotGenerationJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Generation job not found: " + jobId));
+        if (job.getStatus().isTerminal()) {
+            return false;
+        }
+
+        LocalDate chunkStart = job.getNextDate();
+        LocalDate chunkEnd = chunkStart.plusDays(CHUNK_DAYS - 1);
+        if (chunkEnd.isAfter(job.getToDate())) {
+            chunkEnd = job.getToDate();
+        }
+
+        SlotGenerateResponse result = slotService.generateRange(
+                readRules(job), ZoneId.of(job.getTimezone()), chunkStart, chunkEnd);
+
+        job.recordChunk(chunkEnd, result.createdCount(), result.skippedCount());
+        job = jobRepository.saveAndFlush(job);
+        eventPublisher.publishEvent(new SlotGenerationJobChangedEvent(SlotGenerationJobResponse.from(job)));
+
+        return !job.getStatus().isTerminal();
+    }
+
+    /**
+     * Runs in a transaction of its own: it is also called after the submitting transaction has
+     * committed, when joining that transaction would not write anything.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFailed(UUID jobId, String error) {
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.markFailed(error);
+            job = jobRepository.saveAndFlush(job);
+            eventPublisher.publishEvent(new SlotGenerationJobChangedEvent(SlotGenerationJobResponse.from(job)));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> findUnfinishedJobIds() {
+        return jobRepository.findIdsByStatusIn(Set.of(GenerationJobStatus.PENDING, GenerationJobStatus.RUNNING));
+    }
+
+    private String writeRules(List<WeeklyRule> weeklyRules) {
+        try {
+            return objectMapper.writeValueAsString(weeklyRules);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize weekly rules", e);
+        }
+    }
+
+    private List<WeeklyRule> readRules(SlotGenerationJob job) {
+        try {
+            return objectMapper.readValue(job.getWeeklyRules(), new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read weekly rules of generation job " + job.getId(), e);
+        }
+    }
+}
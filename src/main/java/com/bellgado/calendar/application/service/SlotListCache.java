@@ -0,0 +1,183 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Week-bucketed cache behind {@link SlotService#list}.
+ * <p>
+ * Each entry holds every slot (all statuses, ordered by start) of one Monday-to-Monday week in
+ * Europe/Sofia. A request is answered by stitching and filtering the weeks it covers; missing weeks are
+ * loaded with one range query. Entries are evicted least-recently-used beyond
+ * {@code slots.list-cache.max-weeks} and invalidated per week from committed slot changes. Student
+ * changes clear everything because slot responses embed the student's name.
+ */
+@Component
+public class SlotListCache {
+
+    private static final ZoneId APP_ZONE = ZoneId.of("Europe/Sofia");
+    /** Requests spanning more weeks than this go straight to the database instead of flushing the cache. */
+    static final int MAX_WEEKS_PER_REQUEST = 16;
+
+    private final int maxWeeks;
+    private final Map<LocalDate, List<SlotResponse>> weeks;
+    /**
+     * Bumped by every invalidation. A load only populates the cache if no invalidation happened while it
+     * was reading, so a commit racing a load can never leave stale data behind.
+     */
+    private long invalidations;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public SlotListCache(@Value("${slots.list-cache.max-weeks:256}") int maxWeeks, MeterRegistry meterRegistry) {
+        this.maxWeeks = maxWeeks;
+        this.weeks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, List<SlotResponse>> eldest) {
+                return size() > SlotListCache.this.maxWeeks;
+            }
+        };
+        this.hits = Counter.builder("slots.list.cache").tag("result", "hit")
+                .description("Weeks served from the slot list cache").register(meterRegistry);
+        this.misses = Counter.builder("slots.list.cache").tag("result", "miss")
+                .description("Weeks loaded from the database into the slot list cache").register(meterRegistry);
+        this.bypasses = Counter.builder("slots.list.cache").tag("result", "bypass")
+                .description("List requests too wide to be cached").register(meterRegistry);
+        Gauge.builder("slots.list.cache.size", this, SlotListCache::size)
+                .description("Weeks currently held in the slot list cache").register(meterRegistry);
+    }
+
+    /**
+     * Returns the slots in {@code [from, to)} with one of {@code statuses} (all when null or empty),
+     * ordered by start time.
+     *
+     * @param loader loads every slot in a {@code [from, to)} range ordered by start time, regardless of status
+     */
+    public List<SlotResponse> list(OffsetDateTime from, OffsetDateTime to, Collection<SlotStatus> statuses,
+                                   BiFunction<OffsetDateTime, OffsetDateTime, List<SlotResponse>> loader) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        LocalDate firstWeek = weekOf(from);
+        LocalDate lastWeek = weekOf(to.minusNanos(1));
+        List<LocalDate> covered = firstWeek.datesUntil(lastWeek.plusWeeks(1), Period.ofWeeks(1)).toList();
+
+        if (covered.size() > MAX_WEEKS_PER_REQUEST) {
+            bypasses.increment();
+            return filter(loader.apply(from, to), from, to, statuses);
+        }
+
+        Map<LocalDate, List<SlotResponse>> found = new LinkedHashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            invalidationsBeforeLoad = invalidations;
+            for (LocalDate week : covered) {
+                List<SlotResponse> cached = weeks.get(week);
+                if (cached != null) {
+                    found.put(week, cached);
+                } else {
+                    if (firstMissing == null) {
+                        firstMissing = week;
+                    }
+                    lastMissing = week;
+                }
+            }
+        }
+        hits.increment(found.size());
+
+        if (firstMissing != null) {
+            // One query for the span of missing weeks; weeks in between that were cached are reloaded too
+            List<SlotResponse> loaded = loader.apply(weekStart(firstMissing), weekStart(lastMissing.plusWeeks(1)));
+            Map<LocalDate, List<SlotResponse>> loadedWeeks = new LinkedHashMap<>();
+            for (LocalDate week = firstMissing; !week.isAfter(lastMissing); week = week.plusWeeks(1)) {
+                loadedWeeks.put(week, new ArrayList<>());
+            }
+            for (SlotResponse slot : loaded) {
+                loadedWeeks.get(weekOf(slot.startAt())).add(slot);
+            }
+            misses.increment(covered.size() - found.size());
+
+            synchronized (this) {
+                boolean fresh = invalidations == invalidationsBeforeLoad;
+                for (Map.Entry<LocalDate, List<SlotResponse>> entry : loadedWeeks.entrySet()) {
+                    List<SlotResponse> week = List.copyOf(entry.getValue());
+                    found.put(entry.getKey(), week);
+                    if (fresh) {
+                        weeks.put(entry.getKey(), week);
+                    }
+                }
+            }
+        }
+
+        List<SlotResponse> result = new ArrayList<>();
+        for (LocalDate week : covered) {
+            for (SlotResponse slot : found.get(week)) {
+                if (matches(slot, from, to, statuses)) {
+                    result.add(slot);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the week containing {@code startAt}.
+     */
+    public synchronized void invalidate(OffsetDateTime startAt) {
+        invalidations++;
+        weeks.remove(weekOf(startAt));
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        weeks.clear();
+    }
+
+    public synchronized int size() {
+        return weeks.size();
+    }
+
+    private static List<SlotResponse> filter(List<SlotResponse> slots, OffsetDateTime from, OffsetDateTime to,
+                                             Collection<SlotStatus> statuses) {
+        return slots.stream().filter(slot -> matches(slot, from, to, statuses)).toList();
+    }
+
+    private static boolean matches(SlotResponse slot, OffsetDateTime from, OffsetDateTime to,
+                                   Collection<SlotStatus> statuses) {
+        return !slot.startAt().isBefore(from)
+                && slot.startAt().isBefore(to)
+                && (statuses == null || statuses.isEmpty() || statuses.contains(slot.status()));
+    }
+
+    /** Monday of the Europe/Sofia week containing {@code time}. */
+    static LocalDate weekOf(OffsetDateTime time) {
+        return time.atZoneSameInstant(APP_ZONE).toLocalDate()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static OffsetDateTime weekStart(LocalDate monday) {
+        return monday.atStartOfDay(APP_ZONE).toOffsetDateTime();
+    }
+}
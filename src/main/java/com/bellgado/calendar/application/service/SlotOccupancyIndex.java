@@ -0,0 +1,506 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.SlotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory occupancy map of the calendar.
+ * <p>
+ * Every whole hour since the epoch is one bit, with one bit-plane per {@link SlotStatus}; a slot
+ * starting at that hour sets exactly one bit across the planes. Existence checks and range walks on
+ * whole-hour boundaries are answered from the bitmaps without allocating. The rare slot that starts off
+ * the hour is kept in a small overflow map.
+ * <p>
+ * The index is loaded on startup and kept current by {@code SlotReadModelListener} after each
+ * commit, so it can lag behind a transaction that has not committed yet. It is a read model only:
+ * callers use it to skip queries in the common case, and uniqueness is enforced by the
+ * {@code slots.start_at} constraint, whose violation they handle. Until the first load finishes every
+ * lookup falls back to the database. The first load reads the whole table; after that, {@link #verify()}
+ * periodically re-reads the months in which slots still change and repairs any drift there.
+ */
+@Component
+@Slf4j
+public class SlotOccupancyIndex {
+
+    private static final long SECONDS_PER_HOUR = 3600;
+    /** Initial capacity and growth step of every plane: 1024 words = 65536 hours (~7.5 years). */
+    private static final int GROWTH_WORDS = 1024;
+    private static final SlotStatus[] STATUSES = SlotStatus.values();
+
+    private static final int NO_SLOT = -1;
+    private static final int UNKNOWN = -2;
+
+    private final SlotRepository slotRepository;
+    private final int verifyMonthsBack;
+    private final int verifyMonthsAhead;
+
+    private final StampedLock lock = new StampedLock();
+    /** Guarded by {@link #lock}; replaced (never shrunk in place) when it has to grow or is rebuilt. */
+    private Planes planes;
+    private volatile boolean loaded;
+
+    /** Guards {@link #reloading} and {@link #pendingUpdates}, so updates racing a reload are replayed. */
+    private final Object updateMonitor = new Object();
+    private boolean reloading;
+    private final List<PendingUpdate> pendingUpdates = new ArrayList<>();
+
+    public SlotOccupancyIndex(SlotRepository slotRepository,
+                              @Value("${slots.occupancy-index.verify-months-back:1}") int verifyMonthsBack,
+                              @Value("${slots.partitions.months-ahead:24}") int verifyMonthsAhead) {
+        this.slotRepository = slotRepository;
+        this.verifyMonthsBack = verifyMonthsBack;
+        this.verifyMonthsAhead = verifyMonthsAhead;
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean existsByStartAt(OffsetDateTime startAt) {
+        int ordinal = lookup(startAt);
+        if (ordinal == UNKNOWN) {
+            return slotRepository.existsByStartAt(startAt);
+        }
+        return ordinal != NO_SLOT;
+    }
+
+    /**
+     * Reports the start time (in UTC) and status of every slot starting in {@code [from, to)}.
+     * Whole-hour slots come in start order, followed by any off-hour ones.
+     *
+     * @return {@code false} without calling {@code consumer} when the index is not loaded yet
+     */
+    public boolean forEachSlotBetween(OffsetDateTime from, OffsetDateTime to,
+                                      BiConsumer<OffsetDateTime, SlotStatus> consumer) {
+        if (!loaded) {
+            return false;
+        }
+        long fromHour = ceilHour(from);
+        long toHour = ceilHour(to);
+
+        long stamp = lock.readLock();
+        try {
+            planes.forEach(fromHour, toHour, consumer);
+            if (!planes.offHour.isEmpty()) {
+                planes.offHour.subMap(from.toInstant(), true, to.toInstant(), false)
+                        .forEach((start, status) -> consumer.accept(start.atOffset(ZoneOffset.UTC), status));
+            }
+            return true;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the status ordinal at a whole-hour start, {@link #NO_SLOT}, or {@link #UNKNOWN}
+     *         when the index cannot answer and the caller has to ask the database
+     */
+    private int lookup(OffsetDateTime startAt) {
+        if (!loaded || !isWholeHour(startAt)) {
+            return UNKNOWN;
+        }
+        long hour = startAt.toEpochSecond() / SECONDS_PER_HOUR;
+
+        long stamp = lock.tryOptimisticRead();
+        Planes current = planes;
+        int ordinal = current != null ? current.statusOrdinal(hour) : UNKNOWN;
+        if (lock.validate(stamp) && ordinal != UNKNOWN) {
+            return ordinal;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return planes.statusOrdinal(hour);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Updates
+    // -------------------------------------------------------------------------
+
+    /**
+     * Records the committed state of the slot starting at {@code startAt}; {@code null} means it was deleted.
+     */
+    public void apply(OffsetDateTime startAt, SlotStatus status) {
+        synchronized (updateMonitor) {
+            if (reloading) {
+                pendingUpdates.add(new PendingUpdate(startAt, status));
+                return;
+            }
+            if (planes != null) {
+                applyLocked(startAt, status);
+            }
+        }
+    }
+
+    private void applyLocked(OffsetDateTime startAt, SlotStatus status) {
+        long stamp = lock.writeLock();
+        try {
+            planes = planes.with(startAt, status);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Loading and consistency check
+    // -------------------------------------------------------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            rebuild();
+            log.info("Slot occupancy index loaded");
+        } catch (RuntimeException e) {
+            log.error("Could not load slot occupancy index, falling back to the database: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-reads the slots from {@code slots.occupancy-index.verify-months-back} months ago to
+     * {@code slots.partitions.months-ahead} months ahead, repairs the index there and reports how many
+     * start times disagreed. That is where slots are generated, booked and changed, so where an update that
+     * never reached the index matters; only the partitions of those months are read. Falls back to a full
+     * load while the index is not loaded.
+     */
+    @Scheduled(initialDelayString = "${slots.occupancy-index.verify-interval:PT10M}",
+            fixedDelayString = "${slots.occupancy-index.verify-interval:PT10M}")
+    public void verify() {
+        try {
+            int mismatches;
+            if (loaded) {
+                OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+                mismatches = rebuild(now.minusMonths(verifyMonthsBack), now.plusMonths(verifyMonthsAhead));
+            } else {
+                mismatches = rebuild();
+            }
+            if (mismatches > 0) {
+                log.warn("Slot occupancy index drifted from the slots table at {} start time(s); rebuilt", mismatches);
+            }
+        } catch (RuntimeException e) {
+            log.error("Slot occupancy index consistency check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the {@code slots} table and reports how many start times disagreed
+     * with the previous in-memory state.
+     */
+    int rebuild() {
+        return reload(null, null);
+    }
+
+    /**
+     * Like {@link #rebuild()}, for the slots starting in {@code [from, to)} only. The index must be loaded.
+     */
+    int rebuild(OffsetDateTime from, OffsetDateTime to) {
+        return reload(from, to);
+    }
+
+    private int reload(OffsetDateTime from, OffsetDateTime to) {
+        synchronized (updateMonitor) {
+            reloading = true;
+            pendingUpdates.clear();
+        }
+
+        Planes fresh;
+        try {
+            fresh = Planes.empty(System.currentTimeMillis() / 1000 / SECONDS_PER_HOUR);
+            Planes[] holder = {fresh};
+            BiConsumer<OffsetDateTime, SlotStatus> collect = (startAt, status) -> holder[0] = holder[0].with(startAt, status);
+            if (from == null) {
+                slotRepository.forEachStartAtAndStatus(collect);
+            } else {
+                slotRepository.forEachStartAtAndStatusBetween(from, to, collect);
+            }
+            fresh = holder[0];
+        } catch (RuntimeException e) {
+            synchronized (updateMonitor) {
+                reloading = false;
+                pendingUpdates.clear();
+            }
+            throw e;
+        }
+
+        synchronized (updateMonitor) {
+            for (PendingUpdate update : pendingUpdates) {
+                fresh = fresh.with(update.startAt(), update.status());
+            }
+
+            long stamp = lock.writeLock();
+            try {
+                int mismatches;
+                if (from == null) {
+                    mismatches = planes != null ? planes.differences(fresh) : 0;
+                    planes = fresh;
+                } else {
+                    mismatches = planes.differences(fresh, from, to);
+                    planes = planes.withWindowOf(fresh, from, to);
+                    // Updates outside the window were held back too
+                    for (PendingUpdate update : pendingUpdates) {
+                        planes = planes.with(update.startAt(), update.status());
+                    }
+                }
+                return mismatches;
+            } finally {
+                lock.unlockWrite(stamp);
+                pendingUpdates.clear();
+                reloading = false;
+                loaded = true;
+            }
+        }
+    }
+
+    private static boolean isWholeHour(OffsetDateTime time) {
+        return time.getNano() == 0 && Math.floorMod(time.toEpochSecond(), SECONDS_PER_HOUR) == 0;
+    }
+
+    /** First epoch hour whose start is at or after {@code time}. */
+    private static long ceilHour(OffsetDateTime time) {
+        long seconds = time.toEpochSecond() + (time.getNano() > 0 ? 1 : 0);
+        return Math.ceilDiv(seconds, SECONDS_PER_HOUR);
+    }
+
+    private record PendingUpdate(OffsetDateTime startAt, SlotStatus status) {}
+
+    /**
+     * One bit-plane per status over a contiguous window of epoch hours.
+     * {@code baseHour} is a multiple of 64 so that bit {@code hour - baseHour} never straddles a word.
+     */
+    private static final class Planes {
+
+        final long baseHour;
+        final long[][] words;
+        final NavigableMap<Instant, SlotStatus> offHour;
+
+        private Planes(long baseHour, long[][] words, NavigableMap<Instant, SlotStatus> offHour) {
+            this.baseHour = baseHour;
+            this.words = words;
+            this.offHour = offHour;
+        }
+
+        static Planes empty(long aroundHour) {
+            long base = Math.floorDiv(aroundHour, 64) * 64 - (long) GROWTH_WORDS / 2 * 64;
+            return new Planes(base, new long[STATUSES.length][GROWTH_WORDS], new TreeMap<>());
+        }
+
+        int wordCount() {
+            return words[0].length;
+        }
+
+        int statusOrdinal(long hour) {
+            long bit = hour - baseHour;
+            if (bit < 0 || (bit >>> 6) >= wordCount()) {
+                return NO_SLOT;
+            }
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            for (int s = 0; s < words.length; s++) {
+                if ((words[s][word] & mask) != 0) {
+                    return s;
+                }
+            }
+            return NO_SLOT;
+        }
+
+        void forEach(long fromHour, long toHour, BiConsumer<OffsetDateTime, SlotStatus> consumer) {
+            long from = Math.max(fromHour - baseHour, 0);
+            long to = Math.min(toHour - baseHour, (long) wordCount() << 6);
+            if (from >= to) {
+                return;
+            }
+            int firstWord = (int) (from >>> 6);
+            int lastWord = (int) ((to - 1) >>> 6);
+            for (int word = firstWord; word <= lastWord; word++) {
+                long occupied = 0;
+                for (long[] plane : words) {
+                    occupied |= plane[word];
+                }
+                if (word == firstWord) {
+                    occupied &= -1L << (from & 63);
+                }
+                if (word == lastWord) {
+                    occupied &= -1L >>> (63 - ((to - 1) & 63));
+                }
+                // Visit set bits only, lowest (earliest hour) first
+                while (occupied != 0) {
+                    int offset = Long.numberOfTrailingZeros(occupied);
+                    long mask = 1L << offset;
+                    occupied &= ~mask;
+                    for (int s = 0; s < words.length; s++) {
+                        if ((words[s][word] & mask) != 0) {
+                            long epochSecond = (baseHour + ((long) word << 6) + offset) * SECONDS_PER_HOUR;
+                            consumer.accept(OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC),
+                                    STATUSES[s]);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sets the state at {@code startAt}, returning a grown copy when the hour lies outside the window.
+         */
+        Planes with(OffsetDateTime startAt, SlotStatus status) {
+            if (!isWholeHour(startAt)) {
+                if (status == null) {
+                    offHour.remove(startAt.toInstant());
+                } else {
+                    offHour.put(startAt.toInstant(), status);
+                }
+                return this;
+            }
+            long hour = startAt.toEpochSecond() / SECONDS_PER_HOUR;
+            Planes target = covering(hour);
+            long bit = hour - target.baseHour;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            for (long[] plane : target.words) {
+                plane[word] &= ~mask;
+            }
+            if (status != null) {
+                target.words[status.ordinal()][word] |= mask;
+            }
+            return target;
+        }
+
+        private Planes covering(long hour) {
+            long bit = hour - baseHour;
+            if (bit >= 0 && (bit >>> 6) < wordCount()) {
+                return this;
+            }
+            int prependWords = 0;
+            int appendWords = 0;
+            if (bit < 0) {
+                long missing = Math.ceilDiv(-bit, 64);
+                prependWords = (int) (Math.ceilDiv(missing, GROWTH_WORDS) * GROWTH_WORDS);
+            } else {
+                long missing = (bit >>> 6) - wordCount() + 1;
+                appendWords = (int) (Math.ceilDiv(missing, GROWTH_WORDS) * GROWTH_WORDS);
+            }
+            long[][] grown = new long[words.length][wordCount() + prependWords + appendWords];
+            for (int s = 0; s < words.length; s++) {
+                System.arraycopy(words[s], 0, grown[s], prependWords, wordCount());
+            }
+            return new Planes(baseHour - (long) prependWords * 64, grown, offHour);
+        }
+
+        /**
+         * Number of start times whose state differs between the two indexes.
+         */
+        int differences(Planes other) {
+            int mismatches = 0;
+            long fromHour = Math.min(baseHour, other.baseHour);
+            long toHour = Math.max(baseHour + ((long) wordCount() << 6), other.baseHour + ((long) other.wordCount() << 6));
+            for (long hour = fromHour; hour < toHour; hour += 64) {
+                long differing = 0;
+                for (int s = 0; s < words.length; s++) {
+                    differing |= wordAt(s, hour) ^ other.wordAt(s, hour);
+                }
+                mismatches += Long.bitCount(differing);
+            }
+            return mismatches + offHourDifferences(offHour, other.offHour);
+        }
+
+        /**
+         * Number of start times in {@code [from, to)} whose state differs between the two indexes.
+         */
+        int differences(Planes other, OffsetDateTime from, OffsetDateTime to) {
+            long fromHour = ceilHour(from);
+            long toHour = ceilHour(to);
+            int mismatches = 0;
+            for (long hour = Math.floorDiv(fromHour, 64) * 64; hour < toHour; hour += 64) {
+                long differing = 0;
+                for (int s = 0; s < words.length; s++) {
+                    differing |= wordAt(s, hour) ^ other.wordAt(s, hour);
+                }
+                mismatches += Long.bitCount(differing & windowMask(hour, fromHour, toHour));
+            }
+            return mismatches + offHourDifferences(
+                    offHour.subMap(from.toInstant(), true, to.toInstant(), false),
+                    other.offHour.subMap(from.toInstant(), true, to.toInstant(), false));
+        }
+
+        /**
+         * Replaces the state in {@code [from, to)} with that of {@code other}, returning a grown copy when
+         * the window does not cover it.
+         */
+        Planes withWindowOf(Planes other, OffsetDateTime from, OffsetDateTime to) {
+            long fromHour = ceilHour(from);
+            long toHour = ceilHour(to);
+            Planes target = this;
+            if (fromHour < toHour) {
+                target = covering(fromHour).covering(toHour - 1);
+                for (long hour = Math.floorDiv(fromHour, 64) * 64; hour < toHour; hour += 64) {
+                    long mask = windowMask(hour, fromHour, toHour);
+                    int word = (int) ((hour - target.baseHour) >>> 6);
+                    for (int s = 0; s < words.length; s++) {
+                        target.words[s][word] = (target.words[s][word] & ~mask) | (other.wordAt(s, hour) & mask);
+                    }
+                }
+            }
+            target.offHour.subMap(from.toInstant(), true, to.toInstant(), false).clear();
+            target.offHour.putAll(other.offHour.subMap(from.toInstant(), true, to.toInstant(), false));
+            return target;
+        }
+
+        /** The bits of the 64-aligned word at {@code hour} that lie in {@code [fromHour, toHour)}. */
+        private static long windowMask(long hour, long fromHour, long toHour) {
+            long lo = Math.max(fromHour - hour, 0);
+            long hi = Math.min(toHour - hour, 64);
+            if (lo >= hi) {
+                return 0;
+            }
+            return (hi == 64 ? -1L : (1L << hi) - 1) & (-1L << lo);
+        }
+
+        private static int offHourDifferences(Map<Instant, SlotStatus> mine, Map<Instant, SlotStatus> theirs) {
+            int mismatches = 0;
+            for (Map.Entry<Instant, SlotStatus> entry : mine.entrySet()) {
+                if (entry.getValue() != theirs.get(entry.getKey())) {
+                    mismatches++;
+                }
+            }
+            for (Instant key : theirs.keySet()) {
+                if (!mine.containsKey(key)) {
+                    mismatches++;
+                }
+            }
+            return mismatches;
+        }
+
+        /** The 64-bit word of plane {@code s} starting at the 64-aligned {@code hour}, zero outside the window. */
+        private long wordAt(int s, long hour) {
+            long bit = hour - baseHour;
+            if (bit < 0 || (bit >>> 6) >= wordCount()) {
+                return 0;
+            }
+            return words[s][(int) (bit >>> 6)];
+        }
+    }
+}
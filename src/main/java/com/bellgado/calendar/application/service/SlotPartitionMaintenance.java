@@ -0,0 +1,106 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.infrastructure.repository.PartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps the monthly partitions of {@code slots} and {@code slot_events} ahead of the data and,
+ * when configured, archives old ones.
+ * <p>
+ * Slot partitions are created {@code slots.partitions.months-ahead} months ahead, event partitions
+ * {@value #EVENT_MONTHS_AHEAD} months ahead (events are always written "now"). Rows that still land
+ * beyond the last partition go to the default partition and are moved out the next time their month is
+ * created. Event partitions older than {@code slots.partitions.archive-events-after-months} are detached
+ * into the {@code archive} schema; {@code 0} keeps everything attached. They are then attached to
+ * {@code archive.slot_events}, in a transaction of their own so that the validation scan does not hold the
+ * lock on the live table.
+ * <p>
+ * Slot partitions are never archived: nothing reads slots from the archive schema, so archived lessons
+ * would silently drop out of student histories, exports and availability. A non-zero
+ * {@code slots.partitions.archive-slots-after-months} is refused at startup until such a read path exists.
+ */
+@Component
+@Slf4j
+public class SlotPartitionMaintenance {
+
+    static final int EVENT_MONTHS_AHEAD = 3;
+
+    private final PartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int archiveEventsAfterMonths;
+
+    public SlotPartitionMaintenance(PartitionRepository partitionRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${slots.partitions.months-ahead:24}") int monthsAhead,
+                                    @Value("${slots.partitions.archive-slots-after-months:0}") int archiveSlotsAfterMonths,
+                                    @Value("${slots.partitions.archive-events-after-months:0}") int archiveEventsAfterMonths) {
+        if (archiveSlotsAfterMonths > 0) {
+            throw new IllegalStateException("slots.partitions.archive-slots-after-months is not supported: "
+                    + "archived slots cannot be read back, set it to 0");
+        }
+        this.partitionRepository = partitionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveEventsAfterMonths = archiveEventsAfterMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${slots.partitions.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        try {
+            LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+            int created = ensureAhead(PartitionRepository.SLOTS, currentMonth, monthsAhead)
+                    + ensureAhead(PartitionRepository.SLOT_EVENTS, currentMonth, EVENT_MONTHS_AHEAD);
+            if (created > 0) {
+                log.info("Created {} monthly slot/event partition(s)", created);
+            }
+
+            if (archiveEventsAfterMonths > 0) {
+                int archived = archive(PartitionRepository.SLOT_EVENTS, currentMonth.minusMonths(archiveEventsAfterMonths));
+                if (archived > 0) {
+                    log.info("Archived {} slot event partition(s)", archived);
+                }
+                // Also picks up partitions whose attach failed on an earlier run
+                Integer attached = transactionTemplate.execute(
+                        status -> partitionRepository.attachArchivedPartitions(PartitionRepository.SLOT_EVENTS));
+                if (attached != null && attached > 0) {
+                    log.info("Attached {} archived slot event partition(s) to archive.slot_events", attached);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Slot partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /** Each month is created in its own short transaction, so the default partition is locked only briefly. */
+    private int ensureAhead(String table, LocalDate currentMonth, int months) {
+        int created = 0;
+        for (int i = 0; i <= months; i++) {
+            LocalDate month = currentMonth.plusMonths(i);
+            Boolean fresh = transactionTemplate.execute(status -> partitionRepository.ensureMonthlyPartition(table, month));
+            if (Boolean.TRUE.equals(fresh)) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private int archive(String table, LocalDate beforeMonth) {
+        Integer archived = transactionTemplate.execute(status -> partitionRepository.archiveMonthlyPartitions(table, beforeMonth));
+        return archived != null ? archived : 0;
+    }
+}
@@ -2,7 +2,9 @@ package com.bellgado.calendar.application.service;
 
 import com.bellgado.calendar.api.dto.*;
 import com.bellgado.calendar.api.sse.SseEventType;
+import com.bellgado.calendar.application.event.SlotBatchChangedEvent;
 import com.bellgado.calendar.application.event.SlotChangedEvent;
+import com.bellgado.calendar.application.event.SlotDeletedEvent;
 import com.bellgado.calendar.application.exception.ConflictException;
 import com.bellgado.calendar.application.exception.InvalidStateException;
 import com.bellgado.calendar.application.exception.NotFoundException;
@@ -12,20 +14,28 @@ import com.bellgado.calendar.domain.entity.Student;
 import com.bellgado.calendar.domain.enums.EventType;
 import com.bellgado.calendar.domain.enums.NotificationType;
 import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.SlotBookingOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotQueryRepository;
 import com.bellgado.calendar.infrastructure.repository.SlotRepository;
-import com.bellgado.calendar.infrastructure.specification.SlotSpecifications;
+import com.bellgado.calendar.infrastructure.repository.SlotRescheduleOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotSelection;
+import com.bellgado.calendar.infrastructure.repository.SlotSeriesBookingOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotTransition;
+import com.bellgado.calendar.infrastructure.repository.SlotTransitionOutcome;
 import com.bellgado.calendar.notification.NotificationService;
 import com.bellgado.calendar.notification.dto.NotificationResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -38,28 +48,46 @@ public class SlotService {
     private static final int ALLOWED_HOUR_FROM = 7;
     /** Exclusive end of allowed scheduling window (19:00 = 7 PM). */
     private static final int ALLOWED_HOUR_TO = 19;
+    /** Widest range served by {@link #availability}. */
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    /** Widest range accepted by {@link #bookSeries}. */
+    private static final int MAX_SERIES_DAYS = 366;
+    /** Widest time range accepted by the bulk transitions. */
+    private static final int MAX_BULK_RANGE_DAYS = 366;
+    /** BLOCKED → FREE, detaching the block and recording it in the UNBLOCKED event meta. */
+    private static final SlotTransition UNBLOCK = new SlotTransition(
+            EnumSet.of(SlotStatus.BLOCKED), SlotStatus.FREE, false, true, null, EventType.UNBLOCKED, false, true, null);
 
     private final SlotRepository slotRepository;
+    private final SlotQueryRepository slotQueryRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final SlotListCache listCache;
+    private final SlotChangeWatermark watermark;
+    private final VirtualSlots virtualSlots;
     private final StudentService studentService;
     private final SlotEventService slotEventService;
     private final NotificationService notificationService;
     private final ApplicationEventPublisher eventPublisher;
-    @Lazy
-    private final WaitlistService waitlistService;
 
     @Transactional
     public SlotResponse create(SlotCreateRequest request) {
         validateNotInPast(request.startAt(), "create a slot");
         validateWorkingHours(request.startAt(), "Slot");
 
-        if (slotRepository.existsByStartAt(request.startAt())) {
+        // The index answers the common case without a query, but it may lag behind a concurrent create;
+        // the unique constraint on start_at is what actually rules out a second slot
+        if (occupancyIndex.existsByStartAt(request.startAt())) {
             throw new ConflictException("A slot already exists at this time: " + request.startAt());
         }
 
-        Slot slot = new Slot(request.startAt());
-        slot = slotRepository.save(slot);
+        Slot slot;
+        try {
+            slot = slotRepository.saveAndFlush(new Slot(request.startAt()));
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("A slot already exists at this time: " + request.startAt());
+        }
 
-        SlotEvent slotEvent = slotEventService.recordEventAndReturn(slot.getId(), EventType.CREATED);
+        SlotEvent slotEvent = slotEventService.record(SlotEventDraft.of(slot.getId(), EventType.CREATED));
         SlotResponse response = SlotResponse.from(slot);
         eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_CREATED, response, SlotEventResponse.from(slotEvent)));
 
@@ -68,8 +96,15 @@ public class SlotService {
 
     @Transactional
     public SlotGenerateResponse generate(SlotGenerateRequest request) {
-        // Validate that all weekly rules stay within the allowed 07:00–19:00 window
-        for (WeeklyRule rule : request.weeklyRules()) {
+        validateWeeklyRules(request.weeklyRules());
+        return generateRange(request.weeklyRules(), ZoneId.of(request.timezone()), request.from(), request.to());
+    }
+
+    /**
+     * Validates that all weekly rules stay within the allowed 07:00–19:00 window.
+     */
+    public void validateWeeklyRules(List<WeeklyRule> weeklyRules) {
+        for (WeeklyRule rule : weeklyRules) {
             LocalTime start = LocalTime.parse(rule.startTime());
             LocalTime end   = LocalTime.parse(rule.endTime());
             if (start.getHour() < ALLOWED_HOUR_FROM) {
@@ -81,82 +116,281 @@ public class SlotService {
                         "Weekly rule endTime " + rule.endTime() + " is after 07:00 PM.");
             }
         }
+    }
 
-        final ZoneId zoneId = ZoneId.of(request.timezone());
+    /**
+     * Generates FREE slots for the already validated weekly rules between {@code from} and {@code to}
+     * (both inclusive). Used directly by {@link #generate} and chunk by chunk by background generation jobs.
+     */
+    @Transactional
+    public SlotGenerateResponse generateRange(List<WeeklyRule> weeklyRules, ZoneId zoneId, LocalDate from, LocalDate to) {
+        // Expand the weekly rules into candidate start times; duplicates within the request count as skipped
+        final List<OffsetDateTime> candidates = expandWeeklyRules(weeklyRules, zoneId, from, to);
+        final int candidateCount = candidates.size();
+        final Set<OffsetDateTime> candidateStartTimes = new LinkedHashSet<>(candidates);
 
-        // Pre-fetch all existing start times in the date range with a single query
-        final OffsetDateTime rangeFrom = request.from().atStartOfDay(zoneId).toOffsetDateTime();
-        final OffsetDateTime rangeTo = request.to().plusDays(1).atStartOfDay(zoneId).toOffsetDateTime();
-        final Set<OffsetDateTime> existingStartTimes = slotRepository.findStartAtBetween(rangeFrom, rangeTo);
+        final int createdCount = insertGenerated(candidateStartTimes);
+        final int skippedCount = candidateCount - createdCount;
 
-        int createdCount = 0;
-        int skippedCount = 0;
-        final List<Slot> slotsToSave = new ArrayList<>();
+        return new SlotGenerateResponse(createdCount, skippedCount);
+    }
+
+    /**
+     * Inserts a FREE slot at every start time that has none yet, records their GENERATED events and
+     * announces them in one batch event.
+     *
+     * @return the number of slots inserted
+     */
+    private int insertGenerated(Collection<OffsetDateTime> startTimes) {
+        // One INSERT ... ON CONFLICT DO NOTHING for the slots and one multi-row INSERT for their events
+        final List<Slot> savedSlots = slotRepository.insertFreeSlotsSkippingExisting(startTimes);
+
+        if (!savedSlots.isEmpty()) {
+            List<SlotEvent> slotEvents = slotEventService.recordAll(savedSlots.stream()
+                    .map(slot -> SlotEventDraft.of(slot.getId(), EventType.GENERATED))
+                    .toList());
+            eventPublisher.publishEvent(new SlotBatchChangedEvent(
+                    SseEventType.SLOT_GENERATED,
+                    savedSlots.stream().map(SlotResponse::from).toList(),
+                    slotEvents.stream().map(SlotEventResponse::from).toList()));
+        }
+        return savedSlots.size();
+    }
+
+    /**
+     * Turns a virtual slot id into the id of the slot row at its start time, inserting that row first if
+     * an availability template still offers the slot. Other ids are returned unchanged, and so is a
+     * virtual id that is neither offered nor backed by a row, which callers then report as not found.
+     */
+    private UUID materialize(UUID slotId) {
+        if (!VirtualSlotId.isVirtual(slotId)) {
+            return slotId;
+        }
+        OffsetDateTime startAt = VirtualSlotId.startAt(slotId);
+        if (virtualSlots.offers(startAt)) {
+            insertGenerated(List.of(startAt));
+        }
+        return slotRepository.findIdByStartAt(startAt).orElse(slotId);
+    }
+
+    /**
+     * Like {@link #materialize} but never inserts: a virtual id resolves to an existing row only.
+     */
+    private UUID resolve(UUID slotId) {
+        if (!VirtualSlotId.isVirtual(slotId)) {
+            return slotId;
+        }
+        return slotRepository.findIdByStartAt(VirtualSlotId.startAt(slotId)).orElse(slotId);
+    }
 
-        LocalDate current = request.from();
-        while (!current.isAfter(request.to())) {
-            for (WeeklyRule rule : request.weeklyRules()) {
+    /**
+     * Hourly start times produced by the weekly rules for every day between {@code from} and
+     * {@code to} (both inclusive), in day order. Overlapping rules yield duplicates.
+     */
+    static List<OffsetDateTime> expandWeeklyRules(List<WeeklyRule> weeklyRules, ZoneId zoneId, LocalDate from, LocalDate to) {
+        final List<OffsetDateTime> startTimes = new ArrayList<>();
+        LocalDate current = from;
+        while (!current.isAfter(to)) {
+            for (WeeklyRule rule : weeklyRules) {
                 if (current.getDayOfWeek() == rule.dayOfWeek().toJavaDayOfWeek()) {
                     final LocalTime startTime = LocalTime.parse(rule.startTime());
                     final LocalTime endTime = LocalTime.parse(rule.endTime());
 
                     LocalTime slotStart = startTime;
                     while (slotStart.plusMinutes(60).compareTo(endTime) <= 0) {
-                        final OffsetDateTime slotStartAt = ZonedDateTime.of(current, slotStart, zoneId).toOffsetDateTime();
-
-                        if (!existingStartTimes.contains(slotStartAt)) {
-                            slotsToSave.add(new Slot(slotStartAt));
-                            existingStartTimes.add(slotStartAt); // prevent duplicates within the same request
-                            createdCount++;
-                        } else {
-                            skippedCount++;
-                        }
-
+                        startTimes.add(ZonedDateTime.of(current, slotStart, zoneId).toOffsetDateTime());
                         slotStart = slotStart.plusMinutes(60);
                     }
                 }
             }
             current = current.plusDays(1);
         }
-
-        final List<Slot> savedSlots = slotRepository.saveAll(slotsToSave);
-        for (Slot saved : savedSlots) {
-            SlotEvent slotEvent = slotEventService.recordEventAndReturn(saved.getId(), EventType.GENERATED);
-            eventPublisher.publishEvent(new SlotChangedEvent(
-                    SseEventType.SLOT_GENERATED, SlotResponse.from(saved), SlotEventResponse.from(slotEvent)));
-        }
-
-        return new SlotGenerateResponse(createdCount, skippedCount);
+        return startTimes;
     }
 
+    /**
+     * Slots in {@code [from, to)}, including the virtual FREE slots of availability templates at every
+     * start time without a slot row.
+     */
     @Transactional(readOnly = true)
     public List<SlotResponse> list(OffsetDateTime from, OffsetDateTime to, Collection<SlotStatus> statuses) {
         log.info(" List Slot from {}  to {}", from, to);
-        return slotRepository.findAll(
-                SlotSpecifications.inDateRangeWithStatuses(from, to, statuses),
-                Sort.by(Sort.Direction.ASC, "startAt")
-        ).stream().map(SlotResponse::from).toList();
+        return listCache.list(from, to, statuses, (rangeFrom, rangeTo) -> withVirtualSlots(
+                slotQueryRepository.findInRange(rangeFrom, rangeTo, null, null), rangeFrom, rangeTo));
+    }
+
+    /**
+     * Merges the virtual slots of {@code [from, to)} into {@code slots} (ordered by start time); a slot
+     * row always wins over a virtual slot at the same start time.
+     */
+    private List<SlotResponse> withVirtualSlots(List<SlotResponse> slots, OffsetDateTime from, OffsetDateTime to) {
+        List<SlotResponse> virtual = virtualSlots.between(from, to);
+        if (virtual.isEmpty()) {
+            return slots;
+        }
+        List<SlotResponse> merged = new ArrayList<>(slots.size() + virtual.size());
+        int i = 0;
+        int j = 0;
+        while (i < slots.size() || j < virtual.size()) {
+            if (j == virtual.size()) {
+                merged.add(slots.get(i++));
+            } else if (i == slots.size()) {
+                merged.add(virtual.get(j++));
+            } else {
+                int order = slots.get(i).startAt().compareTo(virtual.get(j).startAt());
+                if (order == 0) {
+                    j++;
+                } else {
+                    merged.add(order < 0 ? slots.get(i++) : virtual.get(j++));
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Compact free/busy view of {@code [from, to]} (Europe/Sofia days, both inclusive).
+     * Served from the occupancy index when it is loaded, otherwise from a single start/status projection
+     * query; no {@link Slot} entities are hydrated either way.
+     */
+    @Transactional(readOnly = true)
+    public SlotAvailabilityResponse availability(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Availability 'to' must not be before 'from'");
+        }
+        final long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > MAX_AVAILABILITY_DAYS) {
+            throw new IllegalArgumentException("Availability range must not exceed " + MAX_AVAILABILITY_DAYS + " days");
+        }
+
+        final char[][] hours = new char[(int) dayCount][24];
+        for (char[] day : hours) {
+            Arrays.fill(day, DayAvailability.NO_SLOT);
+        }
+        final OffsetDateTime rangeFrom = from.atStartOfDay(APP_ZONE).toOffsetDateTime();
+        final OffsetDateTime rangeTo = to.plusDays(1).atStartOfDay(APP_ZONE).toOffsetDateTime();
+
+        final BiConsumer<OffsetDateTime, SlotStatus> mark = (startAt, status) -> {
+            ZonedDateTime local = startAt.atZoneSameInstant(APP_ZONE);
+            int day = (int) ChronoUnit.DAYS.between(from, local.toLocalDate());
+            hours[day][local.getHour()] = DayAvailability.code(status);
+        };
+        // Template hours first, so that slot rows overwrite them
+        for (SlotResponse slot : virtualSlots.between(rangeFrom, rangeTo)) {
+            mark.accept(slot.startAt(), SlotStatus.FREE);
+        }
+        if (!occupancyIndex.forEachSlotBetween(rangeFrom, rangeTo, mark)) {
+            slotRepository.forEachStartAtAndStatusBetween(rangeFrom, rangeTo, mark);
+        }
+
+        final List<DayAvailability> days = new ArrayList<>(hours.length);
+        for (int i = 0; i < hours.length; i++) {
+            days.add(new DayAvailability(from.plusDays(i), new String(hours[i])));
+        }
+        return new SlotAvailabilityResponse(from, to, APP_ZONE.getId(), days);
     }
 
     @Transactional(readOnly = true)
     public List<SlotResponse> listByStudent(UUID studentId, OffsetDateTime from, OffsetDateTime to, Collection<SlotStatus> statuses) {
         studentService.getEntityById(studentId);
-        return slotRepository.findAll(
-                SlotSpecifications.forStudentInDateRange(studentId, from, to, statuses),
-                Sort.by(Sort.Direction.ASC, "startAt")
-        ).stream().map(SlotResponse::from).toList();
+        return slotQueryRepository.findInRange(from, to, studentId, statuses);
     }
 
+    /**
+     * Validates an export request before any output is written, so that errors still get a proper status code.
+     */
+    @Transactional(readOnly = true)
+    public void checkExport(OffsetDateTime from, OffsetDateTime to, UUID studentId) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Export 'from' must be before 'to'");
+        }
+        if (studentId != null) {
+            studentService.getEntityById(studentId);
+        }
+    }
+
+    /**
+     * Hands every slot in {@code [from, to)} to {@code sink} in start order while the rows are read through a
+     * database cursor, so memory use does not grow with the range. Bypasses the list cache; the transaction
+     * (and its connection) stays open until {@code sink} has consumed the last row.
+     */
+    @Transactional(readOnly = true)
+    public void export(OffsetDateTime from, OffsetDateTime to, UUID studentId, Collection<SlotStatus> statuses,
+                       Consumer<SlotResponse> sink) {
+        slotQueryRepository.forEachInRange(from, to, studentId, statuses, sink);
+    }
+
+    /**
+     * A virtual slot id returns the slot row at its start time if there is one by now, otherwise the
+     * virtual slot while a template still offers it.
+     */
     @Transactional(readOnly = true)
     public SlotResponse getById(UUID id) {
-        Slot slot = slotRepository.findByIdWithStudent(id)
+        Optional<SlotResponse> slot;
+        if (VirtualSlotId.isVirtual(id)) {
+            OffsetDateTime startAt = VirtualSlotId.startAt(id);
+            slot = slotQueryRepository.findByStartAt(startAt).or(() -> virtualSlots.at(startAt));
+        } else {
+            slot = slotQueryRepository.findById(id);
+        }
+        return slot.orElseThrow(() -> new NotFoundException("Slot not found: " + id));
+    }
+
+    /**
+     * Current state of the given slots, loaded in one query and keyed by id. Slots that no longer exist
+     * are missing from the map. Only slot rows are looked up; virtual ids are not resolved.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, SlotResponse> getByIds(Collection<UUID> ids) {
+        Map<UUID, SlotResponse> slots = new HashMap<>();
+        for (SlotResponse slot : slotQueryRepository.findAllById(ids)) {
+            slots.put(slot.id(), slot);
+        }
+        return slots;
+    }
+
+    /**
+     * Strong ETag of {@link #list} for {@code [from, to)}. Computed from in-memory counters only;
+     * take it before reading the data so that the tag is never newer than the body it labels.
+     */
+    public String listTag(OffsetDateTime from, OffsetDateTime to) {
+        return watermark.rangeTag(from, to);
+    }
+
+    /**
+     * Strong ETag of {@link #availability}; same contract as {@link #listTag}.
+     */
+    public String availabilityTag(LocalDate from, LocalDate to) {
+        return watermark.rangeTag(from.atStartOfDay(APP_ZONE).toOffsetDateTime(),
+                to.plusDays(1).atStartOfDay(APP_ZONE).toOffsetDateTime());
+    }
+
+    /**
+     * Strong ETag of {@link #getById}, derived from the slot's version without loading the slot.
+     * A virtual slot id is tagged like the one-hour range it covers.
+     */
+    @Transactional(readOnly = true)
+    public String slotTag(UUID id) {
+        if (VirtualSlotId.isVirtual(id)) {
+            OffsetDateTime startAt = VirtualSlotId.startAt(id);
+            return watermark.rangeTag(startAt, startAt.plusMinutes(60));
+        }
+        return slotRepository.findVersionById(id)
+                .map(watermark::slotTag)
                 .orElseThrow(() -> new NotFoundException("Slot not found: " + id));
-        return SlotResponse.from(slot);
     }
 
+    /**
+     * Deleting a slot that an availability template offers turns it back into a virtual FREE slot;
+     * a virtual slot itself cannot be deleted, only blocked.
+     */
     @Transactional
     public void delete(UUID id) {
-        Slot slot = slotRepository.findById(id)
+        UUID slotId = resolve(id);
+        if (VirtualSlotId.isVirtual(slotId) && virtualSlots.offers(VirtualSlotId.startAt(slotId))) {
+            throw new InvalidStateException("Slot is offered by an availability template and cannot be deleted. Block it instead.");
+        }
+        Slot slot = slotRepository.findById(slotId)
                 .orElseThrow(() -> new NotFoundException("Slot not found: " + id));
 
         if (slot.getStatus() == SlotStatus.BOOKED) {
@@ -164,38 +398,143 @@ public class SlotService {
         }
 
         slotRepository.delete(slot);
+        eventPublisher.publishEvent(new SlotDeletedEvent(slot.getId(), slot.getStartAt()));
     }
 
     @Transactional
-    public SlotResponse book(UUID slotId, SlotBookRequest request) {
-        Slot slot = slotRepository.findByIdWithStudent(slotId)
-                .orElseThrow(() -> new NotFoundException("Slot not found: " + slotId));
+    public SlotResponse book(UUID requestedSlotId, SlotBookRequest request) {
+        UUID slotId = materialize(requestedSlotId);
+        SlotBookingOutcome outcome = slotRepository.bookIfFree(slotId, request.studentId(), request.notes());
+        if (!outcome.booked()) {
+            throw bookingRefused(slotId, request.studentId(), outcome);
+        }
+
+        // The student's active waitlist entries were deactivated by the same statement
+        if (outcome.waitlistEntriesRemoved() > 0) {
+            log.info("Removed {} active waitlist entry/entries for student {} after booking.",
+                    outcome.waitlistEntriesRemoved(), request.studentId());
+        }
 
-        validateNotInPast(slot.getStartAt(), "book a slot");
+        SlotResponse response = SlotResponse.from(outcome.slot());
+        eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_BOOKED, response, SlotEventResponse.from(outcome.event())));
+
+        return response;
+    }
 
-        if (slot.getStatus() != SlotStatus.FREE) {
-            throw new InvalidStateException("Slot must be FREE to book. Current status: " + slot.getStatus());
+    /**
+     * Explains why {@link SlotRepository#bookIfFree} matched no row, checking in the same order
+     * the rules are listed: slot exists, not in the past, FREE, student exists. If every rule held
+     * when the statement started, a concurrent request took the slot first.
+     */
+    private RuntimeException bookingRefused(UUID slotId, UUID studentId, SlotBookingOutcome outcome) {
+        if (outcome.currentStatus() == null) {
+            return new NotFoundException("Slot not found: " + slotId);
+        }
+        OffsetDateTime now = OffsetDateTime.now(APP_ZONE);
+        if (!outcome.currentStartAt().toInstant().isAfter(now.toInstant())) {
+            return new ConflictException(
+                    "Cannot book a slot in the past. Requested: " + outcome.currentStartAt() + ", Now: " + now);
         }
+        if (outcome.currentStatus() != SlotStatus.FREE) {
+            return new InvalidStateException("Slot must be FREE to book. Current status: " + outcome.currentStatus());
+        }
+        if (!outcome.studentExists()) {
+            return new NotFoundException("Student not found: " + studentId);
+        }
+        return new ConflictException("Slot was booked by another request: " + slotId);
+    }
 
+    /**
+     * Books the student into every FREE slot matching the weekly rules in one statement. Start times
+     * that cannot be booked are reported as conflicts instead of failing the whole series; the
+     * waitlist cleanup and the SSE notification happen once for the series.
+     */
+    @Transactional
+    public SlotBookSeriesResponse bookSeries(SlotBookSeriesRequest request) {
+        if (request.to().isBefore(request.from())) {
+            throw new IllegalArgumentException("Series 'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(request.from(), request.to()) + 1 > MAX_SERIES_DAYS) {
+            throw new IllegalArgumentException("Series range must not exceed " + MAX_SERIES_DAYS + " days");
+        }
         Student student = studentService.getEntityById(request.studentId());
 
-        slot.setStatus(SlotStatus.BOOKED);
-        slot.setStudent(student);
-        if (request.notes() != null) {
-            slot.setNotes(request.notes());
+        List<OffsetDateTime> startTimes = expandWeeklyRules(
+                request.weeklyRules(), ZoneId.of(request.timezone()), request.from(), request.to());
+        materializeOffered(startTimes);
+        SlotSeriesBookingOutcome outcome = slotRepository.bookSeriesIfFree(startTimes, student.getId(), request.notes());
+
+        if (outcome.waitlistEntriesRemoved() > 0) {
+            log.info("Removed {} active waitlist entry/entries for student {} after booking.",
+                    outcome.waitlistEntriesRemoved(), student.getId());
         }
 
-        slot = slotRepository.save(slot);
+        outcome.booked().forEach(slot -> slot.setStudent(student));
+        List<SlotResponse> booked = outcome.booked().stream().map(SlotResponse::from).toList();
+        if (!booked.isEmpty()) {
+            eventPublisher.publishEvent(new SlotBatchChangedEvent(
+                    SseEventType.SLOT_BOOKED,
+                    booked,
+                    outcome.events().stream().map(SlotEventResponse::from).toList()));
+        }
 
-        SlotEvent slotEvent = slotEventService.recordEventAndReturn(slot.getId(), EventType.BOOKED, null, student.getId());
+        OffsetDateTime now = OffsetDateTime.now(APP_ZONE);
+        List<SlotSeriesConflict> conflicts = outcome.refused().stream()
+                .map(refused -> new SlotSeriesConflict(refused.startAt(), refused.slotId(), refused.currentStatus(),
+                        seriesConflictReason(refused, now)))
+                .toList();
 
-        // Automatically remove the student from the waitlist once a slot is assigned
-        waitlistService.removeActiveByStudentId(student.getId());
+        return new SlotBookSeriesResponse(booked.size(), conflicts.size(), booked, conflicts);
+    }
 
-        SlotResponse response = SlotResponse.from(slot);
-        eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_BOOKED, response, SlotEventResponse.from(slotEvent)));
+    /**
+     * Inserts a slot row at every one of {@code startTimes} that an availability template offers.
+     */
+    private void materializeOffered(List<OffsetDateTime> startTimes) {
+        if (startTimes.isEmpty()) {
+            return;
+        }
+        OffsetDateTime first = Collections.min(startTimes);
+        OffsetDateTime last = Collections.max(startTimes);
+        Set<Instant> requested = new HashSet<>();
+        startTimes.forEach(startAt -> requested.add(startAt.toInstant()));
 
-        return response;
+        // Past hours are refused by the booking anyway, so they are not worth a row
+        OffsetDateTime now = OffsetDateTime.now(APP_ZONE);
+        List<OffsetDateTime> offered = virtualSlots.between(first, last.plusMinutes(60)).stream()
+                .map(SlotResponse::startAt)
+                .filter(startAt -> startAt.isAfter(now) && requested.contains(startAt.toInstant()))
+                .toList();
+        if (!offered.isEmpty()) {
+            insertGenerated(offered);
+        }
+    }
+
+    /**
+     * Inserts a slot row at every future hour of {@code [from, to)} that an availability template offers.
+     */
+    private void materializeOfferedBetween(OffsetDateTime from, OffsetDateTime to) {
+        OffsetDateTime now = OffsetDateTime.now(APP_ZONE);
+        List<OffsetDateTime> offered = virtualSlots.between(from, to).stream()
+                .map(SlotResponse::startAt)
+                .filter(startAt -> startAt.isAfter(now))
+                .toList();
+        if (!offered.isEmpty()) {
+            insertGenerated(offered);
+        }
+    }
+
+    private static SlotSeriesConflict.Reason seriesConflictReason(SlotSeriesBookingOutcome.Refused refused, OffsetDateTime now) {
+        if (refused.slotId() == null) {
+            return SlotSeriesConflict.Reason.NO_SLOT;
+        }
+        if (!refused.startAt().toInstant().isAfter(now.toInstant())) {
+            return SlotSeriesConflict.Reason.IN_PAST;
+        }
+        if (refused.currentStatus() != SlotStatus.FREE) {
+            return SlotSeriesConflict.Reason.NOT_FREE;
+        }
+        return SlotSeriesConflict.Reason.TAKEN_CONCURRENTLY;
     }
 
     @Transactional
@@ -217,7 +556,8 @@ public class SlotService {
         if (request.reason() != null) {
             meta.put("reason", request.reason());
         }
-        SlotEvent slotEvent = slotEventService.recordEventWithStudentsAndReturn(slot.getId(), EventType.CANCELLED, studentId, null, meta);
+        SlotEvent slotEvent = slotEventService.record(SlotEventDraft.of(slot.getId(), EventType.CANCELLED)
+                .withStudents(studentId, null).withMeta(meta));
 
         SlotResponse response = SlotResponse.from(slot);
         eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_CANCELLED, response, SlotEventResponse.from(slotEvent)));
@@ -244,7 +584,8 @@ public class SlotService {
 
         slot = slotRepository.save(slot);
 
-        SlotEvent slotEvent = slotEventService.recordEventAndReturn(slot.getId(), EventType.FREED, previousStudentId, null);
+        SlotEvent slotEvent = slotEventService.record(SlotEventDraft.of(slot.getId(), EventType.FREED)
+                .withStudents(previousStudentId, null));
 
         SlotResponse response = SlotResponse.from(slot);
         eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_FREED, response, SlotEventResponse.from(slotEvent)));
@@ -275,7 +616,8 @@ public class SlotService {
         if (request.reason() != null) {
             meta = Map.of("reason", request.reason());
         }
-        SlotEvent slotEvent = slotEventService.recordEventWithStudentsAndReturn(slot.getId(), EventType.REPLACED, oldStudentId, newStudent.getId(), meta);
+        SlotEvent slotEvent = slotEventService.record(SlotEventDraft.of(slot.getId(), EventType.REPLACED)
+                .withStudents(oldStudentId, newStudent.getId()).withMeta(meta));
 
         SlotResponse response = SlotResponse.from(slot);
         eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_REPLACED, response, SlotEventResponse.from(slotEvent)));
@@ -284,127 +626,82 @@ public class SlotService {
     }
 
     @Transactional
-    public RescheduleResponse reschedule(UUID originSlotId, SlotRescheduleRequest request) {
-        Slot originSlot = slotRepository.findByIdWithStudent(originSlotId)
-                .orElseThrow(() -> new NotFoundException("Origin slot not found: " + originSlotId));
-
-        if (originSlot.getStatus() != SlotStatus.BOOKED) {
-            throw new InvalidStateException("Origin slot must be BOOKED to reschedule. Current status: " + originSlot.getStatus());
+    public RescheduleResponse reschedule(UUID requestedOriginSlotId, SlotRescheduleRequest request) {
+        UUID originSlotId = resolve(requestedOriginSlotId);
+        UUID targetSlotId = materialize(request.targetSlotId());
+        SlotRescheduleOutcome outcome = slotRepository.rescheduleIfBookable(originSlotId, targetSlotId,
+                slotEventService.serializeMeta(rescheduleMeta("targetSlotId", targetSlotId, request.reason())),
+                slotEventService.serializeMeta(rescheduleMeta("originSlotId", originSlotId, request.reason())));
+        if (!outcome.moved()) {
+            throw rescheduleRefused(originSlotId, targetSlotId, outcome);
         }
 
-        Slot targetSlot = slotRepository.findByIdWithStudent(request.targetSlotId())
-                .orElseThrow(() -> new NotFoundException("Target slot not found: " + request.targetSlotId()));
+        SlotResponse origin = SlotResponse.from(outcome.origin());
+        SlotResponse target = SlotResponse.from(outcome.target());
+        eventPublisher.publishEvent(new SlotChangedEvent(
+                SseEventType.SLOT_RESCHEDULED, origin, SlotEventResponse.from(outcome.originEvent())));
+        eventPublisher.publishEvent(new SlotChangedEvent(
+                SseEventType.SLOT_RESCHEDULED, target, SlotEventResponse.from(outcome.targetEvent())));
 
-        validateNotInPast(targetSlot.getStartAt(), "reschedule to a slot");
+        return new RescheduleResponse(origin, target);
+    }
 
-        if (targetSlot.getStatus() != SlotStatus.FREE) {
-            throw new InvalidStateException("Target slot must be FREE. Current status: " + targetSlot.getStatus());
+    private static Map<String, Object> rescheduleMeta(String otherSlotKey, UUID otherSlotId, String reason) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put(otherSlotKey, otherSlotId.toString());
+        if (reason != null) {
+            meta.put("reason", reason);
         }
+        return meta;
+    }
 
-        Student student = originSlot.getStudent();
-        String notes = originSlot.getNotes();
-
-        originSlot.setStatus(SlotStatus.FREE);
-        originSlot.setStudent(null);
-        originSlot.setNotes(null);
-        originSlot = slotRepository.save(originSlot);
-
-        targetSlot.setStatus(SlotStatus.BOOKED);
-        targetSlot.setStudent(student);
-        targetSlot.setNotes(notes);
-        targetSlot = slotRepository.save(targetSlot);
-
-        Map<String, Object> originMeta = new HashMap<>();
-        originMeta.put("targetSlotId", request.targetSlotId().toString());
-        if (request.reason() != null) {
-            originMeta.put("reason", request.reason());
+    /**
+     * Explains why {@link SlotRepository#rescheduleIfBookable} moved nothing. Both slots were locked
+     * while the statement checked them, so one of these rules is always the reason.
+     */
+    private RuntimeException rescheduleRefused(UUID originSlotId, UUID targetSlotId, SlotRescheduleOutcome outcome) {
+        if (outcome.originStatus() == null) {
+            return new NotFoundException("Origin slot not found: " + originSlotId);
         }
-        SlotEvent originEvent = slotEventService.recordEventWithStudentsAndReturn(
-                originSlot.getId(), EventType.RESCHEDULED, student.getId(), null, originMeta);
-
-        Map<String, Object> targetMeta = new HashMap<>();
-        targetMeta.put("originSlotId", originSlotId.toString());
-        if (request.reason() != null) {
-            targetMeta.put("reason", request.reason());
+        if (outcome.originStatus() != SlotStatus.BOOKED) {
+            return new InvalidStateException("Origin slot must be BOOKED to reschedule. Current status: " + outcome.originStatus());
         }
-        SlotEvent targetEvent = slotEventService.recordEventWithStudentsAndReturn(
-                targetSlot.getId(), EventType.RESCHEDULED, null, student.getId(), targetMeta);
-
-        Slot freshOrigin = slotRepository.findByIdWithStudent(originSlotId).orElse(originSlot);
-        Slot freshTarget = slotRepository.findByIdWithStudent(request.targetSlotId()).orElse(targetSlot);
-
-        eventPublisher.publishEvent(new SlotChangedEvent(
-                SseEventType.SLOT_RESCHEDULED, SlotResponse.from(freshOrigin), SlotEventResponse.from(originEvent)));
-        eventPublisher.publishEvent(new SlotChangedEvent(
-                SseEventType.SLOT_RESCHEDULED, SlotResponse.from(freshTarget), SlotEventResponse.from(targetEvent)));
-
-        return new RescheduleResponse(SlotResponse.from(freshOrigin), SlotResponse.from(freshTarget));
+        if (outcome.targetStatus() == null) {
+            return new NotFoundException("Target slot not found: " + targetSlotId);
+        }
+        OffsetDateTime now = OffsetDateTime.now(APP_ZONE);
+        if (outcome.targetStartAt().toInstant().isBefore(now.toInstant())) {
+            return new ConflictException(
+                    "Cannot reschedule to a slot in the past. Requested: " + outcome.targetStartAt() + ", Now: " + now);
+        }
+        return new InvalidStateException("Target slot must be FREE. Current status: " + outcome.targetStatus());
     }
 
+    /**
+     * Blocks every non-BOOKED hour of {@code [from, to)} for the block, creating missing slots as
+     * BLOCKED. Runs as one statement and announces all changed slots in one batch event.
+     */
     @Transactional
     public void blockSlotsInRange(UUID blockId, OffsetDateTime from, OffsetDateTime to) {
-        final String blockIdStr = blockId.toString();
-
-        // Block existing non-BOOKED slots in bulk
-        final List<Slot> existingSlots = slotRepository.findAll(SlotSpecifications.inRangeExcludingBooked(from, to));
-        for (Slot slot : existingSlots) {
-            slot.setStatus(SlotStatus.BLOCKED);
-            slot.setBlockId(blockId);
-        }
-        slotRepository.saveAll(existingSlots);
-        for (Slot slot : existingSlots) {
-            SlotEvent slotEvent = slotEventService.recordEventAndReturn(slot.getId(), EventType.BLOCKED, Map.of("blockId", blockIdStr));
-            eventPublisher.publishEvent(new SlotChangedEvent(
-                    SseEventType.SLOT_BLOCKED, SlotResponse.from(slot), SlotEventResponse.from(slotEvent)));
-        }
-
-        // Pre-fetch existing start times to avoid N+1 existence checks
-        final Set<OffsetDateTime> existingStartTimes = slotRepository.findStartAtBetween(from, to);
-
-        // Create new BLOCKED slots for each hour in the range that has no slot yet
-        final List<Slot> newSlots = new ArrayList<>();
-        OffsetDateTime currentStart = from;
-        while (currentStart.isBefore(to)) {
-            if (!existingStartTimes.contains(currentStart)) {
-                final Slot newSlot = new Slot(currentStart);
-                newSlot.setStatus(SlotStatus.BLOCKED);
-                newSlot.setBlockId(blockId);
-                newSlots.add(newSlot);
-            }
-            currentStart = currentStart.plusHours(1);
-        }
-        final List<Slot> savedNewSlots = slotRepository.saveAll(newSlots);
-        for (Slot saved : savedNewSlots) {
-            SlotEvent slotEvent = slotEventService.recordEventAndReturn(saved.getId(), EventType.BLOCKED, Map.of("blockId", blockIdStr));
-            eventPublisher.publishEvent(new SlotChangedEvent(
-                    SseEventType.SLOT_BLOCKED, SlotResponse.from(saved), SlotEventResponse.from(slotEvent)));
-        }
+        publishBatch(SseEventType.SLOT_BLOCKED, slotRepository.blockRange(blockId, from, to));
     }
 
+    /**
+     * Frees every slot still BLOCKED by the block in one statement and announces them in one batch event.
+     */
     @Transactional
     public void unblockSlotsByBlockId(UUID blockId) {
-        final String blockIdStr = blockId.toString();
-        final List<Slot> slotsToUnblock = slotRepository.findByBlockId(blockId).stream()
-                .filter(s -> s.getStatus() == SlotStatus.BLOCKED)
-                .toList();
-        for (Slot slot : slotsToUnblock) {
-            slot.setStatus(SlotStatus.FREE);
-            slot.setBlockId(null);
-        }
-        slotRepository.saveAll(slotsToUnblock);
-        for (Slot slot : slotsToUnblock) {
-            SlotEvent slotEvent = slotEventService.recordEventAndReturn(slot.getId(), EventType.UNBLOCKED, Map.of("blockId", blockIdStr));
-            eventPublisher.publishEvent(new SlotChangedEvent(
-                    SseEventType.SLOT_UNBLOCKED, SlotResponse.from(slot), SlotEventResponse.from(slotEvent)));
-        }
+        publishBatch(SseEventType.SLOT_UNBLOCKED, slotRepository.transition(SlotSelection.byBlockId(blockId), UNBLOCK));
     }
 
     /**
      * Blocks a single slot directly (without creating a Block entity).
      * The slot must be FREE or CANCELLED — BOOKED slots cannot be blocked.
+     * A virtual slot offered by an availability template gets its row first.
      */
     @Transactional
-    public SlotResponse blockSlot(UUID slotId) {
+    public SlotResponse blockSlot(UUID requestedSlotId) {
+        UUID slotId = materialize(requestedSlotId);
         Slot slot = slotRepository.findById(slotId)
                 .orElseThrow(() -> new NotFoundException("Slot not found: " + slotId));
 
@@ -418,7 +715,7 @@ public class SlotService {
         slot.setStatus(SlotStatus.BLOCKED);
         slot = slotRepository.save(slot);
 
-        SlotEvent slotEvent = slotEventService.recordEventAndReturn(slot.getId(), EventType.BLOCKED, Collections.emptyMap());
+        SlotEvent slotEvent = slotEventService.record(SlotEventDraft.of(slot.getId(), EventType.BLOCKED));
         SlotResponse response = SlotResponse.from(slot);
         eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_BLOCKED, response, SlotEventResponse.from(slotEvent)));
 
@@ -444,13 +741,140 @@ public class SlotService {
         slot = slotRepository.save(slot);
 
         Map<String, Object> meta = blockId != null ? Map.of("blockId", blockId.toString()) : Collections.emptyMap();
-        SlotEvent slotEvent = slotEventService.recordEventAndReturn(slot.getId(), EventType.UNBLOCKED, meta);
+        SlotEvent slotEvent = slotEventService.record(SlotEventDraft.of(slot.getId(), EventType.UNBLOCKED).withMeta(meta));
         SlotResponse response = SlotResponse.from(slot);
         eventPublisher.publishEvent(new SlotChangedEvent(SseEventType.SLOT_UNBLOCKED, response, SlotEventResponse.from(slotEvent)));
 
         return response;
     }
 
+    // -------------------------------------------------------------------------
+    // Bulk transitions — one statement per request, one batch event
+    // -------------------------------------------------------------------------
+
+    @Transactional
+    public SlotBulkResponse bulkCancel(SlotBulkRequest request) {
+        if (request.cancelledBy() == null) {
+            throw new IllegalArgumentException("cancelledBy is required to cancel slots");
+        }
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("cancelledBy", request.cancelledBy().name());
+        if (request.reason() != null) {
+            meta.put("reason", request.reason());
+        }
+        return bulkTransition(toSelection(request, false), new SlotTransition(
+                        EnumSet.of(SlotStatus.BOOKED), SlotStatus.CANCELLED, false, false, null,
+                        EventType.CANCELLED, true, false, slotEventService.serializeMeta(meta)),
+                SseEventType.SLOT_CANCELLED, "BOOKED to cancel");
+    }
+
+    @Transactional
+    public SlotBulkResponse bulkFree(SlotBulkRequest request) {
+        return bulkTransition(toSelection(request, false), new SlotTransition(
+                        EnumSet.of(SlotStatus.CANCELLED, SlotStatus.BOOKED), SlotStatus.FREE, true, false, request.notes(),
+                        EventType.FREED, true, false, null),
+                SseEventType.SLOT_FREED, "CANCELLED or BOOKED to free");
+    }
+
+    /**
+     * Blocking also covers the hours availability templates offer: they get their slot rows first, so that
+     * no template hour stays bookable inside a blocked range.
+     */
+    @Transactional
+    public SlotBulkResponse bulkBlock(SlotBulkRequest request) {
+        return bulkTransition(toSelection(request, true), new SlotTransition(
+                        EnumSet.of(SlotStatus.FREE, SlotStatus.CANCELLED), SlotStatus.BLOCKED, false, false, null,
+                        EventType.BLOCKED, false, false, null),
+                SseEventType.SLOT_BLOCKED, "FREE or CANCELLED to block");
+    }
+
+    @Transactional
+    public SlotBulkResponse bulkUnblock(SlotBulkRequest request) {
+        return bulkTransition(toSelection(request, false), UNBLOCK, SseEventType.SLOT_UNBLOCKED, "BLOCKED to unblock");
+    }
+
+    /**
+     * Deletes every selected slot that is not BOOKED, recording a DELETED slot event for each, and
+     * announces them in one batch event like the other bulk transitions.
+     */
+    @Transactional
+    public SlotBulkResponse bulkDelete(SlotBulkRequest request) {
+        SlotSelection selection = toSelection(request, false);
+        SlotTransitionOutcome outcome = slotRepository.delete(selection, EnumSet.complementOf(EnumSet.of(SlotStatus.BOOKED)));
+        publishBatch(SseEventType.SLOT_DELETED, outcome);
+        return toBulkResponse(selection, outcome, "not BOOKED to delete");
+    }
+
+    private SlotBulkResponse bulkTransition(SlotSelection selection, SlotTransition transition,
+                                            SseEventType eventType, String requirement) {
+        SlotTransitionOutcome outcome = slotRepository.transition(selection, transition);
+        publishBatch(eventType, outcome);
+        return toBulkResponse(selection, outcome, requirement);
+    }
+
+    private void publishBatch(SseEventType eventType, SlotTransitionOutcome outcome) {
+        if (!outcome.changed().isEmpty()) {
+            eventPublisher.publishEvent(new SlotBatchChangedEvent(
+                    eventType,
+                    outcome.changed().stream().map(SlotResponse::from).toList(),
+                    outcome.events().stream().map(SlotEventResponse::from).toList()));
+        }
+    }
+
+    /**
+     * Virtual slot ids are resolved to the slot rows at their start times. With {@code materializeOffered},
+     * the hours availability templates offer get their rows first: those of virtual ids in the list, or
+     * every offered hour of the range.
+     */
+    private SlotSelection toSelection(SlotBulkRequest request, boolean materializeOffered) {
+        boolean byIds = request.slotIds() != null;
+        boolean byRange = request.from() != null || request.to() != null;
+        if (byIds == byRange) {
+            throw new IllegalArgumentException("Select slots either by 'slotIds' or by 'from' and 'to'");
+        }
+        if (byIds) {
+            if (materializeOffered) {
+                materializeOffered(request.slotIds().stream()
+                        .filter(VirtualSlotId::isVirtual)
+                        .map(VirtualSlotId::startAt)
+                        .toList());
+            }
+            Set<UUID> ids = new LinkedHashSet<>();
+            request.slotIds().forEach(id -> ids.add(resolve(id)));
+            return SlotSelection.byIds(ids);
+        }
+        if (request.from() == null || request.to() == null || !request.from().isBefore(request.to())) {
+            throw new IllegalArgumentException("Bulk range needs 'from' before 'to'");
+        }
+        if (ChronoUnit.DAYS.between(request.from(), request.to()) >= MAX_BULK_RANGE_DAYS) {
+            throw new IllegalArgumentException("Bulk range must not exceed " + MAX_BULK_RANGE_DAYS + " days");
+        }
+        if (materializeOffered) {
+            materializeOfferedBetween(request.from(), request.to());
+        }
+        return SlotSelection.inRange(request.from(), request.to());
+    }
+
+    private static SlotBulkResponse toBulkResponse(SlotSelection selection, SlotTransitionOutcome outcome, String requirement) {
+        List<SlotResponse> affected = outcome.changed().stream().map(SlotResponse::from).toList();
+        List<SlotBulkSkip> skipped = new ArrayList<>();
+        for (SlotTransitionOutcome.Skipped skip : outcome.skipped()) {
+            skipped.add(new SlotBulkSkip(skip.slotId(), skip.startAt(), skip.currentStatus(),
+                    "Slot must be " + requirement + ". Current status: " + skip.currentStatus()));
+        }
+        if (selection.isByIds()) {
+            Set<UUID> found = new HashSet<>();
+            outcome.changed().forEach(slot -> found.add(slot.getId()));
+            outcome.skipped().forEach(skip -> found.add(skip.slotId()));
+            for (UUID id : selection.ids()) {
+                if (!found.contains(id)) {
+                    skipped.add(new SlotBulkSkip(id, null, null, "Slot not found"));
+                }
+            }
+        }
+        return new SlotBulkResponse(affected.size(), skipped.size(), affected, skipped);
+    }
+
     // -------------------------------------------------------------------------
     // Private validation helpers
     // -------------------------------------------------------------------------
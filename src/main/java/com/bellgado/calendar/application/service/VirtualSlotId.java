@@ -0,0 +1,37 @@
+package com.bellgado.calendar.application.service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Ids of virtual slots offered by availability templates. The start time is encoded in the id itself, so a
+ * virtual slot can be addressed (and materialized) without any stored state. The high bits are a fixed
+ * marker with version nibble 0, which never occurs in the random (version 4) ids of slot rows.
+ */
+public final class VirtualSlotId {
+
+    private static final long MARKER = 0x76697274_7561_0000L;
+
+    private VirtualSlotId() {
+    }
+
+    public static UUID of(OffsetDateTime startAt) {
+        return new UUID(MARKER, startAt.toEpochSecond());
+    }
+
+    public static boolean isVirtual(UUID id) {
+        return id.getMostSignificantBits() == MARKER;
+    }
+
+    /**
+     * Start time (UTC) encoded in a virtual slot id.
+     */
+    public static OffsetDateTime startAt(UUID id) {
+        if (!isVirtual(id)) {
+            throw new IllegalArgumentException("Not a virtual slot id: " + id);
+        }
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(id.getLeastSignificantBits()), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,96 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.api.dto.WeeklyRule;
+import com.bellgado.calendar.domain.entity.AvailabilityTemplate;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.AvailabilityTemplateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Expands availability templates into virtual FREE slots. Virtual slots carry a {@link VirtualSlotId},
+ * version 0 and the template's timestamps; whether a slot row already exists at the same start time is
+ * up to the caller ({@link SlotService}) to check.
+ */
+@Component
+@RequiredArgsConstructor
+public class VirtualSlots {
+
+    private final AvailabilityTemplateRepository templateRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Virtual slots starting in {@code [from, to)}, ordered by start time. Start times offered by several
+     * templates are returned once, attributed to the oldest template.
+     */
+    public List<SlotResponse> between(OffsetDateTime from, OffsetDateTime to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        // Template dates are local to the template's timezone; a day of slack on each side covers any offset
+        LocalDate fromDate = from.atZoneSameInstant(ZoneOffset.UTC).toLocalDate().minusDays(1);
+        LocalDate toDate = to.atZoneSameInstant(ZoneOffset.UTC).toLocalDate().plusDays(1);
+
+        TreeMap<Instant, SlotResponse> offered = new TreeMap<>();
+        for (AvailabilityTemplate template : templateRepository.findOverlapping(fromDate, toDate)) {
+            LocalDate first = template.getFromDate().isAfter(fromDate) ? template.getFromDate() : fromDate;
+            LocalDate last = template.getToDate() != null && template.getToDate().isBefore(toDate)
+                    ? template.getToDate() : toDate;
+            for (OffsetDateTime startAt : SlotService.expandWeeklyRules(
+                    rules(template), ZoneId.of(template.getTimezone()), first, last)) {
+                if (!startAt.isBefore(from) && startAt.isBefore(to)) {
+                    offered.putIfAbsent(startAt.toInstant(), toSlot(startAt, template));
+                }
+            }
+        }
+        return new ArrayList<>(offered.values());
+    }
+
+    /**
+     * The virtual slot starting exactly at {@code startAt}, if any template offers one.
+     */
+    public Optional<SlotResponse> at(OffsetDateTime startAt) {
+        return between(startAt, startAt.plusSeconds(1)).stream().findFirst();
+    }
+
+    public boolean offers(OffsetDateTime startAt) {
+        return at(startAt).isPresent();
+    }
+
+    public List<WeeklyRule> rules(AvailabilityTemplate template) {
+        try {
+            return objectMapper.readValue(template.getWeeklyRules(), new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read weekly rules of availability template " + template.getId(), e);
+        }
+    }
+
+    private static SlotResponse toSlot(OffsetDateTime startAt, AvailabilityTemplate template) {
+        OffsetDateTime utc = startAt.withOffsetSameInstant(ZoneOffset.UTC);
+        return new SlotResponse(
+                VirtualSlotId.of(utc),
+                utc,
+                utc.plusMinutes(60),
+                SlotStatus.FREE,
+                null,
+                null,
+                0,
+                template.getCreatedAt(),
+                template.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,67 @@
+package com.bellgado.calendar.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Recurring availability: every hourly start time produced by the weekly rules between {@code fromDate}
+ * and {@code toDate} (open-ended when {@code null}) is offered as a FREE slot without a {@code slots} row.
+ * A row is only inserted once such a slot is booked or blocked.
+ */
+@Entity
+@Table(name = "availability_templates")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class AvailabilityTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date")
+    private LocalDate toDate;
+
+    @Column(name = "timezone", nullable = false, length = 50)
+    private String timezone;
+
+    /** Weekly rules, serialized as JSON. */
+    @Column(name = "weekly_rules", nullable = false, columnDefinition = "TEXT")
+    private String weeklyRules;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+        updatedAt = OffsetDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
+
+    public AvailabilityTemplate(LocalDate fromDate, LocalDate toDate, String timezone, String weeklyRules) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.timezone = timezone;
+        this.weeklyRules = weeklyRules;
+    }
+}
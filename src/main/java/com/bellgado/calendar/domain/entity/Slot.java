@@ -6,6 +6,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -23,7 +24,12 @@ public class Slot {
     @EqualsAndHashCode.Include
     private UUID id;
 
-    @Column(name = "start_at", nullable = false)
+    /**
+     * Added by Hibernate to its updates and deletes of the slot, so that they only touch the slot's own
+     * partition. Never changes once the slot exists (see V15).
+     */
+    @PartitionKey
+    @Column(name = "start_at", nullable = false, updatable = false)
     private OffsetDateTime startAt;
 
     @Column(name = "end_at", nullable = false)
@@ -6,6 +6,9 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -23,6 +26,11 @@ public class SlotEvent {
     @EqualsAndHashCode.Include
     private UUID id;
 
+    /** Position in the global event order, assigned by the database on insert. Used as the SSE event id. */
+    @Generated
+    @Column(name = "seq", insertable = false, updatable = false)
+    private Long seq;
+
     @Column(name = "slot_id", nullable = false)
     private UUID slotId;
 
@@ -39,7 +47,9 @@ public class SlotEvent {
     @Column(name = "new_student_id")
     private UUID newStudentId;
 
-    @Column(name = "meta", columnDefinition = "TEXT")
+    /** Event metadata as a JSON object, stored as {@code jsonb}. */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "meta", columnDefinition = "jsonb")
     private String meta;
 
     @PrePersist
@@ -0,0 +1,108 @@
+package com.bellgado.calendar.domain.entity;
+
+import com.bellgado.calendar.domain.enums.GenerationJobStatus;
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A slot generation request that is processed in the background, one chunk per transaction.
+ * {@code nextDate} is advanced in the same transaction as each chunk, so an interrupted job
+ * resumes exactly where it stopped.
+ */
+@Entity
+@Table(name = "slot_generation_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SlotGenerationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @Column(name = "timezone", nullable = false, length = 50)
+    private String timezone;
+
+    /** Weekly rules of the original request, serialized as JSON. */
+    @Column(name = "weekly_rules", nullable = false, columnDefinition = "TEXT")
+    private String weeklyRules;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private GenerationJobStatus status = GenerationJobStatus.PENDING;
+
+    @Column(name = "next_date", nullable = false)
+    private LocalDate nextDate;
+
+    @Column(name = "created_count", nullable = false)
+    private int createdCount;
+
+    @Column(name = "skipped_count", nullable = false)
+    private int skippedCount;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+        updatedAt = OffsetDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
+
+    public SlotGenerationJob(LocalDate fromDate, LocalDate toDate, String timezone, String weeklyRules) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.timezone = timezone;
+        this.weeklyRules = weeklyRules;
+        this.nextDate = fromDate;
+        this.status = GenerationJobStatus.PENDING;
+    }
+
+    public boolean hasRemainingDays() {
+        return !nextDate.isAfter(toDate);
+    }
+
+    /**
+     * Records the outcome of one processed chunk that ended (inclusive) at {@code chunkEnd}.
+     */
+    public void recordChunk(LocalDate chunkEnd, int created, int skipped) {
+        this.status = GenerationJobStatus.RUNNING;
+        this.nextDate = chunkEnd.plusDays(1);
+        this.createdCount += created;
+        this.skippedCount += skipped;
+        if (!hasRemainingDays()) {
+            this.status = GenerationJobStatus.COMPLETED;
+        }
+    }
+
+    public void markFailed(String error) {
+        this.status = GenerationJobStatus.FAILED;
+        this.error = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
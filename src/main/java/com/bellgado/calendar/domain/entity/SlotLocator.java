@@ -0,0 +1,30 @@
+package com.bellgado.calendar.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Start time of every slot by id, maintained by a trigger on {@code slots} (see V14). Only read, to narrow
+ * lookups by slot id to the partition holding the slot.
+ */
+@Entity
+@Immutable
+@Table(name = "slot_locator")
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SlotLocator {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "start_at", nullable = false)
+    private OffsetDateTime startAt;
+}
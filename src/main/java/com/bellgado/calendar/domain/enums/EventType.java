@@ -10,5 +10,6 @@ public enum EventType {
     RESCHEDULED,
     BLOCKED,
     UNBLOCKED,
+    DELETED,
     NOTES_UPDATED
 }
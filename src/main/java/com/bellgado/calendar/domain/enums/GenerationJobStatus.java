@@ -0,0 +1,15 @@
+package com.bellgado.calendar.domain.enums;
+
+/**
+ * Lifecycle of a background slot generation job.
+ */
+public enum GenerationJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableAsync
@@ -21,4 +23,28 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Writes the outbound queues of SSE clients, one virtual thread per queue drain, so that a client on a
+     * slow network only ever blocks its own writer.
+     */
+    @Bean(name = "sseWriterExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService sseWriterExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-writer-", 0).factory());
+    }
+
+    /**
+     * Runs background slot generation jobs one at a time, so concurrent jobs never
+     * compete for the same slots.
+     */
+    @Bean(name = "generationJobExecutor")
+    public Executor generationJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("generation-job-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,23 @@
+package com.bellgado.calendar.infrastructure.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code jsonb_contains(column, json)} for queries and specifications. It renders as the
+ * {@code @>} operator rather than PostgreSQL's function of the same name, because only the operator
+ * can be answered from a GIN index. Registered through {@code META-INF/services}.
+ */
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder("jsonb_contains", "(?1 @> cast(?2 as jsonb))")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.AvailabilityTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AvailabilityTemplateRepository extends JpaRepository<AvailabilityTemplate, UUID> {
+
+    /**
+     * Templates whose date range overlaps {@code [from, to]} (both inclusive), oldest first.
+     */
+    @Query("SELECT t FROM AvailabilityTemplate t WHERE t.fromDate <= :to AND (t.toDate IS NULL OR t.toDate >= :from) " +
+            "ORDER BY t.createdAt ASC")
+    List<AvailabilityTemplate> findOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    List<AvailabilityTemplate> findAllByOrderByFromDateAsc();
+}
@@ -0,0 +1,79 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Maintenance of the monthly range partitions of {@code slots} and {@code slot_events} (see V7).
+ * Both operations are idempotent and run in the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartitionRepository {
+
+    public static final String SLOTS = "slots";
+    public static final String SLOT_EVENTS = "slot_events";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the partition of {@code table} for the UTC month containing {@code month}, moving rows for
+     * that month out of the default partition.
+     *
+     * @return {@code false} when the partition already existed
+     */
+    public boolean ensureMonthlyPartition(String table, LocalDate month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT ensure_monthly_partition(?, ?, ?)", Boolean.class, table, keyColumn(table), month));
+    }
+
+    /**
+     * Detaches every monthly partition of {@code table} that ends on or before {@code beforeMonth}
+     * and moves it into the {@code archive} schema.
+     *
+     * @return the number of partitions archived
+     */
+    public int archiveMonthlyPartitions(String table, LocalDate beforeMonth) {
+        Integer archived = jdbcTemplate.queryForObject(
+                "SELECT archive_monthly_partitions(?, ?)", Integer.class, table, beforeMonth);
+        return archived != null ? archived : 0;
+    }
+
+    /**
+     * Attaches the partitions of {@code table} moved into the {@code archive} schema to the archive table
+     * of the same name (see V11), which has to exist.
+     *
+     * @return the number of partitions attached
+     */
+    public int attachArchivedPartitions(String table) {
+        Integer attached = jdbcTemplate.queryForObject(
+                "SELECT attach_archived_partitions(?)", Integer.class, table);
+        return attached != null ? attached : 0;
+    }
+
+    /**
+     * End of the newest month attached to the archive table of {@code table}; older rows are only in the
+     * archive. Empty when nothing is archived or {@code table} has no archive table.
+     */
+    public Optional<OffsetDateTime> archivedUntil(String table) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("""
+                SELECT MAX(to_date(right(c.relname, 7), 'YYYY"m"MM') + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC'
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(format('archive.%I', ?::text))
+                """, OffsetDateTime.class, table));
+    }
+
+    private static String keyColumn(String table) {
+        return switch (table) {
+            case SLOTS -> "start_at";
+            case SLOT_EVENTS -> "at";
+            default -> throw new IllegalArgumentException("Not a partitioned table: " + table);
+        };
+    }
+}
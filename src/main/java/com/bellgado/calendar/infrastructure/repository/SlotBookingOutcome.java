@@ -0,0 +1,30 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Result of {@link SlotRepositoryCustom#bookIfFree}.
+ * When the conditional update matched, {@code slot} and {@code event} are set (both detached).
+ * Otherwise they are {@code null} and the remaining fields describe the slot and student as the
+ * statement saw them, so the caller can report why the booking was refused.
+ *
+ * @param currentStatus  status of the slot when the statement started, {@code null} if it does not exist
+ * @param currentStartAt start time of the slot, {@code null} if it does not exist
+ * @param studentExists  whether the requested student exists
+ */
+public record SlotBookingOutcome(
+        Slot slot,
+        SlotEvent event,
+        int waitlistEntriesRemoved,
+        SlotStatus currentStatus,
+        OffsetDateTime currentStartAt,
+        boolean studentExists
+) {
+    public boolean booked() {
+        return slot != null;
+    }
+}
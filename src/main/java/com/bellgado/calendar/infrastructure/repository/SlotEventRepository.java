@@ -4,6 +4,8 @@ import com.bellgado.calendar.domain.entity.SlotEvent;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
@@ -11,9 +13,27 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface SlotEventRepository extends JpaRepository<SlotEvent, UUID>, JpaSpecificationExecutor<SlotEvent> {
+public interface SlotEventRepository extends JpaRepository<SlotEvent, UUID>, JpaSpecificationExecutor<SlotEvent>, SlotEventRepositoryCustom {
 
     List<SlotEvent> findBySlotIdOrderByAtDesc(UUID slotId);
 
     List<SlotEvent> findByAtAfterOrderByAtAsc(OffsetDateTime since, Pageable pageable);
+
+    /**
+     * Events a client that has seen the event numbered {@code seq} may have missed, in sequence order: those
+     * numbered higher, and those of transactions still running when it was inserted, which can have committed
+     * after it with a lower number (see V12).
+     */
+    @Query(value = """
+            SELECT id, seq, slot_id, type, at, old_student_id, new_student_id, meta
+            FROM slot_events
+            WHERE seq > :seq
+               OR (seq < :seq AND txid >= (SELECT horizon FROM slot_events WHERE seq = :seq LIMIT 1))
+            ORDER BY seq
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<SlotEvent> findMissedAfterSeq(@Param("seq") long seq, @Param("limit") int limit);
+
+    @Query("SELECT MAX(e.seq) FROM SlotEvent e")
+    Long findMaxSeq();
 }
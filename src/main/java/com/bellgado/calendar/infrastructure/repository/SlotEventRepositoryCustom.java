@@ -0,0 +1,37 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.EventType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Multi-row audit writes and archive reads that bypass the persistence context.
+ * Implemented with plain JDBC in {@link SlotEventRepositoryImpl}.
+ */
+public interface SlotEventRepositoryCustom {
+
+    /** Properties slot event pages can be sorted by, from the live table and the archive alike. */
+    Set<String> SORT_PROPERTIES = Set.of("id", "seq", "slotId", "type", "at", "oldStudentId", "newStudentId", "meta");
+
+    /**
+     * Inserts all events with a single multi-row statement.
+     * Missing ids are generated client-side and set on the passed events together with the
+     * sequence numbers assigned by the database, so the list can be used as-is after the call.
+     */
+    void insertAll(List<SlotEvent> events);
+
+    /**
+     * Events in {@code [from, to)} from the live table and the archive, with the same filters as
+     * {@code SlotEventSpecifications.inDateRangeWithTypesAndMeta}. The returned entities are detached.
+     *
+     * @param pageable sortable by the {@link #SORT_PROPERTIES}
+     */
+    Page<SlotEvent> findInRangeIncludingArchive(OffsetDateTime from, OffsetDateTime to, Collection<EventType> types,
+                                                String metaJson, Pageable pageable);
+}
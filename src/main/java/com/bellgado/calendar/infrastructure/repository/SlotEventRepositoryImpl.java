@@ -0,0 +1,154 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.EventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class SlotEventRepositoryImpl implements SlotEventRepositoryCustom {
+
+    private static final String INSERT_ALL = """
+            INSERT INTO slot_events (id, slot_id, type, at, old_student_id, new_student_id, meta)
+            SELECT * FROM unnest(?::uuid[], ?::uuid[], ?::varchar[], ?::timestamptz[], ?::uuid[], ?::uuid[], ?::jsonb[])
+            RETURNING id, seq
+            """;
+
+    private static final String IN_RANGE_INCLUDING_ARCHIVE = """
+            FROM slot_events_with_archive
+            WHERE at >= ? AND at < ?
+              AND (?::varchar[] IS NULL OR type = ANY(?::varchar[]))
+              AND (?::jsonb IS NULL OR meta @> ?::jsonb)
+            """;
+
+    /** Column of each of the {@link #SORT_PROPERTIES}. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "seq", "seq",
+            "slotId", "slot_id",
+            "type", "type",
+            "at", "at",
+            "oldStudentId", "old_student_id",
+            "newStudentId", "new_student_id",
+            "meta", "meta"
+    );
+
+    private static final RowMapper<SlotEvent> SLOT_EVENT_ROW_MAPPER = (rs, rowNum) -> {
+        SlotEvent event = new SlotEvent();
+        event.setId(rs.getObject("id", UUID.class));
+        event.setSeq(rs.getObject("seq", Long.class));
+        event.setSlotId(rs.getObject("slot_id", UUID.class));
+        event.setType(EventType.valueOf(rs.getString("type")));
+        event.setAt(rs.getObject("at", OffsetDateTime.class));
+        event.setOldStudentId(rs.getObject("old_student_id", UUID.class));
+        event.setNewStudentId(rs.getObject("new_student_id", UUID.class));
+        event.setMeta(rs.getString("meta"));
+        return event;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<SlotEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        int size = events.size();
+        String[] ids = new String[size];
+        String[] slotIds = new String[size];
+        String[] types = new String[size];
+        String[] ats = new String[size];
+        String[] oldStudentIds = new String[size];
+        String[] newStudentIds = new String[size];
+        String[] metas = new String[size];
+        Map<UUID, SlotEvent> byId = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            SlotEvent event = events.get(i);
+            if (event.getId() == null) {
+                event.setId(UUID.randomUUID());
+            }
+            if (event.getAt() == null) {
+                event.setAt(OffsetDateTime.now());
+            }
+            ids[i] = event.getId().toString();
+            slotIds[i] = event.getSlotId().toString();
+            types[i] = event.getType().name();
+            ats[i] = event.getAt().toString();
+            oldStudentIds[i] = Objects.toString(event.getOldStudentId(), null);
+            newStudentIds[i] = Objects.toString(event.getNewStudentId(), null);
+            metas[i] = event.getMeta();
+            byId.put(event.getId(), event);
+        }
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_ALL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setArray(2, con.createArrayOf("uuid", slotIds));
+            ps.setArray(3, con.createArrayOf("varchar", types));
+            ps.setArray(4, con.createArrayOf("timestamptz", ats));
+            ps.setArray(5, con.createArrayOf("uuid", oldStudentIds));
+            ps.setArray(6, con.createArrayOf("uuid", newStudentIds));
+            ps.setArray(7, con.createArrayOf("text", metas));
+            return ps;
+        }, (RowCallbackHandler) rs -> byId.get(rs.getObject("id", UUID.class)).setSeq(rs.getLong("seq")));
+    }
+
+    @Override
+    public Page<SlotEvent> findInRangeIncludingArchive(OffsetDateTime from, OffsetDateTime to,
+                                                       Collection<EventType> types, String metaJson,
+                                                       Pageable pageable) {
+        String[] typeNames = types == null || types.isEmpty()
+                ? null
+                : types.stream().map(EventType::name).toArray(String[]::new);
+        PreparedStatementSetter filters = ps -> {
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            ps.setArray(3, typeNames != null ? ps.getConnection().createArrayOf("varchar", typeNames) : null);
+            ps.setArray(4, typeNames != null ? ps.getConnection().createArrayOf("varchar", typeNames) : null);
+            ps.setString(5, metaJson);
+            ps.setString(6, metaJson);
+        };
+
+        List<SlotEvent> content = jdbcTemplate.query(
+                "SELECT * " + IN_RANGE_INCLUDING_ARCHIVE + orderBy(pageable.getSort())
+                        + " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset(),
+                filters, SLOT_EVENT_ROW_MAPPER);
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            Long total = jdbcTemplate.query("SELECT count(*) " + IN_RANGE_INCLUDING_ARCHIVE, filters,
+                    rs -> rs.next() ? rs.getLong(1) : 0L);
+            return total != null ? total : 0L;
+        });
+    }
+
+    private static String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", "ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Cannot sort slot events by " + order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        // Ties are broken by id so that pages do not overlap
+        orderBy.add("id");
+        return orderBy.toString();
+    }
+}
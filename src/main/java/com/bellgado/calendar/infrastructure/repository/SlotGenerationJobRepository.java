@@ -0,0 +1,19 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.SlotGenerationJob;
+import com.bellgado.calendar.domain.enums.GenerationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SlotGenerationJobRepository extends JpaRepository<SlotGenerationJob, UUID> {
+
+    @Query("SELECT j.id FROM SlotGenerationJob j WHERE j.status IN :statuses ORDER BY j.createdAt ASC")
+    List<UUID> findIdsByStatusIn(@Param("statuses") Collection<GenerationJobStatus> statuses);
+}
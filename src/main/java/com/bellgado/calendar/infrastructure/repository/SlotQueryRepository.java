@@ -0,0 +1,141 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.api.dto.StudentBrief;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Read-only slot queries that map rows straight into {@link SlotResponse}.
+ * Nothing passes through the persistence context, so there is no entity tracking, dirty-check
+ * snapshot or {@code SlotResponse.from} copy. Write paths keep using {@link SlotRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SlotQueryRepository {
+
+    private static final String SELECT_SLOT_RESPONSE = """
+            SELECT s.id, s.start_at, s.end_at, s.status, s.notes, s.version, s.created_at, s.updated_at,
+                   st.id AS student_id, st.full_name AS student_full_name
+            FROM slots s
+            LEFT JOIN students st ON st.id = s.student_id
+            """;
+
+    private static final String IN_RANGE = """
+            WHERE s.start_at >= ? AND s.start_at < ?
+              AND (?::uuid IS NULL OR s.student_id = ?::uuid)
+              AND (?::varchar[] IS NULL OR s.status = ANY(?::varchar[]))
+            ORDER BY s.start_at
+            """;
+
+    /** The id array is bound three times; see {@link #findAllById}. */
+    private static final String BY_IDS = """
+            WHERE s.id = ANY(?)
+              AND s.start_at BETWEEN (SELECT min(start_at) FROM slot_locator WHERE id = ANY(?))
+                                 AND (SELECT max(start_at) FROM slot_locator WHERE id = ANY(?))
+            """;
+
+    static final int STREAM_FETCH_SIZE = 1000;
+
+    static final RowMapper<SlotResponse> SLOT_RESPONSE_ROW_MAPPER = (rs, rowNum) -> {
+        UUID studentId = rs.getObject("student_id", UUID.class);
+        return new SlotResponse(
+                rs.getObject("id", UUID.class),
+                rs.getObject("start_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class),
+                SlotStatus.valueOf(rs.getString("status")),
+                studentId != null ? new StudentBrief(studentId, rs.getString("student_full_name")) : null,
+                rs.getString("notes"),
+                rs.getInt("version"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class)
+        );
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Slots starting in {@code [from, to)}, ordered by start time.
+     *
+     * @param studentId only this student's slots, or every slot when {@code null}
+     * @param statuses  only these statuses, or every status when {@code null} or empty
+     */
+    public List<SlotResponse> findInRange(OffsetDateTime from, OffsetDateTime to, UUID studentId,
+                                          Collection<SlotStatus> statuses) {
+        return jdbcTemplate.query(inRange(from, to, studentId, statuses, 0), SLOT_RESPONSE_ROW_MAPPER);
+    }
+
+    /**
+     * Same rows as {@link #findInRange}, handed to {@code consumer} one at a time while the result set is read.
+     * Must run inside a transaction: PostgreSQL only uses a server-side cursor (fetching
+     * {@value #STREAM_FETCH_SIZE} rows per round trip) when auto-commit is off, and otherwise buffers
+     * the whole result in the driver.
+     */
+    public void forEachInRange(OffsetDateTime from, OffsetDateTime to, UUID studentId,
+                               Collection<SlotStatus> statuses, Consumer<SlotResponse> consumer) {
+        jdbcTemplate.query(inRange(from, to, studentId, statuses, STREAM_FETCH_SIZE),
+                (RowCallbackHandler) rs -> consumer.accept(SLOT_RESPONSE_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    private static PreparedStatementCreator inRange(OffsetDateTime from, OffsetDateTime to, UUID studentId,
+                                                    Collection<SlotStatus> statuses, int fetchSize) {
+        String[] statusNames = statuses == null || statuses.isEmpty()
+                ? null
+                : statuses.stream().map(SlotStatus::name).toArray(String[]::new);
+
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SLOT_RESPONSE + IN_RANGE);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            ps.setObject(3, studentId);
+            ps.setObject(4, studentId);
+            ps.setArray(5, statusNames != null ? con.createArrayOf("varchar", statusNames) : null);
+            ps.setArray(6, statusNames != null ? con.createArrayOf("varchar", statusNames) : null);
+            return ps;
+        };
+    }
+
+    public Optional<SlotResponse> findById(UUID id) {
+        // The start time narrows the lookup to one partition (see V14)
+        return jdbcTemplate.query(
+                        SELECT_SLOT_RESPONSE + "WHERE s.id = ? AND s.start_at = (SELECT start_at FROM slot_locator WHERE id = ?)",
+                        SLOT_RESPONSE_ROW_MAPPER, id, id)
+                .stream().findFirst();
+    }
+
+    /**
+     * The slots with the given ids, in no particular order. Ids without a slot are skipped. Only the
+     * partitions between the first and the last of their start times are read (see V14).
+     */
+    public List<SlotResponse> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_SLOT_RESPONSE + BY_IDS,
+                ps -> {
+                    for (int i = 1; i <= 3; i++) {
+                        ps.setArray(i, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+                    }
+                },
+                SLOT_RESPONSE_ROW_MAPPER);
+    }
+
+    public Optional<SlotResponse> findByStartAt(OffsetDateTime startAt) {
+        return jdbcTemplate.query(SELECT_SLOT_RESPONSE + "WHERE s.start_at = ?", SLOT_RESPONSE_ROW_MAPPER, startAt)
+                .stream().findFirst();
+    }
+}
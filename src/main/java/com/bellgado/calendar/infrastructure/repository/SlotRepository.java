@@ -14,9 +14,16 @@ import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface SlotRepository extends JpaRepository<Slot, UUID>, JpaSpecificationExecutor<Slot> {
+public interface SlotRepository extends JpaRepository<Slot, UUID>, JpaSpecificationExecutor<Slot>, SlotRepositoryCustom {
 
-    @Query("SELECT s FROM Slot s LEFT JOIN FETCH s.student WHERE s.id = :id")
+    /** Lookups by id also match the start time from {@code slot_locator}, so that only one partition is read (see V14). */
+    String START_AT_OF_ID = "(SELECT l.startAt FROM SlotLocator l WHERE l.id = :id)";
+
+    @Override
+    @Query("SELECT s FROM Slot s WHERE s.id = :id AND s.startAt = " + START_AT_OF_ID)
+    Optional<Slot> findById(@Param("id") UUID id);
+
+    @Query("SELECT s FROM Slot s LEFT JOIN FETCH s.student WHERE s.id = :id AND s.startAt = " + START_AT_OF_ID)
     Optional<Slot> findByIdWithStudent(@Param("id") UUID id);
 
     boolean existsByStartAt(OffsetDateTime startAt);
@@ -24,5 +31,11 @@ public interface SlotRepository extends JpaRepository<Slot, UUID>, JpaSpecificat
     @Query("SELECT s.startAt FROM Slot s WHERE s.startAt >= :from AND s.startAt < :to")
     Set<OffsetDateTime> findStartAtBetween(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
 
+    @Query("SELECT s.id FROM Slot s WHERE s.startAt = :startAt")
+    Optional<UUID> findIdByStartAt(@Param("startAt") OffsetDateTime startAt);
+
     List<Slot> findByBlockId(UUID blockId);
+
+    @Query("SELECT s.version FROM Slot s WHERE s.id = :id AND s.startAt = " + START_AT_OF_ID)
+    Optional<Integer> findVersionById(@Param("id") UUID id);
 }
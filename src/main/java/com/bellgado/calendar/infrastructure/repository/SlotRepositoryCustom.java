@@ -0,0 +1,86 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Set-based slot writes that bypass the persistence context.
+ * Implemented with plain JDBC in {@link SlotRepositoryImpl}; the returned entities are detached.
+ */
+public interface SlotRepositoryCustom {
+
+    /**
+     * Inserts a FREE slot for every start time in a single statement.
+     * Start times that already have a slot are skipped ({@code ON CONFLICT (start_at) DO NOTHING}).
+     *
+     * @return only the slots that were actually inserted, ordered by start time
+     */
+    List<Slot> insertFreeSlotsSkippingExisting(Collection<OffsetDateTime> startTimes);
+
+    /**
+     * Streams the start time and status of every slot without materializing entities.
+     */
+    void forEachStartAtAndStatus(BiConsumer<OffsetDateTime, SlotStatus> consumer);
+
+    /**
+     * Streams the start time and status of every slot starting in {@code [from, to)}, ordered by start time.
+     */
+    void forEachStartAtAndStatusBetween(OffsetDateTime from, OffsetDateTime to,
+                                        BiConsumer<OffsetDateTime, SlotStatus> consumer);
+
+    /**
+     * Books a slot in one statement: the slot is updated only if it is FREE, starts in the future and
+     * the student exists. In the same round trip the BOOKED event is inserted and the student's active
+     * waitlist entries are deactivated. Concurrent callers serialize on the row lock and every loser
+     * sees zero updated rows instead of a late optimistic-lock failure.
+     *
+     * @param notes replaces the slot notes when not {@code null}
+     */
+    SlotBookingOutcome bookIfFree(UUID slotId, UUID studentId, String notes);
+
+    /**
+     * Books the slots at the given start times for one student in one statement, with the same rules,
+     * event insert and waitlist cleanup as {@link #bookIfFree}. Slots that are not bookable are left
+     * untouched and reported in {@link SlotSeriesBookingOutcome#refused()}.
+     * The student is expected to exist.
+     */
+    SlotSeriesBookingOutcome bookSeriesIfFree(Collection<OffsetDateTime> startTimes, UUID studentId, String notes);
+
+    /**
+     * Moves the booking of {@code originId} onto {@code targetId} in one statement: both rows are locked
+     * (in id order), and only if the origin is BOOKED and the target is FREE and not in the past is the
+     * origin freed, the target booked for the same student with the origin's notes, and one RESCHEDULED
+     * event inserted per slot. Otherwise nothing changes.
+     *
+     * @param originMeta serialized meta of the origin slot's event, may be {@code null}
+     * @param targetMeta serialized meta of the target slot's event, may be {@code null}
+     */
+    SlotRescheduleOutcome rescheduleIfBookable(UUID originId, UUID targetId, String originMeta, String targetMeta);
+
+    /**
+     * Applies a status change to every selected slot in one statement: the selected rows are locked,
+     * the eligible ones updated and their slot events inserted. Ineligible slots are left untouched.
+     */
+    SlotTransitionOutcome transition(SlotSelection selection, SlotTransition transition);
+
+    /**
+     * Deletes every selected slot whose status is in {@code allowedFrom} in one statement and records a
+     * DELETED slot event for each.
+     */
+    SlotTransitionOutcome delete(SlotSelection selection, Set<SlotStatus> allowedFrom);
+
+    /**
+     * Blocks the range {@code [from, to)} for a block in one statement: every hour from {@code from}
+     * gets a BLOCKED slot (inserted, or updated on conflict unless BOOKED), every other non-BOOKED slot
+     * in the range is blocked as well, and one BLOCKED event with {@code {"blockId": ...}} meta is
+     * inserted per changed slot. {@link SlotTransitionOutcome#skipped()} is always empty.
+     */
+    SlotTransitionOutcome blockRange(UUID blockId, OffsetDateTime from, OffsetDateTime to);
+}
@@ -0,0 +1,559 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.entity.Student;
+import com.bellgado.calendar.domain.enums.EventType;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+@RequiredArgsConstructor
+class SlotRepositoryImpl implements SlotRepositoryCustom {
+
+    private static final String INSERT_FREE_SKIPPING_EXISTING = """
+            INSERT INTO slots (start_at, end_at, status, version, created_at, updated_at)
+            SELECT t.start_at, t.start_at + INTERVAL '60 minutes', 'FREE', 0, now(), now()
+            FROM unnest(?::timestamptz[]) AS t(start_at)
+            ON CONFLICT (start_at) DO NOTHING
+            RETURNING id, start_at, end_at, status, student_id, notes, version, block_id, created_at, updated_at
+            """;
+
+    private static final String SELECT_START_AT_AND_STATUS = "SELECT start_at, status FROM slots";
+
+    private static final String SELECT_START_AT_AND_STATUS_BETWEEN = """
+            SELECT start_at, status FROM slots
+            WHERE start_at >= ? AND start_at < ?
+            ORDER BY start_at
+            """;
+
+    /**
+     * Slots are looked up by id together with their start time from {@code slot_locator}, so that only
+     * their own partition is read (see V14).
+     */
+    private static final String BOOK_IF_FREE = """
+            WITH target AS (
+                SELECT status, start_at FROM slots
+                WHERE id = ? AND start_at = (SELECT start_at FROM slot_locator WHERE id = ?)
+            ), student AS (
+                SELECT id, full_name FROM students WHERE id = ?
+            ), booked AS (
+                UPDATE slots s
+                SET status = 'BOOKED', student_id = st.id, notes = COALESCE(?::varchar, s.notes),
+                    version = s.version + 1, updated_at = now()
+                FROM student st
+                WHERE s.id = ? AND s.start_at = (SELECT start_at FROM slot_locator WHERE id = ?)
+                  AND s.status = 'FREE' AND s.start_at > now()
+                RETURNING s.id, s.start_at, s.end_at, s.status, s.notes, s.version, s.block_id, s.created_at, s.updated_at
+            ), event AS (
+                INSERT INTO slot_events (slot_id, type, at, new_student_id)
+                SELECT b.id, 'BOOKED', now(), ? FROM booked b
+                RETURNING id, seq, at
+            ), waitlist AS (
+                UPDATE waitlist_items w SET active = false
+                WHERE w.student_id = ? AND w.active AND EXISTS (SELECT 1 FROM booked)
+                RETURNING w.id
+            )
+            SELECT t.status AS current_status, t.start_at AS current_start_at,
+                   st.id AS student_id, st.full_name AS student_full_name,
+                   b.*, e.id AS event_id, e.seq AS event_seq, e.at AS event_at,
+                   (SELECT count(*) FROM waitlist) AS waitlist_removed
+            FROM (VALUES (1)) AS one(x)
+            LEFT JOIN target t ON true
+            LEFT JOIN student st ON true
+            LEFT JOIN booked b ON true
+            LEFT JOIN event e ON true
+            """;
+
+    private static final String BOOK_SERIES_IF_FREE = """
+            WITH requested AS (
+                SELECT DISTINCT t.start_at FROM unnest(?::timestamptz[]) AS t(start_at)
+            ), booked AS (
+                UPDATE slots s
+                SET status = 'BOOKED', student_id = ?, notes = COALESCE(?::varchar, s.notes),
+                    version = s.version + 1, updated_at = now()
+                FROM requested r
+                WHERE s.start_at = r.start_at AND s.status = 'FREE' AND s.start_at > now()
+                RETURNING s.id, s.start_at, s.end_at, s.status, s.notes, s.version, s.block_id, s.created_at, s.updated_at
+            ), event AS (
+                INSERT INTO slot_events (slot_id, type, at, new_student_id)
+                SELECT b.id, 'BOOKED', now(), ? FROM booked b
+                RETURNING id, seq, slot_id, at
+            ), waitlist AS (
+                UPDATE waitlist_items w SET active = false
+                WHERE w.student_id = ? AND w.active AND EXISTS (SELECT 1 FROM booked)
+                RETURNING w.id
+            )
+            SELECT r.start_at AS requested_start_at, cur.id AS current_id, cur.status AS current_status,
+                   b.*, e.id AS event_id, e.seq AS event_seq, e.at AS event_at,
+                   (SELECT count(*) FROM waitlist) AS waitlist_removed
+            FROM requested r
+            LEFT JOIN slots cur ON cur.start_at = r.start_at
+            LEFT JOIN booked b ON b.start_at = r.start_at
+            LEFT JOIN event e ON e.slot_id = b.id
+            ORDER BY r.start_at
+            """;
+
+    /**
+     * Both rows are locked before either is checked, so the two updates see the same committed state and
+     * either both happen or neither does. Locking in id order keeps crossing reschedules from deadlocking.
+     * The start times from {@code slot_locator} limit the lock to the partitions of the two slots (see V14).
+     */
+    private static final String RESCHEDULE = """
+            WITH locked AS (
+                SELECT id, start_at, status, student_id, notes FROM slots
+                WHERE id IN (?, ?)
+                  AND start_at IN ((SELECT start_at FROM slot_locator WHERE id = ?),
+                                   (SELECT start_at FROM slot_locator WHERE id = ?))
+                ORDER BY id FOR UPDATE
+            ), origin AS (
+                SELECT * FROM locked WHERE id = ? AND status = 'BOOKED'
+            ), target AS (
+                SELECT * FROM locked WHERE id = ? AND status = 'FREE' AND start_at >= now()
+            ), moved AS (
+                UPDATE slots s
+                SET status = CASE WHEN s.id = o.id THEN 'FREE' ELSE 'BOOKED' END,
+                    student_id = CASE WHEN s.id = o.id THEN NULL ELSE o.student_id END,
+                    notes = CASE WHEN s.id = o.id THEN NULL ELSE o.notes END,
+                    version = s.version + 1, updated_at = now()
+                FROM origin o, target t
+                WHERE s.id IN (o.id, t.id) AND s.start_at IN (o.start_at, t.start_at)
+                RETURNING s.id, s.start_at, s.end_at, s.status, s.student_id, s.notes, s.version, s.block_id,
+                          s.created_at, s.updated_at, o.student_id AS moved_student_id
+            ), event AS (
+                INSERT INTO slot_events (slot_id, type, at, old_student_id, new_student_id, meta)
+                SELECT m.id, 'RESCHEDULED', now(),
+                       CASE WHEN m.status = 'FREE' THEN m.moved_student_id END,
+                       CASE WHEN m.status = 'BOOKED' THEN m.moved_student_id END,
+                       CASE WHEN m.status = 'FREE' THEN ?::jsonb ELSE ?::jsonb END
+                FROM moved m
+                RETURNING id, seq, slot_id, at, old_student_id, new_student_id, meta
+            )
+            SELECT l.status AS current_status, l.start_at AS current_start_at,
+                   m.*, st.full_name AS student_full_name,
+                   e.id AS event_id, e.seq AS event_seq, e.at AS event_at, e.old_student_id AS event_old_student_id,
+                   e.new_student_id AS event_new_student_id, e.meta AS event_meta
+            FROM (VALUES (1, ?::uuid), (2, ?::uuid)) AS r(ord, slot_id)
+            LEFT JOIN locked l ON l.id = r.slot_id
+            LEFT JOIN moved m ON m.id = r.slot_id
+            LEFT JOIN students st ON st.id = m.student_id
+            LEFT JOIN event e ON e.slot_id = m.id
+            ORDER BY r.ord
+            """;
+
+    /**
+     * The start times of the slots from {@code slot_locator} bound the scan to the partitions between the
+     * first and the last of them: the planner cannot prune with {@code start_at = ANY} of an array that
+     * comes from a subquery, but it can with a range (see V14). The id array is bound three times.
+     */
+    private static final String SELECT_BY_IDS = """
+            id = ANY(?::uuid[])
+                  AND start_at BETWEEN (SELECT min(start_at) FROM slot_locator WHERE id = ANY(?::uuid[]))
+                                   AND (SELECT max(start_at) FROM slot_locator WHERE id = ANY(?::uuid[]))""";
+
+    private static final String SELECT_IN_RANGE = "start_at >= ? AND start_at < ?";
+
+    private static final String SELECT_BY_BLOCK_ID = "block_id = ?";
+
+    /**
+     * {@code %s} is the selection predicate, one of the {@code SELECT_*} constants above. The update is
+     * bounded by the start times of the selected slots, so that it only reads their partitions.
+     */
+    private static final String TRANSITION = """
+            WITH selected AS (
+                SELECT id, start_at, status, student_id, block_id FROM slots WHERE %s FOR UPDATE
+            ), changed AS (
+                UPDATE slots s
+                SET status = ?,
+                    student_id = CASE WHEN ?::boolean THEN NULL ELSE s.student_id END,
+                    block_id = CASE WHEN ?::boolean THEN NULL ELSE s.block_id END,
+                    notes = COALESCE(?::varchar, s.notes),
+                    version = s.version + 1, updated_at = now()
+                FROM selected sel
+                WHERE s.id = sel.id AND s.start_at = sel.start_at AND sel.status = ANY(?::varchar[])
+                  AND s.start_at BETWEEN (SELECT min(start_at) FROM selected) AND (SELECT max(start_at) FROM selected)
+                RETURNING s.id, s.start_at, s.end_at, s.status, s.student_id, s.notes, s.version, s.block_id,
+                          s.created_at, s.updated_at, sel.student_id AS previous_student_id, sel.block_id AS previous_block_id
+            ), event AS (
+                INSERT INTO slot_events (slot_id, type, at, old_student_id, meta)
+                SELECT c.id, ?, now(),
+                       CASE WHEN ?::boolean THEN c.previous_student_id END,
+                       COALESCE(?::jsonb, CASE WHEN ?::boolean AND c.previous_block_id IS NOT NULL
+                                               THEN jsonb_build_object('blockId', c.previous_block_id) END)
+                FROM changed c
+                RETURNING id, seq, slot_id, type, at, old_student_id, meta
+            )
+            SELECT sel.id AS selected_id, sel.start_at AS selected_start_at, sel.status AS selected_status,
+                   c.*, st.full_name AS student_full_name,
+                   e.id AS event_id, e.seq AS event_seq, e.type AS event_type, e.at AS event_at,
+                   e.old_student_id AS event_old_student_id, e.meta AS event_meta
+            FROM selected sel
+            LEFT JOIN changed c ON c.id = sel.id
+            LEFT JOIN students st ON st.id = c.student_id
+            LEFT JOIN event e ON e.slot_id = c.id
+            ORDER BY sel.start_at
+            """;
+
+    /** {@code %s} is the selection predicate, one of the {@code SELECT_*} constants above. Bounded like {@link #TRANSITION}. */
+    private static final String DELETE = """
+            WITH selected AS (
+                SELECT id, start_at, status FROM slots WHERE %s FOR UPDATE
+            ), deleted AS (
+                DELETE FROM slots s
+                USING selected sel
+                WHERE s.id = sel.id AND s.start_at = sel.start_at AND sel.status = ANY(?::varchar[])
+                  AND s.start_at BETWEEN (SELECT min(start_at) FROM selected) AND (SELECT max(start_at) FROM selected)
+                RETURNING s.id, s.start_at, s.end_at, s.status, s.student_id, s.notes, s.version, s.block_id,
+                          s.created_at, s.updated_at
+            ), event AS (
+                INSERT INTO slot_events (slot_id, type, at, old_student_id)
+                SELECT d.id, 'DELETED', now(), d.student_id FROM deleted d
+                RETURNING id, seq, slot_id, type, at, old_student_id, meta
+            )
+            SELECT sel.id AS selected_id, sel.start_at AS selected_start_at, sel.status AS selected_status,
+                   d.*, st.full_name AS student_full_name,
+                   e.id AS event_id, e.seq AS event_seq, e.type AS event_type, e.at AS event_at,
+                   e.old_student_id AS event_old_student_id, e.meta AS event_meta
+            FROM selected sel
+            LEFT JOIN deleted d ON d.id = sel.id
+            LEFT JOIN students st ON st.id = d.student_id
+            LEFT JOIN event e ON e.slot_id = d.id
+            ORDER BY sel.start_at
+            """;
+
+    /**
+     * Hours on the {@code from} grid are upserted; slots in the range off that grid are updated
+     * separately, since one statement may not modify the same row twice.
+     */
+    private static final String BLOCK_RANGE = """
+            WITH candidates AS (
+                SELECT gs AS start_at
+                FROM generate_series(?::timestamptz, ?::timestamptz, INTERVAL '1 hour') AS gs
+                WHERE gs < ?::timestamptz
+            ), upserted AS (
+                INSERT INTO slots AS s (start_at, end_at, status, block_id, version, created_at, updated_at)
+                SELECT c.start_at, c.start_at + INTERVAL '60 minutes', 'BLOCKED', ?::uuid, 0, now(), now()
+                FROM candidates c
+                ON CONFLICT (start_at) DO UPDATE
+                SET status = 'BLOCKED', block_id = EXCLUDED.block_id, version = s.version + 1, updated_at = now()
+                WHERE s.status <> 'BOOKED'
+                RETURNING s.id, s.start_at, s.end_at, s.status, s.student_id, s.notes, s.version, s.block_id,
+                          s.created_at, s.updated_at
+            ), off_grid AS (
+                UPDATE slots s
+                SET status = 'BLOCKED', block_id = ?::uuid, version = s.version + 1, updated_at = now()
+                WHERE s.start_at >= ? AND s.start_at < ? AND s.status <> 'BOOKED'
+                  AND s.start_at NOT IN (SELECT start_at FROM candidates)
+                RETURNING s.id, s.start_at, s.end_at, s.status, s.student_id, s.notes, s.version, s.block_id,
+                          s.created_at, s.updated_at
+            ), changed AS (
+                SELECT * FROM upserted UNION ALL SELECT * FROM off_grid
+            ), event AS (
+                INSERT INTO slot_events (slot_id, type, at, meta)
+                SELECT c.id, 'BLOCKED', now(), jsonb_build_object('blockId', c.block_id)
+                FROM changed c
+                RETURNING id, seq, slot_id, type, at, old_student_id, meta
+            )
+            SELECT c.id AS selected_id, c.start_at AS selected_start_at, c.status AS selected_status,
+                   c.*, st.full_name AS student_full_name,
+                   e.id AS event_id, e.seq AS event_seq, e.type AS event_type, e.at AS event_at,
+                   e.old_student_id AS event_old_student_id, e.meta AS event_meta
+            FROM changed c
+            LEFT JOIN students st ON st.id = c.student_id
+            LEFT JOIN event e ON e.slot_id = c.id
+            ORDER BY c.start_at
+            """;
+
+    static final RowMapper<Slot> SLOT_ROW_MAPPER = (rs, rowNum) -> {
+        Slot slot = new Slot();
+        slot.setId(rs.getObject("id", UUID.class));
+        slot.setStartAt(rs.getObject("start_at", OffsetDateTime.class));
+        slot.setEndAt(rs.getObject("end_at", OffsetDateTime.class));
+        slot.setStatus(SlotStatus.valueOf(rs.getString("status")));
+        slot.setNotes(rs.getString("notes"));
+        slot.setVersion(rs.getInt("version"));
+        slot.setBlockId(rs.getObject("block_id", UUID.class));
+        slot.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        slot.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class));
+        return slot;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Slot> insertFreeSlotsSkippingExisting(Collection<OffsetDateTime> startTimes) {
+        if (startTimes.isEmpty()) {
+            return List.of();
+        }
+        String[] startAts = startTimes.stream().map(OffsetDateTime::toString).toArray(String[]::new);
+
+        List<Slot> inserted = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_FREE_SKIPPING_EXISTING);
+            ps.setArray(1, con.createArrayOf("timestamptz", startAts));
+            return ps;
+        }, SLOT_ROW_MAPPER);
+
+        return inserted.stream().sorted(Comparator.comparing(Slot::getStartAt)).toList();
+    }
+
+    @Override
+    public void forEachStartAtAndStatus(BiConsumer<OffsetDateTime, SlotStatus> consumer) {
+        jdbcTemplate.query(SELECT_START_AT_AND_STATUS, rs -> {
+            consumer.accept(rs.getObject("start_at", OffsetDateTime.class), SlotStatus.valueOf(rs.getString("status")));
+        });
+    }
+
+    @Override
+    public void forEachStartAtAndStatusBetween(OffsetDateTime from, OffsetDateTime to,
+                                               BiConsumer<OffsetDateTime, SlotStatus> consumer) {
+        jdbcTemplate.query(SELECT_START_AT_AND_STATUS_BETWEEN, rs -> {
+            consumer.accept(rs.getObject("start_at", OffsetDateTime.class), SlotStatus.valueOf(rs.getString("status")));
+        }, from, to);
+    }
+
+    @Override
+    public SlotBookingOutcome bookIfFree(UUID slotId, UUID studentId, String notes) {
+        return jdbcTemplate.queryForObject(BOOK_IF_FREE, (rs, rowNum) -> {
+            String currentStatus = rs.getString("current_status");
+            UUID existingStudentId = rs.getObject("student_id", UUID.class);
+            Slot slot = null;
+            SlotEvent event = null;
+            if (rs.getObject("id", UUID.class) != null) {
+                slot = SLOT_ROW_MAPPER.mapRow(rs, rowNum);
+                Student student = new Student();
+                student.setId(existingStudentId);
+                student.setFullName(rs.getString("student_full_name"));
+                slot.setStudent(student);
+
+                event = new SlotEvent(slot.getId(), EventType.BOOKED);
+                event.setId(rs.getObject("event_id", UUID.class));
+                event.setSeq(rs.getLong("event_seq"));
+                event.setAt(rs.getObject("event_at", OffsetDateTime.class));
+                event.setNewStudentId(existingStudentId);
+            }
+            return new SlotBookingOutcome(
+                    slot,
+                    event,
+                    rs.getInt("waitlist_removed"),
+                    currentStatus != null ? SlotStatus.valueOf(currentStatus) : null,
+                    rs.getObject("current_start_at", OffsetDateTime.class),
+                    existingStudentId != null);
+        }, slotId, slotId, studentId, notes, slotId, slotId, studentId, studentId);
+    }
+
+    @Override
+    public SlotRescheduleOutcome rescheduleIfBookable(UUID originId, UUID targetId, String originMeta, String targetMeta) {
+        // Row 0 describes the origin, row 1 the target
+        List<Slot> slots = new ArrayList<>(2);
+        List<SlotEvent> events = new ArrayList<>(2);
+        List<SlotStatus> statuses = new ArrayList<>(2);
+        List<OffsetDateTime> startTimes = new ArrayList<>(2);
+
+        jdbcTemplate.query(RESCHEDULE, rs -> {
+            String currentStatus = rs.getString("current_status");
+            statuses.add(currentStatus != null ? SlotStatus.valueOf(currentStatus) : null);
+            startTimes.add(rs.getObject("current_start_at", OffsetDateTime.class));
+
+            if (rs.getObject("id", UUID.class) == null) {
+                slots.add(null);
+                events.add(null);
+                return;
+            }
+            Slot slot = SLOT_ROW_MAPPER.mapRow(rs, rs.getRow());
+            UUID studentId = rs.getObject("student_id", UUID.class);
+            if (studentId != null) {
+                Student student = new Student();
+                student.setId(studentId);
+                student.setFullName(rs.getString("student_full_name"));
+                slot.setStudent(student);
+            }
+            slots.add(slot);
+
+            SlotEvent event = new SlotEvent(slot.getId(), EventType.RESCHEDULED);
+            event.setId(rs.getObject("event_id", UUID.class));
+            event.setSeq(rs.getLong("event_seq"));
+            event.setAt(rs.getObject("event_at", OffsetDateTime.class));
+            event.setOldStudentId(rs.getObject("event_old_student_id", UUID.class));
+            event.setNewStudentId(rs.getObject("event_new_student_id", UUID.class));
+            event.setMeta(rs.getString("event_meta"));
+            events.add(event);
+        }, originId, targetId, originId, targetId, originId, targetId, originMeta, targetMeta, originId, targetId);
+
+        return new SlotRescheduleOutcome(slots.get(0), slots.get(1), events.get(0), events.get(1),
+                statuses.get(0), statuses.get(1), startTimes.get(1));
+    }
+
+    @Override
+    public SlotSeriesBookingOutcome bookSeriesIfFree(Collection<OffsetDateTime> startTimes, UUID studentId, String notes) {
+        if (startTimes.isEmpty()) {
+            return new SlotSeriesBookingOutcome(List.of(), List.of(), List.of(), 0);
+        }
+        String[] startAts = startTimes.stream().map(OffsetDateTime::toString).toArray(String[]::new);
+
+        List<Slot> booked = new ArrayList<>();
+        List<SlotEvent> events = new ArrayList<>();
+        List<SlotSeriesBookingOutcome.Refused> refused = new ArrayList<>();
+        int[] waitlistRemoved = new int[1];
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BOOK_SERIES_IF_FREE);
+            ps.setArray(1, con.createArrayOf("timestamptz", startAts));
+            ps.setObject(2, studentId);
+            ps.setString(3, notes);
+            ps.setObject(4, studentId);
+            ps.setObject(5, studentId);
+            return ps;
+        }, rs -> {
+            waitlistRemoved[0] = rs.getInt("waitlist_removed");
+            if (rs.getObject("id", UUID.class) == null) {
+                String currentStatus = rs.getString("current_status");
+                refused.add(new SlotSeriesBookingOutcome.Refused(
+                        rs.getObject("requested_start_at", OffsetDateTime.class),
+                        rs.getObject("current_id", UUID.class),
+                        currentStatus != null ? SlotStatus.valueOf(currentStatus) : null));
+                return;
+            }
+            Slot slot = SLOT_ROW_MAPPER.mapRow(rs, booked.size());
+            booked.add(slot);
+
+            SlotEvent event = new SlotEvent(slot.getId(), EventType.BOOKED);
+            event.setId(rs.getObject("event_id", UUID.class));
+            event.setSeq(rs.getLong("event_seq"));
+            event.setAt(rs.getObject("event_at", OffsetDateTime.class));
+            event.setNewStudentId(studentId);
+            events.add(event);
+        });
+
+        return new SlotSeriesBookingOutcome(booked, events, refused, waitlistRemoved[0]);
+    }
+
+    @Override
+    public SlotTransitionOutcome transition(SlotSelection selection, SlotTransition transition) {
+        String[] allowedFrom = transition.allowedFrom().stream().map(SlotStatus::name).toArray(String[]::new);
+
+        return runSelectionStatement(TRANSITION, selection, (con, ps, index) -> {
+            ps.setString(index++, transition.targetStatus().name());
+            ps.setBoolean(index++, transition.clearStudent());
+            ps.setBoolean(index++, transition.clearBlock());
+            ps.setString(index++, transition.notes());
+            ps.setArray(index++, con.createArrayOf("varchar", allowedFrom));
+            ps.setString(index++, transition.eventType().name());
+            ps.setBoolean(index++, transition.recordPreviousStudent());
+            ps.setString(index++, transition.meta());
+            ps.setBoolean(index, transition.recordPreviousBlockId());
+        });
+    }
+
+    @Override
+    public SlotTransitionOutcome delete(SlotSelection selection, Set<SlotStatus> allowedFrom) {
+        String[] allowed = allowedFrom.stream().map(SlotStatus::name).toArray(String[]::new);
+
+        return runSelectionStatement(DELETE, selection,
+                (con, ps, index) -> ps.setArray(index, con.createArrayOf("varchar", allowed)));
+    }
+
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(Connection con, PreparedStatement ps, int firstIndex) throws SQLException;
+    }
+
+    @Override
+    public SlotTransitionOutcome blockRange(UUID blockId, OffsetDateTime from, OffsetDateTime to) {
+        return collectTransitionOutcome(con -> {
+            PreparedStatement ps = con.prepareStatement(BLOCK_RANGE);
+            ps.setObject(1, from);
+            ps.setObject(2, to);
+            ps.setObject(3, to);
+            ps.setObject(4, blockId);
+            ps.setObject(5, blockId);
+            ps.setObject(6, from);
+            ps.setObject(7, to);
+            return ps;
+        });
+    }
+
+    /**
+     * Runs a {@link #TRANSITION}-shaped statement: binds the selection parameters, then the
+     * statement-specific ones.
+     */
+    private SlotTransitionOutcome runSelectionStatement(String template, SlotSelection selection,
+                                                        ParameterBinder binder) {
+        String predicate = selection.isByIds() ? SELECT_BY_IDS
+                : selection.isByBlockId() ? SELECT_BY_BLOCK_ID
+                : SELECT_IN_RANGE;
+        String sql = template.formatted(predicate);
+        String[] ids = selection.isByIds()
+                ? selection.ids().stream().map(UUID::toString).toArray(String[]::new)
+                : null;
+
+        return collectTransitionOutcome(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int index = 1;
+            if (ids != null) {
+                for (int i = 0; i < 3; i++) {
+                    ps.setArray(index++, con.createArrayOf("uuid", ids));
+                }
+            } else if (selection.isByBlockId()) {
+                ps.setObject(index++, selection.blockId());
+            } else {
+                ps.setObject(index++, selection.from());
+                ps.setObject(index++, selection.to());
+            }
+            binder.bind(con, ps, index);
+            return ps;
+        });
+    }
+
+    /**
+     * Splits the rows of a transition-shaped result into changed and skipped slots. A row is
+     * skipped when the changed-slot columns are {@code null}; {@code selected_*} describe it then.
+     */
+    private SlotTransitionOutcome collectTransitionOutcome(PreparedStatementCreator statement) {
+        List<Slot> changed = new ArrayList<>();
+        List<SlotEvent> events = new ArrayList<>();
+        List<SlotTransitionOutcome.Skipped> skipped = new ArrayList<>();
+
+        jdbcTemplate.query(statement, rs -> {
+            if (rs.getObject("id", UUID.class) == null) {
+                skipped.add(new SlotTransitionOutcome.Skipped(
+                        rs.getObject("selected_id", UUID.class),
+                        rs.getObject("selected_start_at", OffsetDateTime.class),
+                        SlotStatus.valueOf(rs.getString("selected_status"))));
+                return;
+            }
+            Slot slot = SLOT_ROW_MAPPER.mapRow(rs, changed.size());
+            UUID studentId = rs.getObject("student_id", UUID.class);
+            if (studentId != null) {
+                Student student = new Student();
+                student.setId(studentId);
+                student.setFullName(rs.getString("student_full_name"));
+                slot.setStudent(student);
+            }
+            changed.add(slot);
+
+            SlotEvent event = new SlotEvent(slot.getId(), EventType.valueOf(rs.getString("event_type")));
+            event.setId(rs.getObject("event_id", UUID.class));
+            event.setSeq(rs.getLong("event_seq"));
+            event.setAt(rs.getObject("event_at", OffsetDateTime.class));
+            event.setOldStudentId(rs.getObject("event_old_student_id", UUID.class));
+            event.setMeta(rs.getString("event_meta"));
+            events.add(event);
+        });
+
+        return new SlotTransitionOutcome(changed, events, skipped);
+    }
+}
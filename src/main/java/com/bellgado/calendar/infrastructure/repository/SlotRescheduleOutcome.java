@@ -0,0 +1,31 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Result of {@link SlotRepositoryCustom#rescheduleIfBookable}.
+ * When the booking was moved, both slots and their RESCHEDULED events are set (all detached).
+ * Otherwise they are {@code null} and the remaining fields describe both slots as they were locked,
+ * so the caller can report why the move was refused.
+ *
+ * @param originStatus  status of the origin slot, {@code null} if it does not exist
+ * @param targetStatus  status of the target slot, {@code null} if it does not exist
+ * @param targetStartAt start time of the target slot, {@code null} if it does not exist
+ */
+public record SlotRescheduleOutcome(
+        Slot origin,
+        Slot target,
+        SlotEvent originEvent,
+        SlotEvent targetEvent,
+        SlotStatus originStatus,
+        SlotStatus targetStatus,
+        OffsetDateTime targetStartAt
+) {
+    public boolean moved() {
+        return origin != null && target != null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The slots a set-based operation applies to: an explicit id list, every slot starting in
+ * {@code [from, to)}, or every slot of a block. Exactly one of the three forms is set.
+ */
+public record SlotSelection(
+        Collection<UUID> ids,
+        OffsetDateTime from,
+        OffsetDateTime to,
+        UUID blockId
+) {
+    public static SlotSelection byIds(Collection<UUID> ids) {
+        return new SlotSelection(ids, null, null, null);
+    }
+
+    public static SlotSelection inRange(OffsetDateTime from, OffsetDateTime to) {
+        return new SlotSelection(null, from, to, null);
+    }
+
+    public static SlotSelection byBlockId(UUID blockId) {
+        return new SlotSelection(null, null, null, blockId);
+    }
+
+    public boolean isByIds() {
+        return ids != null;
+    }
+
+    public boolean isByBlockId() {
+        return blockId != null;
+    }
+}
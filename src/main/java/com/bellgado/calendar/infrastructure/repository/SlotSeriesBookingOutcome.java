@@ -0,0 +1,26 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of {@link SlotRepositoryCustom#bookSeriesIfFree}: the booked slots with their BOOKED
+ * events (detached, ordered by start time) and every requested start time that was not booked.
+ */
+public record SlotSeriesBookingOutcome(
+        List<Slot> booked,
+        List<SlotEvent> events,
+        List<Refused> refused,
+        int waitlistEntriesRemoved
+) {
+    /**
+     * A requested start time that matched no updatable slot, with the slot as the statement saw it
+     * when it started ({@code slotId} and {@code currentStatus} are {@code null} if there was none).
+     */
+    public record Refused(OffsetDateTime startAt, UUID slotId, SlotStatus currentStatus) {}
+}
@@ -0,0 +1,29 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.enums.EventType;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.util.Set;
+
+/**
+ * A status change applied by {@link SlotRepositoryCustom#transition}: selected slots whose status is
+ * in {@code allowedFrom} move to {@code targetStatus} and get one {@code eventType} slot event each.
+ *
+ * @param clearStudent          unassign the student
+ * @param clearBlock            detach the slot from its block
+ * @param notes                 replaces the slot notes when not {@code null}
+ * @param recordPreviousStudent store the previous student as the event's {@code oldStudentId}
+ * @param recordPreviousBlockId store {@code {"blockId": ...}} as event meta when the slot had a block
+ * @param meta                  event meta JSON for every slot; takes precedence over {@code recordPreviousBlockId}
+ */
+public record SlotTransition(
+        Set<SlotStatus> allowedFrom,
+        SlotStatus targetStatus,
+        boolean clearStudent,
+        boolean clearBlock,
+        String notes,
+        EventType eventType,
+        boolean recordPreviousStudent,
+        boolean recordPreviousBlockId,
+        String meta
+) {}
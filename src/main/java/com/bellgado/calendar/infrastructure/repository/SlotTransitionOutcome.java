@@ -0,0 +1,23 @@
+package com.bellgado.calendar.infrastructure.repository;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a set-based slot operation: the changed (or deleted) slots with their events, and the
+ * selected slots whose status did not allow the change. Both lists are ordered by start time;
+ * all entities are detached. Ids of a {@link SlotSelection#byIds} selection that matched no slot
+ * appear in neither list.
+ */
+public record SlotTransitionOutcome(
+        List<Slot> changed,
+        List<SlotEvent> events,
+        List<Skipped> skipped
+) {
+    public record Skipped(UUID slotId, OffsetDateTime startAt, SlotStatus currentStatus) {}
+}
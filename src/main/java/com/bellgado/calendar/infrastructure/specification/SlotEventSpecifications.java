@@ -28,7 +28,25 @@ public final class SlotEventSpecifications {
         };
     }
 
+    /**
+     * Events whose metadata contains every key and value of the JSON object {@code metaJson}; served by the
+     * GIN index on {@code meta}. No filter when {@code metaJson} is {@code null}.
+     */
+    public static Specification<SlotEvent> metaContains(String metaJson) {
+        return (root, criteriaQuery, cb) -> {
+            if (metaJson == null) {
+                return cb.conjunction();
+            }
+            return cb.isTrue(cb.function("jsonb_contains", Boolean.class, root.get("meta"), cb.literal(metaJson)));
+        };
+    }
+
     public static Specification<SlotEvent> inDateRangeWithTypes(OffsetDateTime from, OffsetDateTime to, Collection<EventType> types) {
         return Specification.where(atBetween(from, to)).and(withTypes(types));
     }
+
+    public static Specification<SlotEvent> inDateRangeWithTypesAndMeta(OffsetDateTime from, OffsetDateTime to,
+                                                                       Collection<EventType> types, String metaJson) {
+        return inDateRangeWithTypes(from, to, types).and(metaContains(metaJson));
+    }
 }
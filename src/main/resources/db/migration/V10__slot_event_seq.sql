@@ -0,0 +1,26 @@
+-- V10: Monotonic sequence number on slot events, used as the SSE event id and replay cursor
+--
+-- Several events can share the same "at" (every event of a bulk statement does), so "at" cannot
+-- tell a reconnecting client exactly which events it has already seen. seq is assigned from one
+-- sequence for the whole partitioned table and strictly increases in insert order.
+--
+-- The index cannot be unique: a unique index on a partitioned table must contain the partition key.
+-- Uniqueness comes from the sequence itself.
+
+CREATE SEQUENCE slot_events_seq_seq AS BIGINT;
+
+ALTER TABLE slot_events ADD COLUMN seq BIGINT;
+
+-- Existing events are numbered in the order they were recorded
+UPDATE slot_events e
+SET seq = n.seq
+FROM (SELECT id, at, row_number() OVER (ORDER BY at, id) AS seq FROM slot_events) n
+WHERE e.id = n.id AND e.at = n.at;
+
+SELECT setval('slot_events_seq_seq', COALESCE((SELECT MAX(seq) FROM slot_events), 0) + 1, FALSE);
+
+ALTER TABLE slot_events ALTER COLUMN seq SET DEFAULT nextval('slot_events_seq_seq');
+ALTER TABLE slot_events ALTER COLUMN seq SET NOT NULL;
+ALTER SEQUENCE slot_events_seq_seq OWNED BY slot_events.seq;
+
+CREATE INDEX idx_slot_events_seq ON slot_events(seq);
@@ -0,0 +1,113 @@
+-- V11: Queryable archive of slot events
+--
+-- Event partitions archived by archive_monthly_partitions() (V7) used to end up as loose tables in the
+-- archive schema. They are now attached to archive.slot_events, a partitioned table with the same
+-- columns, so archived events can be read with one query. Once attached, an archived partition keeps
+-- only its primary key and the indexes of archive.slot_events: the type, slot, meta and seq indexes
+-- exist to serve the live table and are dropped.
+--
+-- slot_events_with_archive reads live and archived events together. Live and archived months never
+-- overlap, and a range condition on "at" prunes the partitions of both sides.
+
+CREATE TABLE archive.slot_events (
+    id UUID NOT NULL,
+    slot_id UUID NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    at TIMESTAMP WITH TIME ZONE NOT NULL,
+    old_student_id UUID,
+    new_student_id UUID,
+    meta JSONB,
+    -- NULL for events archived before V10
+    seq BIGINT
+) PARTITION BY RANGE (at);
+
+CREATE INDEX idx_archive_slot_events_at ON archive.slot_events(at);
+
+-- Attaches every loose monthly partition of parent in the archive schema to the partitioned table of the
+-- same name in the archive schema and drops its indexes that the archive table does not have. Runs
+-- separately from archive_monthly_partitions() because attaching scans the partition, and that should
+-- not happen while the live table is locked. Returns the number of partitions attached.
+CREATE FUNCTION attach_archived_partitions(parent TEXT)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    child       RECORD;
+    idx         RECORD;
+    month_first DATE;
+    attached    INTEGER := 0;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_class c
+        WHERE c.relnamespace = 'archive'::regnamespace
+          AND c.relkind = 'r'
+          AND NOT c.relispartition
+          AND c.relname ~ ('^' || parent || '_y[0-9]{4}m[0-9]{2}$')
+        ORDER BY c.relname
+    LOOP
+        month_first := to_date(right(child.relname, 7), 'YYYY"m"MM');
+        EXECUTE format('ALTER TABLE archive.%I ATTACH PARTITION archive.%I FOR VALUES FROM (%L) TO (%L)',
+                       parent, child.relname,
+                       month_first::TIMESTAMP AT TIME ZONE 'UTC',
+                       (month_first + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC');
+
+        FOR idx IN
+            SELECT i.indexrelid::regclass::TEXT AS name
+            FROM pg_index i
+            WHERE i.indrelid = format('archive.%I', child.relname)::regclass
+              AND NOT i.indisprimary
+              AND NOT EXISTS (SELECT 1 FROM pg_inherits h WHERE h.inhrelid = i.indexrelid)
+        LOOP
+            EXECUTE 'DROP INDEX ' || idx.name;
+        END LOOP;
+
+        attached := attached + 1;
+    END LOOP;
+    RETURN attached;
+END;
+$$;
+
+-- Partitions archived before V9 and V10 still have a TEXT meta column and no seq column. The conversion
+-- is the one of V9 (REPLACE: Flyway may run both migrations in the same session).
+CREATE OR REPLACE FUNCTION pg_temp.meta_to_jsonb(meta TEXT)
+RETURNS JSONB
+LANGUAGE plpgsql
+IMMUTABLE
+AS $$
+BEGIN
+    RETURN meta::jsonb;
+EXCEPTION WHEN invalid_text_representation THEN
+    RETURN jsonb_build_object('raw', meta);
+END;
+$$;
+
+DO $$
+DECLARE
+    child RECORD;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_class c
+        WHERE c.relnamespace = 'archive'::regnamespace
+          AND c.relkind = 'r'
+          AND NOT c.relispartition
+          AND c.relname ~ '^slot_events_y[0-9]{4}m[0-9]{2}$'
+    LOOP
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = 'archive' AND table_name = child.relname
+                     AND column_name = 'meta' AND data_type = 'text') THEN
+            EXECUTE format('ALTER TABLE archive.%I ALTER COLUMN meta TYPE JSONB USING pg_temp.meta_to_jsonb(NULLIF(meta, ''''))',
+                           child.relname);
+        END IF;
+        EXECUTE format('ALTER TABLE archive.%I ADD COLUMN IF NOT EXISTS seq BIGINT', child.relname);
+    END LOOP;
+END;
+$$;
+
+SELECT attach_archived_partitions('slot_events');
+
+CREATE VIEW slot_events_with_archive AS
+SELECT id, slot_id, type, at, old_student_id, new_student_id, meta, seq FROM slot_events
+UNION ALL
+SELECT id, slot_id, type, at, old_student_id, new_student_id, meta, seq FROM archive.slot_events;
@@ -0,0 +1,46 @@
+-- V12: Replay events that commit after a higher-numbered one
+--
+-- seq (V10) is drawn when an event is inserted, not when its transaction commits. Two transactions can
+-- commit out of order, so a client may receive seq N+1 before seq N is committed; replaying only the
+-- events after N+1 would then skip N for good. Replay by seq alone is not exactly-once.
+--
+-- Every event now records the id of its transaction (txid) and the oldest transaction id that was still
+-- running when it was inserted (horizon). An event numbered below E that commits after E belongs to a
+-- transaction that was either running when E was inserted or got its id later, so its txid is at least
+-- E's horizon. A reconnect after E re-reads those events along with the ones numbered above E. Some of
+-- them the client already has; replayed frames carry the slot's current state, so that is harmless.
+--
+-- Both columns stay NULL for existing events, which is the same as having no overlap to re-read.
+
+ALTER TABLE slot_events
+    ADD COLUMN txid XID8,
+    ADD COLUMN horizon XID8;
+
+ALTER TABLE slot_events
+    ALTER COLUMN txid SET DEFAULT pg_current_xact_id(),
+    ALTER COLUMN horizon SET DEFAULT pg_snapshot_xmin(pg_current_snapshot());
+
+CREATE INDEX idx_slot_events_txid ON slot_events(txid);
+
+-- Archived partitions are attached to archive.slot_events (V11), which needs the same columns
+ALTER TABLE archive.slot_events
+    ADD COLUMN txid XID8,
+    ADD COLUMN horizon XID8;
+
+DO $$
+DECLARE
+    child RECORD;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_class c
+        WHERE c.relnamespace = 'archive'::regnamespace
+          AND c.relkind = 'r'
+          AND NOT c.relispartition
+          AND c.relname ~ '^slot_events_y[0-9]{4}m[0-9]{2}$'
+    LOOP
+        EXECUTE format('ALTER TABLE archive.%I ADD COLUMN IF NOT EXISTS txid XID8, ADD COLUMN IF NOT EXISTS horizon XID8',
+                       child.relname);
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,29 @@
+-- V13: DELETED slot events
+--
+-- Bulk deletion records a DELETED event per removed slot, so that reconnecting SSE clients are replayed
+-- the deletion like any other change.
+--
+-- Monthly partitions are created with a copy of the parent's constraints before they are attached
+-- (ensure_monthly_partition, V7), so their check constraint is their own as well as inherited and
+-- survives dropping it from the parent. It is dropped from every partition explicitly.
+
+ALTER TABLE slot_events DROP CONSTRAINT slot_events_type_check;
+
+DO $$
+DECLARE
+    child RECORD;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'slot_events'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS slot_events_type_check', child.relname);
+    END LOOP;
+END;
+$$;
+
+ALTER TABLE slot_events ADD CONSTRAINT slot_events_type_check
+    CHECK (type IN ('CREATED', 'GENERATED', 'BOOKED', 'CANCELLED', 'FREED', 'REPLACED', 'RESCHEDULED', 'BLOCKED',
+                    'UNBLOCKED', 'DELETED', 'NOTES_UPDATED'));
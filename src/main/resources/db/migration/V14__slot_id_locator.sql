@@ -0,0 +1,112 @@
+-- V14: Look up slots by id in their own partition
+--
+-- The primary key of slots is (id, start_at) since V7, and Postgres has no index spanning all partitions.
+-- A lookup by id alone therefore probes the primary key of every partition: about 40 index probes with the
+-- default 24 months ahead plus a year of history, and one more for every month kept.
+--
+-- slot_locator maps every slot id to its start_at. It is a plain table with its own primary key, kept
+-- current by a trigger on slots. Queries by id look the start time up there, and the condition on
+-- start_at lets the executor skip every partition but one ("Subplans Removed" in EXPLAIN ANALYZE):
+--
+--     WHERE id = ? AND start_at = (SELECT start_at FROM slot_locator WHERE id = ?)
+--
+-- Statements that select many slots by id (id = ANY(?)) are not rewritten: the planner cannot prune with
+-- an array that comes from a subquery, so they still probe every partition, once per statement.
+-- Hibernate's own updates and deletes of a loaded slot are keyed by id only and do the same.
+
+CREATE TABLE slot_locator (
+    id UUID PRIMARY KEY,
+    start_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO slot_locator (id, start_at)
+SELECT id, start_at FROM slots;
+
+CREATE FUNCTION track_slot_location()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM slot_locator WHERE id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO slot_locator (id, start_at) VALUES (NEW.id, NEW.start_at);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- Cloned onto every partition, including the ones attached later
+CREATE TRIGGER slots_track_location
+    AFTER INSERT OR DELETE OR UPDATE OF id, start_at ON slots
+    FOR EACH ROW EXECUTE FUNCTION track_slot_location();
+
+-- Same as V7, except that rows moved out of the default partition are re-inserted through the parent once
+-- the new partition is attached. Deleting them from the default partition fires the row triggers of the
+-- parent, and inserting them into the still detached partition would not, so the old order lost their
+-- slot_locator entries.
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent TEXT, key_column TEXT, month_start DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_first DATE := date_trunc('month', month_start)::DATE;
+    part        TEXT := format('%s_y%sm%s', parent, to_char(month_first, 'YYYY'), to_char(month_first, 'MM'));
+    moving      TEXT := part || '_moving';
+    lower_bound TIMESTAMPTZ := month_first::TIMESTAMP AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMPTZ := (month_first + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+    EXECUTE format('CREATE TEMPORARY TABLE %I (LIKE %I)', moving, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', key_column, key_column, moving)
+        USING lower_bound, upper_bound;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, part, lower_bound, upper_bound);
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', parent, moving);
+    EXECUTE format('DROP TABLE %I', moving);
+    RETURN TRUE;
+END;
+$$;
+
+-- Same as V7, except that archived slots are dropped from slot_locator. Detaching does not fire row
+-- triggers, and a slot that is only in the archive is not found by id any more.
+CREATE OR REPLACE FUNCTION archive_monthly_partitions(parent TEXT, before_month DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    child       RECORD;
+    month_first DATE;
+    archived    INTEGER := 0;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = parent
+          AND p.relnamespace = 'public'::regnamespace
+          AND c.relname ~ ('^' || parent || '_y[0-9]{4}m[0-9]{2}$')
+          AND to_date(right(c.relname, 7), 'YYYY"m"MM') + INTERVAL '1 month' <= before_month
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, child.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA archive', child.relname);
+        IF parent = 'slots' THEN
+            month_first := to_date(right(child.relname, 7), 'YYYY"m"MM');
+            DELETE FROM slot_locator
+            WHERE start_at >= month_first::TIMESTAMP AT TIME ZONE 'UTC'
+              AND start_at < (month_first + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+        END IF;
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$;
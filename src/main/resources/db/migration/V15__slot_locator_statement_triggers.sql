@@ -0,0 +1,128 @@
+-- V15: Keep slot_locator current with one write per statement and narrow the remaining id lookups
+--
+-- The row trigger of V14 wrote to slot_locator once for every slot row, bulk generate and block-range
+-- included. It also fired on every update Hibernate made, because those list start_at among the columns
+-- they set; each save of a loaded slot deleted and re-inserted its locator row.
+--
+-- Inserts and deletes are now tracked by statement triggers reading the transition tables, so a statement
+-- writes to slot_locator once, however many slots it touches. The id and start time of a slot never
+-- change: the application does not update them, and a row trigger that only fires when an UPDATE sets
+-- either column refuses a change instead of tracking it.
+--
+-- The lookups V14 left reading every partition are narrowed too. Hibernate adds the start time of a loaded
+-- slot to its updates and deletes (@PartitionKey on Slot.startAt). Statements on many slots by id are
+-- bounded by the earliest and latest start time of those ids in slot_locator: the planner prunes with a
+-- range from a subquery, though not with an array.
+--
+-- Statement triggers fire for statements on slots, not for statements on its partitions. Moving rows out
+-- of the default partition keeps their ids and start times, so ensure_monthly_partition() goes back to the
+-- V7 version, which moves them without going through slots.
+
+DROP TRIGGER slots_track_location ON slots;
+DROP FUNCTION track_slot_location();
+
+CREATE FUNCTION locate_inserted_slots()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO slot_locator (id, start_at)
+    SELECT id, start_at FROM inserted_slots;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION forget_deleted_slots()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    DELETE FROM slot_locator l
+    USING deleted_slots d
+    WHERE l.id = d.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION refuse_slot_relocation()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    RAISE EXCEPTION 'The id and start_at of slot % cannot change', OLD.id;
+END;
+$$;
+
+CREATE TRIGGER slots_locate_inserted
+    AFTER INSERT ON slots
+    REFERENCING NEW TABLE AS inserted_slots
+    FOR EACH STATEMENT EXECUTE FUNCTION locate_inserted_slots();
+
+CREATE TRIGGER slots_forget_deleted
+    AFTER DELETE ON slots
+    REFERENCING OLD TABLE AS deleted_slots
+    FOR EACH STATEMENT EXECUTE FUNCTION forget_deleted_slots();
+
+CREATE TRIGGER slots_refuse_relocation
+    BEFORE UPDATE OF id, start_at ON slots
+    FOR EACH ROW
+    WHEN (OLD.id IS DISTINCT FROM NEW.id OR OLD.start_at IS DISTINCT FROM NEW.start_at)
+    EXECUTE FUNCTION refuse_slot_relocation();
+
+-- Same as V7
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent TEXT, key_column TEXT, month_start DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_first DATE := date_trunc('month', month_start)::DATE;
+    part        TEXT := format('%s_y%sm%s', parent, to_char(month_first, 'YYYY'), to_char(month_first, 'MM'));
+    lower_bound TIMESTAMPTZ := month_first::TIMESTAMP AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMPTZ := (month_first + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', key_column, key_column, part)
+        USING lower_bound, upper_bound;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, part, lower_bound, upper_bound);
+    RETURN TRUE;
+END;
+$$;
+
+-- Same as V14, except that the locator rows of an archived month are found by the ids in the archived
+-- partition, through the primary key of slot_locator, instead of by a scan for their start times.
+CREATE OR REPLACE FUNCTION archive_monthly_partitions(parent TEXT, before_month DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    child    RECORD;
+    archived INTEGER := 0;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = parent
+          AND p.relnamespace = 'public'::regnamespace
+          AND c.relname ~ ('^' || parent || '_y[0-9]{4}m[0-9]{2}$')
+          AND to_date(right(c.relname, 7), 'YYYY"m"MM') + INTERVAL '1 month' <= before_month
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, child.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA archive', child.relname);
+        IF parent = 'slots' THEN
+            EXECUTE format('DELETE FROM slot_locator l USING archive.%I p WHERE l.id = p.id', child.relname);
+        END IF;
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$;
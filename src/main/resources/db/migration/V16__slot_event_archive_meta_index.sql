@@ -0,0 +1,9 @@
+-- V16: Index archived slot event metadata like the live table's
+--
+-- V11 kept only the primary key and the "at" index on archived event partitions, so a meta filter over
+-- an archived range (GET /events?reason=...) read every archived row. archive.slot_events gets the GIN
+-- index of V9. Creating it builds it on the partitions already attached. A partition attached later brings
+-- its own copy, which it had as a live partition; attach_archived_partitions() attaches that copy to the
+-- new index instead of dropping it, because it now has a counterpart on archive.slot_events.
+
+CREATE INDEX idx_archive_slot_events_meta ON archive.slot_events USING GIN (meta jsonb_path_ops);
@@ -0,0 +1,22 @@
+-- V6: Background slot generation jobs, processed in week-sized chunks
+
+CREATE TABLE slot_generation_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    from_date DATE NOT NULL,
+    to_date DATE NOT NULL,
+    timezone VARCHAR(50) NOT NULL,
+    weekly_rules TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+
+    -- First date that has not been generated yet; the job resumes from here after a restart
+    next_date DATE NOT NULL,
+    created_count INTEGER NOT NULL DEFAULT 0,
+    skipped_count INTEGER NOT NULL DEFAULT 0,
+    error VARCHAR(1000),
+
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT slot_generation_jobs_status_check CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_slot_generation_jobs_status ON slot_generation_jobs(status);
@@ -0,0 +1,160 @@
+-- V7: Monthly range partitioning of slots (by start_at) and slot_events (by at)
+--
+-- Every month (UTC) gets its own partition, named <table>_yYYYYmMM. Rows outside the existing
+-- partitions land in <table>_default; ensure_monthly_partition() moves them out when their month is
+-- created. SlotPartitionMaintenance keeps partitions created ahead of time and, when configured,
+-- detaches old ones into the "archive" schema.
+--
+-- The primary keys become (id, start_at) and (id, at) because a unique constraint on a partitioned
+-- table must contain the partition key. Ids are still random UUIDs, and nothing references slots.id
+-- or slot_events.id with a foreign key.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- Creates the partition of parent for the UTC month starting at month_start, moving any rows for that
+-- month out of the default partition first. Returns false when the partition already exists.
+CREATE FUNCTION ensure_monthly_partition(parent TEXT, key_column TEXT, month_start DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_first DATE := date_trunc('month', month_start)::DATE;
+    part        TEXT := format('%s_y%sm%s', parent, to_char(month_first, 'YYYY'), to_char(month_first, 'MM'));
+    lower_bound TIMESTAMPTZ := month_first::TIMESTAMP AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMPTZ := (month_first + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', key_column, key_column, part)
+        USING lower_bound, upper_bound;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, part, lower_bound, upper_bound);
+    RETURN TRUE;
+END;
+$$;
+
+-- Detaches every monthly partition of parent that ends on or before before_month and moves it into the
+-- archive schema, where it stays queryable but is no longer scanned, vacuumed or indexed with the live
+-- table. Returns the number of partitions archived.
+CREATE FUNCTION archive_monthly_partitions(parent TEXT, before_month DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    child    RECORD;
+    archived INTEGER := 0;
+BEGIN
+    FOR child IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = parent
+          AND p.relnamespace = 'public'::regnamespace
+          AND c.relname ~ ('^' || parent || '_y[0-9]{4}m[0-9]{2}$')
+          AND to_date(right(c.relname, 7), 'YYYY"m"MM') + INTERVAL '1 month' <= before_month
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, child.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA archive', child.relname);
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$;
+
+-- ----------------------------------------------------------------------------
+-- slots
+-- ----------------------------------------------------------------------------
+
+ALTER TABLE slots RENAME TO slots_unpartitioned;
+ALTER TABLE slots_unpartitioned RENAME CONSTRAINT slots_pkey TO slots_unpartitioned_pkey;
+ALTER TABLE slots_unpartitioned RENAME CONSTRAINT slots_start_at_key TO slots_unpartitioned_start_at_key;
+DROP INDEX idx_slots_start_at;
+DROP INDEX idx_slots_status;
+DROP INDEX idx_slots_student_id;
+DROP INDEX idx_slots_block_id;
+DROP INDEX idx_slots_start_at_status;
+
+CREATE TABLE slots (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    start_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'FREE',
+    student_id UUID REFERENCES students(id),
+    notes VARCHAR(2000),
+    version INTEGER NOT NULL DEFAULT 0,
+    block_id UUID,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT slots_pkey PRIMARY KEY (id, start_at),
+    CONSTRAINT slots_start_at_key UNIQUE (start_at),
+    CONSTRAINT slots_status_check CHECK (status IN ('FREE', 'BOOKED', 'CANCELLED', 'BLOCKED'))
+) PARTITION BY RANGE (start_at);
+
+-- slots_start_at_key already indexes start_at and slots_pkey leads with id, so neither needs its own index
+CREATE INDEX idx_slots_status ON slots(status);
+CREATE INDEX idx_slots_student_id ON slots(student_id);
+CREATE INDEX idx_slots_block_id ON slots(block_id);
+CREATE INDEX idx_slots_start_at_status ON slots(start_at, status);
+
+CREATE TABLE slots_default PARTITION OF slots DEFAULT;
+
+SELECT ensure_monthly_partition('slots', 'start_at', month::DATE)
+FROM generate_series(
+        date_trunc('month', LEAST(COALESCE((SELECT MIN(start_at) FROM slots_unpartitioned), NOW()), NOW()) AT TIME ZONE 'UTC'),
+        date_trunc('month', GREATEST(COALESCE((SELECT MAX(start_at) FROM slots_unpartitioned), NOW()),
+                                     NOW() + INTERVAL '24 months') AT TIME ZONE 'UTC'),
+        INTERVAL '1 month') AS month;
+
+INSERT INTO slots (id, start_at, end_at, status, student_id, notes, version, block_id, created_at, updated_at)
+SELECT id, start_at, end_at, status, student_id, notes, version, block_id, created_at, updated_at
+FROM slots_unpartitioned;
+DROP TABLE slots_unpartitioned;
+
+-- ----------------------------------------------------------------------------
+-- slot_events
+-- ----------------------------------------------------------------------------
+
+ALTER TABLE slot_events RENAME TO slot_events_unpartitioned;
+ALTER TABLE slot_events_unpartitioned RENAME CONSTRAINT slot_events_pkey TO slot_events_unpartitioned_pkey;
+DROP INDEX idx_slot_events_slot_id;
+DROP INDEX idx_slot_events_at;
+DROP INDEX idx_slot_events_type;
+DROP INDEX idx_slot_events_at_type;
+
+CREATE TABLE slot_events (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    slot_id UUID NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    old_student_id UUID,
+    new_student_id UUID,
+    meta TEXT,
+    CONSTRAINT slot_events_pkey PRIMARY KEY (id, at),
+    CONSTRAINT slot_events_type_check CHECK (type IN ('CREATED', 'GENERATED', 'BOOKED', 'CANCELLED', 'FREED', 'REPLACED', 'RESCHEDULED', 'BLOCKED', 'UNBLOCKED', 'NOTES_UPDATED'))
+) PARTITION BY RANGE (at);
+
+CREATE INDEX idx_slot_events_slot_id ON slot_events(slot_id);
+CREATE INDEX idx_slot_events_at ON slot_events(at);
+CREATE INDEX idx_slot_events_type ON slot_events(type);
+CREATE INDEX idx_slot_events_at_type ON slot_events(at, type);
+
+CREATE TABLE slot_events_default PARTITION OF slot_events DEFAULT;
+
+-- Events are only ever written with at = NOW(), so a few months ahead are enough
+SELECT ensure_monthly_partition('slot_events', 'at', month::DATE)
+FROM generate_series(
+        date_trunc('month', LEAST(COALESCE((SELECT MIN(at) FROM slot_events_unpartitioned), NOW()), NOW()) AT TIME ZONE 'UTC'),
+        date_trunc('month', (NOW() + INTERVAL '3 months') AT TIME ZONE 'UTC'),
+        INTERVAL '1 month') AS month;
+
+INSERT INTO slot_events (id, slot_id, type, at, old_student_id, new_student_id, meta)
+SELECT id, slot_id, type, at, old_student_id, new_student_id, meta
+FROM slot_events_unpartitioned;
+DROP TABLE slot_events_unpartitioned;
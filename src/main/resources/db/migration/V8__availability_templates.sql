@@ -0,0 +1,18 @@
+-- V8: Recurring availability templates
+--
+-- A template offers a FREE hourly slot for every start time its weekly rules produce between from_date
+-- and to_date (open-ended when NULL). Those slots are virtual: they are merged into slot reads and only
+-- written to slots once they are booked or blocked.
+
+CREATE TABLE availability_templates (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    from_date DATE NOT NULL,
+    to_date DATE,
+    timezone VARCHAR(50) NOT NULL,
+    weekly_rules TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT availability_templates_dates_check CHECK (to_date IS NULL OR to_date >= from_date)
+);
+
+CREATE INDEX idx_availability_templates_dates ON availability_templates(from_date, to_date);
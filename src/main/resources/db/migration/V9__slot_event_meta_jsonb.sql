@@ -0,0 +1,25 @@
+-- V9: Store slot event metadata as jsonb so that it can be filtered by key through an index
+--
+-- The column type change runs on the partitioned parent and is applied to every attached partition.
+-- Partitions already moved into the archive schema keep their TEXT column.
+
+-- Metadata that was written with the toString() fallback is not JSON; it is kept under "raw",
+-- matching how SlotEventResponse exposed it before.
+CREATE FUNCTION pg_temp.meta_to_jsonb(meta TEXT)
+RETURNS JSONB
+LANGUAGE plpgsql
+IMMUTABLE
+AS $$
+BEGIN
+    RETURN meta::jsonb;
+EXCEPTION WHEN invalid_text_representation THEN
+    RETURN jsonb_build_object('raw', meta);
+END;
+$$;
+
+ALTER TABLE slot_events
+    ALTER COLUMN meta TYPE JSONB USING pg_temp.meta_to_jsonb(NULLIF(meta, ''));
+
+-- Serves containment filters (meta @> '{"blockId": "..."}') on any key, e.g. blockId, cancelledBy,
+-- reason and originSlotId
+CREATE INDEX idx_slot_events_meta ON slot_events USING GIN (meta jsonb_path_ops);
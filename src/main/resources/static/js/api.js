@@ -2,16 +2,22 @@
 const API = {
     baseUrl: '/api/v1',
 
+    // Last ETag and body per conditional GET url; a 304 answer reuses the stored body
+    conditionalCache: new Map(),
+    CONDITIONAL_CACHE_MAX: 50,
+
     async request(endpoint, options = {}, _isRetry = false) {
         const url = `${this.baseUrl}${endpoint}`;
         const token = (typeof Auth !== 'undefined') ? Auth.getAccessToken() : null;
+        const cached = options.conditional ? this.conditionalCache.get(url) : undefined;
         const config = {
+            ...options,
             headers: {
                 'Content-Type': 'application/json',
                 ...(token ? { 'Authorization': 'Bearer ' + token } : {}),
+                ...(cached ? { 'If-None-Match': cached.etag } : {}),
                 ...options.headers
-            },
-            ...options
+            }
         };
 
         try {
@@ -36,6 +42,10 @@ const API = {
                 return null;
             }
 
+            if (response.status === 304 && cached) {
+                return cached.data;
+            }
+
             const contentType = response.headers.get('content-type');
             const data = contentType && contentType.includes('application/json')
                 ? await response.json()
@@ -50,6 +60,10 @@ const API = {
                 throw error;
             }
 
+            if (options.conditional) {
+                this.rememberConditional(url, response.headers.get('ETag'), data);
+            }
+
             return data;
         } catch (error) {
             if (error.status) {
@@ -59,6 +73,18 @@ const API = {
         }
     },
 
+    rememberConditional(url, etag, data) {
+        this.conditionalCache.delete(url);
+        if (!etag) {
+            return;
+        }
+        this.conditionalCache.set(url, { etag, data });
+        if (this.conditionalCache.size > this.CONDITIONAL_CACHE_MAX) {
+            // Map iterates in insertion order, so the first key is the least recently stored
+            this.conditionalCache.delete(this.conditionalCache.keys().next().value);
+        }
+    },
+
     // Students
     async getStudents(params = {}) {
         const queryParams = new URLSearchParams();
@@ -106,11 +132,16 @@ const API = {
     async getSlots(from, to, status = null) {
         const params = new URLSearchParams({ from, to });
         if (status) params.append('status', status);
-        return this.request(`/slots?${params}`);
+        return this.request(`/slots?${params}`, { conditional: true });
+    },
+
+    async getAvailability(from, to) {
+        const params = new URLSearchParams({ from, to });
+        return this.request(`/slots/availability?${params}`, { conditional: true });
     },
 
     async getSlot(id) {
-        return this.request(`/slots/${id}`);
+        return this.request(`/slots/${id}`, { conditional: true });
     },
 
     async createSlot(data) {
@@ -133,6 +164,17 @@ const API = {
         });
     },
 
+    async createGenerationJob(data) {
+        return this.request('/slots/generate/jobs', {
+            method: 'POST',
+            body: JSON.stringify(data)
+        });
+    },
+
+    async getGenerationJob(id) {
+        return this.request(`/slots/generate/jobs/${id}`);
+    },
+
     async bookSlot(slotId, data) {
         return this.request(`/slots/${slotId}/book`, {
             method: 'POST',
@@ -140,6 +182,21 @@ const API = {
         });
     },
 
+    async bookSeries(data) {
+        return this.request('/slots/book-series', {
+            method: 'POST',
+            body: JSON.stringify(data)
+        });
+    },
+
+    // action: cancel | free | block | unblock | delete
+    async bulkSlots(action, data) {
+        return this.request(`/slots/bulk/${action}`, {
+            method: 'POST',
+            body: JSON.stringify(data)
+        });
+    },
+
     async cancelSlot(slotId, data) {
         return this.request(`/slots/${slotId}/cancel`, {
             method: 'POST',
@@ -178,6 +235,9 @@ const API = {
         if (type) queryParams.append('type', type);
         if (params.page !== undefined) queryParams.append('page', params.page);
         if (params.size !== undefined) queryParams.append('size', params.size);
+        ['blockId', 'cancelledBy', 'reason', 'originSlotId'].forEach(key => {
+            if (params[key]) queryParams.append(key, params[key]);
+        });
         return this.request(`/events?${queryParams}`);
     },
 
@@ -200,6 +260,24 @@ const API = {
         });
     },
 
+    // Availability templates
+    async getAvailabilityTemplates() {
+        return this.request('/availability-templates');
+    },
+
+    async createAvailabilityTemplate(data) {
+        return this.request('/availability-templates', {
+            method: 'POST',
+            body: JSON.stringify(data)
+        });
+    },
+
+    async deleteAvailabilityTemplate(id) {
+        return this.request(`/availability-templates/${id}`, {
+            method: 'DELETE'
+        });
+    },
+
     // Waitlist
     async getWaitlist(params = {}) {
         const queryParams = new URLSearchParams();
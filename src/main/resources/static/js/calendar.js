@@ -5,9 +5,11 @@ const Calendar = {
     currentMonth: null,      // { year, month } for month view
     viewMode: 'week',        // 'day' | 'week' | 'month'
     slots: [],
+    availability: null,      // { 'YYYY-MM-DD': hours } — staff month view only
     students: [],
     startHour: 7,
     endHour: 20,
+    GENERATION_JOB_THRESHOLD_DAYS: 92,
 
     init() {
         const today = new Date();
@@ -161,9 +163,18 @@ const Calendar = {
 
         try {
             let response;
+            this.availability = null;
             if (typeof Auth !== 'undefined' && Auth.isStudent()) {
                 const user = Auth.getUser();
                 response = await API.getStudentSlots(user.studentId, fromDate, toDate);
+            } else if (this.viewMode === 'month') {
+                // Month cells only need per-hour statuses, not full slots
+                const availability = await API.getAvailability(fromDate, toDate);
+                this.availability = {};
+                availability.days.forEach(day => {
+                    this.availability[day.date] = day.hours;
+                });
+                response = { content: [] };
             } else {
                 response = await API.getSlots(from, to);
             }
@@ -252,6 +263,19 @@ const Calendar = {
     // =========================================
     // MONTH VIEW
     // =========================================
+    // Statuses of a month cell's slots in start order, from the availability summary or loaded slots
+    getMonthCellStatuses(dateKey) {
+        if (this.availability) {
+            const hours = this.availability[dateKey] || '';
+            return [...hours].filter(code => code !== '-').map(code => this.AVAILABILITY_CODES[code]);
+        }
+        return this.slots
+            .filter(slot => Utils.getSofiaDateKey(new Date(slot.startAt)) === dateKey)
+            .map(slot => slot.status);
+    },
+
+    AVAILABILITY_CODES: { F: 'FREE', B: 'BOOKED', C: 'CANCELLED', X: 'BLOCKED' },
+
     renderMonthView() {
         const grid = document.getElementById('monthGrid');
         grid.innerHTML = '';
@@ -290,9 +314,7 @@ const Calendar = {
 
             // Slots for this day — compare in Sofia timezone
             const cellDateKey = Utils.getSofiaDateKey(cellDate);
-            const daySlots = this.slots.filter(slot =>
-                Utils.getSofiaDateKey(new Date(slot.startAt)) === cellDateKey
-            );
+            const daySlots = this.getMonthCellStatuses(cellDateKey).map(status => ({ status }));
 
             if (daySlots.length > 0) {
                 // Show colored dots (max 8, then "+N")
@@ -573,6 +595,10 @@ const Calendar = {
                     <label>Notes</label>
                     <textarea id="bookNotes" placeholder="Optional notes..."></textarea>
                 </div>
+                <div class="form-group">
+                    <label>Repeat weekly until</label>
+                    <input type="date" id="bookRepeatUntil">
+                </div>
                 <div class="modal-actions">
                     <button type="button" class="btn btn-secondary" id="cancelBookBtn">Cancel</button>
                     <button type="submit" class="btn btn-success">Book Slot</button>
@@ -587,10 +613,21 @@ const Calendar = {
             e.preventDefault();
             const studentId = document.getElementById('bookStudentId').value;
             const notes = document.getElementById('bookNotes').value;
+            const repeatUntil = document.getElementById('bookRepeatUntil').value;
 
             try {
-                await API.bookSlot(slot.id, { studentId, notes: notes || undefined });
-                Toast.success('Slot booked successfully');
+                if (repeatUntil) {
+                    // Same weekday and hour every week, booked in one request
+                    const result = await API.bookSeries(this.buildSeriesRequest(slot, studentId, repeatUntil, notes));
+                    if (result.conflictCount > 0) {
+                        Toast.warning(`Booked ${result.bookedCount} slots, ${result.conflictCount} could not be booked`);
+                    } else {
+                        Toast.success(`Booked ${result.bookedCount} slots`);
+                    }
+                } else {
+                    await API.bookSlot(slot.id, { studentId, notes: notes || undefined });
+                    Toast.success('Slot booked successfully');
+                }
                 Modal.close();
                 this.load();
             } catch (error) {
@@ -599,6 +636,24 @@ const Calendar = {
         });
     },
 
+    buildSeriesRequest(slot, studentId, until, notes) {
+        const days = ['SUNDAY', 'MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY'];
+        const start = new Date(slot.startAt);
+        const end = new Date(slot.endAt);
+        const pad = (n) => n.toString().padStart(2, '0');
+        const time = (d) => `${pad(d.getHours())}:${pad(d.getMinutes())}`;
+        const from = `${start.getFullYear()}-${pad(start.getMonth() + 1)}-${pad(start.getDate())}`;
+
+        return {
+            studentId,
+            from,
+            to: until,
+            timezone: Intl.DateTimeFormat().resolvedOptions().timeZone,
+            weeklyRules: [{ dayOfWeek: days[start.getDay()], startTime: time(start), endTime: time(end) }],
+            notes: notes || undefined
+        };
+    },
+
     showCancelSlotForm(slot) {
         const content = `
             <form id="cancelSlotForm">
@@ -937,14 +992,25 @@ const Calendar = {
             });
         });
 
+        const request = {
+            from,
+            to,
+            timezone: Intl.DateTimeFormat().resolvedOptions().timeZone,
+            weeklyRules: rules,
+            slotDurationMinutes: 60
+        };
+
         try {
-            const result = await API.generateSlots({
-                from,
-                to,
-                timezone: Intl.DateTimeFormat().resolvedOptions().timeZone,
-                weeklyRules: rules,
-                slotDurationMinutes: 60
-            });
+            // Large ranges run as a background job; progress arrives over SSE
+            const days = (new Date(to) - new Date(from)) / 86400000 + 1;
+            if (days > this.GENERATION_JOB_THRESHOLD_DAYS) {
+                await API.createGenerationJob(request);
+                Toast.info('Slot generation started in the background');
+                Modal.close();
+                return;
+            }
+
+            const result = await API.generateSlots(request);
 
             Toast.success(`Generated ${result.createdCount} slots (${result.skippedCount} skipped)`);
             Modal.close();
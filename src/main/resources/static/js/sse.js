@@ -7,7 +7,8 @@ const SSE = {
     SLOT_EVENTS: [
         'SLOT_CREATED', 'SLOT_GENERATED', 'SLOT_BOOKED',
         'SLOT_CANCELLED', 'SLOT_FREED', 'SLOT_REPLACED',
-        'SLOT_RESCHEDULED', 'SLOT_BLOCKED', 'SLOT_UNBLOCKED'
+        'SLOT_RESCHEDULED', 'SLOT_BLOCKED', 'SLOT_UNBLOCKED', 'SLOT_DELETED',
+        'SLOT_BATCH'
     ],
 
     // Events that require a student/waitlist reload
@@ -47,6 +48,42 @@ const SSE = {
                 this.onStudentEvent(type, e);
             });
         });
+
+        this.eventSource.addEventListener('GENERATION_JOB_PROGRESS', (e) => {
+            this.onGenerationJobProgress(e);
+        });
+
+        this.eventSource.addEventListener('RESYNC', (e) => {
+            this.onResync(e);
+        });
+    },
+
+    // The server sends a snapshotSeq when this client missed too many slot events to replay. Only slots
+    // changed, so, as for any slot event, the calendar re-reads just the range it shows (or the blocks
+    // list, if that is open). Without one, the client fell behind on a live stream and may have lost any
+    // kind of event, so everything it shows is reloaded. A snapshotSeq is also the frame's id, so a later
+    // reconnect resumes from it.
+    onResync(e) {
+        let snapshotSeq = null;
+        try {
+            snapshotSeq = JSON.parse(e.data).snapshotSeq;
+        } catch {
+            // Treated as a live stream resync
+        }
+        if (snapshotSeq != null) {
+            console.log('[SSE] Resync requested at', snapshotSeq);
+            this.debounce('resync', () => {
+                if (App.currentView === 'calendar') {
+                    Calendar.load();
+                } else if (App.currentView === 'blocks') {
+                    Blocks.load();
+                }
+            }, 300);
+            return;
+        }
+        console.log('[SSE] Resync requested');
+        Calendar.loadStudentsCache();
+        this.debounce('resync', () => App.loadViewData(App.currentView), 300);
     },
 
     onSlotEvent(type, e) {
@@ -60,8 +97,11 @@ const SSE = {
             // because App.loadViewData() always calls Calendar.load()
         }, 500);
 
+        // SLOT_BATCH carries the per-slot type of a bulk operation in changeType
+        const changeType = type === 'SLOT_BATCH' ? this.parseChangeType(e) : type;
+
         // SLOT_BLOCKED / SLOT_UNBLOCKED may reflect a Block being created or deleted
-        if (type === 'SLOT_BLOCKED' || type === 'SLOT_UNBLOCKED') {
+        if (changeType === 'SLOT_BLOCKED' || changeType === 'SLOT_UNBLOCKED') {
             this.debounce('blocks', () => {
                 if (App.currentView === 'blocks') {
                     Blocks.load();
@@ -70,6 +110,14 @@ const SSE = {
         }
     },
 
+    parseChangeType(e) {
+        try {
+            return JSON.parse(e.data).changeType;
+        } catch {
+            return null;
+        }
+    },
+
     onStudentEvent(type, e) {
         console.log('[SSE] Student event received:', type, e.data);
         // Keep the calendar's student dropdown cache fresh
@@ -90,6 +138,21 @@ const SSE = {
         }, 300);
     },
 
+    onGenerationJobProgress(e) {
+        let job;
+        try {
+            job = JSON.parse(e.data).job;
+        } catch {
+            return;
+        }
+        // Intermediate chunks already reload the calendar through SLOT_BATCH
+        if (job.status === 'COMPLETED') {
+            Toast.success(`Generated ${job.createdCount} slots (${job.skippedCount} skipped)`);
+        } else if (job.status === 'FAILED') {
+            Toast.error('Slot generation failed: ' + job.error);
+        }
+    },
+
     // Collapses rapid-fire events into a single UI refresh
     debounce(key, fn, delay) {
         clearTimeout(this.debounceTimers[key]);
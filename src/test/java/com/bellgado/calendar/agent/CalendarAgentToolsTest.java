@@ -20,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -201,6 +202,18 @@ class CalendarAgentToolsTest {
         assertThat(captor.getValue().reason()).isEqualTo("sick");
     }
 
+    @Test
+    void getAvailability_parsesDatesAndSerializesSummary() throws Exception {
+        LocalDate from = LocalDate.of(2025, 3, 10);
+        SlotAvailabilityResponse mockResponse = new SlotAvailabilityResponse(from, from, "Europe/Sofia",
+                List.of(new DayAvailability(from, "---------FFB------------")));
+        when(slotService.availability(from, from)).thenReturn(mockResponse);
+
+        String result = tools.getAvailability("2025-03-10", "2025-03-10");
+
+        assertThat(result).contains("---------FFB------------");
+    }
+
     @Test
     void invalidUuid_returnsError() {
         String result = tools.getSlotById("not-a-uuid");
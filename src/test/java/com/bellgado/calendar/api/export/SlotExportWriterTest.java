@@ -0,0 +1,97 @@
+package com.bellgado.calendar.api.export;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.api.dto.StudentBrief;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.config.JacksonConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotExportWriterTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2030, 1, 8, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final SlotExportWriter writer = new SlotExportWriter(objectMapper);
+
+    @Test
+    void ndjson_shouldWriteOneJsonObjectPerLine() throws IOException {
+        SlotResponse free = slot(START, SlotStatus.FREE, null, null);
+        SlotResponse booked = slot(START.plusHours(1), SlotStatus.BOOKED,
+                new StudentBrief(UUID.randomUUID(), "Ana"), "bring\nlicence");
+
+        String[] lines = write(SlotExportFormat.NDJSON, List.of(free, booked)).split("\n", -1);
+
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(free.id().toString(), first.get("id").asText());
+        assertEquals("2030-01-08T10:00:00+02:00", first.get("startAt").asText());
+        assertEquals("Ana", second.get("student").get("fullName").asText());
+        assertEquals("bring\nlicence", second.get("notes").asText());
+    }
+
+    @Test
+    void ndjson_shouldWriteNothingForNoRows() throws IOException {
+        assertEquals("", write(SlotExportFormat.NDJSON, List.of()));
+    }
+
+    @Test
+    void csv_shouldWriteHeaderAndQuoteTextWhenNeeded() throws IOException {
+        UUID studentId = UUID.randomUUID();
+        SlotResponse booked = slot(START, SlotStatus.BOOKED, new StudentBrief(studentId, "Ivanov, Ana"), "say \"hi\"");
+        SlotResponse free = slot(START.plusHours(1), SlotStatus.FREE, null, null);
+
+        String[] lines = write(SlotExportFormat.CSV, List.of(booked, free)).split("\r\n");
+
+        assertEquals("id,startAt,endAt,status,studentId,studentName,notes,version,createdAt,updatedAt", lines[0]);
+        assertEquals(booked.id() + ",2030-01-08T10:00:00+02:00,2030-01-08T11:00:00+02:00,BOOKED,"
+                + studentId + ",\"Ivanov, Ana\",\"say \"\"hi\"\"\",1,2030-01-01T02:00:00+02:00,2030-01-01T02:00:00+02:00",
+                lines[1]);
+        assertEquals(free.id() + ",2030-01-08T11:00:00+02:00,2030-01-08T12:00:00+02:00,FREE,,,,1,"
+                + "2030-01-01T02:00:00+02:00,2030-01-01T02:00:00+02:00", lines[2]);
+    }
+
+    @Test
+    void write_shouldPropagateClientDisconnectAsIOException() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        List<SlotResponse> slots = IntStream.range(0, SlotExportWriter.FLUSH_EVERY_ROWS)
+                .mapToObj(i -> slot(START.plusHours(i), SlotStatus.FREE, null, null))
+                .toList();
+
+        IOException e = assertThrows(IOException.class,
+                () -> writer.write(SlotExportFormat.NDJSON, broken, sink -> slots.forEach(sink)));
+        assertEquals("Broken pipe", e.getMessage());
+    }
+
+    private String write(SlotExportFormat format, List<SlotResponse> slots) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(format, out, sink -> slots.forEach(sink));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static SlotResponse slot(OffsetDateTime startAt, SlotStatus status, StudentBrief student, String notes) {
+        OffsetDateTime created = OffsetDateTime.of(2030, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        return new SlotResponse(UUID.randomUUID(), startAt, startAt.plusHours(1), status, student, notes, 1,
+                created, created);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bellgado.calendar.api.sse;
+
+import com.bellgado.calendar.api.sse.SseEmitterRegistry.EmitterMeta;
+import com.bellgado.calendar.domain.enums.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseConnectionTest {
+
+    private static final EmitterMeta TEACHER_META =
+            new EmitterMeta(UUID.randomUUID(), UserRole.TEACHER, null);
+
+    private final ExecutorService writerExecutor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        writerExecutor.shutdownNow();
+    }
+
+    /**
+     * An emitter on a stalled network: {@code send} holds the emitter lock until released,
+     * and {@code complete} needs the same lock, like the servlet-backed emitter.
+     */
+    private static final class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+
+    @Test
+    void offer_shouldNotWaitForWriterBlockedInSendWhenDisconnecting() throws Exception {
+        StalledEmitter emitter = new StalledEmitter();
+        AtomicInteger closes = new AtomicInteger();
+        SseConnection connection = new SseConnection(UUID.randomUUID(), emitter, TEACHER_META, 1,
+                SseOverflowPolicy.DISCONNECT, () -> SseFrame.HEARTBEAT, writerExecutor, closes::incrementAndGet);
+
+        connection.offer(SseFrame.HEARTBEAT);
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        // The writer now holds the emitter lock; fill the queue and overflow it
+        connection.offer(SseFrame.HEARTBEAT);
+
+        boolean accepted = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> connection.offer(SseFrame.HEARTBEAT));
+
+        assertFalse(accepted);
+        assertEquals(1, closes.get());
+        assertEquals(0, connection.queued());
+        assertEquals(1, emitter.completed.getCount(), "completed while the writer was still sending");
+
+        emitter.release.countDown();
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void offer_shouldCompleteIdleEmitterOnWriterExecutorWhenDisconnecting() throws Exception {
+        StalledEmitter emitter = new StalledEmitter();
+        Runnable[] held = new Runnable[1];
+        SseConnection connection = new SseConnection(UUID.randomUUID(), emitter, TEACHER_META, 0,
+                SseOverflowPolicy.DISCONNECT, () -> SseFrame.HEARTBEAT, task -> held[0] = task, () -> {});
+
+        assertFalse(connection.offer(SseFrame.HEARTBEAT));
+        assertEquals(1, emitter.completed.getCount());
+
+        held[0].run();
+        assertEquals(0, emitter.completed.getCount());
+    }
+}
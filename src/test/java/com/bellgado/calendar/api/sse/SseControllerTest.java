@@ -0,0 +1,115 @@
+package com.bellgado.calendar.api.sse;
+
+import com.bellgado.calendar.application.service.SlotEventService;
+import com.bellgado.calendar.application.service.SlotService;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.EventType;
+import com.bellgado.calendar.domain.enums.UserRole;
+import com.bellgado.calendar.infrastructure.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SseControllerTest {
+
+    private static final String TOKEN = "token";
+
+    private final SseEmitterRegistry registry = mock(SseEmitterRegistry.class);
+    private final SseReplayBuffer replayBuffer = mock(SseReplayBuffer.class);
+    private final SlotEventService slotEventService = mock(SlotEventService.class);
+    private final SlotService slotService = mock(SlotService.class);
+    private final JwtTokenProvider tokenProvider = mock(JwtTokenProvider.class);
+    private final Set<DataWithMediaType> resyncFrame = Set.of();
+
+    private SseController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new SseController(registry, replayBuffer, slotEventService, slotService,
+                new ObjectMapper().findAndRegisterModules(), tokenProvider);
+        when(tokenProvider.validateToken(TOKEN)).thenReturn(true);
+        when(tokenProvider.getUserId(TOKEN)).thenReturn(UUID.randomUUID());
+        when(tokenProvider.getRole(TOKEN)).thenReturn(UserRole.TEACHER);
+        when(registry.register(any(), anyLong(), any())).thenReturn(new SseEmitter());
+        when(replayBuffer.framesAfter(anyLong(), any())).thenReturn(Optional.empty());
+        when(slotEventService.latestSeq()).thenReturn(900L);
+        when(registry.resyncFrame(900L)).thenReturn(resyncFrame);
+    }
+
+    @Test
+    void stream_shouldResyncInsteadOfReplayingTooManyEvents() throws Exception {
+        List<SlotEvent> missed = new ArrayList<>();
+        LongStream.rangeClosed(11, 211).forEach(seq -> missed.add(event(seq, UUID.randomUUID(), EventType.CREATED)));
+        when(slotEventService.findAfterSeq(10, 201)).thenReturn(missed);
+
+        controller.stream(TOKEN, "10", mock(HttpServletResponse.class));
+
+        verify(registry).sendTo(any(), same(resyncFrame));
+        verifyNoInteractions(slotService);
+    }
+
+    @Test
+    void stream_shouldResyncInsteadOfReplayingTooManyBufferedFrames() throws Exception {
+        when(replayBuffer.framesAfter(eq(10L), any()))
+                .thenReturn(Optional.of(Collections.nCopies(201, new byte[0])));
+
+        controller.stream(TOKEN, "10", mock(HttpServletResponse.class));
+
+        verify(registry).sendTo(any(), same(resyncFrame));
+        verify(slotEventService, never()).findAfterSeq(anyLong(), anyInt());
+    }
+
+    @Test
+    void stream_shouldReplayGapWithinLimit() throws Exception {
+        UUID slotId = UUID.randomUUID();
+        when(slotEventService.findAfterSeq(10, 201)).thenReturn(List.of(event(11, slotId, EventType.CREATED)));
+
+        controller.stream(TOKEN, "10", mock(HttpServletResponse.class));
+
+        verify(slotService).getByIds(Set.of(slotId));
+        verify(registry, never()).resyncFrame(any());
+        verify(registry).sendTo(any(), any());
+    }
+
+    @Test
+    void latestPerSlot_shouldKeepNewestEventOfEachSlotInSequenceOrder() {
+        UUID slotA = UUID.randomUUID();
+        UUID slotB = UUID.randomUUID();
+        SlotEvent created = event(1, slotA, EventType.CREATED);
+        SlotEvent generated = event(2, slotB, EventType.GENERATED);
+        SlotEvent booked = event(3, slotA, EventType.BOOKED);
+        SlotEvent cancelled = event(4, slotA, EventType.CANCELLED);
+
+        List<SlotEvent> latest = SseController.latestPerSlot(List.of(created, generated, booked, cancelled));
+
+        // slotA's newest event is the last one overall, so it has to come after slotB's
+        assertEquals(List.of(generated, cancelled), latest);
+    }
+
+    @Test
+    void latestPerSlot_shouldReturnEmptyListForNoEvents() {
+        assertTrue(SseController.latestPerSlot(List.of()).isEmpty());
+    }
+
+    private static SlotEvent event(long seq, UUID slotId, EventType type) {
+        SlotEvent event = new SlotEvent(slotId, type);
+        event.setId(UUID.randomUUID());
+        event.setSeq(seq);
+        return event;
+    }
+}
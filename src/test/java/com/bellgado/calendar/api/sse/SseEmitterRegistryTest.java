@@ -1,25 +1,48 @@
 package com.bellgado.calendar.api.sse;
 
 import com.bellgado.calendar.api.sse.SseEmitterRegistry.EmitterMeta;
+import com.bellgado.calendar.application.service.SlotEventService;
 import com.bellgado.calendar.domain.enums.UserRole;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 class SseEmitterRegistryTest {
 
     private SseEmitterRegistry registry;
+    private SseReplayBuffer replayBuffer;
+    private SimpleMeterRegistry meterRegistry;
     private static final EmitterMeta TEACHER_META =
             new EmitterMeta(UUID.randomUUID(), UserRole.TEACHER, null);
 
+    /** Collects writer tasks instead of running them, so that queues fill up like behind a slow client. */
+    private final List<Runnable> heldWriters = new ArrayList<>();
+
     @BeforeEach
     void setUp() {
-        registry = new SseEmitterRegistry(new ObjectMapper());
+        // Writers run inline, so every send has happened when broadcast() returns
+        registry = registry(256, SseOverflowPolicy.DISCONNECT, Runnable::run);
+    }
+
+    private SseEmitterRegistry registry(int capacity, SseOverflowPolicy policy, Executor writerExecutor) {
+        meterRegistry = new SimpleMeterRegistry();
+        replayBuffer = new SseReplayBuffer(mock(SlotEventService.class), 16, Duration.ofMinutes(10));
+        replayBuffer.onStartup();
+        return new SseEmitterRegistry(new ObjectMapper().findAndRegisterModules(), replayBuffer, meterRegistry,
+                capacity, policy, writerExecutor);
     }
 
     @Test
@@ -91,4 +114,168 @@ class SseEmitterRegistryTest {
 
         assertEquals(0, registry.activeConnections());
     }
+
+    @Test
+    void broadcast_shouldDisconnectClientWhoseQueueIsFull() {
+        registry = registry(2, SseOverflowPolicy.DISCONNECT, heldWriters::add);
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+
+        for (int i = 0; i < 3; i++) {
+            registry.broadcast(SseEventType.SLOT_CREATED, String.valueOf(i), "data", null);
+        }
+
+        assertEquals(0, registry.activeConnections());
+        assertEquals(1.0, meterRegistry.get("sse.outbound.overflow").counter().count());
+        assertEquals(0.0, meterRegistry.get("sse.outbound.queued").gauge().value());
+    }
+
+    @Test
+    void broadcast_shouldDropOldestFrameAndKeepSlowClient() {
+        registry = registry(2, SseOverflowPolicy.DROP_OLDEST, heldWriters::add);
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+
+        for (int i = 0; i < 5; i++) {
+            registry.broadcast(SseEventType.SLOT_CREATED, String.valueOf(i), "data", null);
+        }
+
+        assertEquals(1, registry.activeConnections());
+        assertEquals(3.0, meterRegistry.get("sse.outbound.overflow").counter().count());
+        assertEquals(2.0, meterRegistry.get("sse.outbound.queued").gauge().value());
+        // Only one writer is started per drain, however many frames are queued
+        assertEquals(1, heldWriters.size());
+    }
+
+    @Test
+    void clientStats_shouldReportQueueLagAndDropsPerClient() throws Exception {
+        registry = registry(2, SseOverflowPolicy.DROP_OLDEST, heldWriters::add);
+        UUID slowClient = UUID.randomUUID();
+        registry.register(slowClient, 30_000L, TEACHER_META);
+        for (int i = 0; i < 5; i++) {
+            registry.broadcast(SseEventType.SLOT_CREATED, String.valueOf(i), "data", null);
+        }
+        Thread.sleep(5);
+        UUID idleClient = UUID.randomUUID();
+        EmitterMeta studentMeta = EmitterMeta.student(UUID.randomUUID(), UUID.randomUUID());
+        registry.register(idleClient, 30_000L, studentMeta);
+
+        List<SseClientStats> stats = registry.clientStats();
+
+        assertEquals(2, stats.size());
+        SseClientStats slow = stats.get(0);
+        assertEquals(slowClient, slow.clientId());
+        assertEquals(TEACHER_META.userId(), slow.userId());
+        assertEquals(2, slow.queued());
+        assertEquals(3, slow.dropped());
+        assertTrue(slow.lagMillis() > 0);
+        SseClientStats idle = stats.get(1);
+        assertEquals(idleClient, idle.clientId());
+        assertEquals(UserRole.STUDENT, idle.role());
+        assertEquals(0, idle.queued());
+        assertEquals(0, idle.lagMillis());
+        assertEquals(0, idle.dropped());
+    }
+
+    @Test
+    void broadcast_shouldReplaceQueuedFramesWithSingleResync() {
+        registry = registry(2, SseOverflowPolicy.RESYNC, heldWriters::add);
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+
+        for (int i = 0; i < 3; i++) {
+            registry.broadcast(SseEventType.SLOT_CREATED, String.valueOf(i), "data", null);
+        }
+
+        assertEquals(1, registry.activeConnections());
+        assertEquals(1.0, meterRegistry.get("sse.outbound.queued").gauge().value());
+    }
+
+    @Test
+    void broadcast_shouldNotWaitForSlowClients() {
+        registry = registry(256, SseOverflowPolicy.DISCONNECT, heldWriters::add);
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+
+        registry.broadcast(SseEventType.SLOT_BOOKED, "1", "data", null);
+
+        // Nothing has been written yet, but both frames are queued with a writer each
+        assertEquals(2, heldWriters.size());
+        assertEquals(2.0, meterRegistry.get("sse.outbound.queued").gauge().value());
+        heldWriters.forEach(Runnable::run);
+        assertEquals(0.0, meterRegistry.get("sse.outbound.queued").gauge().value());
+    }
+
+    @Test
+    void sendHeartbeat_shouldSkipClientsThatAlreadyHaveFramesQueued() {
+        registry = registry(1, SseOverflowPolicy.DISCONNECT, heldWriters::add);
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+        registry.broadcast(SseEventType.SLOT_BOOKED, "1", "data", null);
+
+        registry.sendHeartbeat();
+
+        assertEquals(1, registry.activeConnections());
+        assertEquals(0.0, meterRegistry.get("sse.outbound.overflow").counter().count());
+    }
+
+    @Test
+    void broadcast_shouldOnlyVisitStaffAndRelevantStudents() {
+        registry = registry(256, SseOverflowPolicy.DISCONNECT, heldWriters::add);
+        UUID studentA = UUID.randomUUID();
+        UUID studentB = UUID.randomUUID();
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+        registry.register(UUID.randomUUID(), 30_000L, EmitterMeta.student(UUID.randomUUID(), studentA));
+        registry.register(UUID.randomUUID(), 30_000L, EmitterMeta.student(UUID.randomUUID(), studentA));
+        registry.register(UUID.randomUUID(), 30_000L, EmitterMeta.student(UUID.randomUUID(), studentB));
+
+        registry.broadcast(SseEventType.SLOT_BOOKED, "1", "data", Set.of(studentA));
+
+        assertEquals(3, heldWriters.size());
+    }
+
+    @Test
+    void broadcast_shouldReachStaffOnlyForEmptySetAndEveryoneForNull() {
+        registry = registry(256, SseOverflowPolicy.DISCONNECT, heldWriters::add);
+        registry.register(UUID.randomUUID(), 30_000L, TEACHER_META);
+        registry.register(UUID.randomUUID(), 30_000L, EmitterMeta.student(UUID.randomUUID(), UUID.randomUUID()));
+        registry.register(UUID.randomUUID(), 30_000L, EmitterMeta.student(UUID.randomUUID(), null));
+
+        registry.broadcast(SseEventType.GENERATION_JOB_PROGRESS, null, "data", Set.of());
+        assertEquals(1, heldWriters.size());
+
+        registry.broadcast(SseEventType.STUDENT_UPDATED, null, "data", null);
+        assertEquals(3, heldWriters.size());
+    }
+
+    @Test
+    void broadcast_shouldForgetStudentConnectionsOnceTheyFail() {
+        UUID studentId = UUID.randomUUID();
+        SseEmitter emitter = registry.register(UUID.randomUUID(), 30_000L, EmitterMeta.student(UUID.randomUUID(), studentId));
+        emitter.complete();
+
+        registry.broadcast(SseEventType.SLOT_BOOKED, "1", "data", Set.of(studentId));
+        assertEquals(0, registry.activeConnections());
+
+        // A new connection of the same student is indexed again
+        registry.register(UUID.randomUUID(), 30_000L, EmitterMeta.student(UUID.randomUUID(), studentId));
+        registry.broadcast(SseEventType.SLOT_BOOKED, "2", "data", Set.of(studentId));
+        assertEquals(1, registry.activeConnections());
+    }
+
+    @Test
+    void broadcast_shouldKeepEventsWithIdInReplayBufferWithoutConnectedClients() {
+        registry.broadcast(SseEventType.SLOT_CREATED, "6", "data", null);
+        registry.broadcast(SseEventType.SLOT_BOOKED, "7", "data", null);
+        registry.broadcast(SseEventType.STUDENT_UPDATED, null, "data", null);
+
+        List<byte[]> frames = replayBuffer.framesAfter(6, TEACHER_META).orElseThrow();
+        assertEquals(1, frames.size());
+        assertTrue(new String(frames.get(0), StandardCharsets.UTF_8).startsWith("id:7\nevent:SLOT_BOOKED\n"));
+    }
+
+    @Test
+    void resyncFrame_shouldResumeFromSnapshotSeq() {
+        byte[] frame = (byte[]) registry.resyncFrame(42L).iterator().next().getData();
+
+        String text = new String(frame, StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("id:42\nevent:RESYNC\n"));
+        assertTrue(text.contains("\"snapshotSeq\":42"));
+    }
 }
@@ -0,0 +1,50 @@
+package com.bellgado.calendar.api.sse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseFrameTest {
+
+    @Test
+    void event_shouldEncodeTheWholeFrameAsOneItem() {
+        Set<DataWithMediaType> frame = SseFrame.event("SLOT_BOOKED", "42", "{\"a\":1}");
+
+        assertEquals(1, frame.size());
+        DataWithMediaType item = frame.iterator().next();
+        assertEquals(MediaType.TEXT_EVENT_STREAM, item.getMediaType());
+        assertEquals("id:42\nevent:SLOT_BOOKED\ndata:{\"a\":1}\n\n", text(item));
+    }
+
+    @Test
+    void encode_shouldOmitMissingIdAndSplitMultiLineData() {
+        assertEquals("event:SLOT_BATCH\ndata:one\ndata:two\ndata:three\n\n",
+                new String(SseFrame.encode("SLOT_BATCH", null, "one\ntwo\r\nthree"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void concat_shouldJoinEventsIntoOneItem() {
+        Set<DataWithMediaType> frame = SseFrame.concat(List.of(
+                SseFrame.encode("SLOT_CREATED", "1", "a"),
+                SseFrame.encode("SLOT_FREED", "2", "b")));
+
+        assertEquals(1, frame.size());
+        assertEquals("id:1\nevent:SLOT_CREATED\ndata:a\n\nid:2\nevent:SLOT_FREED\ndata:b\n\n",
+                text(frame.iterator().next()));
+    }
+
+    @Test
+    void heartbeat_shouldBeACommentLine() {
+        assertEquals(":heartbeat\n\n", text(SseFrame.HEARTBEAT.iterator().next()));
+    }
+
+    private static String text(DataWithMediaType item) {
+        return new String((byte[]) item.getData(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+package com.bellgado.calendar.api.sse;
+
+import com.bellgado.calendar.api.sse.SseEmitterRegistry.EmitterMeta;
+import com.bellgado.calendar.application.service.SlotEventService;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SseReplayBufferTest {
+
+    private static final EmitterMeta TEACHER = EmitterMeta.teacher(UUID.randomUUID());
+
+    private final SlotEventService slotEventService = mock(SlotEventService.class);
+
+    private SseReplayBuffer buffer(int capacity, Duration maxAge, long latestSeqAtStartup) {
+        when(slotEventService.latestSeq()).thenReturn(latestSeqAtStartup);
+        SseReplayBuffer buffer = new SseReplayBuffer(slotEventService, capacity, maxAge);
+        buffer.onStartup();
+        return buffer;
+    }
+
+    @Test
+    void framesAfter_shouldReturnFramesBroadcastLaterInSequenceOrder() {
+        SseReplayBuffer buffer = buffer(8, Duration.ofMinutes(10), 10);
+        broadcast(buffer, 11, null);
+        broadcast(buffer, 13, null);
+        broadcast(buffer, 12, null);
+
+        assertEquals(List.of("12", "13"), ids(buffer.framesAfter(11, TEACHER)));
+        assertEquals(List.of(), ids(buffer.framesAfter(12, TEACHER)));
+    }
+
+    @Test
+    void framesAfter_shouldSkipFramesQueuedAheadOfTheLastOne() {
+        SseReplayBuffer buffer = buffer(8, Duration.ofMinutes(10), 10);
+        // 12 was offered to every client before 11 was, so a client that had 11 had 12 too
+        broadcast(buffer, 12, null);
+        broadcast(buffer, 11, null);
+        broadcast(buffer, 13, null);
+
+        assertEquals(List.of("13"), ids(buffer.framesAfter(11, TEACHER)));
+    }
+
+    @Test
+    void framesAfter_shouldIncludeFramesStillBeingOfferedWhenTheLastOneWasClaimed() {
+        SseReplayBuffer buffer = buffer(8, Duration.ofMinutes(10), 10);
+        long eleven = buffer.append(11, frame(11), null);
+        // 12 is offered while 11 still is, so a client can have 12 without 11
+        broadcast(buffer, 12, null);
+        buffer.offered(eleven);
+        broadcast(buffer, 13, null);
+
+        assertEquals(List.of("11", "13"), ids(buffer.framesAfter(12, TEACHER)));
+        assertEquals(List.of("12", "13"), ids(buffer.framesAfter(11, TEACHER)));
+        // Claimed once everything before it had been offered
+        assertEquals(List.of(), ids(buffer.framesAfter(13, TEACHER)));
+    }
+
+    @Test
+    void framesAfter_shouldBeEmptyOnceAFrameStillBeingOfferedWasOverwritten() {
+        SseReplayBuffer buffer = buffer(2, Duration.ofMinutes(10), 0);
+        buffer.append(1, frame(1), null);
+        broadcast(buffer, 2, null);
+        broadcast(buffer, 3, null);
+
+        assertTrue(buffer.framesAfter(2, TEACHER).isEmpty());
+    }
+
+    @Test
+    void framesAfter_shouldOnlyCoverFramesBroadcastSinceStartup() {
+        SseReplayBuffer buffer = buffer(8, Duration.ofMinutes(10), 10);
+        broadcast(buffer, 11, null);
+        broadcast(buffer, 12, null);
+
+        assertEquals(List.of("12"), ids(buffer.framesAfter(11, TEACHER)));
+        // Events up to 10 were never broadcast by this instance, so it cannot tell which ones followed them
+        assertTrue(buffer.framesAfter(10, TEACHER).isEmpty());
+        assertTrue(buffer.framesAfter(9, TEACHER).isEmpty());
+    }
+
+    @Test
+    void framesAfter_shouldIncludeLowerNumberedFramesBroadcastLater() {
+        SseReplayBuffer buffer = buffer(8, Duration.ofMinutes(10), 10);
+        broadcast(buffer, 11, null);
+        broadcast(buffer, 13, null);
+        // 12 was inserted before 13 but committed after it
+        broadcast(buffer, 12, null);
+        broadcast(buffer, 14, null);
+
+        assertEquals(List.of("12", "14"), ids(buffer.framesAfter(13, TEACHER)));
+        assertEquals(List.of("12", "13", "14"), ids(buffer.framesAfter(11, TEACHER)));
+    }
+
+    @Test
+    void framesAfter_shouldBeEmptyForUnknownLastFrame() {
+        SseReplayBuffer buffer = buffer(8, Duration.ofMinutes(10), 10);
+        broadcast(buffer, 11, null);
+        broadcast(buffer, 13, null);
+
+        assertTrue(buffer.framesAfter(12, TEACHER).isEmpty());
+    }
+
+    @Test
+    void framesAfter_shouldBeEmptyOnceMissedFramesWereOverwritten() {
+        SseReplayBuffer buffer = buffer(2, Duration.ofMinutes(10), 0);
+        broadcast(buffer, 1, null);
+        broadcast(buffer, 2, null);
+        broadcast(buffer, 3, null);
+
+        assertTrue(buffer.framesAfter(0, TEACHER).isEmpty());
+        assertTrue(buffer.framesAfter(1, TEACHER).isEmpty());
+        assertEquals(List.of("3"), ids(buffer.framesAfter(2, TEACHER)));
+    }
+
+    @Test
+    void framesAfter_shouldBeEmptyOnceMissedFramesExpired() {
+        SseReplayBuffer buffer = buffer(8, Duration.ZERO, 0);
+        broadcast(buffer, 1, null);
+
+        assertTrue(buffer.framesAfter(0, TEACHER).isEmpty());
+    }
+
+    @Test
+    void framesAfter_shouldOnlyReturnStudentsTheirOwnFrames() {
+        UUID studentId = UUID.randomUUID();
+        SseReplayBuffer buffer = buffer(8, Duration.ofMinutes(10), 0);
+        broadcast(buffer, 1, null);
+        broadcast(buffer, 2, Set.of(studentId));
+        broadcast(buffer, 3, Set.of(UUID.randomUUID()));
+        broadcast(buffer, 4, null);
+
+        assertEquals(List.of("2", "4"),
+                ids(buffer.framesAfter(1, EmitterMeta.student(UUID.randomUUID(), studentId))));
+        assertEquals(List.of("2", "3", "4"), ids(buffer.framesAfter(1, TEACHER)));
+    }
+
+    @Test
+    void framesAfter_shouldBeEmptyBeforeStartup() {
+        SseReplayBuffer buffer = new SseReplayBuffer(slotEventService, 8, Duration.ofMinutes(10));
+        broadcast(buffer, 1, null);
+
+        assertTrue(buffer.framesAfter(0, TEACHER).isEmpty());
+    }
+
+    private static void broadcast(SseReplayBuffer buffer, long seq, Set<UUID> relevantStudentIds) {
+        buffer.offered(buffer.append(seq, frame(seq), relevantStudentIds));
+    }
+
+    private static byte[] frame(long seq) {
+        return SseFrame.encode("SLOT_BOOKED", String.valueOf(seq), "{}");
+    }
+
+    private static List<String> ids(Optional<List<byte[]>> frames) {
+        return frames.orElseThrow().stream()
+                .map(frame -> new String(frame, StandardCharsets.UTF_8))
+                .map(frame -> frame.substring("id:".length(), frame.indexOf('\n')))
+                .toList();
+    }
+}
@@ -6,6 +6,7 @@ import com.bellgado.calendar.api.dto.StudentBrief;
 import com.bellgado.calendar.api.dto.StudentResponse;
 import com.bellgado.calendar.api.sse.SseEmitterRegistry;
 import com.bellgado.calendar.api.sse.SseEventType;
+import com.bellgado.calendar.api.sse.SlotBatchSsePayload;
 import com.bellgado.calendar.api.sse.SlotSsePayload;
 import com.bellgado.calendar.api.sse.StudentSsePayload;
 import com.bellgado.calendar.domain.enums.EventType;
@@ -18,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -49,7 +51,7 @@ class SseEventListenerTest {
         OffsetDateTime now = OffsetDateTime.now();
 
         SlotEventResponse slotEvent = new SlotEventResponse(
-                UUID.randomUUID(), slotId, EventType.BOOKED, now, null, studentId, null);
+                UUID.randomUUID(), 41L, slotId, EventType.BOOKED, now, null, studentId, null);
         SlotResponse slot = new SlotResponse(
                 slotId, now, now.plusHours(1), SlotStatus.BOOKED, null, null, 1, now, now);
 
@@ -60,7 +62,7 @@ class SseEventListenerTest {
         ArgumentCaptor<Object> payloadCaptor = ArgumentCaptor.forClass(Object.class);
         @SuppressWarnings("unchecked")
         ArgumentCaptor<Set<UUID>> studentIdsCaptor = ArgumentCaptor.forClass(Set.class);
-        verify(registry).broadcast(eq(SseEventType.SLOT_BOOKED), eq(now.toString()),
+        verify(registry).broadcast(eq(SseEventType.SLOT_BOOKED), eq("41"),
                 payloadCaptor.capture(), studentIdsCaptor.capture());
 
         SlotSsePayload payload = (SlotSsePayload) payloadCaptor.getValue();
@@ -72,12 +74,12 @@ class SseEventListenerTest {
     }
 
     @Test
-    void onSlotChanged_shouldUseSlotEventAtAsEventId() {
+    void onSlotChanged_shouldUseSlotEventSeqAsEventId() {
         UUID slotId = UUID.randomUUID();
         OffsetDateTime at = OffsetDateTime.parse("2026-02-20T14:30:00+02:00");
 
         SlotEventResponse slotEvent = new SlotEventResponse(
-                UUID.randomUUID(), slotId, EventType.CREATED, at, null, null, null);
+                UUID.randomUUID(), 1234567890123L, slotId, EventType.CREATED, at, null, null, null);
         SlotResponse slot = new SlotResponse(
                 slotId, at, at.plusHours(1), SlotStatus.FREE, null, null, 0, at, at);
 
@@ -85,7 +87,7 @@ class SseEventListenerTest {
 
         listener.onSlotChanged(event);
 
-        verify(registry).broadcast(eq(SseEventType.SLOT_CREATED), eq(at.toString()), any(), any());
+        verify(registry).broadcast(eq(SseEventType.SLOT_CREATED), eq("1234567890123"), any(), any());
     }
 
     @Test
@@ -97,6 +99,46 @@ class SseEventListenerTest {
         verify(registry).broadcast(eq(SseEventType.SLOT_CREATED), isNull(), any(), isNull());
     }
 
+    // =========================================================================
+    // onSlotBatchChanged
+    // =========================================================================
+
+    @Test
+    void onSlotBatchChanged_shouldBroadcastOneFrameCoveringTheWholeBatch() {
+        OffsetDateTime first = OffsetDateTime.parse("2026-03-02T09:00:00+02:00");
+        OffsetDateTime second = first.plusDays(7);
+        OffsetDateTime at = OffsetDateTime.parse("2026-02-20T14:30:00+02:00");
+
+        SlotResponse slot1 = new SlotResponse(
+                UUID.randomUUID(), first, first.plusHours(1), SlotStatus.FREE, null, null, 0, first, first);
+        SlotResponse slot2 = new SlotResponse(
+                UUID.randomUUID(), second, second.plusHours(1), SlotStatus.FREE, null, null, 0, second, second);
+        SlotEventResponse event1 = new SlotEventResponse(
+                UUID.randomUUID(), 10L, slot1.id(), EventType.GENERATED, at, null, null, null);
+        SlotEventResponse event2 = new SlotEventResponse(
+                UUID.randomUUID(), 9L, slot2.id(), EventType.GENERATED, at, null, null, null);
+
+        listener.onSlotBatchChanged(new SlotBatchChangedEvent(
+                SseEventType.SLOT_GENERATED, List.of(slot1, slot2), List.of(event1, event2)));
+
+        ArgumentCaptor<Object> payloadCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(registry, times(1)).broadcast(eq(SseEventType.SLOT_BATCH), eq("10"),
+                payloadCaptor.capture(), isNull());
+
+        SlotBatchSsePayload payload = (SlotBatchSsePayload) payloadCaptor.getValue();
+        assertEquals(SseEventType.SLOT_GENERATED, payload.changeType());
+        assertEquals(2, payload.count());
+        assertEquals(first, payload.from());
+        assertEquals(second.plusHours(1), payload.to());
+    }
+
+    @Test
+    void onSlotBatchChanged_shouldSkipEmptyBatch() {
+        listener.onSlotBatchChanged(new SlotBatchChangedEvent(SseEventType.SLOT_GENERATED, List.of(), List.of()));
+
+        verifyNoInteractions(registry);
+    }
+
     // =========================================================================
     // onStudentChanged
     // =========================================================================
@@ -0,0 +1,94 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.AvailabilityTemplateCreateRequest;
+import com.bellgado.calendar.api.dto.AvailabilityTemplateResponse;
+import com.bellgado.calendar.api.dto.WeeklyRule;
+import com.bellgado.calendar.application.event.AvailabilityTemplatesChangedEvent;
+import com.bellgado.calendar.application.exception.NotFoundException;
+import com.bellgado.calendar.domain.entity.AvailabilityTemplate;
+import com.bellgado.calendar.domain.enums.DayOfWeek;
+import com.bellgado.calendar.infrastructure.repository.AvailabilityTemplateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityTemplateServiceTest {
+
+    private static final List<WeeklyRule> RULES =
+            List.of(new WeeklyRule(DayOfWeek.MONDAY, "09:00", "12:00"));
+
+    @Mock
+    private AvailabilityTemplateRepository templateRepository;
+
+    @Mock
+    private VirtualSlots virtualSlots;
+
+    @Mock
+    private SlotService slotService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AvailabilityTemplateService templateService;
+
+    @BeforeEach
+    void setUp() {
+        templateService = new AvailabilityTemplateService(
+                templateRepository, virtualSlots, slotService, new ObjectMapper(), eventPublisher);
+    }
+
+    @Test
+    void create_shouldPersistOpenEndedTemplateWithoutTouchingSlots() {
+        when(templateRepository.save(any(AvailabilityTemplate.class))).thenAnswer(i -> {
+            AvailabilityTemplate template = i.getArgument(0);
+            template.setId(UUID.randomUUID());
+            return template;
+        });
+
+        AvailabilityTemplateResponse response = templateService.create(new AvailabilityTemplateCreateRequest(
+                LocalDate.of(2030, 1, 1), null, "Europe/Sofia", RULES));
+
+        assertNull(response.to());
+        assertEquals(RULES, response.weeklyRules());
+        verify(slotService).validateWeeklyRules(RULES);
+        verify(eventPublisher).publishEvent(new AvailabilityTemplatesChangedEvent(response.id()));
+        verifyNoMoreInteractions(slotService);
+    }
+
+    @Test
+    void create_shouldRejectInvertedRangeAndUnknownTimezone() {
+        assertThrows(IllegalArgumentException.class, () -> templateService.create(new AvailabilityTemplateCreateRequest(
+                LocalDate.of(2030, 2, 1), LocalDate.of(2030, 1, 1), "Europe/Sofia", RULES)));
+        assertThrows(IllegalArgumentException.class, () -> templateService.create(new AvailabilityTemplateCreateRequest(
+                LocalDate.of(2030, 1, 1), null, "Mars/Olympus", RULES)));
+        verify(templateRepository, never()).save(any());
+    }
+
+    @Test
+    void delete_shouldPublishChangeAndThrowWhenMissing() {
+        UUID id = UUID.randomUUID();
+        AvailabilityTemplate template = new AvailabilityTemplate(LocalDate.of(2030, 1, 1), null, "Europe/Sofia", "[]");
+        template.setId(id);
+        when(templateRepository.findById(id)).thenReturn(Optional.of(template));
+
+        templateService.delete(id);
+
+        verify(templateRepository).delete(template);
+        verify(eventPublisher).publishEvent(new AvailabilityTemplatesChangedEvent(id));
+        assertThrows(NotFoundException.class, () -> templateService.delete(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.bellgado.calendar.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotChangeWatermarkTest {
+
+    /** Monday 2030-01-07 00:00 Europe/Sofia. */
+    private static final OffsetDateTime WEEK_START =
+            ZonedDateTime.of(2030, 1, 7, 0, 0, 0, 0, ZoneId.of("Europe/Sofia")).toOffsetDateTime();
+
+    private final SlotChangeWatermark watermark = new SlotChangeWatermark();
+
+    @Test
+    void rangeTag_shouldChangeOnlyWhenACoveredWeekChanges() {
+        OffsetDateTime to = WEEK_START.plusWeeks(2);
+        String before = watermark.rangeTag(WEEK_START, to);
+
+        watermark.slotChanged(WEEK_START.plusWeeks(3).plusHours(9));
+        assertEquals(before, watermark.rangeTag(WEEK_START, to));
+
+        watermark.slotChanged(WEEK_START.plusDays(8).plusHours(9));
+        String after = watermark.rangeTag(WEEK_START, to);
+        assertNotEquals(before, after);
+        assertEquals(after, watermark.rangeTag(WEEK_START, to));
+    }
+
+    @Test
+    void rangeTag_shouldTreatRangeEndAsExclusive() {
+        String before = watermark.rangeTag(WEEK_START, WEEK_START.plusWeeks(1));
+
+        watermark.slotChanged(WEEK_START.plusWeeks(1));
+
+        assertEquals(before, watermark.rangeTag(WEEK_START, WEEK_START.plusWeeks(1)));
+    }
+
+    @Test
+    void allChanged_shouldChangeEveryTag() {
+        String range = watermark.rangeTag(WEEK_START, WEEK_START.plusWeeks(1));
+        String slot = watermark.slotTag(1);
+
+        watermark.allChanged();
+
+        assertNotEquals(range, watermark.rangeTag(WEEK_START, WEEK_START.plusWeeks(1)));
+        assertNotEquals(slot, watermark.slotTag(1));
+    }
+
+    @Test
+    void slotTag_shouldFollowVersionAndBeQuoted() {
+        String tag = watermark.slotTag(1);
+
+        assertTrue(tag.startsWith("\"") && tag.endsWith("\""));
+        assertEquals(tag, watermark.slotTag(1));
+        assertNotEquals(tag, watermark.slotTag(2));
+    }
+}
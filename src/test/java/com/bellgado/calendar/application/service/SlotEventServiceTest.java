@@ -0,0 +1,142 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.SlotEventResponse;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.CancelledBy;
+import com.bellgado.calendar.domain.enums.EventType;
+import com.bellgado.calendar.infrastructure.repository.PartitionRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotEventServiceTest {
+
+    @Mock
+    private SlotEventRepository slotEventRepository;
+
+    @Mock
+    private PartitionRepository partitionRepository;
+
+    private final ObjectMapper objectMapper = spy(new ObjectMapper());
+
+    private SlotEventService slotEventService;
+
+    @BeforeEach
+    void setUp() {
+        slotEventService = new SlotEventService(slotEventRepository, partitionRepository, objectMapper);
+    }
+
+    @Test
+    void recordAll_shouldInsertOnceWithSharedTimestampAndSerializeEqualMetaOnce() throws Exception {
+        UUID studentId = UUID.randomUUID();
+        Map<String, Object> meta = Map.of("blockId", "b-1");
+        List<SlotEventDraft> drafts = List.of(
+                SlotEventDraft.of(UUID.randomUUID(), EventType.BLOCKED).withMeta(meta),
+                SlotEventDraft.of(UUID.randomUUID(), EventType.BLOCKED).withMeta(new HashMap<>(meta)),
+                SlotEventDraft.of(UUID.randomUUID(), EventType.FREED).withStudents(studentId, null));
+
+        List<SlotEvent> events = slotEventService.recordAll(drafts);
+
+        verify(slotEventRepository, times(1)).insertAll(events);
+        verify(objectMapper, times(1)).writeValueAsString(any());
+        assertEquals(3, events.size());
+        assertEquals("{\"blockId\":\"b-1\"}", events.get(0).getMeta());
+        assertSame(events.get(0).getMeta(), events.get(1).getMeta());
+        assertNull(events.get(2).getMeta());
+        assertEquals(studentId, events.get(2).getOldStudentId());
+        assertEquals(events.get(0).getAt(), events.get(2).getAt());
+        assertEquals(events.get(0).getAt(), events.get(0).getAt().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    @Test
+    void recordAll_shouldNotTouchDatabaseForNoDrafts() {
+        assertTrue(slotEventService.recordAll(List.of()).isEmpty());
+        verify(slotEventRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void serializeMeta_shouldKeepUnserializableMetaAsJson() throws Exception {
+        doThrow(new com.fasterxml.jackson.core.JsonGenerationException("boom", (com.fasterxml.jackson.core.JsonGenerator) null))
+                .when(objectMapper).writeValueAsString(any());
+
+        assertEquals("{\"raw\":\"{reason=x}\"}", slotEventService.serializeMeta(Map.of("reason", "x")));
+    }
+
+    @Test
+    void metaFilter_shouldUseStoredKeysAndSkipUnsetFields() {
+        UUID blockId = UUID.randomUUID();
+
+        assertEquals(Map.of("blockId", blockId.toString(), "cancelledBy", "STUDENT"),
+                new SlotEventMetaFilter(blockId, CancelledBy.STUDENT, null, null).toMeta());
+        assertNull(slotEventService.serializeMeta(new SlotEventMetaFilter(null, null, null, null).toMeta()));
+    }
+
+    @Test
+    void list_shouldQueryLiveTableOnlyForRangesAfterTheArchive() {
+        OffsetDateTime from = OffsetDateTime.parse("2026-03-01T00:00:00Z");
+        Pageable pageable = PageRequest.of(0, 20);
+        when(partitionRepository.archivedUntil(PartitionRepository.SLOT_EVENTS)).thenReturn(Optional.of(from));
+        when(slotEventRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(Page.empty(pageable));
+
+        slotEventService.list(from, from.plusMonths(1), null, new SlotEventMetaFilter(null, null, null, null), pageable);
+
+        verify(slotEventRepository, never()).findInRangeIncludingArchive(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void list_shouldRejectUnknownSortPropertyWhicheverTableIsRead() {
+        OffsetDateTime from = OffsetDateTime.parse("2026-03-01T00:00:00Z");
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("student"));
+
+        assertThrows(IllegalArgumentException.class, () -> slotEventService.list(from, from.plusMonths(1), null,
+                new SlotEventMetaFilter(null, null, null, null), pageable));
+        verifyNoInteractions(slotEventRepository, partitionRepository);
+    }
+
+    @Test
+    void list_shouldIncludeArchiveForRangesStartingBeforeItsEnd() {
+        OffsetDateTime archivedUntil = OffsetDateTime.parse("2026-03-01T00:00:00Z");
+        OffsetDateTime from = archivedUntil.minusMonths(2);
+        Pageable pageable = PageRequest.of(0, 20);
+        SlotEvent archived = new SlotEvent(UUID.randomUUID(), EventType.CANCELLED);
+        archived.setId(UUID.randomUUID());
+        archived.setMeta("{\"reason\": \"sick\"}");
+        when(partitionRepository.archivedUntil(PartitionRepository.SLOT_EVENTS)).thenReturn(Optional.of(archivedUntil));
+        when(slotEventRepository.findInRangeIncludingArchive(from, archivedUntil, Set.of(EventType.CANCELLED),
+                "{\"reason\":\"sick\"}", pageable)).thenReturn(new PageImpl<>(List.of(archived), pageable, 1));
+
+        Page<SlotEventResponse> page = slotEventService.list(from, archivedUntil, Set.of(EventType.CANCELLED),
+                new SlotEventMetaFilter(null, null, "sick", null), pageable);
+
+        assertEquals(List.of(archived.getId()), page.map(SlotEventResponse::id).getContent());
+        assertEquals("sick", page.getContent().get(0).meta().get("reason"));
+        verify(slotEventRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+}
@@ -0,0 +1,56 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.application.event.SlotGenerationJobSubmittedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotGenerationJobRunnerTest {
+
+    @Mock
+    private SlotGenerationJobService jobService;
+
+    @Test
+    void onJobSubmitted_shouldRunJobOnExecutor() {
+        UUID jobId = UUID.randomUUID();
+        when(jobService.processNextChunk(jobId)).thenReturn(true, false);
+        SlotGenerationJobRunner runner = new SlotGenerationJobRunner(jobService, Runnable::run);
+
+        runner.onJobSubmitted(new SlotGenerationJobSubmittedEvent(jobId));
+
+        verify(jobService, times(2)).processNextChunk(jobId);
+        verify(jobService, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void onJobSubmitted_shouldMarkJobFailedWhenQueueIsFull() {
+        UUID jobId = UUID.randomUUID();
+        SlotGenerationJobRunner runner = new SlotGenerationJobRunner(jobService, task -> {
+            throw new TaskRejectedException("queue full");
+        });
+
+        runner.onJobSubmitted(new SlotGenerationJobSubmittedEvent(jobId));
+
+        verify(jobService).markFailed(jobId, SlotGenerationJobRunner.QUEUE_FULL_ERROR);
+        verify(jobService, never()).processNextChunk(any());
+    }
+
+    @Test
+    void run_shouldMarkJobFailedWhenChunkThrows() {
+        UUID jobId = UUID.randomUUID();
+        when(jobService.processNextChunk(jobId)).thenThrow(new IllegalStateException("boom"));
+        SlotGenerationJobRunner runner = new SlotGenerationJobRunner(jobService, Runnable::run);
+
+        runner.run(jobId);
+
+        verify(jobService).markFailed(jobId, "boom");
+    }
+}
@@ -0,0 +1,146 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.SlotGenerateRequest;
+import com.bellgado.calendar.api.dto.SlotGenerateResponse;
+import com.bellgado.calendar.api.dto.SlotGenerationJobResponse;
+import com.bellgado.calendar.api.dto.WeeklyRule;
+import com.bellgado.calendar.application.event.SlotGenerationJobChangedEvent;
+import com.bellgado.calendar.application.event.SlotGenerationJobSubmittedEvent;
+import com.bellgado.calendar.domain.entity.SlotGenerationJob;
+import com.bellgado.calendar.domain.enums.DayOfWeek;
+import com.bellgado.calendar.domain.enums.GenerationJobStatus;
+import com.bellgado.calendar.infrastructure.repository.SlotGenerationJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotGenerationJobServiceTest {
+
+    private static final List<WeeklyRule> RULES =
+            List.of(new WeeklyRule(DayOfWeek.MONDAY, "09:00", "12:00"));
+
+    @Mock
+    private SlotGenerationJobRepository jobRepository;
+
+    @Mock
+    private SlotService slotService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private SlotGenerationJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new SlotGenerationJobService(jobRepository, slotService, objectMapper, eventPublisher);
+        lenient().when(jobRepository.save(any(SlotGenerationJob.class))).thenAnswer(i -> {
+            SlotGenerationJob job = i.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+        lenient().when(jobRepository.saveAndFlush(any(SlotGenerationJob.class))).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @Test
+    void submit_shouldPersistPendingJobAndPublishSubmittedEvent() {
+        SlotGenerateRequest request = new SlotGenerateRequest(
+                LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31), "Europe/Sofia", RULES, 60);
+
+        SlotGenerationJobResponse response = jobService.submit(request);
+
+        assertEquals(GenerationJobStatus.PENDING, response.status());
+        assertEquals(LocalDate.of(2030, 1, 1), response.nextDate());
+        verify(slotService).validateWeeklyRules(RULES);
+        verify(eventPublisher).publishEvent(new SlotGenerationJobSubmittedEvent(response.id()));
+        verify(slotService, never()).generateRange(any(), any(), any(), any());
+    }
+
+    @Test
+    void submit_shouldRejectInvertedRange() {
+        SlotGenerateRequest request = new SlotGenerateRequest(
+                LocalDate.of(2030, 2, 1), LocalDate.of(2030, 1, 1), "Europe/Sofia", RULES, 60);
+
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(request));
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void processNextChunk_shouldGenerateOneWeekAndAdvance() throws Exception {
+        SlotGenerationJob job = job(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 20));
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(slotService.generateRange(any(), any(), any(), any())).thenReturn(new SlotGenerateResponse(3, 1));
+
+        boolean more = jobService.processNextChunk(job.getId());
+
+        assertTrue(more);
+        verify(slotService).generateRange(RULES, ZoneId.of("Europe/Sofia"),
+                LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 7));
+        assertEquals(GenerationJobStatus.RUNNING, job.getStatus());
+        assertEquals(LocalDate.of(2030, 1, 8), job.getNextDate());
+        assertEquals(3, job.getCreatedCount());
+        assertEquals(1, job.getSkippedCount());
+        verify(eventPublisher).publishEvent(any(SlotGenerationJobChangedEvent.class));
+    }
+
+    @Test
+    void processNextChunk_shouldClampLastChunkAndComplete() throws Exception {
+        SlotGenerationJob job = job(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 10));
+        job.recordChunk(LocalDate.of(2030, 1, 7), 3, 0);
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(slotService.generateRange(any(), any(), any(), any())).thenReturn(new SlotGenerateResponse(2, 0));
+
+        boolean more = jobService.processNextChunk(job.getId());
+
+        assertFalse(more);
+        verify(slotService).generateRange(RULES, ZoneId.of("Europe/Sofia"),
+                LocalDate.of(2030, 1, 8), LocalDate.of(2030, 1, 10));
+        assertEquals(GenerationJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getCreatedCount());
+    }
+
+    @Test
+    void processNextChunk_shouldSkipTerminalJob() throws Exception {
+        SlotGenerationJob job = job(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 10));
+        job.markFailed("boom");
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        assertFalse(jobService.processNextChunk(job.getId()));
+        verify(slotService, never()).generateRange(any(), any(), any(), any());
+    }
+
+    @Test
+    void markFailed_shouldRecordErrorAndPublish() throws Exception {
+        SlotGenerationJob job = job(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 10));
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+
+        jobService.markFailed(job.getId(), "database unavailable");
+
+        assertEquals(GenerationJobStatus.FAILED, job.getStatus());
+        assertEquals("database unavailable", job.getError());
+        verify(eventPublisher).publishEvent(any(SlotGenerationJobChangedEvent.class));
+    }
+
+    private SlotGenerationJob job(LocalDate from, LocalDate to) throws Exception {
+        SlotGenerationJob job = new SlotGenerationJob(from, to, "Europe/Sofia", objectMapper.writeValueAsString(RULES));
+        job.setId(UUID.randomUUID());
+        return job;
+    }
+}
@@ -0,0 +1,141 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotListCacheTest {
+
+    /** Monday 2030-01-07 00:00 Europe/Sofia. */
+    private static final OffsetDateTime WEEK_START =
+            ZonedDateTime.of(2030, 1, 7, 0, 0, 0, 0, ZoneId.of("Europe/Sofia")).toOffsetDateTime();
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlotListCache cache;
+
+    /** Backing "table" and the ranges the loader was asked for. */
+    private final List<SlotResponse> table = new ArrayList<>();
+    private final List<OffsetDateTime[]> loads = new ArrayList<>();
+
+    private final BiFunction<OffsetDateTime, OffsetDateTime, List<SlotResponse>> loader = (from, to) -> {
+        loads.add(new OffsetDateTime[]{from, to});
+        return table.stream()
+                .filter(s -> !s.startAt().isBefore(from) && s.startAt().isBefore(to))
+                .toList();
+    };
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SlotListCache(4, meterRegistry);
+    }
+
+    @Test
+    void list_shouldLoadWeekOnceAndServeRepeatsFromMemory() {
+        table.add(slot(WEEK_START.plusDays(1).plusHours(9), SlotStatus.FREE));
+        table.add(slot(WEEK_START.plusDays(2).plusHours(9), SlotStatus.BOOKED));
+
+        List<SlotResponse> first = cache.list(WEEK_START, WEEK_START.plusWeeks(1), null, loader);
+        List<SlotResponse> second = cache.list(WEEK_START, WEEK_START.plusWeeks(1), null, loader);
+
+        assertEquals(2, first.size());
+        assertEquals(first, second);
+        assertEquals(1, loads.size());
+        assertEquals(1.0, counter("hit"));
+        assertEquals(1.0, counter("miss"));
+    }
+
+    @Test
+    void list_shouldFilterCachedWeekByRangeAndStatus() {
+        table.add(slot(WEEK_START.plusDays(1).plusHours(9), SlotStatus.FREE));
+        table.add(slot(WEEK_START.plusDays(1).plusHours(10), SlotStatus.BOOKED));
+        table.add(slot(WEEK_START.plusDays(3).plusHours(9), SlotStatus.FREE));
+
+        cache.list(WEEK_START, WEEK_START.plusWeeks(1), null, loader);
+        List<SlotResponse> tuesdayFree = cache.list(
+                WEEK_START.plusDays(1), WEEK_START.plusDays(2), Set.of(SlotStatus.FREE), loader);
+
+        assertEquals(1, tuesdayFree.size());
+        assertEquals(WEEK_START.plusDays(1).plusHours(9), tuesdayFree.get(0).startAt());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void list_shouldLoadOnlyTheMissingWeeksInOneQuery() {
+        cache.list(WEEK_START, WEEK_START.plusWeeks(1), null, loader);
+        cache.list(WEEK_START, WEEK_START.plusWeeks(3), null, loader);
+
+        assertEquals(2, loads.size());
+        assertEquals(WEEK_START.plusWeeks(1).toInstant(), loads.get(1)[0].toInstant());
+        assertEquals(WEEK_START.plusWeeks(3).toInstant(), loads.get(1)[1].toInstant());
+    }
+
+    @Test
+    void invalidate_shouldDropOnlyTheTouchedWeek() {
+        cache.list(WEEK_START, WEEK_START.plusWeeks(2), null, loader);
+        table.add(slot(WEEK_START.plusWeeks(1).plusHours(9), SlotStatus.FREE));
+
+        cache.invalidate(WEEK_START.plusWeeks(1).plusHours(9));
+        List<SlotResponse> result = cache.list(WEEK_START, WEEK_START.plusWeeks(2), null, loader);
+
+        assertEquals(1, result.size());
+        assertEquals(2, loads.size());
+        assertEquals(WEEK_START.plusWeeks(1).toInstant(), loads.get(1)[0].toInstant());
+    }
+
+    @Test
+    void list_shouldNotCacheResultLoadedWhileAnInvalidationHappened() {
+        BiFunction<OffsetDateTime, OffsetDateTime, List<SlotResponse>> racingLoader = (from, to) -> {
+            List<SlotResponse> snapshot = loader.apply(from, to);
+            cache.invalidate(WEEK_START.plusHours(9));
+            return snapshot;
+        };
+
+        cache.list(WEEK_START, WEEK_START.plusWeeks(1), null, racingLoader);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void list_shouldEvictLeastRecentlyUsedWeeks() {
+        cache.list(WEEK_START, WEEK_START.plusWeeks(4), null, loader);
+        cache.list(WEEK_START, WEEK_START.plusWeeks(1), null, loader);
+        cache.list(WEEK_START.plusWeeks(4), WEEK_START.plusWeeks(5), null, loader);
+
+        assertEquals(4, cache.size());
+        // Week 0 was touched again, so week 1 was the one evicted
+        cache.list(WEEK_START, WEEK_START.plusWeeks(1), null, loader);
+        assertEquals(2, loads.size());
+        cache.list(WEEK_START.plusWeeks(1), WEEK_START.plusWeeks(2), null, loader);
+        assertEquals(3, loads.size());
+    }
+
+    @Test
+    void list_shouldBypassCacheForVeryWideRanges() {
+        cache.list(WEEK_START, WEEK_START.plusWeeks(SlotListCache.MAX_WEEKS_PER_REQUEST + 1), null, loader);
+
+        assertEquals(0, cache.size());
+        assertEquals(1.0, counter("bypass"));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("slots.list.cache").tag("result", result).counter().count();
+    }
+
+    private static SlotResponse slot(OffsetDateTime startAt, SlotStatus status) {
+        return new SlotResponse(UUID.randomUUID(), startAt, startAt.plusHours(1), status, null, null, 0, startAt, startAt);
+    }
+}
@@ -0,0 +1,206 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.SlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotOccupancyIndexTest {
+
+    private static final OffsetDateTime MONDAY_9AM = OffsetDateTime.of(2030, 1, 7, 9, 0, 0, 0, ZoneOffset.ofHours(2));
+
+    @Mock
+    private SlotRepository slotRepository;
+
+    private SlotOccupancyIndex index;
+
+    /** Rows returned by the mocked {@code forEachStartAtAndStatus}. */
+    private final Map<OffsetDateTime, SlotStatus> table = new LinkedHashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        index = new SlotOccupancyIndex(slotRepository, 1, 24);
+        lenient().doAnswer(i -> {
+            BiConsumer<OffsetDateTime, SlotStatus> consumer = i.getArgument(0);
+            table.forEach(consumer);
+            return null;
+        }).when(slotRepository).forEachStartAtAndStatus(any());
+    }
+
+    @Test
+    void shouldFallBackToDatabaseUntilLoaded() {
+        when(slotRepository.existsByStartAt(MONDAY_9AM)).thenReturn(true);
+
+        assertFalse(index.isLoaded());
+        assertTrue(index.existsByStartAt(MONDAY_9AM));
+    }
+
+    @Test
+    void shouldAnswerFromBitmapsOnceLoaded() {
+        table.put(MONDAY_9AM, SlotStatus.FREE);
+        table.put(MONDAY_9AM.plusHours(1), SlotStatus.BOOKED);
+        index.load();
+
+        assertTrue(index.existsByStartAt(MONDAY_9AM));
+        assertEquals(SlotStatus.FREE, statusAt(MONDAY_9AM));
+        assertEquals(SlotStatus.BOOKED, statusAt(MONDAY_9AM.plusHours(1)));
+        assertFalse(index.existsByStartAt(MONDAY_9AM.plusHours(2)));
+        // The same instant expressed in another offset hits the same bit
+        assertTrue(index.existsByStartAt(MONDAY_9AM.withOffsetSameInstant(ZoneOffset.UTC)));
+        verify(slotRepository, never()).existsByStartAt(any());
+    }
+
+    @Test
+    void shouldApplyCommittedChangesAndDeletes() {
+        index.load();
+
+        index.apply(MONDAY_9AM, SlotStatus.FREE);
+        index.apply(MONDAY_9AM, SlotStatus.BLOCKED);
+        assertEquals(SlotStatus.BLOCKED, statusAt(MONDAY_9AM));
+
+        index.apply(MONDAY_9AM, null);
+        assertFalse(index.existsByStartAt(MONDAY_9AM));
+    }
+
+    @Test
+    void shouldGrowToCoverFarAwayHours() {
+        index.load();
+        OffsetDateTime farFuture = MONDAY_9AM.plusYears(40);
+        OffsetDateTime farPast = MONDAY_9AM.minusYears(40);
+
+        index.apply(farFuture, SlotStatus.FREE);
+        index.apply(farPast, SlotStatus.CANCELLED);
+
+        assertEquals(SlotStatus.FREE, statusAt(farFuture));
+        assertEquals(SlotStatus.CANCELLED, statusAt(farPast));
+    }
+
+    @Test
+    void forEachSlotBetween_shouldVisitEveryHourAcrossWordBoundaries() {
+        for (int h = 0; h < 200; h++) {
+            table.put(MONDAY_9AM.plusHours(h), h % 2 == 0 ? SlotStatus.FREE : SlotStatus.BOOKED);
+        }
+        index.load();
+
+        assertEquals(200, slotsBetween(MONDAY_9AM, MONDAY_9AM.plusHours(200)).size());
+        assertEquals(100, slotsBetween(MONDAY_9AM, MONDAY_9AM.plusHours(200)).values().stream()
+                .filter(status -> status == SlotStatus.FREE).count());
+        // [from, to): start inclusive, end exclusive
+        assertEquals(1, slotsBetween(MONDAY_9AM, MONDAY_9AM.plusHours(1)).size());
+        // A start inside an hour skips that hour
+        assertEquals(1, slotsBetween(MONDAY_9AM.plusMinutes(30), MONDAY_9AM.plusHours(2)).size());
+    }
+
+    @Test
+    void forEachSlotBetween_shouldVisitSlotsInStartOrder() {
+        table.put(MONDAY_9AM.plusHours(70), SlotStatus.BOOKED);
+        table.put(MONDAY_9AM, SlotStatus.FREE);
+        table.put(MONDAY_9AM.plusHours(200), SlotStatus.FREE);
+        index.load();
+
+        List<String> visited = new ArrayList<>();
+        boolean answered = index.forEachSlotBetween(MONDAY_9AM, MONDAY_9AM.plusHours(200),
+                (startAt, status) -> visited.add(startAt.toInstant() + " " + status));
+
+        assertTrue(answered);
+        assertEquals(List.of(
+                MONDAY_9AM.toInstant() + " FREE",
+                MONDAY_9AM.plusHours(70).toInstant() + " BOOKED"), visited);
+    }
+
+    @Test
+    void forEachSlotBetween_shouldDeclineWhileCold() {
+        assertFalse(index.forEachSlotBetween(MONDAY_9AM, MONDAY_9AM.plusDays(1), (startAt, status) -> fail()));
+    }
+
+    @Test
+    void shouldKeepOffHourSlotsOutOfTheBitmaps() {
+        OffsetDateTime halfPast = MONDAY_9AM.plusMinutes(30);
+        table.put(halfPast, SlotStatus.FREE);
+        index.load();
+
+        assertEquals(Map.of(halfPast.toInstant(), SlotStatus.FREE), slotsBetween(MONDAY_9AM, MONDAY_9AM.plusHours(1)));
+        assertFalse(index.existsByStartAt(MONDAY_9AM));
+
+        // Off-hour lookups are delegated to the database
+        when(slotRepository.existsByStartAt(halfPast)).thenReturn(true);
+        assertTrue(index.existsByStartAt(halfPast));
+    }
+
+    @Test
+    void rebuild_shouldReportDriftAndRepairIt() {
+        table.put(MONDAY_9AM, SlotStatus.FREE);
+        index.load();
+
+        // A change that never reached the index
+        table.put(MONDAY_9AM, SlotStatus.BOOKED);
+        table.put(MONDAY_9AM.plusHours(1), SlotStatus.FREE);
+
+        assertEquals(2, index.rebuild());
+        assertEquals(SlotStatus.BOOKED, statusAt(MONDAY_9AM));
+        assertEquals(0, index.rebuild());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildWindow_shouldRepairOnlyTheWindow() {
+        lenient().doAnswer(i -> {
+            OffsetDateTime from = i.getArgument(0);
+            OffsetDateTime to = i.getArgument(1);
+            BiConsumer<OffsetDateTime, SlotStatus> consumer = i.getArgument(2);
+            table.forEach((startAt, status) -> {
+                if (!startAt.isBefore(from) && startAt.isBefore(to)) {
+                    consumer.accept(startAt, status);
+                }
+            });
+            return null;
+        }).when(slotRepository).forEachStartAtAndStatusBetween(any(), any(), any());
+        OffsetDateTime later = MONDAY_9AM.plusYears(3);
+        OffsetDateTime halfPast = MONDAY_9AM.plusMinutes(30);
+        table.put(MONDAY_9AM, SlotStatus.FREE);
+        table.put(later, SlotStatus.FREE);
+        index.load();
+
+        // Changes that never reached the index, inside and outside the window
+        table.put(MONDAY_9AM, SlotStatus.BOOKED);
+        table.put(MONDAY_9AM.plusHours(100), SlotStatus.FREE);
+        table.put(halfPast, SlotStatus.BLOCKED);
+        table.put(later, SlotStatus.BOOKED);
+
+        assertEquals(3, index.rebuild(MONDAY_9AM.minusDays(1), MONDAY_9AM.plusDays(30)));
+        assertEquals(SlotStatus.BOOKED, statusAt(MONDAY_9AM));
+        assertEquals(SlotStatus.FREE, statusAt(MONDAY_9AM.plusHours(100)));
+        assertEquals(SlotStatus.BLOCKED, slotsBetween(halfPast, halfPast.plusMinutes(1)).get(halfPast.toInstant()));
+        assertEquals(SlotStatus.FREE, statusAt(later));
+        verify(slotRepository, times(1)).forEachStartAtAndStatus(any());
+        assertEquals(0, index.rebuild(MONDAY_9AM.minusDays(1), MONDAY_9AM.plusDays(30)));
+    }
+
+    private Map<Instant, SlotStatus> slotsBetween(OffsetDateTime from, OffsetDateTime to) {
+        Map<Instant, SlotStatus> slots = new LinkedHashMap<>();
+        assertTrue(index.forEachSlotBetween(from, to, (startAt, status) -> slots.put(startAt.toInstant(), status)));
+        return slots;
+    }
+
+    private SlotStatus statusAt(OffsetDateTime startAt) {
+        return slotsBetween(startAt, startAt.plusHours(1)).get(startAt.toInstant());
+    }
+}
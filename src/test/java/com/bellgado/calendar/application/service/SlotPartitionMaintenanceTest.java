@@ -0,0 +1,81 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.infrastructure.repository.PartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotPartitionMaintenanceTest {
+
+    @Mock
+    private PartitionRepository partitionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void maintain_shouldCreatePartitionsAheadAndArchiveNothingByDefault() {
+        maintenance(12, 0, 0).maintain();
+
+        for (int i = 0; i <= 12; i++) {
+            verify(partitionRepository).ensureMonthlyPartition(PartitionRepository.SLOTS, currentMonth.plusMonths(i));
+        }
+        verify(partitionRepository, times(13)).ensureMonthlyPartition(eq(PartitionRepository.SLOTS), any());
+        verify(partitionRepository, times(SlotPartitionMaintenance.EVENT_MONTHS_AHEAD + 1))
+                .ensureMonthlyPartition(eq(PartitionRepository.SLOT_EVENTS), any());
+        verify(partitionRepository, never()).archiveMonthlyPartitions(anyString(), any());
+        verify(partitionRepository, never()).attachArchivedPartitions(anyString());
+    }
+
+    @Test
+    void constructor_shouldRefuseToArchiveSlotPartitions() {
+        assertThrows(IllegalStateException.class, () -> maintenance(1, 24, 0));
+    }
+
+    @Test
+    void maintain_shouldArchiveAndAttachOldEventPartitions() {
+        when(partitionRepository.archiveMonthlyPartitions(PartitionRepository.SLOT_EVENTS, currentMonth.minusMonths(6)))
+                .thenReturn(3);
+
+        maintenance(1, 0, 6).maintain();
+
+        verify(partitionRepository).attachArchivedPartitions(PartitionRepository.SLOT_EVENTS);
+        verify(partitionRepository, never()).archiveMonthlyPartitions(eq(PartitionRepository.SLOTS), any());
+    }
+
+    @Test
+    void maintain_shouldNotPropagateFailures() {
+        when(partitionRepository.ensureMonthlyPartition(anyString(), any())).thenThrow(new IllegalStateException("boom"));
+
+        maintenance(1, 0, 0).maintain();
+
+        verify(partitionRepository, never()).archiveMonthlyPartitions(anyString(), any());
+    }
+
+    private SlotPartitionMaintenance maintenance(int monthsAhead, int archiveSlotsAfter, int archiveEventsAfter) {
+        return new SlotPartitionMaintenance(partitionRepository, transactionTemplate, monthsAhead,
+                archiveSlotsAfter, archiveEventsAfter);
+    }
+}
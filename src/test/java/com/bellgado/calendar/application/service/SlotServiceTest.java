@@ -1,6 +1,10 @@
 package com.bellgado.calendar.application.service;
 
 import com.bellgado.calendar.api.dto.*;
+import com.bellgado.calendar.api.sse.SseEventType;
+import com.bellgado.calendar.application.event.SlotBatchChangedEvent;
+import com.bellgado.calendar.application.event.SlotChangedEvent;
+import com.bellgado.calendar.application.event.SlotDeletedEvent;
 import com.bellgado.calendar.application.exception.ConflictException;
 import com.bellgado.calendar.application.exception.InvalidStateException;
 import com.bellgado.calendar.application.exception.NotFoundException;
@@ -8,9 +12,17 @@ import com.bellgado.calendar.domain.entity.Slot;
 import com.bellgado.calendar.domain.entity.SlotEvent;
 import com.bellgado.calendar.domain.entity.Student;
 import com.bellgado.calendar.domain.enums.CancelledBy;
+import com.bellgado.calendar.domain.enums.DayOfWeek;
 import com.bellgado.calendar.domain.enums.EventType;
 import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.SlotBookingOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotQueryRepository;
 import com.bellgado.calendar.infrastructure.repository.SlotRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotRescheduleOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotSelection;
+import com.bellgado.calendar.infrastructure.repository.SlotSeriesBookingOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotTransition;
+import com.bellgado.calendar.infrastructure.repository.SlotTransitionOutcome;
 import com.bellgado.calendar.notification.NotificationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,13 +31,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,6 +63,21 @@ class SlotServiceTest {
     @Mock
     private SlotRepository slotRepository;
 
+    @Mock
+    private SlotQueryRepository slotQueryRepository;
+
+    @Mock
+    private SlotOccupancyIndex occupancyIndex;
+
+    @Mock
+    private SlotListCache listCache;
+
+    @Mock
+    private SlotChangeWatermark watermark;
+
+    @Mock
+    private VirtualSlots virtualSlots;
+
     @Mock
     private StudentService studentService;
 
@@ -55,30 +90,27 @@ class SlotServiceTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
-    @Mock
-    private WaitlistService waitlistService;
-
     private SlotService slotService;
 
     @BeforeEach
     @SuppressWarnings({"unchecked", "rawtypes"})
     void setUp() {
-        slotService = new SlotService(slotRepository, studentService, slotEventService,
-                notificationService, eventPublisher, waitlistService);
+        slotService = new SlotService(slotRepository, slotQueryRepository, occupancyIndex, listCache, watermark, virtualSlots, studentService,
+                slotEventService, notificationService, eventPublisher);
 
-        // Stub recordEventAndReturn* variants to return a non-null SlotEvent
+        // Stub the record methods to return non-null SlotEvents
         // so that SlotEventResponse.from(slotEvent) does not NPE in service methods.
-        lenient().when(slotEventService.recordEventAndReturn(any(UUID.class), any(EventType.class)))
-                .thenAnswer(i -> new SlotEvent(i.getArgument(0), i.getArgument(1)));
-        lenient().when(slotEventService.recordEventAndReturn(
-                        any(UUID.class), any(EventType.class), nullable(UUID.class), nullable(UUID.class)))
-                .thenAnswer(i -> new SlotEvent(i.getArgument(0), i.getArgument(1)));
-        lenient().when(slotEventService.recordEventAndReturn(
-                        any(UUID.class), any(EventType.class), any(Map.class)))
-                .thenAnswer(i -> new SlotEvent(i.getArgument(0), i.getArgument(1)));
-        lenient().when(slotEventService.recordEventWithStudentsAndReturn(
-                        any(UUID.class), any(EventType.class), nullable(UUID.class), nullable(UUID.class), any()))
-                .thenAnswer(i -> new SlotEvent(i.getArgument(0), i.getArgument(1)));
+        lenient().when(slotEventService.record(any(SlotEventDraft.class)))
+                .thenAnswer(i -> toEvent(i.getArgument(0)));
+        lenient().when(slotEventService.recordAll(anyList()))
+                .thenAnswer(i -> ((List<SlotEventDraft>) i.getArgument(0)).stream().map(SlotServiceTest::toEvent).toList());
+    }
+
+    private static SlotEvent toEvent(SlotEventDraft draft) {
+        SlotEvent event = new SlotEvent(draft.slotId(), draft.type());
+        event.setOldStudentId(draft.oldStudentId());
+        event.setNewStudentId(draft.newStudentId());
+        return event;
     }
 
     @Test
@@ -87,23 +119,33 @@ class SlotServiceTest {
         UUID studentId = UUID.randomUUID();
         OffsetDateTime startAt = OffsetDateTime.now().plusDays(1);
 
+        Student student = new Student("John Doe", null, null, null);
+        student.setId(studentId);
+
         Slot slot = new Slot(startAt);
         slot.setId(slotId);
-        slot.setStatus(SlotStatus.FREE);
+        slot.setStatus(SlotStatus.BOOKED);
+        slot.setStudent(student);
+        slot.setNotes("Test notes");
 
-        Student student = new Student("John Doe", null, null, null);
-        student.setId(studentId);
+        SlotEvent event = new SlotEvent(slotId, EventType.BOOKED);
+        event.setNewStudentId(studentId);
 
-        when(slotRepository.findByIdWithStudent(slotId)).thenReturn(Optional.of(slot));
-        when(studentService.getEntityById(studentId)).thenReturn(student);
-        when(slotRepository.save(any(Slot.class))).thenAnswer(i -> i.getArgument(0));
+        when(slotRepository.bookIfFree(slotId, studentId, "Test notes"))
+                .thenReturn(new SlotBookingOutcome(slot, event, 0, SlotStatus.FREE, startAt, true));
 
         SlotBookRequest request = new SlotBookRequest(studentId, "Test notes");
         SlotResponse response = slotService.book(slotId, request);
 
         assertEquals(SlotStatus.BOOKED, response.status());
         assertEquals(studentId, response.student().id());
-        verify(slotEventService).recordEventAndReturn(eq(slotId), any(EventType.class), isNull(), eq(studentId));
+        ArgumentCaptor<SlotChangedEvent> captor = ArgumentCaptor.forClass(SlotChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(SseEventType.SLOT_BOOKED, captor.getValue().eventType());
+        assertEquals(studentId, captor.getValue().slotEvent().newStudentId());
+        // Event insert happens inside the booking statement
+        verifyNoInteractions(slotEventService, studentService);
+        verify(slotRepository, never()).save(any());
     }
 
     @Test
@@ -112,16 +154,14 @@ class SlotServiceTest {
         UUID studentId = UUID.randomUUID();
         OffsetDateTime startAt = OffsetDateTime.now().plusDays(1);
 
-        Slot slot = new Slot(startAt);
-        slot.setId(slotId);
-        slot.setStatus(SlotStatus.BOOKED);
-
-        when(slotRepository.findByIdWithStudent(slotId)).thenReturn(Optional.of(slot));
+        when(slotRepository.bookIfFree(slotId, studentId, null))
+                .thenReturn(new SlotBookingOutcome(null, null, 0, SlotStatus.BOOKED, startAt, true));
 
         SlotBookRequest request = new SlotBookRequest(studentId, null);
 
-        assertThrows(InvalidStateException.class, () -> slotService.book(slotId, request));
-        verify(slotRepository, never()).save(any());
+        InvalidStateException ex = assertThrows(InvalidStateException.class, () -> slotService.book(slotId, request));
+        assertTrue(ex.getMessage().contains("BOOKED"));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -129,11 +169,41 @@ class SlotServiceTest {
         UUID slotId = UUID.randomUUID();
         UUID studentId = UUID.randomUUID();
 
-        when(slotRepository.findByIdWithStudent(slotId)).thenReturn(Optional.empty());
+        when(slotRepository.bookIfFree(slotId, studentId, null))
+                .thenReturn(new SlotBookingOutcome(null, null, 0, null, null, true));
 
         SlotBookRequest request = new SlotBookRequest(studentId, null);
 
-        assertThrows(NotFoundException.class, () -> slotService.book(slotId, request));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> slotService.book(slotId, request));
+        assertTrue(ex.getMessage().startsWith("Slot not found"));
+    }
+
+    @Test
+    void book_shouldThrowWhenStudentNotFound() {
+        UUID slotId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+
+        when(slotRepository.bookIfFree(slotId, studentId, null))
+                .thenReturn(new SlotBookingOutcome(null, null, 0, SlotStatus.FREE, OffsetDateTime.now().plusDays(1), false));
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> slotService.book(slotId, new SlotBookRequest(studentId, null)));
+        assertTrue(ex.getMessage().startsWith("Student not found"));
+    }
+
+    @Test
+    void book_shouldReportLostRaceAsConflict() {
+        UUID slotId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+
+        // Slot looked bookable when the statement started, but a concurrent booking won the row lock
+        when(slotRepository.bookIfFree(slotId, studentId, null))
+                .thenReturn(new SlotBookingOutcome(null, null, 0, SlotStatus.FREE, OffsetDateTime.now().plusDays(1), true));
+
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> slotService.book(slotId, new SlotBookRequest(studentId, null)));
+        assertTrue(ex.getMessage().contains("another request"));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -157,7 +227,8 @@ class SlotServiceTest {
         SlotResponse response = slotService.cancel(slotId, request);
 
         assertEquals(SlotStatus.CANCELLED, response.status());
-        verify(slotEventService).recordEventWithStudentsAndReturn(eq(slotId), any(EventType.class), eq(studentId), isNull(), any());
+        verify(slotEventService).record(argThat(draft -> draft.slotId().equals(slotId)
+                && studentId.equals(draft.oldStudentId()) && draft.newStudentId() == null));
     }
 
     @Test
@@ -203,7 +274,8 @@ class SlotServiceTest {
 
         assertEquals(SlotStatus.BOOKED, response.status());
         assertEquals(newStudentId, response.student().id());
-        verify(slotEventService).recordEventWithStudentsAndReturn(eq(slotId), any(EventType.class), eq(oldStudentId), eq(newStudentId), any());
+        verify(slotEventService).record(argThat(draft -> draft.slotId().equals(slotId)
+                && oldStudentId.equals(draft.oldStudentId()) && newStudentId.equals(draft.newStudentId())));
     }
 
     @Test
@@ -234,17 +306,19 @@ class SlotServiceTest {
 
         Slot originSlot = new Slot(OffsetDateTime.now().plusDays(1));
         originSlot.setId(originSlotId);
-        originSlot.setStatus(SlotStatus.BOOKED);
-        originSlot.setStudent(student);
-        originSlot.setNotes("Original notes");
+        originSlot.setStatus(SlotStatus.FREE);
 
         Slot targetSlot = new Slot(OffsetDateTime.now().plusDays(2));
         targetSlot.setId(targetSlotId);
-        targetSlot.setStatus(SlotStatus.FREE);
+        targetSlot.setStatus(SlotStatus.BOOKED);
+        targetSlot.setStudent(student);
+        targetSlot.setNotes("Original notes");
 
-        when(slotRepository.findByIdWithStudent(originSlotId)).thenReturn(Optional.of(originSlot));
-        when(slotRepository.findByIdWithStudent(targetSlotId)).thenReturn(Optional.of(targetSlot));
-        when(slotRepository.save(any(Slot.class))).thenAnswer(i -> i.getArgument(0));
+        when(slotEventService.serializeMeta(any())).thenAnswer(i -> i.getArgument(0).toString());
+        when(slotRepository.rescheduleIfBookable(eq(originSlotId), eq(targetSlotId), anyString(), anyString()))
+                .thenReturn(new SlotRescheduleOutcome(originSlot, targetSlot,
+                        new SlotEvent(originSlotId, EventType.RESCHEDULED), new SlotEvent(targetSlotId, EventType.RESCHEDULED),
+                        SlotStatus.BOOKED, SlotStatus.FREE, targetSlot.getStartAt()));
 
         SlotRescheduleRequest request = new SlotRescheduleRequest(targetSlotId, "Reschedule reason");
         RescheduleResponse response = slotService.reschedule(originSlotId, request);
@@ -253,50 +327,71 @@ class SlotServiceTest {
         assertNull(response.originSlot().student());
         assertEquals(SlotStatus.BOOKED, response.targetSlot().status());
         assertEquals(studentId, response.targetSlot().student().id());
+        assertEquals("Original notes", response.targetSlot().notes());
+
+        verify(slotEventService).serializeMeta(Map.of("targetSlotId", targetSlotId.toString(), "reason", "Reschedule reason"));
+        verify(slotEventService).serializeMeta(Map.of("originSlotId", originSlotId.toString(), "reason", "Reschedule reason"));
+        verify(slotRepository, never()).findByIdWithStudent(any());
+        verify(eventPublisher, times(2)).publishEvent(any(SlotChangedEvent.class));
     }
 
     @Test
-    void reschedule_shouldThrowWhenOriginNotBooked() {
+    void reschedule_shouldThrowWhenOriginNotFound() {
         UUID originSlotId = UUID.randomUUID();
         UUID targetSlotId = UUID.randomUUID();
 
-        Slot originSlot = new Slot(OffsetDateTime.now().plusDays(1));
-        originSlot.setId(originSlotId);
-        originSlot.setStatus(SlotStatus.FREE);
+        when(slotRepository.rescheduleIfBookable(eq(originSlotId), eq(targetSlotId), any(), any()))
+                .thenReturn(refusedReschedule(null, SlotStatus.FREE, OffsetDateTime.now().plusDays(1)));
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> slotService.reschedule(originSlotId, new SlotRescheduleRequest(targetSlotId, null)));
+        assertTrue(ex.getMessage().startsWith("Origin slot not found"));
+    }
+
+    @Test
+    void reschedule_shouldThrowWhenOriginNotBooked() {
+        UUID originSlotId = UUID.randomUUID();
+        UUID targetSlotId = UUID.randomUUID();
 
-        when(slotRepository.findByIdWithStudent(originSlotId)).thenReturn(Optional.of(originSlot));
+        when(slotRepository.rescheduleIfBookable(eq(originSlotId), eq(targetSlotId), any(), any()))
+                .thenReturn(refusedReschedule(SlotStatus.FREE, SlotStatus.FREE, OffsetDateTime.now().plusDays(1)));
 
         SlotRescheduleRequest request = new SlotRescheduleRequest(targetSlotId, null);
 
         assertThrows(InvalidStateException.class, () -> slotService.reschedule(originSlotId, request));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
-    void reschedule_shouldThrowWhenTargetNotFree() {
+    void reschedule_shouldThrowWhenTargetInPast() {
         UUID originSlotId = UUID.randomUUID();
         UUID targetSlotId = UUID.randomUUID();
-        UUID studentId = UUID.randomUUID();
 
-        Student student = new Student("John Doe", null, null, null);
-        student.setId(studentId);
+        when(slotRepository.rescheduleIfBookable(eq(originSlotId), eq(targetSlotId), any(), any()))
+                .thenReturn(refusedReschedule(SlotStatus.BOOKED, SlotStatus.FREE, OffsetDateTime.now().minusDays(1)));
 
-        Slot originSlot = new Slot(OffsetDateTime.now().plusDays(1));
-        originSlot.setId(originSlotId);
-        originSlot.setStatus(SlotStatus.BOOKED);
-        originSlot.setStudent(student);
+        assertThrows(ConflictException.class,
+                () -> slotService.reschedule(originSlotId, new SlotRescheduleRequest(targetSlotId, null)));
+    }
 
-        Slot targetSlot = new Slot(OffsetDateTime.now().plusDays(2));
-        targetSlot.setId(targetSlotId);
-        targetSlot.setStatus(SlotStatus.BOOKED);
+    @Test
+    void reschedule_shouldThrowWhenTargetNotFree() {
+        UUID originSlotId = UUID.randomUUID();
+        UUID targetSlotId = UUID.randomUUID();
 
-        when(slotRepository.findByIdWithStudent(originSlotId)).thenReturn(Optional.of(originSlot));
-        when(slotRepository.findByIdWithStudent(targetSlotId)).thenReturn(Optional.of(targetSlot));
+        when(slotRepository.rescheduleIfBookable(eq(originSlotId), eq(targetSlotId), any(), any()))
+                .thenReturn(refusedReschedule(SlotStatus.BOOKED, SlotStatus.BOOKED, OffsetDateTime.now().plusDays(2)));
 
         SlotRescheduleRequest request = new SlotRescheduleRequest(targetSlotId, null);
 
         assertThrows(InvalidStateException.class, () -> slotService.reschedule(originSlotId, request));
     }
 
+    private static SlotRescheduleOutcome refusedReschedule(SlotStatus originStatus, SlotStatus targetStatus,
+                                                           OffsetDateTime targetStartAt) {
+        return new SlotRescheduleOutcome(null, null, null, null, originStatus, targetStatus, targetStartAt);
+    }
+
     @Test
     void free_shouldFreeACancelledSlot() {
         UUID slotId = UUID.randomUUID();
@@ -317,7 +412,8 @@ class SlotServiceTest {
 
         assertEquals(SlotStatus.FREE, response.status());
         assertNull(response.student());
-        verify(slotEventService).recordEventAndReturn(eq(slotId), any(EventType.class), eq(studentId), isNull());
+        verify(slotEventService).record(argThat(draft -> draft.slotId().equals(slotId)
+                && studentId.equals(draft.oldStudentId()) && draft.newStudentId() == null));
     }
 
     @Test
@@ -326,13 +422,27 @@ class SlotServiceTest {
         // duplicate-check stub is guaranteed to be reached.
         OffsetDateTime startAt = FUTURE_WORKING_HOURS_SLOT;
 
-        when(slotRepository.existsByStartAt(startAt)).thenReturn(true);
+        when(occupancyIndex.existsByStartAt(startAt)).thenReturn(true);
 
         SlotCreateRequest request = new SlotCreateRequest(startAt, 60);
 
         assertThrows(ConflictException.class, () -> slotService.create(request));
     }
 
+    @Test
+    void create_shouldThrowWhenSlotWasCreatedConcurrently() {
+        // The index has not seen the other transaction's slot yet; the unique constraint has
+        OffsetDateTime startAt = FUTURE_WORKING_HOURS_SLOT;
+
+        when(occupancyIndex.existsByStartAt(startAt)).thenReturn(false);
+        when(slotRepository.saveAndFlush(any(Slot.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \"slots_start_at_key\""));
+
+        assertThrows(ConflictException.class, () -> slotService.create(new SlotCreateRequest(startAt, 60)));
+        verify(slotEventService, never()).record(any(SlotEventDraft.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
     @Test
     void delete_shouldThrowWhenSlotIsBooked() {
         UUID slotId = UUID.randomUUID();
@@ -347,6 +457,22 @@ class SlotServiceTest {
         verify(slotRepository, never()).delete(any(Slot.class));
     }
 
+    @Test
+    void delete_shouldPublishDeletedEventForOccupancyIndex() {
+        UUID slotId = UUID.randomUUID();
+        OffsetDateTime startAt = FUTURE_WORKING_HOURS_SLOT;
+
+        Slot slot = new Slot(startAt);
+        slot.setId(slotId);
+
+        when(slotRepository.findById(slotId)).thenReturn(Optional.of(slot));
+
+        slotService.delete(slotId);
+
+        verify(slotRepository).delete(slot);
+        verify(eventPublisher).publishEvent(new SlotDeletedEvent(slotId, startAt));
+    }
+
     // =========================================================================
     // CREATE — past validation
     // =========================================================================
@@ -396,8 +522,8 @@ class SlotServiceTest {
                 .toOffsetDateTime();
         UUID slotId = UUID.randomUUID();
 
-        when(slotRepository.existsByStartAt(at7am)).thenReturn(false);
-        when(slotRepository.save(any(Slot.class))).thenAnswer(i -> {
+        when(occupancyIndex.existsByStartAt(at7am)).thenReturn(false);
+        when(slotRepository.saveAndFlush(any(Slot.class))).thenAnswer(i -> {
             Slot s = i.getArgument(0);
             s.setId(slotId);
             return s;
@@ -415,8 +541,8 @@ class SlotServiceTest {
                 .toOffsetDateTime();
         UUID slotId = UUID.randomUUID();
 
-        when(slotRepository.existsByStartAt(at6pm)).thenReturn(false);
-        when(slotRepository.save(any(Slot.class))).thenAnswer(i -> {
+        when(occupancyIndex.existsByStartAt(at6pm)).thenReturn(false);
+        when(slotRepository.saveAndFlush(any(Slot.class))).thenAnswer(i -> {
             Slot s = i.getArgument(0);
             s.setId(slotId);
             return s;
@@ -437,54 +563,443 @@ class SlotServiceTest {
         OffsetDateTime past = OffsetDateTime.now(ZoneId.of("Europe/Sofia")).minusHours(2)
                 .withMinute(0).withSecond(0).withNano(0);
 
-        Slot slot = new Slot(past);
-        slot.setId(slotId);
-        slot.setStatus(SlotStatus.FREE);
-
-        when(slotRepository.findByIdWithStudent(slotId)).thenReturn(Optional.of(slot));
+        when(slotRepository.bookIfFree(slotId, studentId, null))
+                .thenReturn(new SlotBookingOutcome(null, null, 0, SlotStatus.FREE, past, true));
 
         assertThrows(ConflictException.class, () -> slotService.book(slotId, new SlotBookRequest(studentId, null)));
-        verify(slotRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     // =========================================================================
-    // BOOK — waitlist auto-cleanup
+    // BOOK SERIES — one statement, one batch event
     // =========================================================================
 
     @Test
-    void book_shouldRemoveStudentFromWaitlistAfterBooking() {
-        UUID slotId = UUID.randomUUID();
+    @SuppressWarnings("unchecked")
+    void bookSeries_shouldBookMatchingSlotsAndReportConflicts() {
         UUID studentId = UUID.randomUUID();
+        Student student = new Student("Jane Doe", null, null, null);
+        student.setId(studentId);
+        when(studentService.getEntityById(studentId)).thenReturn(student);
 
-        Slot slot = new Slot(FUTURE_WORKING_HOURS_SLOT);
-        slot.setId(slotId);
-        slot.setStatus(SlotStatus.FREE);
+        LocalDate monday = LocalDate.now(ZoneId.of("Europe/Sofia")).plusWeeks(1)
+                .with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
+        ZoneId zone = ZoneId.of("Europe/Sofia");
+        ZonedDateTime first = ZonedDateTime.of(monday, java.time.LocalTime.of(10, 0), zone);
+        OffsetDateTime week1 = first.toOffsetDateTime();
+        OffsetDateTime week2 = first.plusWeeks(1).toOffsetDateTime();
+        OffsetDateTime week3 = first.plusWeeks(2).toOffsetDateTime();
+        OffsetDateTime week4 = first.plusWeeks(3).toOffsetDateTime();
+
+        Slot booked = new Slot(week1);
+        booked.setId(UUID.randomUUID());
+        booked.setStatus(SlotStatus.BOOKED);
+        SlotEvent event = new SlotEvent(booked.getId(), EventType.BOOKED);
+        event.setNewStudentId(studentId);
+        UUID takenId = UUID.randomUUID();
+        UUID raceId = UUID.randomUUID();
+
+        when(slotRepository.bookSeriesIfFree(any(), eq(studentId), isNull())).thenReturn(new SlotSeriesBookingOutcome(
+                List.of(booked), List.of(event),
+                List.of(new SlotSeriesBookingOutcome.Refused(week2, null, null),
+                        new SlotSeriesBookingOutcome.Refused(week3, takenId, SlotStatus.BLOCKED),
+                        new SlotSeriesBookingOutcome.Refused(week4, raceId, SlotStatus.FREE)),
+                1));
+
+        SlotBookSeriesResponse response = slotService.bookSeries(new SlotBookSeriesRequest(
+                studentId, monday, monday.plusWeeks(3), "Europe/Sofia",
+                List.of(new WeeklyRule(DayOfWeek.MONDAY, "10:00", "11:00")), null));
+
+        ArgumentCaptor<Collection<OffsetDateTime>> startTimes = ArgumentCaptor.forClass(Collection.class);
+        verify(slotRepository).bookSeriesIfFree(startTimes.capture(), eq(studentId), isNull());
+        assertEquals(List.of(week1, week2, week3, week4), List.copyOf(startTimes.getValue()));
+
+        assertEquals(1, response.bookedCount());
+        assertEquals(3, response.conflictCount());
+        assertEquals(studentId, response.booked().get(0).student().id());
+        assertEquals(List.of(SlotSeriesConflict.Reason.NO_SLOT, SlotSeriesConflict.Reason.NOT_FREE,
+                        SlotSeriesConflict.Reason.TAKEN_CONCURRENTLY),
+                response.conflicts().stream().map(SlotSeriesConflict::reason).toList());
+
+        ArgumentCaptor<SlotBatchChangedEvent> captor = ArgumentCaptor.forClass(SlotBatchChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(SseEventType.SLOT_BOOKED, captor.getValue().eventType());
+        assertEquals(1, captor.getValue().slots().size());
+        verifyNoInteractions(slotEventService);
+    }
 
+    @Test
+    void bookSeries_shouldNotPublishWhenNothingWasBooked() {
+        UUID studentId = UUID.randomUUID();
         Student student = new Student("Jane Doe", null, null, null);
         student.setId(studentId);
-
-        when(slotRepository.findByIdWithStudent(slotId)).thenReturn(Optional.of(slot));
         when(studentService.getEntityById(studentId)).thenReturn(student);
-        when(slotRepository.save(any(Slot.class))).thenAnswer(i -> i.getArgument(0));
+        when(slotRepository.bookSeriesIfFree(any(), eq(studentId), isNull()))
+                .thenReturn(new SlotSeriesBookingOutcome(List.of(), List.of(), List.of(), 0));
 
-        slotService.book(slotId, new SlotBookRequest(studentId, null));
+        LocalDate from = LocalDate.now().plusDays(1);
+        SlotBookSeriesResponse response = slotService.bookSeries(new SlotBookSeriesRequest(
+                studentId, from, from.plusWeeks(4), "Europe/Sofia",
+                List.of(new WeeklyRule(DayOfWeek.FRIDAY, "08:00", "09:00")), null));
 
-        verify(waitlistService).removeActiveByStudentId(studentId);
+        assertEquals(0, response.bookedCount());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
-    void book_shouldNotInteractWithWaitlistWhenBookingFails() {
-        UUID slotId = UUID.randomUUID();
+    void bookSeries_shouldRejectInvertedRange() {
+        LocalDate from = LocalDate.now().plusDays(10);
+        SlotBookSeriesRequest request = new SlotBookSeriesRequest(
+                UUID.randomUUID(), from, from.minusDays(1), "Europe/Sofia",
+                List.of(new WeeklyRule(DayOfWeek.MONDAY, "10:00", "11:00")), null);
+
+        assertThrows(IllegalArgumentException.class, () -> slotService.bookSeries(request));
+        verifyNoInteractions(slotRepository);
+    }
+
+    // =========================================================================
+    // BULK TRANSITIONS — set-based, one batch event
+    // =========================================================================
+
+    @Test
+    void bulkCancel_shouldTransitionInOneCallAndReportSkippedAndMissingIds() {
+        UUID studentId = UUID.randomUUID();
+        Student student = new Student("John Doe", null, null, null);
+        student.setId(studentId);
+        Slot cancelled = new Slot(FUTURE_WORKING_HOURS_SLOT);
+        cancelled.setId(UUID.randomUUID());
+        cancelled.setStatus(SlotStatus.CANCELLED);
+        cancelled.setStudent(student);
+        SlotEvent event = new SlotEvent(cancelled.getId(), EventType.CANCELLED);
+        event.setOldStudentId(studentId);
+        UUID freeId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+
+        when(slotEventService.serializeMeta(any())).thenReturn("{\"cancelledBy\":\"TEACHER\"}");
+        when(slotRepository.transition(any(SlotSelection.class), any(SlotTransition.class))).thenReturn(
+                new SlotTransitionOutcome(List.of(cancelled), List.of(event),
+                        List.of(new SlotTransitionOutcome.Skipped(freeId, FUTURE_WORKING_HOURS_SLOT.plusHours(1), SlotStatus.FREE))));
+
+        SlotBulkResponse response = slotService.bulkCancel(new SlotBulkRequest(
+                List.of(cancelled.getId(), freeId, missingId), null, null, CancelledBy.TEACHER, "Sick", null));
+
+        ArgumentCaptor<SlotTransition> transition = ArgumentCaptor.forClass(SlotTransition.class);
+        verify(slotRepository).transition(any(SlotSelection.class), transition.capture());
+        assertEquals(Set.of(SlotStatus.BOOKED), transition.getValue().allowedFrom());
+        assertEquals(SlotStatus.CANCELLED, transition.getValue().targetStatus());
+        assertTrue(transition.getValue().recordPreviousStudent());
+        assertEquals("{\"cancelledBy\":\"TEACHER\"}", transition.getValue().meta());
+
+        assertEquals(1, response.affectedCount());
+        assertEquals(2, response.skippedCount());
+        assertEquals(SlotStatus.FREE, response.skipped().get(0).currentStatus());
+        assertTrue(response.skipped().get(0).reason().contains("BOOKED to cancel"));
+        assertEquals(missingId, response.skipped().get(1).slotId());
+        assertEquals("Slot not found", response.skipped().get(1).reason());
+
+        ArgumentCaptor<SlotBatchChangedEvent> captor = ArgumentCaptor.forClass(SlotBatchChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(SseEventType.SLOT_CANCELLED, captor.getValue().eventType());
+        assertEquals(1, captor.getValue().slotEvents().size());
+    }
+
+    @Test
+    void bulkCancel_shouldRequireCancelledBy() {
+        assertThrows(IllegalArgumentException.class, () -> slotService.bulkCancel(
+                new SlotBulkRequest(List.of(UUID.randomUUID()), null, null, null, null, null)));
+        verifyNoInteractions(slotRepository);
+    }
+
+    @Test
+    void bulkFree_shouldRejectBothOrNeitherSelection() {
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        assertThrows(IllegalArgumentException.class, () -> slotService.bulkFree(
+                new SlotBulkRequest(List.of(UUID.randomUUID()), from, from.plusDays(1), null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> slotService.bulkFree(
+                new SlotBulkRequest(null, null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> slotService.bulkFree(
+                new SlotBulkRequest(null, from, from, null, null, null)));
+        verifyNoInteractions(slotRepository);
+    }
+
+    @Test
+    void bulkDelete_shouldSkipBookedAndPublishOneDeletedBatch() {
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        Slot deleted = new Slot(from);
+        deleted.setId(UUID.randomUUID());
+        SlotEvent event = new SlotEvent(deleted.getId(), EventType.DELETED);
+        event.setSeq(42L);
+        when(slotRepository.delete(any(SlotSelection.class), any())).thenReturn(new SlotTransitionOutcome(
+                List.of(deleted), List.of(event),
+                List.of(new SlotTransitionOutcome.Skipped(UUID.randomUUID(), from.plusHours(1), SlotStatus.BOOKED))));
+
+        SlotBulkResponse response = slotService.bulkDelete(new SlotBulkRequest(null, from, from.plusDays(1), null, null, null));
+
+        ArgumentCaptor<SlotSelection> selection = ArgumentCaptor.forClass(SlotSelection.class);
+        verify(slotRepository).delete(selection.capture(), eq(EnumSet.of(SlotStatus.FREE, SlotStatus.CANCELLED, SlotStatus.BLOCKED)));
+        assertFalse(selection.getValue().isByIds());
+        assertEquals(1, response.affectedCount());
+        assertEquals(1, response.skippedCount());
+
+        ArgumentCaptor<SlotBatchChangedEvent> captor = ArgumentCaptor.forClass(SlotBatchChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(SseEventType.SLOT_DELETED, captor.getValue().eventType());
+        assertEquals(List.of(deleted.getId()), captor.getValue().slots().stream().map(SlotResponse::id).toList());
+        assertEquals(42L, captor.getValue().slotEvents().get(0).seq());
+        verify(eventPublisher, never()).publishEvent(any(SlotDeletedEvent.class));
+    }
+
+    // =========================================================================
+    // BLOCK RANGE — one statement per block create/delete
+    // =========================================================================
+
+    @Test
+    void blockSlotsInRange_shouldRunOneStatementAndPublishOneBatch() {
+        UUID blockId = UUID.randomUUID();
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        OffsetDateTime to = from.plusDays(14);
+        Slot blocked = new Slot(from);
+        blocked.setId(UUID.randomUUID());
+        blocked.setStatus(SlotStatus.BLOCKED);
+        blocked.setBlockId(blockId);
+        when(slotRepository.blockRange(blockId, from, to)).thenReturn(new SlotTransitionOutcome(
+                List.of(blocked), List.of(new SlotEvent(blocked.getId(), EventType.BLOCKED)), List.of()));
+
+        slotService.blockSlotsInRange(blockId, from, to);
+
+        ArgumentCaptor<SlotBatchChangedEvent> captor = ArgumentCaptor.forClass(SlotBatchChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(SseEventType.SLOT_BLOCKED, captor.getValue().eventType());
+        assertEquals(1, captor.getValue().slots().size());
+        verify(slotRepository, never()).saveAll(any());
+        verifyNoInteractions(slotEventService, occupancyIndex);
+    }
+
+    @Test
+    void unblockSlotsByBlockId_shouldFreeBlockedSlotsOfTheBlock() {
+        UUID blockId = UUID.randomUUID();
+        when(slotRepository.transition(any(SlotSelection.class), any(SlotTransition.class)))
+                .thenReturn(new SlotTransitionOutcome(List.of(), List.of(), List.of()));
+
+        slotService.unblockSlotsByBlockId(blockId);
+
+        ArgumentCaptor<SlotSelection> selection = ArgumentCaptor.forClass(SlotSelection.class);
+        ArgumentCaptor<SlotTransition> transition = ArgumentCaptor.forClass(SlotTransition.class);
+        verify(slotRepository).transition(selection.capture(), transition.capture());
+        assertEquals(blockId, selection.getValue().blockId());
+        assertEquals(Set.of(SlotStatus.BLOCKED), transition.getValue().allowedFrom());
+        assertEquals(SlotStatus.FREE, transition.getValue().targetStatus());
+        assertTrue(transition.getValue().clearBlock());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    // =========================================================================
+    // GENERATE — set-based bulk insert
+    // =========================================================================
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generate_shouldInsertCandidatesInOneCallAndPublishSingleBatchEvent() {
+        LocalDate monday = LocalDate.now(ZoneId.of("Europe/Sofia")).plusWeeks(1)
+                .with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
+        SlotGenerateRequest request = new SlotGenerateRequest(monday, monday.plusDays(6), "Europe/Sofia",
+                List.of(new WeeklyRule(DayOfWeek.MONDAY, "09:00", "12:00")), 60);
+
+        // Pretend the 09:00 slot already exists: only 10:00 and 11:00 get inserted
+        when(slotRepository.insertFreeSlotsSkippingExisting(anyCollection())).thenAnswer(i -> {
+            Collection<OffsetDateTime> startTimes = i.getArgument(0);
+            return startTimes.stream().skip(1).map(startAt -> {
+                Slot slot = new Slot(startAt);
+                slot.setId(UUID.randomUUID());
+                return slot;
+            }).toList();
+        });
+
+        SlotGenerateResponse response = slotService.generate(request);
+
+        assertEquals(2, response.createdCount());
+        assertEquals(1, response.skippedCount());
+        verify(slotRepository, times(1)).insertFreeSlotsSkippingExisting(anyCollection());
+        verify(slotRepository, never()).saveAll(any());
+
+        ArgumentCaptor<SlotBatchChangedEvent> captor = ArgumentCaptor.forClass(SlotBatchChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(SseEventType.SLOT_GENERATED, captor.getValue().eventType());
+        assertEquals(2, captor.getValue().slots().size());
+        assertEquals(2, captor.getValue().slotEvents().size());
+        verify(eventPublisher, never()).publishEvent(any(SlotChangedEvent.class));
+    }
+
+    @Test
+    void generate_shouldNotPublishWhenEverythingIsSkipped() {
+        LocalDate monday = LocalDate.now(ZoneId.of("Europe/Sofia")).plusWeeks(1)
+                .with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
+        SlotGenerateRequest request = new SlotGenerateRequest(monday, monday.plusDays(6), "Europe/Sofia",
+                List.of(new WeeklyRule(DayOfWeek.MONDAY, "09:00", "11:00")), 60);
+
+        when(slotRepository.insertFreeSlotsSkippingExisting(anyCollection())).thenReturn(List.of());
+
+        SlotGenerateResponse response = slotService.generate(request);
+
+        assertEquals(0, response.createdCount());
+        assertEquals(2, response.skippedCount());
+        verify(slotEventService, never()).recordAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    // =========================================================================
+    // READ PATHS — DTO projections
+    // =========================================================================
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void list_shouldLoadCacheMissesThroughProjectionQuery() {
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        OffsetDateTime to = from.plusDays(7);
+        when(listCache.list(eq(from), eq(to), isNull(), any())).thenAnswer(i -> {
+            java.util.function.BiFunction<OffsetDateTime, OffsetDateTime, List<SlotResponse>> loader = i.getArgument(3);
+            return loader.apply(from, to);
+        });
+        when(slotQueryRepository.findInRange(from, to, null, null)).thenReturn(List.of());
+
+        assertTrue(slotService.list(from, to, null).isEmpty());
+        verify(slotQueryRepository).findInRange(from, to, null, null);
+        verify(slotRepository, never()).findAll(any(org.springframework.data.jpa.domain.Specification.class),
+                any(org.springframework.data.domain.Sort.class));
+    }
+
+    @Test
+    void listByStudent_shouldFilterByStudentInProjectionQuery() {
         UUID studentId = UUID.randomUUID();
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        OffsetDateTime to = from.plusDays(7);
+        List<SlotStatus> statuses = List.of(SlotStatus.BOOKED);
+        when(slotQueryRepository.findInRange(from, to, studentId, statuses)).thenReturn(List.of());
 
+        slotService.listByStudent(studentId, from, to, statuses);
+
+        verify(studentService).getEntityById(studentId);
+        verify(slotQueryRepository).findInRange(from, to, studentId, statuses);
+    }
+
+    @Test
+    void getById_shouldThrowWhenProjectionFindsNothing() {
+        UUID slotId = UUID.randomUUID();
+        when(slotQueryRepository.findById(slotId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> slotService.getById(slotId));
+        verify(slotRepository, never()).findByIdWithStudent(any());
+    }
+
+    @Test
+    void getByIds_shouldKeySlotsFoundInOneQueryById() {
         Slot slot = new Slot(FUTURE_WORKING_HOURS_SLOT);
-        slot.setId(slotId);
-        slot.setStatus(SlotStatus.BOOKED); // already booked → will throw
+        slot.setId(UUID.randomUUID());
+        UUID deletedId = UUID.randomUUID();
+        Set<UUID> ids = Set.of(slot.getId(), deletedId);
+        when(slotQueryRepository.findAllById(ids)).thenReturn(List.of(SlotResponse.from(slot)));
 
-        when(slotRepository.findByIdWithStudent(slotId)).thenReturn(Optional.of(slot));
+        Map<UUID, SlotResponse> slots = slotService.getByIds(ids);
+
+        assertEquals(Set.of(slot.getId()), slots.keySet());
+        verify(slotQueryRepository, never()).findById(any());
+    }
+
+    @Test
+    void checkExport_shouldRejectEmptyRange() {
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+
+        assertThrows(IllegalArgumentException.class, () -> slotService.checkExport(from, from, null));
+        verifyNoInteractions(studentService);
+    }
+
+    @Test
+    void checkExport_shouldThrowWhenStudentNotFound() {
+        UUID studentId = UUID.randomUUID();
+        when(studentService.getEntityById(studentId)).thenThrow(new NotFoundException("Student not found"));
 
-        assertThrows(InvalidStateException.class, () -> slotService.book(slotId, new SlotBookRequest(studentId, null)));
-        verify(waitlistService, never()).removeActiveByStudentId(any());
+        assertThrows(NotFoundException.class, () -> slotService.checkExport(
+                FUTURE_WORKING_HOURS_SLOT, FUTURE_WORKING_HOURS_SLOT.plusDays(1), studentId));
+    }
+
+    @Test
+    void export_shouldStreamFromProjectionBypassingListCache() {
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        OffsetDateTime to = from.plusYears(3);
+        Set<SlotStatus> statuses = Set.of(SlotStatus.BOOKED);
+        Consumer<SlotResponse> sink = slot -> {};
+
+        slotService.export(from, to, null, statuses, sink);
+
+        verify(slotQueryRepository).forEachInRange(from, to, null, statuses, sink);
+        verifyNoInteractions(listCache);
+    }
+
+    @Test
+    void slotTag_shouldUseVersionWithoutLoadingSlot() {
+        UUID slotId = UUID.randomUUID();
+        when(slotRepository.findVersionById(slotId)).thenReturn(Optional.of(3));
+        when(watermark.slotTag(3)).thenReturn("\"tag\"");
+
+        assertEquals("\"tag\"", slotService.slotTag(slotId));
+        verifyNoInteractions(slotQueryRepository);
+    }
+
+    @Test
+    void slotTag_shouldThrowWhenSlotNotFound() {
+        UUID slotId = UUID.randomUUID();
+        when(slotRepository.findVersionById(slotId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> slotService.slotTag(slotId));
+    }
+
+    // =========================================================================
+    // AVAILABILITY — compact free/busy summary
+    // =========================================================================
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void availability_shouldEncodeOneCharacterPerLocalHourFromIndex() {
+        LocalDate day = LocalDate.of(2030, 1, 7);
+        ZoneId sofia = ZoneId.of("Europe/Sofia");
+        when(occupancyIndex.forEachSlotBetween(any(), any(), any())).thenAnswer(i -> {
+            java.util.function.BiConsumer<OffsetDateTime, SlotStatus> consumer = i.getArgument(2);
+            // Reported in UTC like the index does; must land on Sofia wall-clock hours
+            consumer.accept(ZonedDateTime.of(day, java.time.LocalTime.of(9, 0), sofia)
+                    .toOffsetDateTime().withOffsetSameInstant(java.time.ZoneOffset.UTC), SlotStatus.FREE);
+            consumer.accept(ZonedDateTime.of(day, java.time.LocalTime.of(10, 0), sofia).toOffsetDateTime(), SlotStatus.BOOKED);
+            consumer.accept(ZonedDateTime.of(day.plusDays(1), java.time.LocalTime.of(18, 0), sofia).toOffsetDateTime(), SlotStatus.BLOCKED);
+            return true;
+        });
+
+        SlotAvailabilityResponse response = slotService.availability(day, day.plusDays(1));
+
+        assertEquals(2, response.days().size());
+        assertEquals("---------FB-------------", response.days().get(0).hours());
+        assertEquals("------------------X-----", response.days().get(1).hours());
+        verify(slotRepository, never()).forEachStartAtAndStatusBetween(any(), any(), any());
+    }
+
+    @Test
+    void availability_shouldFallBackToProjectionQueryWhenIndexIsCold() {
+        LocalDate day = LocalDate.of(2030, 1, 7);
+        when(occupancyIndex.forEachSlotBetween(any(), any(), any())).thenReturn(false);
+
+        SlotAvailabilityResponse response = slotService.availability(day, day);
+
+        assertEquals("------------------------", response.days().get(0).hours());
+        verify(slotRepository).forEachStartAtAndStatusBetween(
+                eq(day.atStartOfDay(ZoneId.of("Europe/Sofia")).toOffsetDateTime()),
+                eq(day.plusDays(1).atStartOfDay(ZoneId.of("Europe/Sofia")).toOffsetDateTime()),
+                any());
+    }
+
+    @Test
+    void availability_shouldRejectInvertedOrOversizedRanges() {
+        LocalDate day = LocalDate.of(2030, 1, 7);
+
+        assertThrows(IllegalArgumentException.class, () -> slotService.availability(day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> slotService.availability(day, day.plusDays(366)));
     }
 
     // =========================================================================
@@ -506,7 +1021,7 @@ class SlotServiceTest {
         SlotResponse response = slotService.blockSlot(slotId);
 
         assertEquals(SlotStatus.BLOCKED, response.status());
-        verify(slotEventService).recordEventAndReturn(eq(slotId), any(EventType.class), any(Map.class));
+        verify(slotEventService).record(argThat(draft -> draft.slotId().equals(slotId)));
     }
 
     @Test
@@ -582,7 +1097,7 @@ class SlotServiceTest {
         SlotResponse response = slotService.unblockSlot(slotId);
 
         assertEquals(SlotStatus.FREE, response.status());
-        verify(slotEventService).recordEventAndReturn(eq(slotId), any(EventType.class), any(Map.class));
+        verify(slotEventService).record(argThat(draft -> draft.slotId().equals(slotId)));
     }
 
     @Test
@@ -656,4 +1171,184 @@ class SlotServiceTest {
 
         assertThrows(NotFoundException.class, () -> slotService.unblockSlot(slotId));
     }
+
+    // -------------------------------------------------------------------------
+    // Availability templates (virtual slots)
+    // -------------------------------------------------------------------------
+
+    private static SlotResponse virtualSlot(OffsetDateTime startAt) {
+        return new SlotResponse(VirtualSlotId.of(startAt), startAt, startAt.plusHours(1), SlotStatus.FREE,
+                null, null, 0, null, null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void list_shouldMergeVirtualSlotsWhereNoSlotRowExists() {
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        OffsetDateTime to = from.plusHours(3);
+        when(listCache.list(eq(from), eq(to), isNull(), any())).thenAnswer(i -> {
+            java.util.function.BiFunction<OffsetDateTime, OffsetDateTime, List<SlotResponse>> loader = i.getArgument(3);
+            return loader.apply(from, to);
+        });
+        Slot booked = new Slot(from.plusHours(1));
+        booked.setId(UUID.randomUUID());
+        booked.setStatus(SlotStatus.BOOKED);
+        when(slotQueryRepository.findInRange(from, to, null, null)).thenReturn(List.of(SlotResponse.from(booked)));
+        when(virtualSlots.between(from, to)).thenReturn(List.of(
+                virtualSlot(from), virtualSlot(from.plusHours(1)), virtualSlot(from.plusHours(2))));
+
+        List<SlotResponse> slots = slotService.list(from, to, null);
+
+        assertEquals(List.of(VirtualSlotId.of(from), booked.getId(), VirtualSlotId.of(from.plusHours(2))),
+                slots.stream().map(SlotResponse::id).toList());
+    }
+
+    @Test
+    void availability_shouldShowTemplateHoursWithoutSlotRowsAsFree() {
+        LocalDate day = LocalDate.of(2030, 1, 7);
+        ZoneId sofia = ZoneId.of("Europe/Sofia");
+        OffsetDateTime nine = ZonedDateTime.of(day, java.time.LocalTime.of(9, 0), sofia).toOffsetDateTime();
+        when(virtualSlots.between(any(), any())).thenReturn(List.of(virtualSlot(nine), virtualSlot(nine.plusHours(1))));
+        when(occupancyIndex.forEachSlotBetween(any(), any(), any())).thenAnswer(i -> {
+            java.util.function.BiConsumer<OffsetDateTime, SlotStatus> consumer = i.getArgument(2);
+            consumer.accept(nine.plusHours(1), SlotStatus.BOOKED);
+            return true;
+        });
+
+        SlotAvailabilityResponse response = slotService.availability(day, day);
+
+        assertEquals("---------FB-------------", response.days().get(0).hours());
+    }
+
+    @Test
+    void book_shouldMaterializeVirtualSlotBeforeBooking() {
+        OffsetDateTime startAt = FUTURE_WORKING_HOURS_SLOT;
+        UUID virtualId = VirtualSlotId.of(startAt);
+        UUID slotId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+        Slot inserted = new Slot(startAt);
+        inserted.setId(slotId);
+        Slot booked = new Slot(startAt);
+        booked.setId(slotId);
+        booked.setStatus(SlotStatus.BOOKED);
+
+        when(virtualSlots.offers(VirtualSlotId.startAt(virtualId))).thenReturn(true);
+        when(slotRepository.insertFreeSlotsSkippingExisting(List.of(VirtualSlotId.startAt(virtualId))))
+                .thenReturn(List.of(inserted));
+        when(slotRepository.findIdByStartAt(VirtualSlotId.startAt(virtualId))).thenReturn(Optional.of(slotId));
+        when(slotRepository.bookIfFree(slotId, studentId, null)).thenReturn(
+                new SlotBookingOutcome(booked, new SlotEvent(slotId, EventType.BOOKED), 0, SlotStatus.FREE, startAt, true));
+
+        SlotResponse response = slotService.book(virtualId, new SlotBookRequest(studentId, null));
+
+        assertEquals(slotId, response.id());
+        assertEquals(SlotStatus.BOOKED, response.status());
+        verify(eventPublisher).publishEvent(any(SlotBatchChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(SlotChangedEvent.class));
+    }
+
+    @Test
+    void book_shouldReportVirtualSlotThatIsNoLongerOfferedAsNotFound() {
+        UUID virtualId = VirtualSlotId.of(FUTURE_WORKING_HOURS_SLOT);
+        UUID studentId = UUID.randomUUID();
+        when(slotRepository.findIdByStartAt(any())).thenReturn(Optional.empty());
+        when(slotRepository.bookIfFree(virtualId, studentId, null))
+                .thenReturn(new SlotBookingOutcome(null, null, 0, null, null, false));
+
+        assertThrows(NotFoundException.class, () -> slotService.book(virtualId, new SlotBookRequest(studentId, null)));
+        verify(slotRepository, never()).insertFreeSlotsSkippingExisting(any());
+    }
+
+    @Test
+    void getById_shouldPreferSlotRowOverVirtualSlot() {
+        OffsetDateTime startAt = FUTURE_WORKING_HOURS_SLOT;
+        UUID virtualId = VirtualSlotId.of(startAt);
+        Slot slot = new Slot(startAt);
+        slot.setId(UUID.randomUUID());
+        when(slotQueryRepository.findByStartAt(VirtualSlotId.startAt(virtualId)))
+                .thenReturn(Optional.of(SlotResponse.from(slot)));
+
+        assertEquals(slot.getId(), slotService.getById(virtualId).id());
+        verifyNoInteractions(virtualSlots);
+    }
+
+    @Test
+    void getById_shouldReturnVirtualSlotWhileOffered() {
+        UUID virtualId = VirtualSlotId.of(FUTURE_WORKING_HOURS_SLOT);
+        OffsetDateTime startAt = VirtualSlotId.startAt(virtualId);
+        when(slotQueryRepository.findByStartAt(startAt)).thenReturn(Optional.empty());
+        when(virtualSlots.at(startAt)).thenReturn(Optional.of(virtualSlot(startAt)));
+
+        assertEquals(virtualId, slotService.getById(virtualId).id());
+    }
+
+    @Test
+    void bulkBlock_shouldMaterializeOfferedHoursOfRangeBeforeBlocking() {
+        OffsetDateTime from = FUTURE_WORKING_HOURS_SLOT;
+        OffsetDateTime to = from.plusHours(3);
+        OffsetDateTime offered = from.plusHours(1);
+        Slot inserted = new Slot(offered);
+        inserted.setId(UUID.randomUUID());
+        when(virtualSlots.between(from, to)).thenReturn(List.of(virtualSlot(offered)));
+        when(slotRepository.insertFreeSlotsSkippingExisting(List.of(offered))).thenReturn(List.of(inserted));
+        when(slotRepository.transition(any(SlotSelection.class), any(SlotTransition.class)))
+                .thenReturn(new SlotTransitionOutcome(List.of(), List.of(), List.of()));
+
+        slotService.bulkBlock(new SlotBulkRequest(null, from, to, null, null, null));
+
+        var order = inOrder(slotRepository);
+        order.verify(slotRepository).insertFreeSlotsSkippingExisting(List.of(offered));
+        ArgumentCaptor<SlotSelection> selection = ArgumentCaptor.forClass(SlotSelection.class);
+        order.verify(slotRepository).transition(selection.capture(), any(SlotTransition.class));
+        assertFalse(selection.getValue().isByIds());
+    }
+
+    @Test
+    void bulkBlock_shouldResolveVirtualIdsToMaterializedSlots() {
+        OffsetDateTime startAt = VirtualSlotId.startAt(VirtualSlotId.of(FUTURE_WORKING_HOURS_SLOT));
+        UUID virtualId = VirtualSlotId.of(startAt);
+        UUID rowId = UUID.randomUUID();
+        Slot inserted = new Slot(startAt);
+        inserted.setId(rowId);
+        when(virtualSlots.between(startAt, startAt.plusMinutes(60))).thenReturn(List.of(virtualSlot(startAt)));
+        when(slotRepository.insertFreeSlotsSkippingExisting(List.of(startAt))).thenReturn(List.of(inserted));
+        when(slotRepository.findIdByStartAt(startAt)).thenReturn(Optional.of(rowId));
+        inserted.setStatus(SlotStatus.BLOCKED);
+        when(slotRepository.transition(any(SlotSelection.class), any(SlotTransition.class))).thenReturn(
+                new SlotTransitionOutcome(List.of(inserted), List.of(new SlotEvent(rowId, EventType.BLOCKED)), List.of()));
+
+        SlotBulkResponse response = slotService.bulkBlock(new SlotBulkRequest(List.of(virtualId), null, null, null, null, null));
+
+        ArgumentCaptor<SlotSelection> selection = ArgumentCaptor.forClass(SlotSelection.class);
+        verify(slotRepository).transition(selection.capture(), any(SlotTransition.class));
+        assertEquals(List.of(rowId), List.copyOf(selection.getValue().ids()));
+        assertEquals(1, response.affectedCount());
+        assertEquals(0, response.skippedCount());
+    }
+
+    @Test
+    void bulkFree_shouldResolveVirtualIdsWithoutInsertingRows() {
+        OffsetDateTime startAt = VirtualSlotId.startAt(VirtualSlotId.of(FUTURE_WORKING_HOURS_SLOT));
+        UUID rowId = UUID.randomUUID();
+        when(slotRepository.findIdByStartAt(startAt)).thenReturn(Optional.of(rowId));
+        when(slotRepository.transition(any(SlotSelection.class), any(SlotTransition.class)))
+                .thenReturn(new SlotTransitionOutcome(List.of(), List.of(), List.of()));
+
+        slotService.bulkFree(new SlotBulkRequest(List.of(VirtualSlotId.of(startAt)), null, null, null, null, null));
+
+        ArgumentCaptor<SlotSelection> selection = ArgumentCaptor.forClass(SlotSelection.class);
+        verify(slotRepository).transition(selection.capture(), any(SlotTransition.class));
+        assertEquals(List.of(rowId), List.copyOf(selection.getValue().ids()));
+        verify(slotRepository, never()).insertFreeSlotsSkippingExisting(any());
+    }
+
+    @Test
+    void delete_shouldRejectVirtualSlot() {
+        UUID virtualId = VirtualSlotId.of(FUTURE_WORKING_HOURS_SLOT);
+        when(slotRepository.findIdByStartAt(any())).thenReturn(Optional.empty());
+        when(virtualSlots.offers(VirtualSlotId.startAt(virtualId))).thenReturn(true);
+
+        assertThrows(InvalidStateException.class, () -> slotService.delete(virtualId));
+        verify(slotRepository, never()).delete(any(Slot.class));
+    }
 }
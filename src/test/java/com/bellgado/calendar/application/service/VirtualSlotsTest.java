@@ -0,0 +1,108 @@
+package com.bellgado.calendar.application.service;
+
+import com.bellgado.calendar.api.dto.SlotResponse;
+import com.bellgado.calendar.api.dto.WeeklyRule;
+import com.bellgado.calendar.domain.entity.AvailabilityTemplate;
+import com.bellgado.calendar.domain.enums.DayOfWeek;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.AvailabilityTemplateRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VirtualSlotsTest {
+
+    private static final ZoneId SOFIA = ZoneId.of("Europe/Sofia");
+    /** A Monday. */
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private AvailabilityTemplateRepository templateRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private VirtualSlots virtualSlots;
+
+    @BeforeEach
+    void setUp() {
+        virtualSlots = new VirtualSlots(templateRepository, objectMapper);
+    }
+
+    private AvailabilityTemplate template(LocalDate from, LocalDate to, WeeklyRule... rules) throws Exception {
+        AvailabilityTemplate template = new AvailabilityTemplate(from, to, "Europe/Sofia",
+                objectMapper.writeValueAsString(List.of(rules)));
+        template.setId(UUID.randomUUID());
+        return template;
+    }
+
+    private static OffsetDateTime at(LocalDate day, int hour) {
+        return ZonedDateTime.of(day, LocalTime.of(hour, 0), SOFIA).toOffsetDateTime();
+    }
+
+    @Test
+    void between_shouldExpandRulesIntoFreeHourlySlotsWithinRange() throws Exception {
+        when(templateRepository.findOverlapping(any(), any())).thenReturn(List.of(
+                template(MONDAY, null, new WeeklyRule(DayOfWeek.MONDAY, "09:00", "12:00"))));
+
+        List<SlotResponse> slots = virtualSlots.between(at(MONDAY, 10), at(MONDAY, 18));
+
+        assertEquals(List.of(at(MONDAY, 10).toInstant(), at(MONDAY, 11).toInstant()),
+                slots.stream().map(slot -> slot.startAt().toInstant()).toList());
+        SlotResponse first = slots.get(0);
+        assertEquals(SlotStatus.FREE, first.status());
+        assertEquals(ZoneOffset.UTC, first.startAt().getOffset());
+        assertEquals(first.startAt().plusHours(1), first.endAt());
+        assertEquals(VirtualSlotId.of(first.startAt()), first.id());
+    }
+
+    @Test
+    void between_shouldStopAtTemplateEndAndMergeOverlappingTemplates() throws Exception {
+        when(templateRepository.findOverlapping(any(), any())).thenReturn(List.of(
+                template(MONDAY, MONDAY, new WeeklyRule(DayOfWeek.MONDAY, "09:00", "11:00")),
+                template(MONDAY, null, new WeeklyRule(DayOfWeek.MONDAY, "10:00", "11:00"))));
+
+        List<SlotResponse> slots = virtualSlots.between(at(MONDAY, 0), at(MONDAY.plusWeeks(1), 23));
+
+        assertEquals(List.of(at(MONDAY, 9).toInstant(), at(MONDAY, 10).toInstant(),
+                        at(MONDAY.plusWeeks(1), 10).toInstant()),
+                slots.stream().map(slot -> slot.startAt().toInstant()).toList());
+    }
+
+    @Test
+    void at_shouldOnlyMatchOfferedStartTimes() throws Exception {
+        when(templateRepository.findOverlapping(any(), any())).thenReturn(List.of(
+                template(MONDAY, null, new WeeklyRule(DayOfWeek.MONDAY, "09:00", "10:00"))));
+
+        assertTrue(virtualSlots.offers(at(MONDAY, 9)));
+        assertFalse(virtualSlots.offers(at(MONDAY, 9).plusMinutes(30)));
+        assertFalse(virtualSlots.offers(at(MONDAY, 10)));
+    }
+
+    @Test
+    void virtualSlotId_shouldRoundTripStartTimeAndNeverMatchRandomIds() {
+        OffsetDateTime startAt = at(MONDAY, 9);
+        UUID id = VirtualSlotId.of(startAt);
+
+        assertTrue(VirtualSlotId.isVirtual(id));
+        assertEquals(startAt.toInstant(), VirtualSlotId.startAt(id).toInstant());
+        assertFalse(VirtualSlotId.isVirtual(UUID.randomUUID()));
+        assertThrows(IllegalArgumentException.class, () -> VirtualSlotId.startAt(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,168 @@
+package com.bellgado.calendar.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The slot event migrations from V9 on, run over events written before them: the database is migrated to
+ * V8, seeded with live events and a month of events already moved to the archive schema, then migrated to
+ * the latest version.
+ */
+@Testcontainers
+class SlotEventMigrationIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final UUID JSON_EVENT = UUID.randomUUID();
+    private static final UUID NESTED_JSON_EVENT = UUID.randomUUID();
+    private static final UUID TEXT_EVENT = UUID.randomUUID();
+    private static final UUID EMPTY_EVENT = UUID.randomUUID();
+    private static final UUID NULL_EVENT = UUID.randomUUID();
+    private static final UUID ARCHIVED_JSON_EVENT = UUID.randomUUID();
+    private static final UUID ARCHIVED_TEXT_EVENT = UUID.randomUUID();
+
+    /** Archived before V9, so its meta column is still TEXT when V9 runs. */
+    private static final LocalDate ARCHIVED_MONTH = LocalDate.now(ZoneOffset.UTC).minusYears(2).withDayOfMonth(1);
+
+    private static final String JSON_META = "{\"blockId\":\"4b1f0c1e-8d8a-4a55-9a52-0c0f3c1d2e3f\",\"reason\":\"Vacation\"}";
+    private static final String NESTED_JSON_META =
+            "{\"cancelledBy\":\"STUDENT\",\"count\":3,\"late\":true,\"tags\":[\"a\",\"b\"],\"origin\":{\"slotId\":null}}";
+    private static final String TEXT_META = "{blockId=4b1f0c1e-8d8a-4a55-9a52-0c0f3c1d2e3f}";
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateOverSeededEvents() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .target("8")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+
+        OffsetDateTime at = OffsetDateTime.now(ZoneOffset.UTC).minusDays(1);
+        insertEvent(JSON_EVENT, "BLOCKED", at, JSON_META);
+        insertEvent(NESTED_JSON_EVENT, "CANCELLED", at.plusSeconds(1), NESTED_JSON_META);
+        insertEvent(TEXT_EVENT, "BLOCKED", at.plusSeconds(2), TEXT_META);
+        insertEvent(EMPTY_EVENT, "FREED", at.plusSeconds(3), "");
+        insertEvent(NULL_EVENT, "BOOKED", at.plusSeconds(4), null);
+
+        OffsetDateTime archivedAt = ARCHIVED_MONTH.plusDays(5).atTime(8, 0).atOffset(ZoneOffset.UTC);
+        insertEvent(ARCHIVED_JSON_EVENT, "BLOCKED", archivedAt, JSON_META);
+        insertEvent(ARCHIVED_TEXT_EVENT, "UNBLOCKED", archivedAt.plusHours(1), TEXT_META);
+        jdbcTemplate.queryForObject("SELECT ensure_monthly_partition('slot_events', 'at', ?)", Boolean.class,
+                ARCHIVED_MONTH);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT archive_monthly_partitions('slot_events', ?)",
+                Integer.class, ARCHIVED_MONTH.plusMonths(1)));
+
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void metaShouldBecomeTheSameJsonDocument() {
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT meta = ?::jsonb FROM slot_events WHERE id = ?", Boolean.class, JSON_META, JSON_EVENT));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT meta = ?::jsonb FROM slot_events WHERE id = ?", Boolean.class, NESTED_JSON_META, NESTED_JSON_EVENT));
+        assertEquals("jsonb", jdbcTemplate.queryForObject(
+                "SELECT pg_typeof(meta)::text FROM slot_events WHERE id = ?", String.class, JSON_EVENT));
+    }
+
+    @Test
+    void metaThatIsNotJsonShouldBeKeptVerbatimUnderRaw() {
+        assertEquals(TEXT_META, jdbcTemplate.queryForObject(
+                "SELECT meta->>'raw' FROM slot_events WHERE id = ?", String.class, TEXT_EVENT));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM jsonb_object_keys((SELECT meta FROM slot_events WHERE id = ?))",
+                Integer.class, TEXT_EVENT));
+    }
+
+    @Test
+    void emptyAndMissingMetaShouldBecomeNull() {
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_events WHERE id IN (?, ?) AND meta IS NULL",
+                Integer.class, EMPTY_EVENT, NULL_EVENT));
+    }
+
+    @Test
+    void metaFiltersShouldMatchMigratedEvents() {
+        List<UUID> vacation = jdbcTemplate.queryForList(
+                "SELECT id FROM slot_events WHERE meta @> '{\"reason\":\"Vacation\"}'", UUID.class);
+        List<UUID> byStudent = jdbcTemplate.queryForList(
+                "SELECT id FROM slot_events WHERE meta @> '{\"cancelledBy\":\"STUDENT\"}'", UUID.class);
+
+        assertEquals(List.of(JSON_EVENT), vacation);
+        assertEquals(List.of(NESTED_JSON_EVENT), byStudent);
+    }
+
+    @Test
+    void existingEventsShouldBeNumberedInTheOrderTheyWereRecorded() {
+        List<UUID> bySeq = jdbcTemplate.queryForList(
+                "SELECT id FROM slot_events WHERE id IN (?, ?, ?, ?, ?) ORDER BY seq", UUID.class,
+                JSON_EVENT, NESTED_JSON_EVENT, TEXT_EVENT, EMPTY_EVENT, NULL_EVENT);
+
+        assertEquals(List.of(JSON_EVENT, NESTED_JSON_EVENT, TEXT_EVENT, EMPTY_EVENT, NULL_EVENT), bySeq);
+    }
+
+    @Test
+    void archivedEventsShouldBeReadableThroughTheViewWithConvertedMeta() {
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT meta = ?::jsonb FROM slot_events_with_archive WHERE id = ?", Boolean.class,
+                JSON_META, ARCHIVED_JSON_EVENT));
+        assertEquals(TEXT_META, jdbcTemplate.queryForObject(
+                "SELECT meta->>'raw' FROM slot_events_with_archive WHERE id = ?", String.class, ARCHIVED_TEXT_EVENT));
+        assertEquals("UNBLOCKED", jdbcTemplate.queryForObject(
+                "SELECT type FROM slot_events_with_archive WHERE id = ?", String.class, ARCHIVED_TEXT_EVENT));
+        // Archived before V10 numbered the events
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT seq FROM slot_events_with_archive WHERE id = ?", Long.class, ARCHIVED_JSON_EVENT));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_events WHERE id IN (?, ?)", Integer.class,
+                ARCHIVED_JSON_EVENT, ARCHIVED_TEXT_EVENT));
+    }
+
+    @Test
+    void archivedPartitionShouldBeAttachedToTheArchiveTable() {
+        String partition = "archive.slot_events_y%04dm%02d".formatted(ARCHIVED_MONTH.getYear(), ARCHIVED_MONTH.getMonthValue());
+
+        assertEquals("archive.slot_events", jdbcTemplate.queryForObject(
+                "SELECT inhparent::regclass::text FROM pg_inherits WHERE inhrelid = ?::regclass", String.class, partition));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM archive.slot_events WHERE at >= ? AND at < ?", Integer.class,
+                ARCHIVED_MONTH.atStartOfDay().atOffset(ZoneOffset.UTC),
+                ARCHIVED_MONTH.plusMonths(1).atStartOfDay().atOffset(ZoneOffset.UTC)));
+    }
+
+    @Test
+    void metaFiltersShouldMatchLiveAndArchivedEventsThroughTheView() {
+        List<UUID> vacation = jdbcTemplate.queryForList(
+                "SELECT id FROM slot_events_with_archive WHERE meta @> '{\"reason\":\"Vacation\"}' ORDER BY at",
+                UUID.class);
+
+        assertEquals(List.of(ARCHIVED_JSON_EVENT, JSON_EVENT), vacation);
+    }
+
+    private static void insertEvent(UUID id, String type, OffsetDateTime at, String meta) {
+        jdbcTemplate.update("INSERT INTO slot_events (id, slot_id, type, at, meta) VALUES (?, ?, ?, ?, ?)",
+                id, UUID.randomUUID(), type, at, meta);
+    }
+}
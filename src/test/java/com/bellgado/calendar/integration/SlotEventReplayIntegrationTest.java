@@ -0,0 +1,110 @@
+package com.bellgado.calendar.integration;
+
+import com.bellgado.calendar.application.service.SlotEventService;
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replay after a sequence number against Postgres, with transactions that commit out of sequence order.
+ */
+@SpringBootTest
+@Testcontainers
+class SlotEventReplayIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SlotEventService slotEventService;
+
+    @Test
+    void findAfterSeq_shouldReturnLowerNumberedEventThatCommittedLater() throws Exception {
+        long early;
+        long late;
+        try (Connection slow = dataSource.getConnection(); Connection fast = dataSource.getConnection()) {
+            slow.setAutoCommit(false);
+            fast.setAutoCommit(false);
+            early = insertEvent(slow);
+            late = insertEvent(fast);
+            fast.commit();
+            // A client can receive 'late' now and reconnect after 'early' commits
+            slow.commit();
+        }
+        assertTrue(early < late);
+
+        List<Long> replayed = seqs(slotEventService.findAfterSeq(late, 100));
+
+        assertTrue(replayed.contains(early), "missed " + early + " after " + late + ": " + replayed);
+        assertFalse(replayed.contains(late));
+    }
+
+    @Test
+    void findAfterSeq_shouldReturnHigherNumberedEvents() throws Exception {
+        long first;
+        long second;
+        try (Connection connection = dataSource.getConnection()) {
+            first = insertEvent(connection);
+            second = insertEvent(connection);
+        }
+
+        List<Long> replayed = seqs(slotEventService.findAfterSeq(first, 100));
+
+        assertTrue(replayed.contains(second));
+        assertFalse(replayed.contains(first));
+    }
+
+    @Test
+    void findAfterSeq_shouldNotReReadEventsCommittedBeforeTheLastOneStarted() throws Exception {
+        long before;
+        long last;
+        try (Connection connection = dataSource.getConnection()) {
+            before = insertEvent(connection);
+            last = insertEvent(connection);
+        }
+
+        assertFalse(seqs(slotEventService.findAfterSeq(last, 100)).contains(before));
+    }
+
+    private static long insertEvent(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO slot_events (id, slot_id, type, at) VALUES (?, ?, 'CREATED', now()) RETURNING seq")) {
+            statement.setObject(1, UUID.randomUUID());
+            statement.setObject(2, UUID.randomUUID());
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static List<Long> seqs(List<SlotEvent> events) {
+        return events.stream().map(SlotEvent::getSeq).toList();
+    }
+}
@@ -0,0 +1,186 @@
+package com.bellgado.calendar.integration;
+
+import com.bellgado.calendar.domain.entity.SlotEvent;
+import com.bellgado.calendar.domain.enums.EventType;
+import com.bellgado.calendar.infrastructure.repository.PartitionRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written statements of {@link SlotEventRepository} against Postgres: the multi-row insert and
+ * the range read across live and archived events.
+ */
+@SpringBootTest
+@Testcontainers
+class SlotEventRepositoryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SlotEventRepository slotEventRepository;
+
+    @Autowired
+    private PartitionRepository partitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertAll_shouldWriteEveryColumnOfEveryEventAndSetIdsAndSeqs() {
+        UUID firstSlot = UUID.randomUUID();
+        UUID secondSlot = UUID.randomUUID();
+        UUID oldStudent = UUID.randomUUID();
+        UUID newStudent = UUID.randomUUID();
+        OffsetDateTime at = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MILLIS);
+
+        SlotEvent replaced = new SlotEvent(firstSlot, EventType.REPLACED);
+        replaced.setAt(at);
+        replaced.setOldStudentId(oldStudent);
+        replaced.setNewStudentId(newStudent);
+        replaced.setMeta("{\"reason\":\"swap\"}");
+        SlotEvent generated = new SlotEvent(secondSlot, EventType.GENERATED);
+
+        slotEventRepository.insertAll(List.of(replaced, generated));
+
+        assertNotNull(replaced.getId());
+        assertNotNull(generated.getId());
+        assertNotNull(generated.getAt());
+        assertTrue(replaced.getSeq() < generated.getSeq());
+
+        Map<String, Object> first = jdbcTemplate.queryForMap("""
+                SELECT slot_id, type, at, old_student_id, new_student_id, meta->>'reason' AS reason, seq
+                FROM slot_events WHERE id = ?
+                """, replaced.getId());
+        assertEquals(firstSlot, first.get("slot_id"));
+        assertEquals("REPLACED", first.get("type"));
+        assertEquals(at.toInstant(), ((java.sql.Timestamp) first.get("at")).toInstant());
+        assertEquals(oldStudent, first.get("old_student_id"));
+        assertEquals(newStudent, first.get("new_student_id"));
+        assertEquals("swap", first.get("reason"));
+        assertEquals(replaced.getSeq(), first.get("seq"));
+
+        Map<String, Object> second = jdbcTemplate.queryForMap(
+                "SELECT slot_id, type, old_student_id, new_student_id, meta FROM slot_events WHERE id = ?",
+                generated.getId());
+        assertEquals(secondSlot, second.get("slot_id"));
+        assertEquals("GENERATED", second.get("type"));
+        assertNull(second.get("old_student_id"));
+        assertNull(second.get("new_student_id"));
+        assertNull(second.get("meta"));
+    }
+
+    @Test
+    void insertAll_shouldDoNothingForNoEvents() {
+        Long before = slotEventRepository.findMaxSeq();
+
+        slotEventRepository.insertAll(List.of());
+
+        assertEquals(before, slotEventRepository.findMaxSeq());
+    }
+
+    @Test
+    void findInRangeIncludingArchive_shouldReadLiveAndArchivedEventsTogether() {
+        UUID blockId = UUID.randomUUID();
+        String blockMeta = "{\"blockId\":\"" + blockId + "\"}";
+        LocalDate archivedMonth = LocalDate.now(ZoneOffset.UTC).minusYears(2).withDayOfMonth(1);
+        OffsetDateTime archivedAt = archivedMonth.plusDays(3).atStartOfDay().atOffset(ZoneOffset.UTC);
+        // Well before the events the other tests write at the current time
+        OffsetDateTime liveAt = OffsetDateTime.now(ZoneOffset.UTC).minusDays(20);
+
+        SlotEvent archivedBlocked = event(EventType.BLOCKED, archivedAt, blockMeta);
+        SlotEvent archivedBooked = event(EventType.BOOKED, archivedAt.plusHours(1), null);
+        SlotEvent liveBlocked = event(EventType.BLOCKED, liveAt, blockMeta);
+        SlotEvent liveOtherBlock = event(EventType.BLOCKED, liveAt.plusSeconds(1),
+                "{\"blockId\":\"" + UUID.randomUUID() + "\"}");
+        slotEventRepository.insertAll(List.of(archivedBlocked, archivedBooked, liveBlocked, liveOtherBlock));
+
+        assertTrue(partitionRepository.ensureMonthlyPartition(PartitionRepository.SLOT_EVENTS, archivedMonth));
+        assertEquals(1, partitionRepository.archiveMonthlyPartitions(PartitionRepository.SLOT_EVENTS,
+                archivedMonth.plusMonths(1)));
+        assertEquals(1, partitionRepository.attachArchivedPartitions(PartitionRepository.SLOT_EVENTS));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_events WHERE id = ?", Integer.class, archivedBlocked.getId()));
+        // The partition keeps its meta index, now part of the archive's
+        assertEquals(1, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_index i
+                JOIN pg_inherits h ON h.inhrelid = i.indexrelid
+                WHERE i.indrelid = ?::regclass
+                  AND h.inhparent = 'archive.idx_archive_slot_events_meta'::regclass
+                """, Integer.class, "archive.slot_events_y%04dm%02d".formatted(
+                archivedMonth.getYear(), archivedMonth.getMonthValue())));
+
+        OffsetDateTime from = archivedMonth.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = liveAt.plusMinutes(1);
+        Sort byAt = Sort.by("at");
+
+        Page<SlotEvent> all = slotEventRepository.findInRangeIncludingArchive(from, to, null, null,
+                PageRequest.of(0, 10, byAt));
+        assertEquals(List.of(archivedBlocked.getId(), archivedBooked.getId(), liveBlocked.getId(), liveOtherBlock.getId()),
+                all.getContent().stream().map(SlotEvent::getId).toList());
+        SlotEvent archived = all.getContent().get(0);
+        assertEquals(archivedBlocked.getSlotId(), archived.getSlotId());
+        assertEquals(EventType.BLOCKED, archived.getType());
+        assertEquals(archivedBlocked.getSeq(), archived.getSeq());
+        assertEquals(archivedAt.toInstant(), archived.getAt().toInstant());
+        assertTrue(archived.getMeta().contains(blockId.toString()));
+
+        Page<SlotEvent> ofBlock = slotEventRepository.findInRangeIncludingArchive(from, to, Set.of(EventType.BLOCKED),
+                blockMeta, PageRequest.of(0, 10, byAt));
+        assertEquals(List.of(archivedBlocked.getId(), liveBlocked.getId()),
+                ofBlock.getContent().stream().map(SlotEvent::getId).toList());
+
+        Page<SlotEvent> secondPage = slotEventRepository.findInRangeIncludingArchive(from, to,
+                Set.of(EventType.BLOCKED, EventType.BOOKED), null, PageRequest.of(1, 3, byAt.descending()));
+        assertEquals(4, secondPage.getTotalElements());
+        assertEquals(List.of(archivedBlocked.getId()), secondPage.getContent().stream().map(SlotEvent::getId).toList());
+
+        Page<SlotEvent> byMetaThenAt = slotEventRepository.findInRangeIncludingArchive(from, to,
+                Set.of(EventType.BLOCKED), null, PageRequest.of(0, 10, Sort.by("meta", "at")));
+        assertEquals(3, byMetaThenAt.getTotalElements());
+    }
+
+    @Test
+    void findInRangeIncludingArchive_shouldRejectUnknownSortProperty() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+        assertThrows(IllegalArgumentException.class, () -> slotEventRepository.findInRangeIncludingArchive(
+                now.minusDays(1), now, null, null, PageRequest.of(0, 10, Sort.by("student"))));
+    }
+
+    private static SlotEvent event(EventType type, OffsetDateTime at, String meta) {
+        SlotEvent event = new SlotEvent(UUID.randomUUID(), type);
+        event.setAt(at);
+        event.setMeta(meta);
+        return event;
+    }
+}
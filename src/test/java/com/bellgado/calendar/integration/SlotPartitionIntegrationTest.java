@@ -0,0 +1,203 @@
+package com.bellgado.calendar.integration;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.PartitionRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotQueryRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotSelection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The monthly partitions of V7 and the slot id lookup of V14 and V15 against Postgres.
+ */
+@SpringBootTest
+@Testcontainers
+class SlotPartitionIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SlotRepository slotRepository;
+
+    @Autowired
+    private SlotQueryRepository slotQueryRepository;
+
+    @Autowired
+    private PartitionRepository partitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ensureMonthlyPartition_shouldMoveSlotsOutOfTheDefaultPartitionAndKeepThemFindable() {
+        // Beyond the partitions created ahead at startup
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).plusYears(4).withDayOfMonth(1);
+        Slot slot = slotRepository.save(new Slot(month.plusDays(9).atTime(10, 0).atOffset(ZoneOffset.UTC)));
+        assertEquals("slots_default", partitionOf(slot.getId()));
+
+        assertTrue(partitionRepository.ensureMonthlyPartition(PartitionRepository.SLOTS, month));
+        assertFalse(partitionRepository.ensureMonthlyPartition(PartitionRepository.SLOTS, month));
+
+        assertEquals(partitionName("slots", month), partitionOf(slot.getId()));
+        assertEquals(slot.getStartAt().toInstant(), locatedStartAt(slot.getId()).toInstant());
+        assertTrue(slotRepository.findById(slot.getId()).isPresent());
+        assertTrue(slotRepository.findByIdWithStudent(slot.getId()).isPresent());
+    }
+
+    @Test
+    void ensureMonthlyPartition_shouldMoveEventsOutOfTheDefaultPartitionUnchanged() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).plusYears(1).withDayOfMonth(1);
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO slot_events (id, slot_id, type, at, meta) VALUES (?, ?, 'CREATED', ?, '{\"a\":1}')",
+                id, UUID.randomUUID(), month.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC));
+        Long seq = jdbcTemplate.queryForObject("SELECT seq FROM slot_events WHERE id = ?", Long.class, id);
+
+        assertTrue(partitionRepository.ensureMonthlyPartition(PartitionRepository.SLOT_EVENTS, month));
+
+        assertEquals(partitionName("slot_events", month), jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM slot_events WHERE id = ?", String.class, id));
+        assertEquals(seq, jdbcTemplate.queryForObject("SELECT seq FROM slot_events WHERE id = ?", Long.class, id));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT (meta->>'a')::int FROM slot_events WHERE id = ?", Integer.class, id));
+    }
+
+    @Test
+    void findById_shouldReadOnlyThePartitionOfTheSlot() {
+        Slot slot = slotRepository.save(new Slot(OffsetDateTime.now(ZoneOffset.UTC).plusMonths(5).withMinute(0)
+                .withSecond(0).withNano(0)));
+
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) "
+                        + "SELECT * FROM slots WHERE id = ? AND start_at = (SELECT start_at FROM slot_locator WHERE id = ?)",
+                String.class, slot.getId(), slot.getId());
+
+        List<String> partitionScans = plan.stream().filter(line -> line.contains(" on slots_")).toList();
+        List<String> executed = partitionScans.stream().filter(line -> !line.contains("never executed")).toList();
+        assertTrue(partitionScans.size() > 1, String.join("\n", plan));
+        assertEquals(1, executed.size(), String.join("\n", plan));
+        assertTrue(executed.get(0).contains(partitionName("slots", slot.getStartAt().toLocalDate())),
+                String.join("\n", plan));
+    }
+
+    @Test
+    void slotLocator_shouldFollowInsertsAndDeletes() {
+        Slot slot = slotRepository.save(new Slot(OffsetDateTime.now(ZoneOffset.UTC).plusMonths(7).withMinute(0)
+                .withSecond(0).withNano(0)));
+        assertNotNull(locatedStartAt(slot.getId()));
+
+        slotRepository.deleteById(slot.getId());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_locator WHERE id = ?", Integer.class, slot.getId()));
+    }
+
+    @Test
+    void findAllById_shouldReadOnlyThePartitionsBetweenTheSlots() {
+        OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC).plusMonths(9).withDayOfMonth(10).withMinute(0).withSecond(0).withNano(0);
+        List<UUID> ids = slotRepository.insertFreeSlotsSkippingExisting(List.of(start, start.plusHours(1))).stream()
+                .map(Slot::getId).toList();
+        String idArray = uuidArray(ids);
+
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) SELECT * FROM slots WHERE id = ANY(?::uuid[]) "
+                        + "AND start_at BETWEEN (SELECT min(start_at) FROM slot_locator WHERE id = ANY(?::uuid[])) "
+                        + "AND (SELECT max(start_at) FROM slot_locator WHERE id = ANY(?::uuid[]))",
+                String.class, idArray, idArray, idArray);
+
+        List<String> executed = plan.stream()
+                .filter(line -> line.contains(" on slots_") && !line.contains("never executed")).toList();
+        assertEquals(1, executed.size(), String.join("\n", plan));
+        assertEquals(2, slotQueryRepository.findAllById(ids).size());
+    }
+
+    @Test
+    void slotLocator_shouldFollowBulkInsertsAndDeletes() {
+        OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC).plusMonths(11).withDayOfMonth(10).withMinute(0).withSecond(0).withNano(0);
+        List<UUID> ids = slotRepository.insertFreeSlotsSkippingExisting(
+                List.of(start, start.plusHours(1), start.plusHours(2))).stream().map(Slot::getId).toList();
+        assertEquals(3, locatedCount(ids));
+
+        slotRepository.delete(SlotSelection.byIds(ids), EnumSet.of(SlotStatus.FREE));
+
+        assertEquals(0, locatedCount(ids));
+    }
+
+    @Test
+    void startAt_shouldNotChangeOnceTheSlotExists() {
+        Slot slot = slotRepository.save(new Slot(OffsetDateTime.now(ZoneOffset.UTC).plusMonths(13).withMinute(0)
+                .withSecond(0).withNano(0)));
+
+        assertThrows(DataAccessException.class, () -> jdbcTemplate.update(
+                "UPDATE slots SET start_at = start_at + INTERVAL '1 hour' WHERE id = ?", slot.getId()));
+        assertEquals(slot.getStartAt().toInstant(), locatedStartAt(slot.getId()).toInstant());
+    }
+
+    @Test
+    void archiveMonthlyPartitions_shouldMoveOldSlotsIntoTheArchiveSchema() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).minusYears(3).withDayOfMonth(1);
+        Slot slot = slotRepository.insertFreeSlotsSkippingExisting(
+                List.of(month.plusDays(2).atTime(9, 0).atOffset(ZoneOffset.UTC))).get(0);
+        assertTrue(partitionRepository.ensureMonthlyPartition(PartitionRepository.SLOTS, month));
+
+        assertEquals(1, partitionRepository.archiveMonthlyPartitions(PartitionRepository.SLOTS, month.plusMonths(1)));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM archive." + partitionName("slots", month) + " WHERE id = ?",
+                Integer.class, slot.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slots WHERE id = ?", Integer.class, slot.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_locator WHERE id = ?", Integer.class, slot.getId()));
+        assertTrue(slotRepository.findById(slot.getId()).isEmpty());
+        assertEquals(0, partitionRepository.archiveMonthlyPartitions(PartitionRepository.SLOTS, month.plusMonths(1)));
+    }
+
+    private String partitionOf(UUID slotId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM slots WHERE id = ?", String.class, slotId);
+    }
+
+    private int locatedCount(List<UUID> slotIds) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM slot_locator WHERE id = ANY(?::uuid[])", Integer.class,
+                uuidArray(slotIds));
+    }
+
+    private static String uuidArray(List<UUID> ids) {
+        return ids.stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private OffsetDateTime locatedStartAt(UUID slotId) {
+        return jdbcTemplate.queryForObject("SELECT start_at FROM slot_locator WHERE id = ?", OffsetDateTime.class, slotId);
+    }
+
+    private static String partitionName(String table, LocalDate month) {
+        return "%s_y%04dm%02d".formatted(table, month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,548 @@
+package com.bellgado.calendar.integration;
+
+import com.bellgado.calendar.domain.entity.Slot;
+import com.bellgado.calendar.domain.entity.Student;
+import com.bellgado.calendar.domain.enums.EventType;
+import com.bellgado.calendar.domain.enums.SlotStatus;
+import com.bellgado.calendar.infrastructure.repository.SlotBookingOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotRepository;
+import com.bellgado.calendar.infrastructure.repository.SlotRescheduleOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotSelection;
+import com.bellgado.calendar.infrastructure.repository.SlotSeriesBookingOutcome;
+import com.bellgado.calendar.infrastructure.repository.SlotTransition;
+import com.bellgado.calendar.infrastructure.repository.SlotTransitionOutcome;
+import com.bellgado.calendar.infrastructure.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written statements of {@link SlotRepository} against Postgres. Every statement binds its
+ * parameters by position, so each test uses distinct values for parameters of the same type and checks
+ * that every one of them ends up where it belongs.
+ */
+@SpringBootTest
+@Testcontainers
+class SlotRepositoryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    /** Start times are handed out hour by hour, so that no two tests share one. */
+    private static final OffsetDateTime BASE =
+            OffsetDateTime.now(ZoneOffset.UTC).plusDays(30).truncatedTo(ChronoUnit.DAYS);
+    private static final AtomicInteger HOURS = new AtomicInteger();
+
+    @Autowired
+    private SlotRepository slotRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // -------------------------------------------------------------------------
+    // insertFreeSlotsSkippingExisting
+    // -------------------------------------------------------------------------
+
+    @Test
+    void insertFreeSlotsSkippingExisting_shouldSkipStartTimesThatAlreadyHaveASlot() {
+        OffsetDateTime existing = slot(SlotStatus.BOOKED).getStartAt();
+        OffsetDateTime fresh = nextHour();
+
+        List<Slot> inserted = slotRepository.insertFreeSlotsSkippingExisting(List.of(existing, fresh));
+
+        assertEquals(1, inserted.size());
+        Slot slot = inserted.get(0);
+        assertEquals(fresh.toInstant(), slot.getStartAt().toInstant());
+        assertEquals(fresh.plusMinutes(60).toInstant(), slot.getEndAt().toInstant());
+        assertEquals(SlotStatus.FREE, slot.getStatus());
+        assertEquals(0, slot.getVersion());
+        assertEquals("BOOKED", statusOf(existing));
+    }
+
+    @Test
+    void insertFreeSlotsSkippingExisting_shouldInsertDuplicateStartTimesOnce() {
+        OffsetDateTime startAt = nextHour();
+
+        List<Slot> inserted = slotRepository.insertFreeSlotsSkippingExisting(List.of(startAt, startAt));
+
+        assertEquals(1, inserted.size());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slots WHERE start_at = ?", Integer.class, startAt));
+    }
+
+    // -------------------------------------------------------------------------
+    // bookIfFree
+    // -------------------------------------------------------------------------
+
+    @Test
+    void bookIfFree_shouldBookAndBumpVersionAndRecordEventAndCloseWaitlist() {
+        Slot slot = slot(SlotStatus.FREE);
+        Student student = student("Booked Student");
+        Student other = student("Other Student");
+        jdbcTemplate.update("INSERT INTO waitlist_items (student_id) VALUES (?)", student.getId());
+        jdbcTemplate.update("INSERT INTO waitlist_items (student_id) VALUES (?)", other.getId());
+
+        SlotBookingOutcome outcome = slotRepository.bookIfFree(slot.getId(), student.getId(), "First lesson");
+
+        assertTrue(outcome.booked());
+        assertEquals(slot.getId(), outcome.slot().getId());
+        assertEquals(SlotStatus.BOOKED, outcome.slot().getStatus());
+        assertEquals(student.getId(), outcome.slot().getStudent().getId());
+        assertEquals("Booked Student", outcome.slot().getStudent().getFullName());
+        assertEquals("First lesson", outcome.slot().getNotes());
+        assertEquals(slot.getVersion() + 1, outcome.slot().getVersion());
+        assertEquals(1, outcome.waitlistEntriesRemoved());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT status, student_id, notes, version FROM slots WHERE id = ?", slot.getId());
+        assertEquals("BOOKED", row.get("status"));
+        assertEquals(student.getId(), row.get("student_id"));
+        assertEquals(slot.getVersion() + 1, row.get("version"));
+
+        Map<String, Object> event = jdbcTemplate.queryForMap(
+                "SELECT slot_id, type, new_student_id, seq FROM slot_events WHERE id = ?", outcome.event().getId());
+        assertEquals(slot.getId(), event.get("slot_id"));
+        assertEquals("BOOKED", event.get("type"));
+        assertEquals(student.getId(), event.get("new_student_id"));
+        assertEquals(outcome.event().getSeq(), event.get("seq"));
+
+        assertEquals(Boolean.FALSE, jdbcTemplate.queryForObject(
+                "SELECT active FROM waitlist_items WHERE student_id = ?", Boolean.class, student.getId()));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject(
+                "SELECT active FROM waitlist_items WHERE student_id = ?", Boolean.class, other.getId()));
+    }
+
+    @Test
+    void bookIfFree_shouldKeepNotesWhenNoneAreGiven() {
+        Slot slot = slot(SlotStatus.FREE);
+        jdbcTemplate.update("UPDATE slots SET notes = 'Bring the logbook' WHERE id = ?", slot.getId());
+
+        SlotBookingOutcome outcome = slotRepository.bookIfFree(slot.getId(), student("Notes Student").getId(), null);
+
+        assertEquals("Bring the logbook", outcome.slot().getNotes());
+    }
+
+    @Test
+    void bookIfFree_shouldDescribeRefusalWithoutChangingAnything() {
+        Slot booked = slot(SlotStatus.BOOKED);
+        Student student = student("Refused Student");
+
+        SlotBookingOutcome taken = slotRepository.bookIfFree(booked.getId(), student.getId(), "ignored");
+        SlotBookingOutcome missingStudent = slotRepository.bookIfFree(slot(SlotStatus.FREE).getId(), UUID.randomUUID(), null);
+        SlotBookingOutcome missingSlot = slotRepository.bookIfFree(UUID.randomUUID(), student.getId(), null);
+
+        assertFalse(taken.booked());
+        assertEquals(SlotStatus.BOOKED, taken.currentStatus());
+        assertEquals(booked.getStartAt().toInstant(), taken.currentStartAt().toInstant());
+        assertTrue(taken.studentExists());
+        assertEquals(booked.getVersion(), versionOf(booked.getId()));
+
+        assertFalse(missingStudent.booked());
+        assertEquals(SlotStatus.FREE, missingStudent.currentStatus());
+        assertFalse(missingStudent.studentExists());
+
+        assertFalse(missingSlot.booked());
+        assertNull(missingSlot.currentStatus());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_events WHERE slot_id = ?", Integer.class, booked.getId()));
+    }
+
+    @Test
+    void bookIfFree_shouldRefuseSlotInThePast() {
+        OffsetDateTime past = OffsetDateTime.now(ZoneOffset.UTC).minusDays(2).truncatedTo(ChronoUnit.HOURS)
+                .minusHours(HOURS.incrementAndGet());
+        Slot slot = slotRepository.insertFreeSlotsSkippingExisting(List.of(past)).get(0);
+
+        SlotBookingOutcome outcome = slotRepository.bookIfFree(slot.getId(), student("Late Student").getId(), null);
+
+        assertFalse(outcome.booked());
+        assertEquals(SlotStatus.FREE, outcome.currentStatus());
+    }
+
+    @Test
+    void bookIfFree_shouldLetExactlyOneOfConcurrentBookingsWin() throws Exception {
+        Slot slot = slot(SlotStatus.FREE);
+        int contenders = 8;
+        List<UUID> students = new java.util.ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            students.add(student("Contender " + i).getId());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        try {
+            List<Future<SlotBookingOutcome>> results = new java.util.ArrayList<>();
+            for (UUID studentId : students) {
+                Callable<SlotBookingOutcome> booking = () -> {
+                    start.await();
+                    return slotRepository.bookIfFree(slot.getId(), studentId, null);
+                };
+                results.add(executor.submit(booking));
+            }
+            start.countDown();
+
+            int booked = 0;
+            UUID winner = null;
+            for (Future<SlotBookingOutcome> result : results) {
+                SlotBookingOutcome outcome = result.get(30, TimeUnit.SECONDS);
+                if (outcome.booked()) {
+                    booked++;
+                    winner = outcome.slot().getStudent().getId();
+                }
+            }
+            assertEquals(1, booked);
+            assertEquals(winner, jdbcTemplate.queryForObject(
+                    "SELECT student_id FROM slots WHERE id = ?", UUID.class, slot.getId()));
+            assertEquals(slot.getVersion() + 1, versionOf(slot.getId()));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM slot_events WHERE slot_id = ? AND type = 'BOOKED'", Integer.class, slot.getId()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // bookSeriesIfFree
+    // -------------------------------------------------------------------------
+
+    @Test
+    void bookSeriesIfFree_shouldBookFreeSlotsAndReportTheRest() {
+        Slot free = slot(SlotStatus.FREE);
+        Slot blocked = slot(SlotStatus.BLOCKED);
+        OffsetDateTime missing = nextHour();
+        Student student = student("Series Student");
+        jdbcTemplate.update("INSERT INTO waitlist_items (student_id) VALUES (?)", student.getId());
+
+        SlotSeriesBookingOutcome outcome = slotRepository.bookSeriesIfFree(
+                List.of(free.getStartAt(), blocked.getStartAt(), missing, free.getStartAt()), student.getId(), "Series");
+
+        assertEquals(1, outcome.booked().size());
+        Slot booked = outcome.booked().get(0);
+        assertEquals(free.getId(), booked.getId());
+        assertEquals(SlotStatus.BOOKED, booked.getStatus());
+        assertEquals("Series", booked.getNotes());
+        assertEquals(free.getVersion() + 1, booked.getVersion());
+        assertEquals(student.getId(), jdbcTemplate.queryForObject(
+                "SELECT student_id FROM slots WHERE id = ?", UUID.class, free.getId()));
+
+        assertEquals(1, outcome.events().size());
+        assertEquals(student.getId(), jdbcTemplate.queryForObject(
+                "SELECT new_student_id FROM slot_events WHERE id = ?", UUID.class, outcome.events().get(0).getId()));
+
+        assertEquals(2, outcome.refused().size());
+        SlotSeriesBookingOutcome.Refused refusedBlocked = outcome.refused().get(0);
+        assertEquals(blocked.getId(), refusedBlocked.slotId());
+        assertEquals(SlotStatus.BLOCKED, refusedBlocked.currentStatus());
+        SlotSeriesBookingOutcome.Refused refusedMissing = outcome.refused().get(1);
+        assertEquals(missing.toInstant(), refusedMissing.startAt().toInstant());
+        assertNull(refusedMissing.slotId());
+        assertNull(refusedMissing.currentStatus());
+
+        assertEquals(1, outcome.waitlistEntriesRemoved());
+        assertEquals(blocked.getVersion(), versionOf(blocked.getId()));
+    }
+
+    // -------------------------------------------------------------------------
+    // transition / delete
+    // -------------------------------------------------------------------------
+
+    @Test
+    void transition_shouldChangeEligibleSlotsAndSkipTheOthers() {
+        Student student = student("Cancelled Student");
+        Slot booked = slot(SlotStatus.FREE);
+        slotRepository.bookIfFree(booked.getId(), student.getId(), null);
+        Slot free = slot(SlotStatus.FREE);
+        UUID missing = UUID.randomUUID();
+
+        SlotTransitionOutcome outcome = slotRepository.transition(
+                SlotSelection.byIds(List.of(booked.getId(), free.getId(), missing)),
+                new SlotTransition(EnumSet.of(SlotStatus.BOOKED), SlotStatus.CANCELLED, false, false, "Sick",
+                        EventType.CANCELLED, true, false, "{\"cancelledBy\":\"TEACHER\"}"));
+
+        assertEquals(1, outcome.changed().size());
+        Slot cancelled = outcome.changed().get(0);
+        assertEquals(booked.getId(), cancelled.getId());
+        assertEquals(SlotStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(student.getId(), cancelled.getStudent().getId());
+        assertEquals("Sick", cancelled.getNotes());
+        assertEquals(booked.getVersion() + 2, cancelled.getVersion());
+
+        Map<String, Object> event = jdbcTemplate.queryForMap(
+                "SELECT type, old_student_id, meta->>'cancelledBy' AS cancelled_by FROM slot_events WHERE id = ?",
+                outcome.events().get(0).getId());
+        assertEquals("CANCELLED", event.get("type"));
+        assertEquals(student.getId(), event.get("old_student_id"));
+        assertEquals("TEACHER", event.get("cancelled_by"));
+
+        assertEquals(1, outcome.skipped().size());
+        assertEquals(free.getId(), outcome.skipped().get(0).slotId());
+        assertEquals(SlotStatus.FREE, outcome.skipped().get(0).currentStatus());
+        assertEquals(free.getVersion(), versionOf(free.getId()));
+    }
+
+    @Test
+    void transition_shouldRecordPreviousBlockIdWhenUnblocking() {
+        UUID blockId = UUID.randomUUID();
+        OffsetDateTime from = nextHour();
+        OffsetDateTime to = nextHour().plusHours(1);
+        slotRepository.blockRange(blockId, from, to);
+
+        SlotTransitionOutcome outcome = slotRepository.transition(SlotSelection.byBlockId(blockId),
+                new SlotTransition(EnumSet.of(SlotStatus.BLOCKED), SlotStatus.FREE, false, true, null,
+                        EventType.UNBLOCKED, false, true, null));
+
+        assertEquals(2, outcome.changed().size());
+        outcome.changed().forEach(slot -> {
+            assertEquals(SlotStatus.FREE, slot.getStatus());
+            assertNull(slot.getBlockId());
+        });
+        assertEquals(blockId.toString(), jdbcTemplate.queryForObject(
+                "SELECT meta->>'blockId' FROM slot_events WHERE id = ?", String.class, outcome.events().get(0).getId()));
+    }
+
+    @Test
+    void delete_shouldDeleteEligibleSlotsInRangeAndRecordTheirEvents() {
+        OffsetDateTime from = nextHour();
+        Slot free = slotAt(from, SlotStatus.FREE);
+        Slot booked = slotAt(nextHour(), SlotStatus.BOOKED);
+        OffsetDateTime to = nextHour();
+
+        SlotTransitionOutcome outcome = slotRepository.delete(SlotSelection.inRange(from, to),
+                EnumSet.complementOf(EnumSet.of(SlotStatus.BOOKED)));
+
+        assertEquals(List.of(free.getId()), outcome.changed().stream().map(Slot::getId).toList());
+        assertEquals(List.of(booked.getId()), outcome.skipped().stream().map(SlotTransitionOutcome.Skipped::slotId).toList());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM slots WHERE id = ?", Integer.class, free.getId()));
+        assertEquals("BOOKED", statusOf(booked.getStartAt()));
+        assertEquals("DELETED", jdbcTemplate.queryForObject(
+                "SELECT type FROM slot_events WHERE id = ?", String.class, outcome.events().get(0).getId()));
+    }
+
+    // -------------------------------------------------------------------------
+    // blockRange
+    // -------------------------------------------------------------------------
+
+    @Test
+    void blockRange_shouldCreateMissingHoursAndBlockExistingOnesExceptBooked() {
+        UUID blockId = UUID.randomUUID();
+        OffsetDateTime from = nextHour();
+        Slot free = slotAt(from, SlotStatus.FREE);
+        OffsetDateTime missing = nextHour();
+        Slot booked = slotAt(nextHour(), SlotStatus.BOOKED);
+        Slot offGrid = slotAt(nextHour().plusMinutes(30), SlotStatus.FREE);
+        OffsetDateTime to = nextHour();
+        Slot outside = slotAt(to, SlotStatus.FREE);
+
+        SlotTransitionOutcome outcome = slotRepository.blockRange(blockId, from, to);
+
+        assertEquals(List.of(from.toInstant(), missing.toInstant(), offGrid.getStartAt().toInstant()),
+                outcome.changed().stream().map(slot -> slot.getStartAt().toInstant()).toList());
+        outcome.changed().forEach(slot -> {
+            assertEquals(SlotStatus.BLOCKED, slot.getStatus());
+            assertEquals(blockId, slot.getBlockId());
+        });
+        assertEquals(free.getId(), outcome.changed().get(0).getId());
+        assertEquals(free.getVersion() + 1, outcome.changed().get(0).getVersion());
+        assertEquals(0, outcome.changed().get(1).getVersion());
+        assertEquals(offGrid.getVersion() + 1, outcome.changed().get(2).getVersion());
+
+        assertEquals(3, outcome.events().size());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_events WHERE type = 'BLOCKED' AND meta->>'blockId' = ?",
+                Integer.class, blockId.toString()));
+
+        assertEquals("BOOKED", statusOf(booked.getStartAt()));
+        assertEquals(booked.getVersion(), versionOf(booked.getId()));
+        assertEquals("FREE", statusOf(outside.getStartAt()));
+    }
+
+    @Test
+    void blockRange_shouldMoveSlotsOfAnotherBlockToTheNewOne() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        OffsetDateTime from = nextHour();
+        OffsetDateTime to = nextHour();
+        slotRepository.blockRange(first, from, to);
+
+        SlotTransitionOutcome outcome = slotRepository.blockRange(second, from, to);
+
+        assertEquals(1, outcome.changed().size());
+        assertEquals(second, outcome.changed().get(0).getBlockId());
+        assertEquals(1, outcome.changed().get(0).getVersion());
+        assertEquals(second, jdbcTemplate.queryForObject(
+                "SELECT block_id FROM slots WHERE start_at = ?", UUID.class, from));
+    }
+
+    // -------------------------------------------------------------------------
+    // rescheduleIfBookable
+    // -------------------------------------------------------------------------
+
+    @Test
+    void rescheduleIfBookable_shouldMoveBookingAndRecordBothEvents() {
+        Student student = student("Moving Student");
+        Slot origin = slot(SlotStatus.FREE);
+        slotRepository.bookIfFree(origin.getId(), student.getId(), "Chapter 3");
+        Slot target = slot(SlotStatus.FREE);
+
+        SlotRescheduleOutcome outcome = slotRepository.rescheduleIfBookable(origin.getId(), target.getId(),
+                "{\"targetSlotId\":\"" + target.getId() + "\"}", "{\"originSlotId\":\"" + origin.getId() + "\"}");
+
+        assertTrue(outcome.moved());
+        assertEquals(origin.getId(), outcome.origin().getId());
+        assertEquals(SlotStatus.FREE, outcome.origin().getStatus());
+        assertNull(outcome.origin().getStudent());
+        assertNull(outcome.origin().getNotes());
+        assertEquals(origin.getVersion() + 2, outcome.origin().getVersion());
+
+        assertEquals(target.getId(), outcome.target().getId());
+        assertEquals(SlotStatus.BOOKED, outcome.target().getStatus());
+        assertEquals(student.getId(), outcome.target().getStudent().getId());
+        assertEquals("Moving Student", outcome.target().getStudent().getFullName());
+        assertEquals("Chapter 3", outcome.target().getNotes());
+        assertEquals(target.getVersion() + 1, outcome.target().getVersion());
+
+        Map<String, Object> originEvent = jdbcTemplate.queryForMap(
+                "SELECT slot_id, type, old_student_id, new_student_id, meta->>'targetSlotId' AS other FROM slot_events WHERE id = ?",
+                outcome.originEvent().getId());
+        assertEquals(origin.getId(), originEvent.get("slot_id"));
+        assertEquals("RESCHEDULED", originEvent.get("type"));
+        assertEquals(student.getId(), originEvent.get("old_student_id"));
+        assertNull(originEvent.get("new_student_id"));
+        assertEquals(target.getId().toString(), originEvent.get("other"));
+
+        Map<String, Object> targetEvent = jdbcTemplate.queryForMap(
+                "SELECT slot_id, old_student_id, new_student_id, meta->>'originSlotId' AS other FROM slot_events WHERE id = ?",
+                outcome.targetEvent().getId());
+        assertEquals(target.getId(), targetEvent.get("slot_id"));
+        assertNull(targetEvent.get("old_student_id"));
+        assertEquals(student.getId(), targetEvent.get("new_student_id"));
+        assertEquals(origin.getId().toString(), targetEvent.get("other"));
+    }
+
+    @Test
+    void rescheduleIfBookable_shouldDescribeBothSlotsWhenRefused() {
+        Slot origin = slot(SlotStatus.FREE);
+        slotRepository.bookIfFree(origin.getId(), student("Stuck Student").getId(), null);
+        Slot target = slot(SlotStatus.BLOCKED);
+
+        SlotRescheduleOutcome taken = slotRepository.rescheduleIfBookable(origin.getId(), target.getId(), null, null);
+        SlotRescheduleOutcome missing = slotRepository.rescheduleIfBookable(origin.getId(), UUID.randomUUID(), null, null);
+
+        assertFalse(taken.moved());
+        assertEquals(SlotStatus.BOOKED, taken.originStatus());
+        assertEquals(SlotStatus.BLOCKED, taken.targetStatus());
+        assertEquals(target.getStartAt().toInstant(), taken.targetStartAt().toInstant());
+        assertEquals(origin.getVersion() + 1, versionOf(origin.getId()));
+        assertEquals(target.getVersion(), versionOf(target.getId()));
+
+        assertFalse(missing.moved());
+        assertEquals(SlotStatus.BOOKED, missing.originStatus());
+        assertNull(missing.targetStatus());
+        assertNull(missing.targetStartAt());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM slot_events WHERE type = 'RESCHEDULED' AND slot_id IN (?, ?)",
+                Integer.class, origin.getId(), target.getId()));
+    }
+
+    @Test
+    void rescheduleIfBookable_shouldLetOneOfConcurrentMovesToTheSameTargetWin() throws Exception {
+        Slot target = slot(SlotStatus.FREE);
+        int contenders = 6;
+        List<UUID> origins = new java.util.ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            Slot origin = slot(SlotStatus.FREE);
+            slotRepository.bookIfFree(origin.getId(), student("Mover " + i).getId(), null);
+            origins.add(origin.getId());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        try {
+            List<Future<SlotRescheduleOutcome>> results = new java.util.ArrayList<>();
+            for (UUID originId : origins) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return slotRepository.rescheduleIfBookable(originId, target.getId(), null, null);
+                }));
+            }
+            start.countDown();
+
+            int moved = 0;
+            for (Future<SlotRescheduleOutcome> result : results) {
+                if (result.get(30, TimeUnit.SECONDS).moved()) {
+                    moved++;
+                }
+            }
+            assertEquals(1, moved);
+            assertEquals(target.getVersion() + 1, versionOf(target.getId()));
+            assertEquals(contenders - 1, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM slots WHERE id = ANY(?::uuid[]) AND status = 'BOOKED'", Integer.class,
+                    (Object) origins.stream().map(UUID::toString).toArray(String[]::new)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static OffsetDateTime nextHour() {
+        return BASE.plusHours(HOURS.incrementAndGet());
+    }
+
+    private Slot slot(SlotStatus status) {
+        return slotAt(nextHour(), status);
+    }
+
+    private Slot slotAt(OffsetDateTime startAt, SlotStatus status) {
+        Slot slot = new Slot(startAt);
+        slot.setStatus(status);
+        return slotRepository.save(slot);
+    }
+
+    private Student student(String fullName) {
+        return studentRepository.save(new Student(fullName, null, null, null));
+    }
+
+    private String statusOf(OffsetDateTime startAt) {
+        return jdbcTemplate.queryForObject("SELECT status FROM slots WHERE start_at = ?", String.class, startAt);
+    }
+
+    private int versionOf(UUID slotId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM slots WHERE id = ?", Integer.class, slotId);
+    }
+}